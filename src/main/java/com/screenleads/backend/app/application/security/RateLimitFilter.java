@@ -0,0 +1,187 @@
+package com.screenleads.backend.app.application.security;
+
+import com.screenleads.backend.app.infraestructure.config.RateLimitProperties;
+import com.screenleads.backend.app.infraestructure.config.RateLimitProperties.KeyPart;
+import com.screenleads.backend.app.infraestructure.config.RateLimitProperties.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita por token bucket los endpoints públicos de leads y cupones. Se
+ * registra delante de la cadena de Spring Security
+ * ({@code RateLimitConfig}), así que una petición rechazada no llega a
+ * buscar su API key ni a tocar la BD.
+ * <p>
+ * Cada respuesta de un endpoint limitado lleva RateLimit-Limit,
+ * RateLimit-Remaining, RateLimit-Reset y RateLimit-Policy; un 429 añade
+ * Retry-After. Como el 429 no pasa por el CorsFilter de la cadena, aplica
+ * aquí la misma configuración CORS para que el navegador pueda leerlo.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String NONE = "-";
+
+    private record Rule(Policy policy, HttpMethod method, PathPattern pattern, long periodNanos, String header,
+            Counter allowed, Counter limited) {
+    }
+
+    private final RateLimitProperties properties;
+    private final TokenBucketRateLimiter limiter;
+    private final List<Rule> rules;
+    private final CorsConfigurationSource corsSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock,
+            CorsConfigurationSource corsSource) {
+        this.properties = properties;
+        this.corsSource = corsSource;
+        this.limiter = new TokenBucketRateLimiter(properties.getStripes(), properties.getMaxBucketsPerStripe(),
+                nanoClock);
+        PathPatternParser parser = new PathPatternParser();
+        this.rules = properties.getPolicies().stream().map(p -> {
+            if (p.getCapacity() <= 0 || p.getPeriod() == null || p.getPeriod().isZero() || p.getPeriod().isNegative())
+                throw new IllegalArgumentException("Política de rate limit inválida: " + p.getName());
+            HttpMethod method = p.getMethod() == null || p.getMethod().isBlank() ? null
+                    : HttpMethod.valueOf(p.getMethod().trim().toUpperCase());
+            return new Rule(p, method, parser.parse(p.getPath()), p.getPeriod().toNanos(),
+                    p.getCapacity() + ";w=" + Math.max(1, p.getPeriod().toSeconds()),
+                    meterRegistry.counter("ratelimit.requests", "policy", p.getName(), "result", "allowed"),
+                    meterRegistry.counter("ratelimit.requests", "policy", p.getName(), "result", "limited"));
+        }).toList();
+        meterRegistry.gauge("ratelimit.buckets", limiter, TokenBucketRateLimiter::size);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer container = PathContainer.parsePath(path);
+        for (Rule rule : rules) {
+            if (rule.method() != null && !rule.method().matches(request.getMethod()))
+                continue;
+            PathPattern.PathMatchInfo match = rule.pattern().matchAndExtract(container);
+            if (match == null)
+                continue;
+
+            TokenBucketRateLimiter.Decision decision = limiter.tryAcquire(
+                    key(rule.policy(), request, match.getUriVariables()), rule.policy().getCapacity(),
+                    rule.periodNanos());
+            response.setHeader("RateLimit-Limit", Long.toString(decision.limit()));
+            response.setHeader("RateLimit-Remaining", Long.toString(decision.remaining()));
+            response.setHeader("RateLimit-Reset", Long.toString(decision.resetSeconds()));
+            response.setHeader("RateLimit-Policy", rule.header());
+            if (decision.allowed()) {
+                rule.allowed().increment();
+                chain.doFilter(request, response);
+            } else {
+                rule.limited().increment();
+                log.debug("⛔ Rate limit {} superado: {} {}", rule.policy().getName(), request.getMethod(), path);
+                reject(request, response, decision.retryAfterSeconds());
+            }
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /** Quita los buckets que ya se han rellenado por completo. */
+    @Scheduled(fixedDelayString = "${rate-limit.cleanup-interval:PT1M}", initialDelayString = "${rate-limit.cleanup-interval:PT1M}")
+    public void evictIdle() {
+        int removed = limiter.evictIdle();
+        if (removed > 0)
+            log.debug("🧹 Rate limit: {} buckets inactivos eliminados", removed);
+    }
+
+    String key(Policy policy, HttpServletRequest request, Map<String, String> variables) {
+        StringBuilder key = new StringBuilder(policy.getName());
+        for (KeyPart part : policy.getKeys()) {
+            key.append('|');
+            key.append(switch (part) {
+                case API_KEY -> hash(request.getHeader("X-API-KEY"));
+                case DEVICE -> orNone(variables.getOrDefault("uuid", request.getParameter("device")));
+                case IP -> clientIp(request);
+                case PROMOTION -> orNone(variables.getOrDefault("id", request.getParameter("promotionId")));
+            });
+        }
+        return key.toString();
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                // El proxy de confianza añade la IP que ve al final; las anteriores las pone el cliente
+                String last = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+                if (!last.isEmpty())
+                    return last;
+            }
+        }
+        return orNone(request.getRemoteAddr());
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds)
+            throws IOException {
+        applyCors(request, response);
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(Math.max(1, retryAfterSeconds)));
+        response.setContentType("application/json;charset=UTF-8");
+        String body = String.format(
+                "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded, retry in %d s\",\"path\":\"%s\"}",
+                Math.max(1, retryAfterSeconds), request.getRequestURI());
+        response.getWriter().write(body);
+    }
+
+    /** Cabeceras CORS de un origen permitido; con otro origen no se añade nada. */
+    private void applyCors(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (corsSource == null || !CorsUtils.isCorsRequest(request))
+            return;
+        CorsConfiguration config = corsSource.getCorsConfiguration(request);
+        if (config != null && config.checkOrigin(request.getHeader(HttpHeaders.ORIGIN)) != null)
+            corsProcessor.processRequest(config, request, response);
+    }
+
+    private static String hash(String value) {
+        if (value == null || value.isBlank())
+            return NONE;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String orNone(String value) {
+        return value == null || value.isBlank() ? NONE : value;
+    }
+}
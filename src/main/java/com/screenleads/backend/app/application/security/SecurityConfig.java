@@ -145,7 +145,12 @@ public class SecurityConfig {
                 config.setExposedHeaders(List.of(
                                 "Authorization",
                                 "X-Timezone",
-                                "X-Timezone-Offset"));
+                                "X-Timezone-Offset",
+                                "RateLimit-Limit",
+                                "RateLimit-Remaining",
+                                "RateLimit-Reset",
+                                "RateLimit-Policy",
+                                "Retry-After"));
 
                 config.setAllowCredentials(true);
                 config.setMaxAge(3600L);
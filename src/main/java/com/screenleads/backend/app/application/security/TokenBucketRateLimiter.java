@@ -0,0 +1,124 @@
+package com.screenleads.backend.app.application.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket en memoria con el algoritmo GCRA: el estado de cada clave es un
+ * único {@code long} (instante teórico de la próxima llegada, TAT), así que
+ * no hace falta un hilo que reponga fichas.
+ * <p>
+ * Con una capacidad de {@code n} peticiones por {@code period}, cada petición
+ * adelanta el TAT en {@code period / n}; se rechaza si eso lo deja más de
+ * {@code period} por delante de ahora. Equivale a un bucket de {@code n}
+ * fichas que se rellena entero en {@code period}.
+ * <p>
+ * Las claves se reparten en particiones, cada una con su lock y un mapa LRU
+ * acotado. Un bucket cuyo TAT ya ha pasado está lleno: quitarlo no cambia
+ * nada, y es lo que hace {@link #evictIdle()}.
+ */
+public class TokenBucketRateLimiter {
+
+    /** Resultado de una petición con los datos para las cabeceras RateLimit-*. */
+    public record Decision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter(int stripes, int maxBucketsPerStripe, LongSupplier nanoClock) {
+        int n = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++)
+            this.stripes[i] = new Stripe(Math.max(1, maxBucketsPerStripe));
+        this.mask = n - 1;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Consume una ficha del bucket de {@code key}.
+     *
+     * @param capacity    peticiones de ráfaga
+     * @param periodNanos tiempo en que se repone la capacidad entera
+     */
+    public Decision tryAcquire(String key, long capacity, long periodNanos) {
+        long interval = Math.max(1, periodNanos / Math.max(1, capacity));
+        long now = nanoClock.getAsLong();
+        Stripe stripe = stripeFor(key);
+        long tat;
+        boolean allowed;
+        synchronized (stripe) {
+            long[] state = stripe.buckets.get(key);
+            long current = state != null && state[0] - now > 0 ? state[0] : now;
+            long next = current + interval;
+            allowed = next - now <= periodNanos;
+            if (allowed) {
+                if (state == null)
+                    stripe.buckets.put(key, new long[] { next });
+                else
+                    state[0] = next;
+                tat = next;
+            } else {
+                tat = current;
+            }
+        }
+        long ahead = tat - now;
+        long remaining = Math.max(0, (periodNanos - ahead) / interval);
+        long retryAfter = allowed ? 0 : ceilSeconds(ahead + interval - periodNanos);
+        return new Decision(allowed, capacity, remaining, ceilSeconds(ahead), retryAfter);
+    }
+
+    /** Quita los buckets ya llenos. @return buckets eliminados */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Iterator<long[]> it = stripe.buckets.values().iterator(); it.hasNext();) {
+                    if (it.next()[0] - now <= 0) {
+                        it.remove();
+                        removed++;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return nanos <= 0 ? 0 : (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+
+    private static final class Stripe {
+        final LinkedHashMap<String, long[]> buckets;
+
+        Stripe(int maxBuckets) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                    return size() > maxBuckets;
+                }
+            };
+        }
+    }
+}
@@ -12,6 +12,12 @@ public interface AdviceService {
     /** Devuelve los advices visibles "ahora" en la zoneId indicada (si null, systemDefault). */
     List<AdviceDTO> getVisibleAdvicesNow(ZoneId zoneId);
 
+    /**
+     * Igual que {@link #getVisibleAdvicesNow(ZoneId)}, pero el media de cada advice
+     * apunta a la rendition adecuada a la resolución del dispositivo (si existe).
+     */
+    List<AdviceDTO> getVisibleAdvicesNow(ZoneId zoneId, String deviceUuid);
+
     Optional<AdviceDTO> getAdviceById(Long id);
 
     AdviceDTO saveAdvice(AdviceDTO dto);
@@ -14,13 +14,16 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import com.screenleads.backend.app.application.service.util.RenditionSelector;
 import com.screenleads.backend.app.domain.model.*;
 import com.screenleads.backend.app.domain.repositories.AdviceRepository;
+import com.screenleads.backend.app.domain.repositories.DeviceRepository;
 import com.screenleads.backend.app.domain.repositories.MediaRepository;
 import com.screenleads.backend.app.domain.repositories.CompanyRepository;
 import com.screenleads.backend.app.domain.repositories.UserRepository;
 import com.screenleads.backend.app.domain.repositories.MediaTypeRepository;
 import com.screenleads.backend.app.web.dto.*;
+import com.screenleads.backend.app.web.mapper.AdviceMapper;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -34,6 +37,7 @@ public class AdviceServiceImpl implements AdviceService {
     private final UserRepository userRepository;
     private final MediaTypeRepository mediaTypeRepository;
     private final CompanyRepository companyRepository;
+    private final DeviceRepository deviceRepository;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -42,12 +46,14 @@ public class AdviceServiceImpl implements AdviceService {
             MediaRepository mediaRepository,
             UserRepository userRepository,
             MediaTypeRepository mediaTypeRepository,
-            CompanyRepository companyRepository) {
+            CompanyRepository companyRepository,
+            DeviceRepository deviceRepository) {
         this.adviceRepository = adviceRepository;
         this.mediaRepository = mediaRepository;
         this.userRepository = userRepository;
         this.mediaTypeRepository = mediaTypeRepository;
         this.companyRepository = companyRepository;
+        this.deviceRepository = deviceRepository;
     }
 
     // ======================= LECTURAS =======================
@@ -65,8 +71,17 @@ public class AdviceServiceImpl implements AdviceService {
     @Override
     @Transactional
     public List<AdviceDTO> getVisibleAdvicesNow(ZoneId zoneId) {
+        return getVisibleAdvicesNow(zoneId, null);
+    }
+
+    @Override
+    @Transactional
+    public List<AdviceDTO> getVisibleAdvicesNow(ZoneId zoneId, String deviceUuid) {
         enableCompanyFilterIfNeeded();
 
+        Device device = (deviceUuid == null || deviceUuid.isBlank()) ? null
+                : deviceRepository.findOptionalByUuid(deviceUuid.trim()).orElse(null);
+
         ZoneId zone = (zoneId != null) ? zoneId : ZoneId.systemDefault();
         ZonedDateTime nowZ = ZonedDateTime.now(zone);
         LocalDate date = nowZ.toLocalDate();
@@ -76,7 +91,7 @@ public class AdviceServiceImpl implements AdviceService {
         return adviceRepository.findAll().stream()
                 .filter(a -> a.getSchedules() != null && !a.getSchedules().isEmpty())
                 .filter(a -> isVisibleNow(a, date, weekday, time))
-                .map(this::convertToDTO)
+                .map(a -> convertToDTO(a, device))
                 .sorted(Comparator.comparing(AdviceDTO::getId, Comparator.nullsLast(Long::compareTo)))
                 .toList();
     }
@@ -272,10 +287,16 @@ public class AdviceServiceImpl implements AdviceService {
     }
 
     private AdviceDTO convertToDTO(Advice advice) {
-        MediaUpsertDTO mediaDto = buildMediaRef(advice.getMedia());
+        return convertToDTO(advice, null);
+    }
+
+    private AdviceDTO convertToDTO(Advice advice, Device device) {
+        MediaUpsertDTO mediaDto = (device != null)
+                ? buildMediaRef(advice.getMedia(), device)
+                : buildMediaRef(advice.getMedia());
         PromotionRefDTO promoDto = buildPromotionRef(advice.getPromotion());
         CompanyRefDTO companyDto = buildCompanyRef(advice.getCompany());
-        Number intervalValue = (advice.getInterval() == null) ? null : advice.getInterval().getSeconds();
+        Number intervalValue = (advice.getInterval() != null) ? advice.getInterval().getSeconds() : null;
         List<AdviceScheduleDTO> schedules = buildScheduleDTOs(advice.getSchedules());
 
         return AdviceDTO.builder()
@@ -283,6 +304,7 @@ public class AdviceServiceImpl implements AdviceService {
                 .description(advice.getDescription())
                 .customInterval(advice.getCustomInterval())
                 .interval(intervalValue)
+                .effectiveInterval(AdviceMapper.effectiveIntervalSeconds(advice))
                 .media(mediaDto)
                 .promotion(promoDto)
                 .company(companyDto)
@@ -294,6 +316,13 @@ public class AdviceServiceImpl implements AdviceService {
         return (media != null) ? new MediaUpsertDTO(media.getId(), media.getSrc()) : null;
     }
 
+    private MediaUpsertDTO buildMediaRef(Media media, Device device) {
+        return (media != null)
+                ? new MediaUpsertDTO(media.getId(),
+                        RenditionSelector.bestSrc(media, device.getWidth(), device.getHeight()))
+                : null;
+    }
+
     private PromotionRefDTO buildPromotionRef(Promotion promotion) {
         return (promotion != null) ? new PromotionRefDTO(promotion.getId()) : null;
     }
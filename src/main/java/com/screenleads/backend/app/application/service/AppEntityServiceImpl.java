@@ -12,6 +12,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.screenleads.backend.app.application.service.util.PartialUpdater;
 import com.screenleads.backend.app.domain.model.AppEntity;
 import com.screenleads.backend.app.domain.model.AppEntityAttribute;
 import com.screenleads.backend.app.domain.repositories.AppEntityRepository;
@@ -27,6 +28,9 @@ import lombok.RequiredArgsConstructor;
 public class AppEntityServiceImpl implements AppEntityService {
 
     private static final String APP_ENTITY_NOT_FOUND = "AppEntity no encontrada: ";
+    private static final PartialUpdater<AppEntityDTO, AppEntity> SETTINGS_PATCH = PartialUpdater
+            .of(AppEntityDTO.class, AppEntity.class)
+            .only("createLevel", "readLevel", "updateLevel", "deleteLevel", "visibleInMenu", "icon", "sortOrder");
 
     private final AppEntityRepository repo;
 
@@ -91,7 +95,7 @@ public class AppEntityServiceImpl implements AppEntityService {
 
         AppEntity e = findOrCreateEntity(dto);
         mergeMainMetadata(e, dto);
-        mergePermissionLevels(e, dto);
+        mergeSettings(e, dto);
         mergeDashboardMetadata(e, dto);
 
         // Atributos (merge no destructivo)
@@ -128,14 +132,11 @@ public class AppEntityServiceImpl implements AppEntityService {
         e.setTableName(nullIfBlank(dto.tableName(), e.getTableName()));
         e.setIdType(nullIfBlank(dto.idType(), e.getIdType()));
         e.setEndpointBase(nullIfBlank(dto.endpointBase(), e.getEndpointBase()));
-        e.setVisibleInMenu(dto.visibleInMenu() != null ? dto.visibleInMenu() : e.getVisibleInMenu());
     }
 
-    private void mergePermissionLevels(AppEntity e, AppEntityDTO dto) {
-        e.setCreateLevel(dto.createLevel() != null ? dto.createLevel() : e.getCreateLevel());
-        e.setReadLevel(dto.readLevel() != null ? dto.readLevel() : e.getReadLevel());
-        e.setUpdateLevel(dto.updateLevel() != null ? dto.updateLevel() : e.getUpdateLevel());
-        e.setDeleteLevel(dto.deleteLevel() != null ? dto.deleteLevel() : e.getDeleteLevel());
+    /** Niveles de permiso y ajustes de menú: solo pisan si el DTO trae valor. */
+    private void mergeSettings(AppEntity e, AppEntityDTO dto) {
+        SETTINGS_PATCH.merge(dto, e);
     }
 
     private void mergeDashboardMetadata(AppEntity e, AppEntityDTO dto) {
@@ -144,8 +145,6 @@ public class AppEntityServiceImpl implements AppEntityService {
         } else if (e.getDisplayLabel() == null && e.getEntityName() != null) {
             e.setDisplayLabel(e.getEntityName());
         }
-        e.setIcon(dto.icon() != null ? dto.icon() : e.getIcon());
-        e.setSortOrder(dto.sortOrder() != null ? dto.sortOrder() : e.getSortOrder());
     }
 
     @Override
@@ -1,6 +1,7 @@
 // ...eliminado método fuera de clase...
 package com.screenleads.backend.app.application.service;
 
+import com.screenleads.backend.app.application.service.util.PartialUpdater;
 import com.screenleads.backend.app.domain.model.User;
 import com.screenleads.backend.app.domain.model.CompanyToken;
 import com.screenleads.backend.app.web.dto.CompanyTokenDTO;
@@ -19,24 +20,17 @@ import java.util.Optional;
 
 @Service
 public class CompanyTokenService {
+    private static final PartialUpdater<CompanyTokenDTO, CompanyToken> TOKEN_PATCH = PartialUpdater
+            .of(CompanyTokenDTO.class, CompanyToken.class).ignoring("id", "createdAt");
+
     @Transactional
     public Optional<CompanyToken> updateToken(Long id, CompanyTokenDTO dto) {
         Optional<CompanyToken> optToken = companyTokenRepository.findById(id);
         if (optToken.isEmpty())
             return Optional.empty();
         CompanyToken token = optToken.get();
-        // Actualiza los campos permitidos
-        if (dto.getDescripcion() != null)
-            token.setDescripcion(dto.getDescripcion());
-        if (dto.getCompanyId() != null)
-            token.setCompanyId(dto.getCompanyId());
-        if (dto.getToken() != null)
-            token.setToken(dto.getToken());
-        if (dto.getRole() != null)
-            token.setRole(dto.getRole());
-        if (dto.getExpiresAt() != null)
-            token.setExpiresAt(dto.getExpiresAt());
-        // No se actualiza id ni createdAt
+        // Actualiza los campos informados; id y createdAt no se tocan
+        TOKEN_PATCH.merge(dto, token);
         companyTokenRepository.save(token);
         return Optional.of(token);
     }
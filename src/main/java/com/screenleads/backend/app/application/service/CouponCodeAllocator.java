@@ -0,0 +1,151 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.application.service.util.CouponCodeGenerator;
+import com.screenleads.backend.app.infraestructure.config.CouponCodeProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.function.Supplier;
+
+/**
+ * Códigos de cupón únicos sin consultar la BD: cada código es la imagen de un
+ * valor de secuencia por una permutación Feistel de 60 bits con clave, escrita
+ * con los 12 caracteres del alfabeto de {@link CouponCodeGenerator}.
+ * <p>
+ * La permutación es biyectiva, así que valores distintos dan códigos
+ * distintos, y sin la clave los códigos no son consecutivos ni predecibles.
+ * Todos los nodos deben compartir la clave ({@code coupons.codes.secret}):
+ * fuera de dev/test no se arranca sin ella.
+ * Cada nodo reserva {@value #BLOCK_SIZE} valores con un solo {@code nextval}.
+ * La restricción {@code uk_promotionlead_coupon_code} queda como red de
+ * seguridad frente a códigos aleatorios antiguos o un cambio de clave:
+ * {@link #insertWithRetry} repite el alta con otro código.
+ */
+@Slf4j
+@Service
+public class CouponCodeAllocator {
+
+    /**
+     * Creada por db/schema-sequences.sql al arrancar con ddl-auto=update; en pro
+     * (validate, sin herramienta de migraciones) hay que crearla a mano.
+     */
+    static final String SEQUENCE = "coupon_code_block_seq";
+    /** Valores por bloque; no cambiar sin renombrar la secuencia (los bloques se solaparían). */
+    static final long BLOCK_SIZE = 1_000;
+    static final int MAX_ATTEMPTS = 3;
+
+    /** Únicos perfiles que arrancan sin secreto, con una clave aleatoria por arranque. */
+    private static final Profiles RANDOM_KEY_PROFILES = Profiles.of("dev", "test");
+    private static final String COUPON_CODE_CONSTRAINT = "uk_promotionlead_coupon_code";
+    private static final int CODE_LENGTH = 12;
+    private static final int HALF_BITS = 30;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final long[] roundKeys;
+
+    private long next;
+    private long end;
+
+    public CouponCodeAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            CouponCodeProperties properties, Environment environment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        String secret = properties.getSecret();
+        // Con claves distintas por nodo dos valores de secuencia pueden dar el mismo código
+        if ((secret == null || secret.isBlank()) && !environment.acceptsProfiles(RANDOM_KEY_PROFILES))
+            throw new IllegalStateException(
+                    "coupons.codes.secret (COUPON_CODE_SECRET) es obligatorio fuera de los perfiles dev/test");
+        this.roundKeys = roundKeys(secret);
+    }
+
+    /**
+     * Siguiente código libre (reserva un bloque nuevo cuando se agota el actual).
+     * El {@code nextval} va en la conexión y transacción del llamante: nunca se
+     * deshace, así que no necesita transacción propia, y pedir una segunda
+     * conexión con el lock tomado podría agotar el pool en un pico de altas.
+     */
+    public synchronized String next() {
+        if (next >= end) {
+            Long block = jdbcTemplate.queryForObject("select nextval('" + SEQUENCE + "')", Long.class);
+            next = block * BLOCK_SIZE;
+            end = next + BLOCK_SIZE;
+        }
+        return CouponCodeGenerator.encode(permute(next++), CODE_LENGTH);
+    }
+
+    /**
+     * Ejecuta {@code insert} en su propia transacción y la repite si choca con
+     * un código de cupón existente; {@code insert} debe pedir el código a
+     * {@link #next()} en cada intento. Tiene que llamarse sin transacción
+     * activa: tras el error la de Postgres queda abortada.
+     */
+    public <T> T insertWithRetry(Supplier<T> insert) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return tx.execute(status -> insert.get());
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS || !isCouponCodeConflict(e))
+                    throw e;
+                log.warn("⚠️ Código de cupón repetido (intento {}/{}); se reintenta con otro", attempt, MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    /** ¿La violación viene de la restricción única coupon_code? */
+    public static boolean isCouponCodeConflict(DataIntegrityViolationException e) {
+        return LeadIdentifierFilter.violates(e, COUPON_CODE_CONSTRAINT);
+    }
+
+    /** Red Feistel balanceada sobre 60 bits: biyectiva para cualquier clave. */
+    long permute(long value) {
+        long left = (value >>> HALF_BITS) & HALF_MASK;
+        long right = value & HALF_MASK;
+        for (long key : roundKeys) {
+            long mixed = left ^ (mix(right ^ key) & HALF_MASK);
+            left = right;
+            right = mixed;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    /** Finalizador de SplitMix64. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] roundKeys(String secret) {
+        byte[] seed;
+        if (secret == null || secret.isBlank()) {
+            log.warn("⚠️ coupons.codes.secret vacío: clave aleatoria, los códigos cambian de serie en cada arranque");
+            seed = new byte[ROUNDS * Long.BYTES];
+            new SecureRandom().nextBytes(seed);
+        } else {
+            try {
+                seed = MessageDigest.getInstance("SHA-512").digest(secret.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(seed);
+        long[] keys = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++)
+            keys[i] = buffer.getLong();
+        return keys;
+    }
+}
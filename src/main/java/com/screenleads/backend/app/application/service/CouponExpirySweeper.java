@@ -0,0 +1,92 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository.ExpiredCoupon;
+import com.screenleads.backend.app.infraestructure.config.CouponExpiryProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Marca EXPIRED los cupones vencidos en lotes de {@code batchSize}, cada uno
+ * en su propia transacción corta: nunca hay un UPDATE largo bloqueando la
+ * tabla frente a los canjes. Los lotes se toman con SKIP LOCKED, así que
+ * varios nodos pueden barrer a la vez repartiéndose las filas.
+ * <p>
+ * Cada lote suma sus caducados a los contadores diarios en la misma
+ * transacción e invalida esos códigos en {@link CouponValidationCache}.
+ */
+@Slf4j
+@Service
+public class CouponExpirySweeper {
+
+    private final PromotionLeadRepository promotionLeadRepository;
+    private final LeadCounterService leadCounters;
+    private final CouponValidationCache validationCache;
+    private final CouponExpiryProperties properties;
+    private final TransactionTemplate tx;
+    private final DistributionSummary expiredPerRun;
+
+    public CouponExpirySweeper(PromotionLeadRepository promotionLeadRepository, LeadCounterService leadCounters,
+            CouponValidationCache validationCache, CouponExpiryProperties properties,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.promotionLeadRepository = promotionLeadRepository;
+        this.leadCounters = leadCounters;
+        this.validationCache = validationCache;
+        this.properties = properties;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.expiredPerRun = DistributionSummary.builder("coupons.expiry.expired")
+                .description("Cupones caducados por barrido")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${coupons.expiry.interval:PT5M}", initialDelayString = "${coupons.expiry.interval:PT5M}")
+    public void scheduledSweep() {
+        if (!properties.isEnabled())
+            return;
+        try {
+            sweep(Instant.now());
+        } catch (RuntimeException e) {
+            log.error("❌ Barrido de cupones caducados fallido: {}", e.getMessage(), e);
+        }
+    }
+
+    /** @return cupones caducados en este barrido */
+    public int sweep(Instant now) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            List<ExpiredCoupon> expired = tx.execute(status -> expireBatch(now, batchSize));
+            if (expired == null)
+                break;
+            // Ya confirmado: ninguna lectura posterior puede ver el estado anterior
+            expired.forEach(c -> validationCache.evict(c.getCouponCode()));
+            total += expired.size();
+            if (expired.size() < batchSize)
+                break;
+        }
+        expiredPerRun.record(total);
+        if (total > 0)
+            log.info("⏰ {} cupones caducados", total);
+        return total;
+    }
+
+    private List<ExpiredCoupon> expireBatch(Instant now, int batchSize) {
+        List<ExpiredCoupon> expired = promotionLeadRepository.expireDue(now, batchSize);
+        Map<Long, Long> perPromotion = expired.stream()
+                .collect(Collectors.groupingBy(ExpiredCoupon::getPromotionId, Collectors.counting()));
+        LocalDate day = leadCounters.dayOf(now);
+        perPromotion.forEach((promotionId, count) -> leadCounters.recordExpired(promotionId, day, count));
+        return expired;
+    }
+}
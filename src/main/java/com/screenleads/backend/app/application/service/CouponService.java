@@ -1,5 +1,6 @@
 package com.screenleads.backend.app.application.service;
 
+import com.screenleads.backend.app.domain.model.CouponState;
 import com.screenleads.backend.app.domain.model.PromotionLead;
 
 public interface CouponService {
@@ -7,8 +8,8 @@ public interface CouponService {
     // Emite un cupón (crea un lead histórico) para un customer dado
     PromotionLead issueCoupon(Long promotionId, Long customerId);
 
-    // Validación por código (verifica fechas/estado y devuelve el lead)
-    PromotionLead validate(String couponCode);
+    // Validación por código (verifica fechas/estado y devuelve su estado, cacheado)
+    CouponState validate(String couponCode);
 
     // Canje (marca REDEEMED si es válido), devuelve lead actualizado
     PromotionLead redeem(String couponCode);
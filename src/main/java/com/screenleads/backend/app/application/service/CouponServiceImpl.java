@@ -3,10 +3,11 @@ package com.screenleads.backend.app.application.service;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.screenleads.backend.app.application.service.util.CouponCodeGenerator;
 import com.screenleads.backend.app.domain.model.*;
 import com.screenleads.backend.app.domain.repositories.CustomerRepository;
 import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
@@ -22,13 +23,27 @@ public class CouponServiceImpl implements CouponService {
     private static final String COUPON_NOT_FOUND = "Coupon not found";
     private static final String PROMOTION_NOT_FOUND = "Promotion not found: ";
     private static final String CUSTOMER_NOT_FOUND = "Customer not found: ";
+    private static final String LEAD_ALREADY_EXISTS = "Lead already exists for identifier: ";
 
     private final PromotionRepository promotionRepository;
     private final PromotionLeadRepository promotionLeadRepository;
     private final CustomerRepository customerRepository;
-
+    private final LeadCounterService leadCounters;
+    private final LeadIdentifierFilter identifierFilter;
+    private final CouponCodeAllocator couponCodes;
+    private final CouponValidationCache validationCache;
+
+    /**
+     * Cada intento va en su propia transacción: si el código choca con uno
+     * existente (solo posible con códigos antiguos) se repite con otro.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PromotionLead issueCoupon(Long promotionId, Long customerId) {
+        return couponCodes.insertWithRetry(() -> issueOnce(promotionId, customerId));
+    }
+
+    private PromotionLead issueOnce(Long promotionId, Long customerId) {
         Promotion promotion = promotionRepository.findById(promotionId)
                 .orElseThrow(() -> new IllegalArgumentException(PROMOTION_NOT_FOUND + promotionId));
 
@@ -59,11 +74,12 @@ public class CouponServiceImpl implements CouponService {
             }
         }
 
-        // Generar código único
-        String code;
-        do {
-            code = CouponCodeGenerator.generate(12);
-        } while (promotionLeadRepository.findByCouponCode(code).isPresent());
+        // Un lead por identificador y promo: el filtro evita la consulta en el caso habitual (nuevo)
+        String identifier = customer.getIdentifier();
+        if (identifier != null && identifierFilter.mightContain(promotionId, identifier)
+                && promotionLeadRepository.existsByPromotionIdAndIdentifier(promotionId, identifier)) {
+            throw new IllegalStateException(LEAD_ALREADY_EXISTS + identifier);
+        }
 
         // Crear lead (histórico)
         PromotionLead lead = PromotionLead.builder()
@@ -71,80 +87,59 @@ public class CouponServiceImpl implements CouponService {
                 .customer(customer)
                 .identifierType(promotion.getLeadIdentifierType())
                 .identifier(customer.getIdentifier())
-                .couponCode(code)
+                .couponCode(couponCodes.next()) // único por construcción (clave común a los nodos): sin consulta previa
                 .couponStatus(CouponStatus.VALID) // lo dejamos ya VALID si la promo está activa
                 // opcional: establecer expiresAt = endAt de la promo
                 .expiresAt(promotion.getEndAt())
                 .build();
 
-        return promotionLeadRepository.save(lead);
+        PromotionLead saved;
+        try {
+            saved = promotionLeadRepository.saveAndFlush(lead);
+        } catch (DataIntegrityViolationException e) {
+            if (LeadIdentifierFilter.isIdentifierConflict(e))
+                throw new IllegalStateException(LEAD_ALREADY_EXISTS + identifier);
+            throw e;
+        }
+        identifierFilter.add(promotionId, identifier);
+        leadCounters.recordLead(promotionId, saved.getCreatedAt());
+        return saved;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PromotionLead validate(String couponCode) {
-        PromotionLead lead = promotionLeadRepository.findByCouponCode(couponCode)
+    public CouponState validate(String couponCode) {
+        CouponState state = validationCache.get(couponCode)
                 .orElseThrow(() -> new IllegalArgumentException(COUPON_NOT_FOUND));
 
-        Instant now = Instant.now();
-        Promotion p = lead.getPromotion();
-
-        if (lead.getCouponStatus() == CouponStatus.CANCELLED) {
-            throw new IllegalStateException("Coupon cancelled");
-        }
-        if (lead.getCouponStatus() == CouponStatus.REDEEMED) {
-            throw new IllegalStateException("Coupon already redeemed");
-        }
-        if (lead.getCouponStatus() == CouponStatus.EXPIRED) {
-            throw new IllegalStateException("Coupon expired");
-        }
-        if (lead.getExpiresAt() != null && now.isAfter(lead.getExpiresAt())) {
-            throw new IllegalStateException("Coupon expired");
-        }
-        if (p.getStartAt() != null && now.isBefore(p.getStartAt())) {
-            throw new IllegalStateException("Promotion not started yet");
-        }
-        if (p.getEndAt() != null && now.isAfter(p.getEndAt())) {
-            throw new IllegalStateException("Promotion already ended");
+        // Las fechas se comparan en cada consulta: la caché guarda instantes, no el veredicto
+        String reason = state.notRedeemableReason(Instant.now());
+        if (reason != null) {
+            throw new IllegalStateException(reason);
         }
-        return lead; // válido
+        return state; // válido
     }
 
+    /**
+     * Un único UPDATE ... RETURNING comprueba y canjea: dos terminales con el
+     * mismo código no pueden canjearlo ambos. El motivo del rechazo solo se
+     * busca cuando el UPDATE no encuentra la fila.
+     */
     @Override
     public PromotionLead redeem(String couponCode) {
-        PromotionLead lead = promotionLeadRepository.findByCouponCode(couponCode)
-                .orElseThrow(() -> new IllegalArgumentException(COUPON_NOT_FOUND));
-
-        // Validaciones reutilizando validate() (pero con escritura)
-        Promotion p = lead.getPromotion();
         Instant now = Instant.now();
-
-        if (lead.getCouponStatus() == CouponStatus.REDEEMED) {
-            throw new IllegalStateException("Coupon already redeemed");
-        }
-        if (lead.getCouponStatus() == CouponStatus.CANCELLED) {
-            throw new IllegalStateException("Coupon cancelled");
-        }
-        if (lead.getCouponStatus() == CouponStatus.EXPIRED) {
-            throw new IllegalStateException("Coupon expired");
-        }
-        if (lead.getExpiresAt() != null && now.isAfter(lead.getExpiresAt())) {
-            lead.setCouponStatus(CouponStatus.EXPIRED);
-            promotionLeadRepository.save(lead);
-            throw new IllegalStateException("Coupon expired");
-        }
-        if (p.getStartAt() != null && now.isBefore(p.getStartAt())) {
-            throw new IllegalStateException("Promotion not started yet");
-        }
-        if (p.getEndAt() != null && now.isAfter(p.getEndAt())) {
-            lead.setCouponStatus(CouponStatus.EXPIRED);
-            promotionLeadRepository.save(lead);
-            throw new IllegalStateException("Promotion already ended");
-        }
-
-        lead.setCouponStatus(CouponStatus.REDEEMED);
-        lead.setRedeemedAt(now);
-        return promotionLeadRepository.save(lead);
+        PromotionLead lead = promotionLeadRepository.redeemIfRedeemable(couponCode, now).orElse(null);
+        if (lead == null) {
+            PromotionLead current = promotionLeadRepository.findByCouponCode(couponCode)
+                    .orElseThrow(() -> new IllegalArgumentException(COUPON_NOT_FOUND));
+            String reason = CouponState.of(current).notRedeemableReason(now);
+            throw new IllegalStateException(reason != null ? reason : "Coupon cannot be redeemed");
+        }
+        validationCache.evict(couponCode);
+
+        // NEW y VALID no tienen contador: basta con sumar el canje
+        leadCounters.recordStatusChange(lead.getPromotion().getId(), CouponStatus.VALID, CouponStatus.REDEEMED, now);
+        return lead;
     }
 
     @Override
@@ -156,10 +151,14 @@ public class CouponServiceImpl implements CouponService {
             throw new IllegalStateException("Cannot expire a redeemed coupon");
         }
 
+        CouponStatus previous = lead.getCouponStatus();
+        Instant now = Instant.now();
         lead.setCouponStatus(CouponStatus.EXPIRED);
         if (lead.getExpiresAt() == null) {
-            lead.setExpiresAt(Instant.now());
+            lead.setExpiresAt(now);
         }
+        leadCounters.recordStatusChange(lead.getPromotion().getId(), previous, CouponStatus.EXPIRED, now);
+        validationCache.evict(couponCode);
         return promotionLeadRepository.save(lead);
     }
 }
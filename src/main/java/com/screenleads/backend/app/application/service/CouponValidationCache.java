@@ -0,0 +1,131 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.domain.model.CouponState;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
+import com.screenleads.backend.app.infraestructure.config.CouponValidationCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de lectura del estado de validación de cupones para las ráfagas de
+ * escaneo en tienda: estado, caducidad y ventana de la promoción, leídos en
+ * una sola consulta la primera vez.
+ * <p>
+ * Solo se guardan instantes, no el veredicto: la validez temporal se evalúa
+ * en cada consulta, así que una entrada nunca dice "válido" pasada la fecha.
+ * Los cambios de estado (canje, caducidad) y de promoción la invalidan al
+ * momento y otra vez al confirmar la transacción. Un estado aún canjeable
+ * caduca a los {@code validTtl} para ver lo canjeado en otros nodos; uno
+ * final (REDEEMED, EXPIRED, CANCELLED) no cambia y solo lo expulsa el LRU.
+ */
+@Service
+public class CouponValidationCache {
+
+    private record Entry(CouponState state, long freshUntilNanos) {
+    }
+
+    private final PromotionLeadRepository promotionLeadRepository;
+    private final CouponValidationCacheProperties properties;
+    private final LinkedHashMap<String, Entry> entries;
+    /** Cuenta invalidaciones: una carga que coincide con alguna no se guarda. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CouponValidationCache(PromotionLeadRepository promotionLeadRepository,
+            CouponValidationCacheProperties properties, MeterRegistry meterRegistry) {
+        this.promotionLeadRepository = promotionLeadRepository;
+        this.properties = properties;
+        int maxEntries = Math.max(1, properties.getMaxEntries());
+        this.entries = new LinkedHashMap<>(1_024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("coupons.validation.cache", "result", "hit");
+        this.misses = meterRegistry.counter("coupons.validation.cache", "result", "miss");
+        meterRegistry.gauge("coupons.validation.cache.size", entries, m -> {
+            synchronized (m) {
+                return m.size();
+            }
+        });
+    }
+
+    /** Estado del cupón, desde memoria o desde BD (vacío si no existe). */
+    public Optional<CouponState> get(String couponCode) {
+        if (!properties.isEnabled() || couponCode == null)
+            return load(couponCode);
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(couponCode);
+            if (entry != null && entry.freshUntilNanos() - now > 0) {
+                hits.increment();
+                return Optional.of(entry.state());
+            }
+        }
+        misses.increment();
+        long seen = evictions.get();
+        Optional<CouponState> state = load(couponCode);
+        state.ifPresent(s -> {
+            long freshUntil = s.isFinal() ? now + Long.MAX_VALUE / 2 : now + properties.getValidTtl().toNanos();
+            synchronized (entries) {
+                // Si hubo una invalidación durante la carga, lo leído puede ser viejo
+                if (evictions.get() == seen)
+                    entries.put(couponCode, new Entry(s, freshUntil));
+            }
+        });
+        return state;
+    }
+
+    /** Invalida un cupón ya y, si hay transacción, otra vez al terminarla. */
+    public void evict(String couponCode) {
+        Runnable evict = () -> {
+            synchronized (entries) {
+                evictions.incrementAndGet();
+                entries.remove(couponCode);
+            }
+        };
+        evict.run();
+        afterCompletion(evict);
+    }
+
+    /** Invalida los cupones de una promoción (cambian sus fechas o se borra). */
+    public void evictPromotion(Long promotionId) {
+        Runnable evict = () -> {
+            synchronized (entries) {
+                evictions.incrementAndGet();
+                entries.values().removeIf(e -> promotionId.equals(e.state().promotionId()));
+            }
+        };
+        evict.run();
+        afterCompletion(evict);
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    private Optional<CouponState> load(String couponCode) {
+        return promotionLeadRepository.findValidityByCouponCode(couponCode)
+                .map(v -> new CouponState(v.getCouponCode(), v.getStatus(), v.getExpiresAt(), v.getRedeemedAt(),
+                        v.getPromotionId(), v.getStartAt(), v.getEndAt()));
+    }
+}
@@ -1,9 +1,11 @@
 package com.screenleads.backend.app.application.service;
 
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 import com.screenleads.backend.app.web.dto.AdviceDTO;
 import com.screenleads.backend.app.web.dto.DeviceDTO;
+import com.screenleads.backend.app.web.dto.DeviceManifestDTO;
 
 public interface DeviceService {
     List<DeviceDTO> getAllDevices();
@@ -25,4 +27,7 @@ public interface DeviceService {
     void assignAdviceToDevice(Long deviceId, Long adviceId);
 
     void removeAdviceFromDevice(Long deviceId, Long adviceId);
+
+    /** Medias que el dispositivo necesitará en los próximos {@code days} días, en la zona {@code zone}. */
+    DeviceManifestDTO getManifest(String uuid, int days, ZoneId zone);
 }
\ No newline at end of file
@@ -1,7 +1,13 @@
 package com.screenleads.backend.app.application.service;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
@@ -9,16 +15,22 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.screenleads.backend.app.application.service.util.AdviceScheduleCalculator;
+import com.screenleads.backend.app.application.service.util.RenditionSelector;
 import com.screenleads.backend.app.domain.model.Advice;
 import com.screenleads.backend.app.domain.model.Company;
 import com.screenleads.backend.app.domain.model.Device;
 import com.screenleads.backend.app.domain.model.DeviceType;
+import com.screenleads.backend.app.domain.model.Media;
+import com.screenleads.backend.app.domain.model.MediaRendition;
 import com.screenleads.backend.app.domain.repositories.AdviceRepository;
 import com.screenleads.backend.app.domain.repositories.CompanyRepository;
 import com.screenleads.backend.app.domain.repositories.DeviceRepository;
 import com.screenleads.backend.app.domain.repositories.DeviceTypeRepository;
 import com.screenleads.backend.app.web.dto.AdviceDTO;
 import com.screenleads.backend.app.web.dto.DeviceDTO;
+import com.screenleads.backend.app.web.dto.DeviceManifestDTO;
+import com.screenleads.backend.app.web.dto.MediaUpsertDTO;
 import com.screenleads.backend.app.web.mapper.DeviceMapper;
 import com.screenleads.backend.app.web.mapper.AdviceMapper;
 
@@ -30,6 +42,7 @@ public class DeviceServiceImpl implements DeviceService {
     private static final String DEVICE_TYPE_NOT_FOUND = "Device type not found";
     private static final String COMPANY_NOT_FOUND = "Company not found";
     private static final String ADVICE_NOT_FOUND = "Advice not found";
+    static final int MAX_MANIFEST_DAYS = 31;
 
     private final DeviceRepository deviceRepository;
     private final DeviceTypeRepository deviceTypeRepository;
@@ -144,7 +157,7 @@ public class DeviceServiceImpl implements DeviceService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, DEVICE_NOT_FOUND));
         return device.getAdvices().stream()
                 .sorted(Comparator.comparing(Advice::getId))
-                .map(AdviceMapper::toDto)
+                .map(a -> toDtoForDevice(a, device))
                 .toList();
     }
 
@@ -168,6 +181,88 @@ public class DeviceServiceImpl implements DeviceService {
         deviceRepository.save(device);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public DeviceManifestDTO getManifest(String uuid, int days, ZoneId zone) {
+        return getManifest(uuid, days, ZonedDateTime.now(zone));
+    }
+
+    DeviceManifestDTO getManifest(String uuid, int days, ZonedDateTime now) {
+        if (days < 1 || days > MAX_MANIFEST_DAYS)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "days debe estar entre 1 y " + MAX_MANIFEST_DAYS);
+        Device device = deviceRepository.findOptionalByUuid(uuid)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, DEVICE_NOT_FOUND));
+
+        ZonedDateTime horizonEnd = now.plusDays(days);
+
+        // Una entrada por URL: varios advices pueden compartir media
+        Map<String, ManifestEntry> byUrl = new LinkedHashMap<>();
+        for (Advice advice : device.getAdvices()) {
+            Media media = advice.getMedia();
+            if (media == null)
+                continue;
+            Optional<ZonedDateTime> firstVisible = AdviceScheduleCalculator.firstVisibleAt(advice, now, horizonEnd);
+            if (firstVisible.isEmpty())
+                continue;
+            ManifestEntry entry = byUrl.computeIfAbsent(
+                    RenditionSelector.bestSrc(media, device.getWidth(), device.getHeight()),
+                    url -> new ManifestEntry(media, url, device));
+            entry.add(advice.getId(), firstVisible.get());
+        }
+
+        List<DeviceManifestDTO.Asset> assets = byUrl.values().stream()
+                .map(ManifestEntry::toAsset)
+                .sorted(Comparator.comparing(DeviceManifestDTO.Asset::firstNeededAt)
+                        .thenComparing(DeviceManifestDTO.Asset::url))
+                .toList();
+        long totalBytes = assets.stream().map(DeviceManifestDTO.Asset::sizeBytes).filter(Objects::nonNull)
+                .mapToLong(Long::longValue).sum();
+        return new DeviceManifestDTO(device.getUuid(), now.toInstant(), horizonEnd.toInstant(), now.getZone().getId(),
+                totalBytes, assets);
+    }
+
+    /** Acumula los advices que usan un mismo fichero y su primer uso. */
+    private static final class ManifestEntry {
+        private final Media media;
+        private final String url;
+        private final Long sizeBytes;
+        private final String sha256;
+        private final List<Long> adviceIds = new ArrayList<>();
+        private ZonedDateTime firstNeededAt;
+
+        ManifestEntry(Media media, String url, Device device) {
+            this.media = media;
+            this.url = url;
+            MediaRendition rendition = RenditionSelector.select(media, device.getWidth(), device.getHeight());
+            this.sizeBytes = rendition != null ? rendition.getSizeBytes() : media.getSizeBytes();
+            this.sha256 = rendition != null ? rendition.getContentSha256() : media.getContentSha256();
+        }
+
+        void add(Long adviceId, ZonedDateTime at) {
+            adviceIds.add(adviceId);
+            if (firstNeededAt == null || at.isBefore(firstNeededAt))
+                firstNeededAt = at;
+        }
+
+        DeviceManifestDTO.Asset toAsset() {
+            adviceIds.sort(Comparator.nullsLast(Comparator.naturalOrder()));
+            return new DeviceManifestDTO.Asset(media.getId(), url, sizeBytes, sha256, firstNeededAt.toInstant(),
+                    List.copyOf(adviceIds));
+        }
+    }
+
+    /** El media del advice apunta a la rendition adecuada a la resolución del dispositivo. */
+    private AdviceDTO toDtoForDevice(Advice advice, Device device) {
+        AdviceDTO dto = AdviceMapper.toDto(advice);
+        Media media = advice.getMedia();
+        if (media != null) {
+            dto.setMedia(new MediaUpsertDTO(media.getId(),
+                    RenditionSelector.bestSrc(media, device.getWidth(), device.getHeight())));
+        }
+        return dto;
+    }
+
     private DeviceDTO convertToDTO(Device device) {
         return DeviceMapper.toDTO(device);
     }
@@ -1,7 +1,10 @@
 package com.screenleads.backend.app.application.service;
 
 import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Bucket;
+import com.google.cloud.storage.Storage;
 import com.google.firebase.cloud.StorageClient;
 import org.springframework.stereotype.Service;
 
@@ -9,15 +12,33 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class FirebaseStorageService {
 
+    private final StorageMetadataCache metadataCache;
+
+    // StorageClient.bucket() hace un GET remoto del bucket: se resuelve una vez y se reutiliza
+    private volatile Bucket bucket;
+
+    public FirebaseStorageService(StorageMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
     public String upload(File file, String destination) throws IOException {
-        Bucket bucket = StorageClient.getInstance().bucket();
+        Bucket bucket = bucket();
 
         try (FileInputStream fis = new FileInputStream(file)) {
             Blob blob = bucket.create(destination, fis, Files.probeContentType(file.toPath()));
+            metadataCache.recordUpload(blob.getName());
 
             // Ya no se puede hacer blob.createAcl(...) si uniform bucket-level access está
             // activado.
@@ -28,11 +49,104 @@ public class FirebaseStorageService {
         }
     }
 
+    /** Sube con un content-type explícito (p.ej. ficheros .gz que probeContentType no reconoce). */
+    public String upload(File file, String destination, String contentType) throws IOException {
+        Bucket bucket = bucket();
+
+        try (FileInputStream fis = new FileInputStream(file)) {
+            Blob blob = bucket.create(destination, fis, contentType);
+            metadataCache.recordUpload(blob.getName());
+            return String.format("https://storage.googleapis.com/%s/%s", bucket.getName(), blob.getName());
+        }
+    }
+
+    /**
+     * URL firmada (V4) de lectura para {@code path}, válida durante {@code ttl}
+     * (máximo 7 días). Requiere credenciales de cuenta de servicio.
+     */
+    public String signedUrl(String path, Duration ttl) {
+        Bucket bucket = bucket();
+        return bucket.getStorage()
+                .signUrl(BlobInfo.newBuilder(bucket.getName(), path).build(), ttl.toSeconds(), TimeUnit.SECONDS,
+                        Storage.SignUrlOption.withV4Signature())
+                .toString();
+    }
+
     public boolean exists(String path) {
-        return StorageClient.getInstance().bucket().get(path) != null;
+        return !existing(List.of(path)).isEmpty();
+    }
+
+    /** Subconjunto de {@code paths} que existe, con un listado remoto por directorio como máximo. */
+    public Set<String> existing(Collection<String> paths) {
+        return metadataCache.existing(paths, this::listNames);
     }
 
     public String getPublicUrl(String path) {
-        return "https://storage.googleapis.com/" + StorageClient.getInstance().bucket().getName() + "/" + path;
+        return publicUrlPrefix() + path;
+    }
+
+    /** Prefijo de las URLs públicas de los objetos (lo que guardan Media.src y compañía). */
+    public String publicUrlPrefix() {
+        return "https://storage.googleapis.com/" + bucket().getName() + "/";
+    }
+
+    /**
+     * Objetos bajo {@code prefix} en orden lexicográfico de nombre (orden de GCS).
+     * Las páginas se piden según se consume el iterador.
+     */
+    public Iterator<StoredObject> listObjects(String prefix, int pageSize) {
+        Iterator<Blob> blobs = bucket()
+                .list(Storage.BlobListOption.prefix(prefix),
+                        Storage.BlobListOption.pageSize(pageSize),
+                        Storage.BlobListOption.fields(Storage.BlobField.NAME, Storage.BlobField.SIZE,
+                                Storage.BlobField.TIME_CREATED))
+                .iterateAll()
+                .iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return blobs.hasNext();
+            }
+
+            @Override
+            public StoredObject next() {
+                Blob blob = blobs.next();
+                Long created = blob.getCreateTime();
+                return new StoredObject(blob.getName(), blob.getSize() != null ? blob.getSize() : 0L,
+                        created != null ? Instant.ofEpochMilli(created) : Instant.EPOCH);
+            }
+        };
+    }
+
+    /** Borra en una sola petición batch; devuelve cuántos existían y se borraron. */
+    public int delete(Collection<String> paths) {
+        if (paths.isEmpty())
+            return 0;
+        Bucket bucket = bucket();
+        List<BlobId> ids = paths.stream().map(p -> BlobId.of(bucket.getName(), p)).toList();
+        List<Boolean> results = bucket.getStorage().delete(ids);
+        paths.forEach(metadataCache::recordDelete);
+        return (int) results.stream().filter(Boolean.TRUE::equals).count();
+    }
+
+    public record StoredObject(String path, long sizeBytes, Instant createdAt) {
+    }
+
+    private List<String> listNames(String prefix) {
+        List<String> names = new ArrayList<>();
+        bucket()
+                .list(Storage.BlobListOption.prefix(prefix), Storage.BlobListOption.currentDirectory())
+                .iterateAll()
+                .forEach(blob -> names.add(blob.getName()));
+        return names;
+    }
+
+    private Bucket bucket() {
+        Bucket b = bucket;
+        if (b == null) {
+            b = StorageClient.getInstance().bucket();
+            bucket = b;
+        }
+        return b;
     }
 }
@@ -0,0 +1,116 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.domain.model.CouponStatus;
+import com.screenleads.backend.app.domain.model.PromotionLeadDaily;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadDailyRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadCounterProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Mantiene promotion_lead_daily: un upsert-incremento por evento, dentro de la
+ * transacción que inserta el lead o cambia el estado del cupón (si esta hace
+ * rollback, el contador también). Los informes leen O(días) filas.
+ */
+@Slf4j
+@Service
+public class LeadCounterService {
+
+    /** Rango completo para recalcular toda la historia de una promoción. */
+    static final LocalDate MIN_DAY = LocalDate.of(1970, 1, 1);
+    static final LocalDate MAX_DAY = LocalDate.of(9999, 12, 31);
+
+    private final PromotionLeadDailyRepository dailyRepository;
+    private final PromotionRepository promotionRepository;
+    private final LeadCounterProperties properties;
+    private final TransactionTemplate tx;
+
+    public LeadCounterService(PromotionLeadDailyRepository dailyRepository, PromotionRepository promotionRepository,
+            LeadCounterProperties properties, PlatformTransactionManager transactionManager) {
+        this.dailyRepository = dailyRepository;
+        this.promotionRepository = promotionRepository;
+        this.properties = properties;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordLead(Long promotionId, Instant createdAt) {
+        dailyRepository.increment(promotionId, dayOf(createdAt), 1, 0, 0, 0);
+    }
+
+    /** {@code count} leads insertados en bloque el día {@code day}. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordLeads(Long promotionId, LocalDate day, long count) {
+        dailyRepository.increment(promotionId, day, count, 0, 0, 0);
+    }
+
+    /** {@code count} cupones caducados en bloque el día {@code day}. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpired(Long promotionId, LocalDate day, long count) {
+        dailyRepository.increment(promotionId, day, 0, 0, count, 0);
+    }
+
+    /** Cuenta la transición a REDEEMED/EXPIRED/CANCELLED; repetir el mismo estado no suma. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Long promotionId, CouponStatus previous, CouponStatus current, Instant at) {
+        if (current == previous)
+            return;
+        switch (current) {
+            case REDEEMED -> dailyRepository.increment(promotionId, dayOf(at), 0, 1, 0, 0);
+            case EXPIRED -> dailyRepository.increment(promotionId, dayOf(at), 0, 0, 1, 0);
+            case CANCELLED -> dailyRepository.increment(promotionId, dayOf(at), 0, 0, 0, 1);
+            default -> {
+                // NEW/VALID no tienen contador
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<PromotionLeadDaily> daily(Long promotionId, LocalDate from, LocalDate to) {
+        return dailyRepository.findRange(promotionId, from, to);
+    }
+
+    /** Reconstruye [from, to] de una promoción desde promotion_lead (null = sin límite). */
+    @Transactional
+    public int recompute(Long promotionId, LocalDate from, LocalDate to) {
+        return rebuild(promotionId, from, to);
+    }
+
+    /** Recalcula todas las promociones, una transacción por promoción. */
+    public int recomputeAll() {
+        int promotions = 0;
+        for (Long promotionId : promotionRepository.findAllIds()) {
+            tx.executeWithoutResult(status -> rebuild(promotionId, null, null));
+            promotions++;
+        }
+        log.info("🔁 Contadores recalculados para {} promociones", promotions);
+        return promotions;
+    }
+
+    private int rebuild(Long promotionId, LocalDate from, LocalDate to) {
+        LocalDate fromDay = from != null ? from : MIN_DAY;
+        LocalDate toDay = to != null ? to : MAX_DAY;
+        dailyRepository.deleteRange(promotionId, fromDay, toDay);
+        int days = dailyRepository.rebuildRange(promotionId, fromDay, toDay, PromotionServiceImpl.postgresZone(properties.getZone()));
+        log.info("🔁 Contadores de la promo {} recalculados ({} días, {}..{})", promotionId, days, fromDay, toDay);
+        return days;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteAll(Long promotionId) {
+        dailyRepository.deleteByPromotionId(promotionId);
+    }
+
+    LocalDate dayOf(Instant at) {
+        return (at != null ? at : Instant.now()).atZone(properties.getZone()).toLocalDate();
+    }
+}
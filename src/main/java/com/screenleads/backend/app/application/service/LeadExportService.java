@@ -0,0 +1,301 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.application.service.util.LeadExportFormat;
+import com.screenleads.backend.app.domain.model.PromotionLead;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadExportProperties;
+import com.screenleads.backend.app.web.dto.LeadExportJobDTO;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportaciones de leads fuera del hilo de la petición.
+ * <p>
+ * Cada trabajo recorre los leads con el mismo cursor que el export en
+ * streaming, los escribe comprimidos con gzip (CSV o NDJSON) en un temporal y
+ * lo sube al bucket; el resultado es una URL firmada que caduca con el
+ * fichero. Los ficheros llevan datos personales: nunca se publican con la URL
+ * pública del bucket, y la limpieza periódica los borra al caducar. El estado
+ * de los trabajos vive en memoria del nodo que los ejecuta y se olvida al
+ * caducar.
+ */
+@Slf4j
+@Service
+public class LeadExportService {
+
+    private static final int GZIP_BUFFER = 64 * 1024;
+    // Límite de las URLs firmadas V4
+    private static final Duration MAX_SIGNED_TTL = Duration.ofDays(7);
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final PromotionRepository promotionRepository;
+    private final PromotionLeadRepository promotionLeadRepository;
+    private final FirebaseStorageService storage;
+    private final LeadExportProperties properties;
+    private final TransactionTemplate readOnlyTx;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LeadExportService(PromotionRepository promotionRepository,
+            PromotionLeadRepository promotionLeadRepository, FirebaseStorageService storage,
+            LeadExportProperties properties, PlatformTransactionManager transactionManager) {
+        this.promotionRepository = promotionRepository;
+        this.promotionLeadRepository = promotionLeadRepository;
+        this.storage = storage;
+        this.properties = properties;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), r -> {
+                    Thread t = new Thread(r, "lead-export-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Encola la exportación de los leads de la promoción en [from, to].
+     *
+     * @throws IllegalArgumentException si la promoción no existe o el rango es inválido
+     * @throws ResponseStatusException  429 si hay demasiadas exportaciones en espera
+     */
+    public LeadExportJobDTO start(Long promotionId, LeadExportFormat format, Instant from, Instant to) {
+        if (!promotionRepository.existsById(promotionId))
+            throw new IllegalArgumentException("Promotion not found: " + promotionId);
+        if (from.isAfter(to))
+            throw new IllegalArgumentException("Rango de fechas inválido: from > to");
+
+        Job job = new Job(UUID.randomUUID().toString(), promotionId, format, from, to, Instant.now());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Demasiadas exportaciones en curso, inténtalo más tarde");
+        }
+        log.info("📦 Export {} encolado: promo {}, {} [{} - {}]", job.id, promotionId, format, from, to);
+        return job.toDTO();
+    }
+
+    /** @throws ResponseStatusException 404 si el trabajo no existe, caducó o es de otra promoción */
+    public LeadExportJobDTO status(Long promotionId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.promotionId.equals(promotionId))
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Export not found: " + jobId);
+        return job.toDTO();
+    }
+
+    void run(Job job) {
+        job.status = Status.RUNNING;
+        job.startedAt = Instant.now();
+        Path tmp = null;
+        String uploadedPath = null;
+        try {
+            tmp = Files.createTempFile("lead_export_", "." + job.format.extension() + ".gz");
+            Path file = tmp;
+            readOnlyTx.executeWithoutResult(status -> write(job, file));
+            job.sizeBytes = Files.size(tmp);
+
+            String path = properties.getPrefix() + job.promotionId + "/" + job.id + "." + job.format.extension()
+                    + ".gz";
+            storage.upload(tmp.toFile(), path, "application/gzip");
+            uploadedPath = path;
+            // Lo que dura la URL, no el fichero: con ttl > 7 días la firma se queda en 7
+            job.expiresAt = job.startedAt.plus(signedTtl());
+            job.url = storage.signedUrl(path, signedTtl());
+            job.finishedAt = Instant.now();
+            job.status = Status.DONE;
+            log.info("📦 Export {} listo: {} leads, {} bytes gzip en {} ms", job.id, job.rows, job.sizeBytes,
+                    Duration.between(job.startedAt, job.finishedAt).toMillis());
+        } catch (Exception e) {
+            if (uploadedPath != null)
+                deleteQuietly(uploadedPath);
+            job.error = e.getMessage();
+            job.finishedAt = Instant.now();
+            job.expiresAt = job.finishedAt.plus(properties.getTtl());
+            job.status = Status.FAILED;
+            log.error("❌ Export {} de la promo {} fallido: {}", job.id, job.promotionId, e.getMessage(), e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    log.debug("No se pudo borrar el temporal {}: {}", tmp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void write(Job job, Path file) {
+        PromotionLeadRepository.LeadTotals totals = promotionLeadRepository.summarizeLeads(job.promotionId,
+                job.from, job.to);
+        job.totalRows = totals != null ? totals.getLeads() : 0L;
+        int progressEvery = Math.max(1, properties.getProgressEvery());
+
+        try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(file), GZIP_BUFFER);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8),
+                        GZIP_BUFFER);
+                Stream<PromotionLead> leads = promotionLeadRepository.streamByPromotionIdAndCreatedAtBetween(
+                        job.promotionId, job.from, job.to)) {
+            writer.write(job.format.header());
+            StringBuilder row = new StringBuilder(256);
+            long rows = 0;
+            for (PromotionLead lead : (Iterable<PromotionLead>) leads::iterator) {
+                row.setLength(0);
+                job.format.append(row, lead);
+                writer.append(row);
+                entityManager.detach(lead);
+                if (++rows % progressEvery == 0)
+                    job.rows = rows;
+            }
+            job.rows = rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vida de la URL firmada: el ttl, hasta el máximo de V4. Si no se puede
+     * firmar el trabajo falla (no hay alternativa pública).
+     */
+    private Duration signedTtl() {
+        return properties.getTtl().compareTo(MAX_SIGNED_TTL) > 0 ? MAX_SIGNED_TTL : properties.getTtl();
+    }
+
+    /** Borra un export que no llegó a entregarse; si falla, lo recoge la limpieza periódica. */
+    private void deleteQuietly(String path) {
+        try {
+            storage.delete(List.of(path));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ No se pudo borrar el export fallido {}: {}", path, e.getMessage());
+        }
+    }
+
+    // ---------------- CADUCIDAD ----------------
+
+    @Scheduled(fixedDelayString = "${leads.export.cleanup-interval:PT1H}", initialDelayString = "${leads.export.cleanup-interval:PT1H}")
+    public void scheduledCleanup() {
+        Instant now = Instant.now();
+        int forgotten = forgetExpired(now);
+        int deleted = 0;
+        if (properties.isBucketCleanup()) {
+            try {
+                deleted = deleteExpiredFiles(now);
+            } catch (RuntimeException e) {
+                log.error("❌ Limpieza de exportaciones caducadas fallida: {}", e.getMessage(), e);
+            }
+        }
+        if (forgotten > 0 || deleted > 0)
+            log.info("🧹 Exportaciones caducadas: {} trabajos olvidados, {} ficheros borrados", forgotten, deleted);
+    }
+
+    /** Olvida los trabajos terminados cuya descarga ya caducó. */
+    int forgetExpired(Instant now) {
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.expiresAt != null && job.expiresAt.isBefore(now));
+        return before - jobs.size();
+    }
+
+    /** Borra del bucket los ficheros de exportación más antiguos que el TTL. */
+    int deleteExpiredFiles(Instant now) {
+        Instant cutoff = now.minus(properties.getTtl());
+        List<String> expired = new ArrayList<>();
+        int deleted = 0;
+        Iterator<FirebaseStorageService.StoredObject> objects = storage.listObjects(properties.getPrefix(), 1000);
+        while (objects.hasNext()) {
+            FirebaseStorageService.StoredObject object = objects.next();
+            if (object.createdAt().isBefore(cutoff))
+                expired.add(object.path());
+            if (expired.size() >= 1000) {
+                deleted += storage.delete(expired);
+                expired.clear();
+            }
+        }
+        return deleted + storage.delete(expired);
+    }
+
+    /** Estado de un trabajo; lo escribe el hilo del export y lo leen las consultas. */
+    static final class Job {
+        final String id;
+        final Long promotionId;
+        final LeadExportFormat format;
+        final Instant from;
+        final Instant to;
+        final Instant createdAt;
+        volatile Status status = Status.QUEUED;
+        volatile long rows;
+        volatile long totalRows;
+        volatile long sizeBytes;
+        volatile String url;
+        volatile String error;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile Instant expiresAt;
+
+        Job(String id, Long promotionId, LeadExportFormat format, Instant from, Instant to, Instant createdAt) {
+            this.id = id;
+            this.promotionId = promotionId;
+            this.format = format;
+            this.from = from;
+            this.to = to;
+            this.createdAt = createdAt;
+        }
+
+        LeadExportJobDTO toDTO() {
+            Status current = status;
+            long total = totalRows;
+            int percent = current == Status.DONE ? 100
+                    : total > 0 ? (int) Math.min(99, rows * 100 / total) : 0;
+            return new LeadExportJobDTO(id, promotionId, format.name(), current.name(), rows, total, percent,
+                    sizeBytes, current == Status.DONE ? url : null, expiresAt, error, createdAt, finishedAt);
+        }
+    }
+}
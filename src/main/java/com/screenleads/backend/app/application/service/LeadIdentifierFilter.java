@@ -0,0 +1,284 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadFilterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Pre-chequeo de duplicados por promoción con un filtro Bloom de
+ * identificadores normalizados.
+ * <p>
+ * Un "no está" es definitivo para los leads que ha visto este nodo y permite
+ * saltarse la consulta de existencia; un "puede estar" obliga a consultar.
+ * La restricción única (promotion_id, identifier) sigue siendo el árbitro
+ * final: lo insertado por otro nodo o por otra vía se detecta al hacer flush.
+ * <p>
+ * Cada filtro se carga desde BD la primera vez que se consulta la promoción,
+ * dimensionado con sus leads actuales por {@code growthFactor}; al llenarse se
+ * descarta y se vuelve a cargar más grande. La memoria total está acotada y
+ * se liberan primero las promociones menos usadas. Una promoción cuyo filtro
+ * no cabría ni solo en {@code max-memory} se marca y va siempre a la consulta,
+ * sin volver a leer sus identificadores en cada petición.
+ */
+@Slf4j
+@Service
+public class LeadIdentifierFilter {
+
+    private static final String IDENTIFIER_CONSTRAINT = "uk_promotionlead_promotion_identifier";
+
+    private final PromotionLeadRepository promotionLeadRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final LeadFilterProperties properties;
+
+    private final LinkedHashMap<Long, BloomFilter> filters = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Long, CompletableFuture<BloomFilter>> loading = new ConcurrentHashMap<>();
+    private final Set<Long> oversized = ConcurrentHashMap.newKeySet();
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    private final Counter skipped;
+    private final Counter checked;
+
+    public LeadIdentifierFilter(PromotionLeadRepository promotionLeadRepository,
+            PlatformTransactionManager transactionManager, LeadFilterProperties properties,
+            MeterRegistry meterRegistry) {
+        this.promotionLeadRepository = promotionLeadRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.properties = properties;
+        this.skipped = meterRegistry.counter("leads.filter.checks", "result", "absent");
+        this.checked = meterRegistry.counter("leads.filter.checks", "result", "maybe");
+        meterRegistry.gauge("leads.filter.bytes", usedBytes);
+    }
+
+    /**
+     * @return false solo si el identificador seguro que no está en la promoción
+     *         (para lo visto por este nodo); ante cualquier duda, true
+     */
+    public boolean mightContain(Long promotionId, String identifier) {
+        if (!properties.isEnabled() || promotionId == null || identifier == null || oversized.contains(promotionId))
+            return true;
+        BloomFilter filter;
+        try {
+            filter = filter(promotionId);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ No se pudo cargar el filtro de leads de la promo {}: {}", promotionId, e.getMessage());
+            return true;
+        }
+        if (filter == null)
+            return true; // demasiado grande: decide la consulta
+        boolean maybe = filter.mightContain(identifier);
+        (maybe ? checked : skipped).increment();
+        return maybe;
+    }
+
+    /** Registra un identificador recién insertado (no-op si la promo no está cargada). */
+    public void add(Long promotionId, String identifier) {
+        if (promotionId == null || identifier == null)
+            return;
+        BloomFilter filter;
+        synchronized (filters) {
+            filter = filters.get(promotionId);
+        }
+        if (filter == null)
+            return;
+        filter.put(identifier);
+        if (filter.isSaturated())
+            invalidate(promotionId); // se recargará más grande en la próxima consulta
+    }
+
+    /** ¿La violación viene de la restricción única (promotion_id, identifier)? */
+    public static boolean isIdentifierConflict(DataIntegrityViolationException e) {
+        return violates(e, IDENTIFIER_CONSTRAINT);
+    }
+
+    /** ¿La violación viene de la restricción {@code constraint}? (nombre en minúsculas) */
+    static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null)
+                return cve.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint);
+            if (t.getMessage() != null && t.getMessage().toLowerCase(Locale.ROOT).contains(constraint))
+                return true;
+        }
+        return false;
+    }
+
+    public void invalidate(Long promotionId) {
+        oversized.remove(promotionId);
+        synchronized (filters) {
+            BloomFilter removed = filters.remove(promotionId);
+            if (removed != null)
+                usedBytes.addAndGet(-removed.sizeBytes());
+        }
+    }
+
+    /** @return el filtro de la promoción, o null si no cabe en {@code max-memory} */
+    private BloomFilter filter(Long promotionId) {
+        synchronized (filters) {
+            BloomFilter cached = filters.get(promotionId);
+            if (cached != null)
+                return cached;
+        }
+        CompletableFuture<BloomFilter> mine = new CompletableFuture<>();
+        CompletableFuture<BloomFilter> running = loading.putIfAbsent(promotionId, mine);
+        if (running != null)
+            return running.join();
+        try {
+            BloomFilter filter = readOnlyTx.execute(status -> load(promotionId));
+            if (filter != null)
+                store(promotionId, filter);
+            mine.complete(filter);
+            return filter;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(promotionId, mine);
+        }
+    }
+
+    private BloomFilter load(Long promotionId) {
+        long existing = promotionLeadRepository.countByPromotionId(promotionId);
+        long expected = Math.max(properties.getMinExpectedLeads(), (long) (existing * properties.getGrowthFactor()));
+        long bytes = BloomFilter.sizeBytes(expected, properties.getFalsePositiveRate());
+        if (bytes > properties.getMaxMemory().toBytes()) {
+            // No cabría ni solo: sin cachear habría que releer la promo en cada petición
+            oversized.add(promotionId);
+            log.info("ℹ️ Filtro de leads de la promo {} ({} bytes) por encima de max-memory: se consulta siempre la BD",
+                    promotionId, bytes);
+            return null;
+        }
+        BloomFilter filter = BloomFilter.create(expected, properties.getFalsePositiveRate());
+        try (Stream<String> identifiers = promotionLeadRepository.streamIdentifiersByPromotionId(promotionId)) {
+            identifiers.forEach(filter::put);
+        }
+        log.debug("Filtro de leads de la promo {}: {} identificadores, {} bytes", promotionId, existing,
+                filter.sizeBytes());
+        return filter;
+    }
+
+    private void store(Long promotionId, BloomFilter filter) {
+        long maxBytes = properties.getMaxMemory().toBytes();
+        synchronized (filters) {
+            BloomFilter previous = filters.put(promotionId, filter);
+            long used = usedBytes.addAndGet(filter.sizeBytes() - (previous != null ? previous.sizeBytes() : 0));
+            var eldest = filters.entrySet().iterator();
+            while (used > maxBytes && eldest.hasNext()) {
+                Map.Entry<Long, BloomFilter> entry = eldest.next();
+                if (entry.getKey().equals(promotionId))
+                    continue;
+                eldest.remove();
+                used = usedBytes.addAndGet(-entry.getValue().sizeBytes());
+            }
+        }
+    }
+
+    /**
+     * Filtro Bloom con doble hashing sobre un hash de 64 bits. Las escrituras
+     * concurrentes son seguras (bits atómicos); nunca da falsos negativos.
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashes;
+        private final long capacity;
+        private final AtomicLong inserted = new AtomicLong();
+
+        private BloomFilter(long bitCount, int hashes, long capacity) {
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+            this.bitCount = bitCount;
+            this.hashes = hashes;
+            this.capacity = capacity;
+        }
+
+        /** m = -n·ln(p)/ln²2 bits y k = m/n·ln2 funciones hash. */
+        static BloomFilter create(long expected, double falsePositiveRate) {
+            long n = Math.max(1, expected);
+            long m = bitCount(n, falsePositiveRate);
+            int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+            return new BloomFilter(m, k, n);
+        }
+
+        void put(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0)
+                        break;
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+            inserted.incrementAndGet();
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        /** Lo que ocuparía {@link #create} con estos parámetros, sin reservarlo. */
+        static long sizeBytes(long expected, double falsePositiveRate) {
+            return ((bitCount(Math.max(1, expected), falsePositiveRate) + 63) >>> 6) * Long.BYTES;
+        }
+
+        private static long bitCount(long n, double falsePositiveRate) {
+            double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+            long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+            return Math.min(Math.max(64, m), (long) Integer.MAX_VALUE * 64);
+        }
+
+        boolean isSaturated() {
+            return inserted.get() > capacity;
+        }
+
+        long sizeBytes() {
+            return (long) bits.length() * Long.BYTES;
+        }
+
+        /** FNV-1a de 64 bits sobre los caracteres, con mezcla final de murmur3. */
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
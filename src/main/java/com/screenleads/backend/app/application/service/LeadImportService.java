@@ -0,0 +1,258 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.application.service.util.CsvReader;
+import com.screenleads.backend.app.application.service.util.IdentifierNormalizer;
+import com.screenleads.backend.app.domain.model.CouponStatus;
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.web.dto.LeadImportReportDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de leads desde un CSV con las columnas del export
+ * ({@code id,promotionId,identifierType,identifier,firstName,...,createdAt};
+ * el orden da igual y las desconocidas se ignoran).
+ * <p>
+ * El fichero se lee registro a registro y se inserta en lotes de
+ * {@value #BATCH_SIZE} filas con {@code ON CONFLICT (promotion_id, identifier)
+ * DO NOTHING}, una transacción por lote. En memoria solo quedan el lote en
+ * curso y los identificadores ya vistos, para descartar duplicados dentro del
+ * propio fichero. Las filas inválidas no paran la importación: se devuelven en
+ * el informe con su número de línea.
+ */
+@Slf4j
+@Service
+public class LeadImportService {
+
+    static final int BATCH_SIZE = 1_000;
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final Map<String, Integer> MAX_LENGTHS = Map.of(
+            "identifier", 255, "firstName", 100, "lastName", 100, "email", 320, "phone", 50);
+
+    record ImportRow(long line, String identifier, String firstName, String lastName, String email, String phone,
+            LocalDate birthDate, Instant acceptedPrivacyAt, Instant acceptedTermsAt, Instant createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final PromotionRepository promotionRepository;
+    private final LeadCounterService leadCounters;
+    private final CouponCodeAllocator couponCodes;
+
+    public LeadImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            PromotionRepository promotionRepository, LeadCounterService leadCounters, CouponCodeAllocator couponCodes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.promotionRepository = promotionRepository;
+        this.leadCounters = leadCounters;
+        this.couponCodes = couponCodes;
+    }
+
+    /**
+     * Importa los leads del CSV en la promoción. Las filas ya escritas quedan
+     * confirmadas aunque el fichero se corte más adelante.
+     *
+     * @throws IllegalArgumentException si la promoción no existe o la cabecera
+     *                                  no trae identifier, email ni phone
+     */
+    public LeadImportReportDTO importCsv(Long promotionId, InputStream csv) {
+        Promotion promotion = promotionRepository.findById(promotionId)
+                .orElseThrow(() -> new IllegalArgumentException("Promotion not found: " + promotionId));
+        Import run = new Import(promotionId,
+                promotion.getLeadIdentifierType() != null ? promotion.getLeadIdentifierType()
+                        : LeadIdentifierType.EMAIL,
+                promotion.getEndAt());
+
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null)
+            throw new IllegalArgumentException("CSV vacío");
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++)
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        if (!columns.containsKey("identifier") && !columns.containsKey("email") && !columns.containsKey("phone"))
+            throw new IllegalArgumentException("El CSV necesita una columna identifier, email o phone");
+
+        Set<String> seen = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            for (List<String> record = reader.next(); record != null; record = reader.next()) {
+                if (record.size() == 1 && record.get(0).isBlank())
+                    continue;
+                run.rows++;
+                ImportRow row;
+                try {
+                    row = parse(run, reader.line(), record, header.size(), columns);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    run.error(reader.line(), e.getMessage());
+                    continue;
+                }
+                if (!seen.add(row.identifier())) {
+                    run.duplicatesInFile++;
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= BATCH_SIZE) {
+                    flush(run, batch);
+                    batch.clear();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // CSV mal formado: se corta aquí y se informa de lo que se llegó a importar
+            run.error(reader.line(), e.getMessage());
+        }
+        flush(run, batch);
+
+        log.info("📥 Import CSV promo {}: {} filas, {} insertadas, {} duplicadas en fichero, {} ya existentes, {} rechazadas",
+                promotionId, run.rows, run.inserted, run.duplicatesInFile, run.duplicatesExisting, run.rejected);
+        return new LeadImportReportDTO(promotionId, run.rows, run.inserted, run.duplicatesInFile,
+                run.duplicatesExisting, run.rejected, run.errors, run.rejected > run.errors.size());
+    }
+
+    private ImportRow parse(Import run, long line, List<String> record, int width, Map<String, Integer> columns) {
+        if (record.size() != width)
+            throw new IllegalArgumentException("Se esperaban " + width + " columnas y hay " + record.size());
+        Map<String, String> values = new HashMap<>();
+        for (String name : List.of("identifier", "firstName", "lastName", "email", "phone", "birthDate",
+                "acceptedPrivacyAt", "acceptedTermsAt", "createdAt")) {
+            Integer index = columns.get(name.toLowerCase(Locale.ROOT));
+            String value = index != null ? record.get(index).trim() : "";
+            if (value.isEmpty() || "null".equals(value))
+                continue;
+            Integer max = MAX_LENGTHS.get(name);
+            if (max != null && value.length() > max)
+                throw new IllegalArgumentException(name + " supera " + max + " caracteres");
+            values.put(name, value);
+        }
+
+        String identifier = values.containsKey("identifier")
+                ? IdentifierNormalizer.normalize(run.identifierType, values.get("identifier"))
+                : IdentifierNormalizer.forLead(run.identifierType, values.get("email"), values.get("phone"));
+        if (identifier == null || identifier.isBlank())
+            throw new IllegalArgumentException("Falta el identificador " + run.identifierType);
+
+        Instant createdAt = instant(values.get("createdAt"));
+        return new ImportRow(line, identifier, values.get("firstName"), values.get("lastName"), values.get("email"),
+                values.get("phone"),
+                values.containsKey("birthDate") ? LocalDate.parse(values.get("birthDate")) : null,
+                instant(values.get("acceptedPrivacyAt")), instant(values.get("acceptedTermsAt")),
+                createdAt != null ? createdAt : Instant.now());
+    }
+
+    /** Inserta el lote en una transacción; si falla entero, se aísla fila a fila. */
+    private void flush(Import run, List<ImportRow> batch) {
+        if (batch.isEmpty())
+            return;
+        try {
+            Set<String> written = tx.execute(status -> insertBatch(run, batch));
+            run.inserted += written.size();
+            run.duplicatesExisting += batch.size() - written.size();
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Lote de importación de {} filas rechazado ({}); reintento fila a fila", batch.size(),
+                    e.getMostSpecificCause().getMessage());
+            for (ImportRow row : batch) {
+                try {
+                    Set<String> written = tx.execute(status -> insertBatch(run, List.of(row)));
+                    if (written.isEmpty())
+                        run.duplicatesExisting++;
+                    else
+                        run.inserted++;
+                } catch (DataAccessException rowError) {
+                    run.error(row.line(), rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /** @return identificadores realmente insertados */
+    private Set<String> insertBatch(Import run, List<ImportRow> batch) {
+        List<Object> args = new ArrayList<>(batch.size() * 15);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (ImportRow r : batch) {
+            args.add(run.promotionId);
+            args.add(run.identifierType.name());
+            args.add(r.identifier());
+            args.add(r.firstName());
+            args.add(r.lastName());
+            args.add(r.email());
+            args.add(r.phone());
+            args.add(r.birthDate());
+            args.add(utc(r.acceptedPrivacyAt()));
+            args.add(utc(r.acceptedTermsAt()));
+            args.add(couponCodes.next());
+            args.add(CouponStatus.VALID.name());
+            args.add(utc(run.endAt));
+            args.add(utc(r.createdAt()));
+            args.add(now);
+        }
+        Set<String> written = new HashSet<>(jdbcTemplate.query(LeadWriteBehindService.insertSql(batch.size()),
+                (rs, i) -> rs.getString(2), args.toArray()));
+
+        // Contadores diarios en la misma transacción, por el día de alta original
+        Map<LocalDate, Long> perDay = new HashMap<>();
+        for (ImportRow r : batch) {
+            if (written.contains(r.identifier()))
+                perDay.merge(leadCounters.dayOf(r.createdAt()), 1L, Long::sum);
+        }
+        perDay.forEach((day, count) -> leadCounters.recordLeads(run.promotionId, day, count));
+        return written;
+    }
+
+    /** Acepta el formato del export ({@link Instant#toString()}) y fechas ISO con offset. */
+    private static Instant instant(String value) {
+        return value != null ? Instant.parse(value) : null;
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    /** Estado y contadores de una importación. */
+    private static final class Import {
+        final Long promotionId;
+        final LeadIdentifierType identifierType;
+        final Instant endAt;
+        final List<LeadImportReportDTO.RowError> errors = new ArrayList<>();
+        long rows;
+        long inserted;
+        long duplicatesInFile;
+        long duplicatesExisting;
+        long rejected;
+
+        Import(Long promotionId, LeadIdentifierType identifierType, Instant endAt) {
+            this.promotionId = promotionId;
+            this.identifierType = identifierType;
+            this.endAt = endAt;
+        }
+
+        void error(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS)
+                errors.add(new LeadImportReportDTO.RowError(line, message));
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.application.service.util.IdentifierNormalizer;
+import com.screenleads.backend.app.domain.model.Company;
+import com.screenleads.backend.app.domain.model.CouponStatus;
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.repositories.CompanyRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadIngestProperties;
+import com.screenleads.backend.app.web.dto.PromotionLeadDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de leads con escritura diferida para picos (promos anunciadas en
+ * TV): el lead se valida contra datos de la promoción cacheados, se encola en
+ * una cola acotada y un único escritor lo inserta en lotes con
+ * {@code INSERT ... ON CONFLICT (promotion_id, identifier) DO NOTHING}.
+ * <p>
+ * Duplicados: los recientes se resuelven al aceptar (caché LRU con TTL); los
+ * que solo detecta la BD se comunican por el {@link CompletableFuture} de
+ * cada envío y en la métrica leads.ingest.duplicates. El uso se reporta a
+ * Stripe una vez por lote y compañía, fuera de la transacción.
+ */
+@Slf4j
+@Service
+public class LeadWriteBehindService {
+
+    public enum Admission {
+        ACCEPTED, DUPLICATE, QUEUE_FULL, DISABLED
+    }
+
+    public enum Outcome {
+        INSERTED, DUPLICATE
+    }
+
+    /** Resultado del envío; {@code result} solo existe si se aceptó. */
+    public record Submission(Admission admission, CompletableFuture<Outcome> result) {
+    }
+
+    record PendingLead(Long promotionId, Long companyId, LeadIdentifierType identifierType, String identifier,
+            String firstName, String lastName, String email, String phone, LocalDate birthDate,
+            Instant acceptedPrivacyAt, Instant acceptedTermsAt, String couponCode, Instant expiresAt,
+            Instant createdAt, CompletableFuture<Outcome> result) {
+
+        String key() {
+            return dedupeKey(promotionId, identifier);
+        }
+
+        PendingLead withCouponCode(String code) {
+            return new PendingLead(promotionId, companyId, identifierType, identifier, firstName, lastName, email,
+                    phone, birthDate, acceptedPrivacyAt, acceptedTermsAt, code, expiresAt, createdAt, result);
+        }
+    }
+
+    private record DayKey(Long promotionId, LocalDate day) {
+    }
+
+    record PromotionSnapshot(Long id, Long companyId, LeadIdentifierType identifierType, Instant endAt,
+            long loadedAtNanos) {
+    }
+
+    static final String COLUMNS = "promotion_id, identifier_type, identifier, first_name, last_name, email, phone, "
+            + "birth_date, accepted_privacy_at, accepted_terms_at, coupon_code, coupon_status, expires_at, "
+            + "created_at, updated_at";
+    private static final int COLUMN_COUNT = 15;
+    private static final int MAX_BATCH_SIZE = 2_000; // 15 parámetros por fila, lejos del límite de 65535
+    /** Intentos por lote una vez parado el escritor (sin él se reintenta sin límite). */
+    private static final int STOPPING_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final PromotionRepository promotionRepository;
+    private final CompanyRepository companyRepository;
+    private final LeadCounterService leadCounters;
+    private final CouponCodeAllocator couponCodes;
+    private final StripeBillingService billingService;
+    private final LeadIngestProperties properties;
+
+    private final BlockingQueue<PendingLead> queue;
+    private final RecentKeys recent;
+    private final Map<Long, PromotionSnapshot> promotions = new ConcurrentHashMap<>();
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter cachedDuplicates;
+    private final Counter dbDuplicates;
+    private final Counter inserted;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public LeadWriteBehindService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            PromotionRepository promotionRepository, CompanyRepository companyRepository,
+            LeadCounterService leadCounters, CouponCodeAllocator couponCodes, StripeBillingService billingService,
+            LeadIngestProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.promotionRepository = promotionRepository;
+        this.companyRepository = companyRepository;
+        this.leadCounters = leadCounters;
+        this.couponCodes = couponCodes;
+        this.billingService = billingService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.recent = new RecentKeys(properties.getDedupeMaxEntries(), properties.getDedupeTtl().toNanos());
+
+        this.accepted = meterRegistry.counter("leads.ingest.accepted");
+        this.rejected = meterRegistry.counter("leads.ingest.rejected");
+        this.cachedDuplicates = meterRegistry.counter("leads.ingest.duplicates", "source", "cache");
+        this.dbDuplicates = meterRegistry.counter("leads.ingest.duplicates", "source", "db");
+        this.inserted = meterRegistry.counter("leads.ingest.inserted");
+        this.flushTimer = meterRegistry.timer("leads.ingest.flush");
+        meterRegistry.gauge("leads.ingest.queue.depth", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled())
+            return;
+        running = true;
+        writer = new Thread(this::writeLoop, "lead-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("🚀 Escritura diferida de leads activa (cola {}, lotes de {})", properties.getQueueCapacity(),
+                batchSize());
+    }
+
+    /** Para el escritor y vacía lo que quede en cola antes de cerrar el contexto. */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null)
+            return;
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        List<PendingLead> rest = new ArrayList<>();
+        while (queue.drainTo(rest, batchSize()) > 0) {
+            flush(rest);
+            rest.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Valida y encola un lead.
+     *
+     * @throws IllegalArgumentException si la promoción no existe, ya terminó o
+     *                                  falta el identificador que exige
+     */
+    public Submission submit(Long promotionId, PromotionLeadDTO dto) {
+        if (!running)
+            return new Submission(Admission.DISABLED, null);
+
+        PromotionSnapshot promotion = promotion(promotionId);
+        Instant now = Instant.now();
+        if (promotion.endAt() != null && now.isAfter(promotion.endAt()))
+            throw new IllegalArgumentException("Promotion already ended: " + promotionId);
+
+        String identifier = IdentifierNormalizer.forLead(promotion.identifierType(), dto.email(), dto.phone());
+        if (identifier == null || identifier.isBlank())
+            throw new IllegalArgumentException("Missing " + promotion.identifierType() + " identifier");
+
+        String key = dedupeKey(promotionId, identifier);
+        if (!recent.add(key)) {
+            cachedDuplicates.increment();
+            return new Submission(Admission.DUPLICATE, null);
+        }
+
+        CompletableFuture<Outcome> result = new CompletableFuture<>();
+        PendingLead lead = new PendingLead(promotionId, promotion.companyId(), promotion.identifierType(),
+                identifier, dto.firstName(), dto.lastName(), dto.email(), dto.phone(), dto.birthDate(),
+                dto.acceptedPrivacyAt() != null ? dto.acceptedPrivacyAt().toInstant() : null,
+                dto.acceptedTermsAt() != null ? dto.acceptedTermsAt().toInstant() : null,
+                couponCodes.next(), promotion.endAt(), now, result);
+        if (!queue.offer(lead)) {
+            recent.remove(key);
+            rejected.increment();
+            return new Submission(Admission.QUEUE_FULL, null);
+        }
+        accepted.increment();
+        return new Submission(Admission.ACCEPTED, result);
+    }
+
+    private void writeLoop() {
+        List<PendingLead> batch = new ArrayList<>(batchSize());
+        long maxDelayNanos = properties.getMaxBatchDelay().toNanos();
+        while (running) {
+            try {
+                PendingLead first = queue.take();
+                batch.add(first);
+                // Completa el lote hasta batchSize o hasta agotar la espera máxima
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize()) {
+                    queue.drainTo(batch, batchSize() - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize() || left <= 0)
+                        break;
+                    PendingLead next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Parada: lo ya sacado de la cola se escribe; el resto lo vacía stop()
+                running = false;
+                flush(batch);
+            } catch (RuntimeException e) {
+                log.error("❌ Escritor de leads: {}", e.getMessage(), e);
+            } finally {
+                for (PendingLead l : batch) {
+                    if (l.result().completeExceptionally(new IllegalStateException("Lote no escrito")))
+                        recent.remove(l.key());
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Escribe el lote y resuelve el future de cada lead. Un error transitorio
+     * (pool agotado, BD caída, timeout) no pierde leads ya respondidos con 202:
+     * se reintenta lo que falte por escribir con espera creciente mientras el
+     * escritor siga en marcha. Solo se descarta una fila por un error
+     * permanente suyo (restricción o dato inválido).
+     */
+    void flush(List<PendingLead> batch) {
+        if (batch.isEmpty())
+            return;
+        Timer.Sample sample = Timer.start();
+        Set<String> written = new HashSet<>();
+        for (int attempt = 1;; attempt++) {
+            try {
+                write(batch, written);
+                break;
+            } catch (RuntimeException e) {
+                List<PendingLead> left = unwritten(batch, written);
+                if (!running && attempt >= STOPPING_ATTEMPTS) {
+                    log.error("❌ {} leads aceptados sin escribir al parar: {}", left.size(), e.getMessage(), e);
+                    left.forEach(lead -> fail(lead, e));
+                    break;
+                }
+                long delay = retryDelay(attempt);
+                log.warn("⚠️ No se pudo escribir el lote de {} leads (intento {}): {}; reintento en {} ms",
+                        left.size(), attempt, e.getMessage(), delay);
+                pause(delay);
+            }
+        }
+
+        Map<Long, Long> insertedByCompany = new HashMap<>();
+        for (PendingLead lead : batch) {
+            if (lead.result().isDone())
+                continue;
+            if (written.remove(lead.key())) {
+                inserted.increment();
+                if (lead.companyId() != null)
+                    insertedByCompany.merge(lead.companyId(), 1L, Long::sum);
+                lead.result().complete(Outcome.INSERTED);
+            } else {
+                dbDuplicates.increment();
+                lead.result().complete(Outcome.DUPLICATE);
+            }
+        }
+        batch.clear();
+        sample.stop(flushTimer);
+        reportUsage(insertedByCompany);
+    }
+
+    /**
+     * Un intento: lo pendiente en una transacción y, si una fila lo rompe con
+     * un error permanente, fila a fila para no arrastrar al resto. Los errores
+     * transitorios se propagan; lo ya escrito queda en {@code written}.
+     */
+    private void write(List<PendingLead> batch, Set<String> written) {
+        List<PendingLead> pending = unwritten(batch, written);
+        if (pending.isEmpty())
+            return;
+        try {
+            written.addAll(tx.execute(status -> insertBatch(pending)));
+        } catch (DataIntegrityViolationException e) {
+            // p.ej. colisión de coupon_code: no debe arrastrar al resto del lote
+            log.warn("⚠️ Lote de {} leads rechazado ({}); reintento fila a fila", pending.size(), e.getMessage());
+            for (PendingLead lead : pending)
+                insertRow(lead, written);
+        }
+    }
+
+    private static List<PendingLead> unwritten(List<PendingLead> batch, Set<String> written) {
+        return batch.stream().filter(l -> !l.result().isDone() && !written.contains(l.key())).toList();
+    }
+
+    /** Espera exponencial desde retryBackoff hasta maxRetryBackoff. */
+    private long retryDelay(int attempt) {
+        long base = Math.max(1, properties.getRetryBackoff().toMillis());
+        long max = Math.max(base, properties.getMaxRetryBackoff().toMillis());
+        return Math.min(max, base << Math.min(attempt - 1, 20));
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // Parada durante la espera: se sigue intentando, pero ya con límite
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Inserta un lead en su propia transacción. Si choca con un código de cupón
+     * existente lo repite con otro, como {@link CouponCodeAllocator#insertWithRetry}
+     * en el alta síncrona; otra violación de restricción lo marca como fallido
+     * y cualquier otro error (transitorio) se propaga para reintentar.
+     */
+    private void insertRow(PendingLead lead, Set<String> written) {
+        PendingLead row = lead;
+        for (int attempt = 1;; attempt++) {
+            PendingLead current = row;
+            try {
+                written.addAll(tx.execute(status -> insertBatch(List.of(current))));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= CouponCodeAllocator.MAX_ATTEMPTS || !CouponCodeAllocator.isCouponCodeConflict(e)) {
+                    fail(lead, e);
+                    return;
+                }
+                log.warn("⚠️ Código de cupón repetido en lote (intento {}/{}); se reintenta con otro", attempt,
+                        CouponCodeAllocator.MAX_ATTEMPTS);
+                row = current.withCouponCode(couponCodes.next());
+            }
+        }
+    }
+
+    private void fail(PendingLead lead, Exception e) {
+        recent.remove(lead.key());
+        lead.result().completeExceptionally(e);
+    }
+
+    /** @return claves (promoción + identificador) realmente insertadas */
+    private Set<String> insertBatch(List<PendingLead> batch) {
+        List<Object> args = new ArrayList<>(batch.size() * COLUMN_COUNT);
+        for (PendingLead l : batch) {
+            OffsetDateTime createdAt = utc(l.createdAt());
+            args.add(l.promotionId());
+            args.add(l.identifierType().name());
+            args.add(l.identifier());
+            args.add(l.firstName());
+            args.add(l.lastName());
+            args.add(l.email());
+            args.add(l.phone());
+            args.add(l.birthDate());
+            args.add(utc(l.acceptedPrivacyAt()));
+            args.add(utc(l.acceptedTermsAt()));
+            args.add(l.couponCode());
+            args.add(CouponStatus.VALID.name());
+            args.add(utc(l.expiresAt()));
+            args.add(createdAt);
+            args.add(createdAt);
+        }
+        List<String> keys = jdbcTemplate.query(insertSql(batch.size()),
+                (rs, i) -> dedupeKey(rs.getLong(1), rs.getString(2)), args.toArray());
+        Set<String> written = new HashSet<>(keys);
+
+        // Contadores diarios en la misma transacción, un incremento por promoción y día
+        Map<DayKey, Long> perDay = new HashMap<>();
+        for (PendingLead l : batch) {
+            if (written.contains(l.key()))
+                perDay.merge(new DayKey(l.promotionId(), leadCounters.dayOf(l.createdAt())), 1L, Long::sum);
+        }
+        perDay.forEach((day, count) -> leadCounters.recordLeads(day.promotionId(), day.day(), count));
+        return written;
+    }
+
+    static String insertSql(int rows) {
+        String tuple = "(" + "?, ".repeat(COLUMN_COUNT - 1) + "?)";
+        StringBuilder sql = new StringBuilder(64 + COLUMNS.length() + rows * (tuple.length() + 2))
+                .append("insert into promotion_lead (").append(COLUMNS).append(") values ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0)
+                sql.append(", ");
+            sql.append(tuple);
+        }
+        return sql.append(" on conflict (promotion_id, identifier) do nothing returning promotion_id, identifier")
+                .toString();
+    }
+
+    private void reportUsage(Map<Long, Long> insertedByCompany) {
+        long unixTs = Instant.now().getEpochSecond();
+        insertedByCompany.forEach((companyId, count) -> {
+            try {
+                Company company = companyRepository.findById(companyId).orElse(null);
+                if (company != null)
+                    billingService.reportLeadUsage(company, count, unixTs);
+            } catch (Exception e) {
+                log.warn("Error reportando uso de {} leads a Stripe para company {}: {}", count, companyId,
+                        e.getMessage());
+            }
+        });
+    }
+
+    private PromotionSnapshot promotion(Long promotionId) {
+        long now = System.nanoTime();
+        PromotionSnapshot cached = promotions.get(promotionId);
+        if (cached != null && now - cached.loadedAtNanos() < properties.getPromotionCacheTtl().toNanos())
+            return cached;
+        Promotion p = promotionRepository.findById(promotionId)
+                .orElseThrow(() -> new IllegalArgumentException("Promotion not found: " + promotionId));
+        PromotionSnapshot snapshot = new PromotionSnapshot(p.getId(),
+                p.getCompany() != null ? p.getCompany().getId() : null,
+                p.getLeadIdentifierType() != null ? p.getLeadIdentifierType() : LeadIdentifierType.EMAIL,
+                p.getEndAt(), now);
+        promotions.put(promotionId, snapshot);
+        return snapshot;
+    }
+
+    private int batchSize() {
+        return Math.max(1, Math.min(properties.getBatchSize(), MAX_BATCH_SIZE));
+    }
+
+    private static String dedupeKey(Long promotionId, String identifier) {
+        return promotionId + ":" + identifier;
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    /** LRU acotada con caducidad: claves aceptadas recientemente. */
+    static final class RecentKeys {
+        private final long ttlNanos;
+        private final LinkedHashMap<String, Long> entries;
+
+        RecentKeys(int maxEntries, long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        /** @return false si la clave ya estaba y sigue vigente */
+        synchronized boolean add(String key) {
+            long now = System.nanoTime();
+            Long since = entries.get(key);
+            if (since != null && now - since < ttlNanos)
+                return false;
+            entries.put(key, now);
+            return true;
+        }
+
+        synchronized void remove(String key) {
+            entries.remove(key);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.infraestructure.config.MediaAdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Control de admisión para el procesamiento de medias: limita los encodes
+ * simultáneos por tipo y acota cuántas subidas pueden esperar plaza. Lo que no
+ * cabe se rechaza de inmediato ({@link MediaAdmissionRejectedException}) en vez
+ * de lanzar otro ffmpeg y agotar CPU/memoria del dyno.
+ *
+ * Métricas: media.admission.active, media.admission.queue.depth,
+ * media.admission.wait y media.admission.rejected (tag kind).
+ */
+@Slf4j
+@Component
+public class MediaAdmissionController {
+
+    public enum Kind {
+        VIDEO, IMAGE
+    }
+
+    /** Plaza obtenida; se libera al cerrar. */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final MediaAdmissionProperties properties;
+    private final Map<Kind, Lane> lanes = new EnumMap<>(Kind.class);
+
+    public MediaAdmissionController(MediaAdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        lanes.put(Kind.VIDEO, new Lane(Kind.VIDEO, properties.getVideo(), meterRegistry));
+        lanes.put(Kind.IMAGE, new Lane(Kind.IMAGE, properties.getImage(), meterRegistry));
+    }
+
+    public Permit acquire(Kind kind) {
+        return lanes.get(kind).acquire();
+    }
+
+    private final class Lane {
+        private final Kind kind;
+        private final Semaphore slots;
+        private final int queueCapacity;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Counter rejected;
+
+        Lane(Kind kind, MediaAdmissionProperties.Lane limits, MeterRegistry registry) {
+            this.kind = kind;
+            this.slots = new Semaphore(Math.max(1, limits.getConcurrency()), true);
+            this.queueCapacity = Math.max(0, limits.getQueueCapacity());
+            String tag = kind.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("media.admission.active", active, AtomicInteger::get)
+                    .tag("kind", tag).register(registry);
+            Gauge.builder("media.admission.queue.depth", waiting, AtomicInteger::get)
+                    .tag("kind", tag).register(registry);
+            this.waitTimer = Timer.builder("media.admission.wait").tag("kind", tag).register(registry);
+            this.rejected = Counter.builder("media.admission.rejected").tag("kind", tag).register(registry);
+        }
+
+        Permit acquire() {
+            if (slots.tryAcquire()) {
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return grant();
+            }
+            if (waiting.incrementAndGet() > queueCapacity) {
+                waiting.decrementAndGet();
+                throw reject("cola de espera llena");
+            }
+            long start = System.nanoTime();
+            try {
+                if (!slots.tryAcquire(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw reject("tiempo de espera agotado");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject("espera interrumpida");
+            } finally {
+                waiting.decrementAndGet();
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return grant();
+        }
+
+        private Permit grant() {
+            active.incrementAndGet();
+            return new Permit() {
+                private boolean released;
+
+                @Override
+                public synchronized void close() {
+                    if (!released) {
+                        released = true;
+                        active.decrementAndGet();
+                        slots.release();
+                    }
+                }
+            };
+        }
+
+        private MediaAdmissionRejectedException reject(String reason) {
+            rejected.increment();
+            log.warn("⛔ Procesamiento de {} rechazado: {} (activos={}, en cola={})",
+                    kind, reason, active.get(), waiting.get());
+            return new MediaAdmissionRejectedException(
+                    "Demasiados procesamientos de " + kind.name().toLowerCase(Locale.ROOT) + " en curso",
+                    properties.getRetryAfter());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.screenleads.backend.app.application.service;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a media upload cannot be admitted for processing
+ * because all slots and the wait queue for its kind are taken.
+ */
+public class MediaAdmissionRejectedException extends RuntimeException {
+
+    private final transient Duration retryAfter;
+
+    public MediaAdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,225 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.domain.repositories.MediaRepository;
+import com.screenleads.backend.app.infraestructure.config.MediaGcProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Recolector de objetos huérfanos del bucket y de temporales perdidos de la
+ * ingesta.
+ * <p>
+ * El listado del bucket y las rutas referenciadas en BD (media, thumbnails y
+ * renditions) se recorren a la vez, ambos ordenados, con un merge-join: ningún
+ * lado se carga entero en memoria. Un objeto sin referencia se borra cuando
+ * supera el periodo de gracia.
+ */
+@Slf4j
+@Service
+public class MediaGarbageCollector {
+
+    /** Prefijos de los temporales que crean el controlador, MediaProcessingService y LeadExportService. */
+    static final List<String> TEMP_PREFIXES = List.of("upload_", "compressed_video_", "compressed_image_",
+            "video_thumb_", "thumb_", "rendition_video_", "rendition_image_", "lead_export_");
+
+    // Thumbnails anteriores a media_thumbnail: {dir}/thumbnails/{n}/thumb-{n}-{base}.jpg
+    private static final Pattern LEGACY_THUMBNAIL = Pattern.compile("^(.+)/thumbnails/(\\d+)/thumb-\\2-(.+)\\.jpg$");
+
+    private final FirebaseStorageService storage;
+    private final MediaRepository mediaRepository;
+    private final MediaGcProperties properties;
+    private final TransactionTemplate readOnlyTx;
+
+    public MediaGarbageCollector(FirebaseStorageService storage, MediaRepository mediaRepository,
+            MediaGcProperties properties, PlatformTransactionManager transactionManager) {
+        this.storage = storage;
+        this.mediaRepository = mediaRepository;
+        this.properties = properties;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public record Report(String prefix, long scanned, long orphans, long deleted, long reclaimedBytes,
+            long withinGrace) {
+    }
+
+    // ---------------- BUCKET ----------------
+
+    @Scheduled(cron = "${media.gc.cron:0 30 4 * * *}")
+    public void scheduledReconcile() {
+        if (!properties.isEnabled())
+            return;
+        try {
+            reconcile(Instant.now());
+        } catch (RuntimeException e) {
+            log.error("❌ Reconciliación de medias fallida: {}", e.getMessage(), e);
+        }
+    }
+
+    public List<Report> reconcile(Instant now) {
+        String urlPrefix = storage.publicUrlPrefix();
+        long budget = properties.getMaxDeletesPerRun();
+        List<Report> reports = new ArrayList<>();
+        for (String prefix : properties.getPrefixes()) {
+            final long remaining = budget;
+            Report report = readOnlyTx.execute(status -> reconcilePrefix(prefix, urlPrefix, now, remaining));
+            if (report == null)
+                continue;
+            reports.add(report);
+            budget -= report.deleted();
+            log.info("🧹 GC {}: {} objetos, {} huérfanos, {} borrados ({} bytes), {} en periodo de gracia{}",
+                    prefix, report.scanned(), report.orphans(), report.deleted(), report.reclaimedBytes(),
+                    report.withinGrace(), properties.isDryRun() ? " [dry-run]" : "");
+        }
+        return reports;
+    }
+
+    private Report reconcilePrefix(String prefix, String urlPrefix, Instant now, long budget) {
+        Instant cutoff = now.minus(properties.getGracePeriod());
+        Iterator<FirebaseStorageService.StoredObject> stored = storage.listObjects(prefix, properties.getPageSize());
+
+        try (Stream<String> refs = mediaRepository.streamReferencedPaths(urlPrefix)) {
+            Iterator<String> referenced = refs.iterator();
+            if (!referenced.hasNext()) {
+                // Sin una sola referencia lo probable es un prefijo de URL mal configurado
+                log.warn("⚠️ GC {}: no hay rutas referenciadas bajo {}; no se borra nada", prefix, urlPrefix);
+                return null;
+            }
+
+            OrphanSink sink = new OrphanSink(urlPrefix, cutoff, budget);
+            long scanned = mergeJoin(stored, referenced, sink);
+            sink.flush();
+            return new Report(prefix, scanned, sink.orphans, sink.deleted, sink.reclaimedBytes, sink.withinGrace);
+        }
+    }
+
+    /**
+     * Recorre ambos lados (ordenados ascendentemente) y entrega a {@code orphan}
+     * los objetos almacenados sin referencia. Aborta si alguno de los lados no
+     * viene ordenado: con órdenes distintos el join daría falsos huérfanos.
+     *
+     * @return objetos almacenados recorridos
+     */
+    static long mergeJoin(Iterator<FirebaseStorageService.StoredObject> stored, Iterator<String> referenced,
+            Consumer<FirebaseStorageService.StoredObject> orphan) {
+        long scanned = 0;
+        String previousPath = null;
+        String ref = referenced.hasNext() ? referenced.next() : null;
+        while (stored.hasNext()) {
+            FirebaseStorageService.StoredObject object = stored.next();
+            scanned++;
+            if (previousPath != null && previousPath.compareTo(object.path()) > 0)
+                throw new IllegalStateException("Listado del bucket no ordenado en " + object.path());
+            previousPath = object.path();
+
+            while (ref != null && ref.compareTo(object.path()) < 0) {
+                String next = referenced.hasNext() ? referenced.next() : null;
+                if (next != null && next.compareTo(ref) < 0)
+                    throw new IllegalStateException("Rutas referenciadas no ordenadas en " + next);
+                ref = next;
+            }
+            if (ref == null || !ref.equals(object.path()))
+                orphan.accept(object);
+        }
+        return scanned;
+    }
+
+    /** Aplica gracia y protección de thumbnails antiguos y borra por lotes. */
+    private final class OrphanSink implements Consumer<FirebaseStorageService.StoredObject> {
+        private final String urlPrefix;
+        private final Instant cutoff;
+        private final long budget;
+        private final List<FirebaseStorageService.StoredObject> batch = new ArrayList<>();
+        private long orphans;
+        private long deleted;
+        private long reclaimedBytes;
+        private long withinGrace;
+
+        OrphanSink(String urlPrefix, Instant cutoff, long budget) {
+            this.urlPrefix = urlPrefix;
+            this.cutoff = cutoff;
+            this.budget = budget;
+        }
+
+        @Override
+        public void accept(FirebaseStorageService.StoredObject object) {
+            if (object.createdAt().isAfter(cutoff)) {
+                withinGrace++;
+                return;
+            }
+            if (isLegacyThumbnailOfLiveMedia(object.path()))
+                return;
+            orphans++;
+            if (deleted + batch.size() >= budget)
+                return;
+            batch.add(object);
+            if (batch.size() >= properties.getPageSize())
+                flush();
+        }
+
+        void flush() {
+            if (batch.isEmpty())
+                return;
+            if (properties.isDryRun()) {
+                batch.forEach(o -> log.info("🧹 [dry-run] huérfano {} ({} bytes)", o.path(), o.sizeBytes()));
+            } else {
+                storage.delete(batch.stream().map(FirebaseStorageService.StoredObject::path).toList());
+            }
+            deleted += batch.size();
+            reclaimedBytes += batch.stream().mapToLong(FirebaseStorageService.StoredObject::sizeBytes).sum();
+            batch.clear();
+        }
+
+        private boolean isLegacyThumbnailOfLiveMedia(String path) {
+            Matcher m = LEGACY_THUMBNAIL.matcher(path);
+            return m.matches()
+                    && mediaRepository.existsBySrcStartingWith(urlPrefix + m.group(1) + "/compressed-" + m.group(3) + ".");
+        }
+    }
+
+    // ---------------- TEMPORALES ----------------
+
+    @Scheduled(fixedDelayString = "${media.gc.temp-sweep-interval:PT30M}", initialDelayString = "${media.gc.temp-sweep-interval:PT30M}")
+    public void scheduledTempSweep() {
+        int removed = sweepTempFiles(Path.of(System.getProperty("java.io.tmpdir")), Instant.now());
+        if (removed > 0)
+            log.info("🧹 {} temporales de ingesta perdidos eliminados", removed);
+    }
+
+    /** Borra los temporales de la ingesta más antiguos que {@code tempMaxAge}. */
+    int sweepTempFiles(Path dir, Instant now) {
+        Instant cutoff = now.minus(properties.getTempMaxAge());
+        int removed = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (TEMP_PREFIXES.stream().noneMatch(name::startsWith) || !Files.isRegularFile(file))
+                    continue;
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file))
+                        removed++;
+                } catch (IOException e) {
+                    log.debug("No se pudo borrar el temporal {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo listar {}: {}", dir, e.getMessage());
+        }
+        return removed;
+    }
+}
@@ -1,36 +1,77 @@
 package com.screenleads.backend.app.application.service;
 
+import com.screenleads.backend.app.infraestructure.config.MediaEncodingProperties;
+import com.screenleads.backend.app.infraestructure.config.MediaRenditionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.imgscalr.Scalr;
 import org.springframework.stereotype.Service;
 import ws.schild.jave.Encoder;
 import ws.schild.jave.EncoderException;
 import ws.schild.jave.MultimediaObject;
+import ws.schild.jave.encode.ArgType;
 import ws.schild.jave.encode.AudioAttributes;
+import ws.schild.jave.encode.EncodingArgument;
 import ws.schild.jave.encode.EncodingAttributes;
+import ws.schild.jave.encode.ValueArgument;
 import ws.schild.jave.encode.VideoAttributes;
 import ws.schild.jave.info.MultimediaInfo;
 import ws.schild.jave.info.VideoInfo;
+import ws.schild.jave.info.VideoSize;
 
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 
 @Service
 @Slf4j
 public class MediaProcessingService {
 
     private static final int[] THUMBNAIL_SIZES = { 320, 640 };
-    private static final int VIDEO_BITRATE = 1000000; // 1Mbps
     private static final int AUDIO_BITRATE = 128000; // 128kbps
-    private static final int MAX_IMAGE_WIDTH = 1920;
-    private static final int MAX_IMAGE_HEIGHT = 1080;
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final String STAGE_TIMER = "media.processing.stage";
+
+    private final MediaRenditionProperties renditionProperties;
+    private final MediaEncodingProperties encodingProperties;
+    private final MeterRegistry meterRegistry;
+
+    public MediaProcessingService(MediaRenditionProperties renditionProperties,
+            MediaEncodingProperties encodingProperties, MeterRegistry meterRegistry) {
+        this.renditionProperties = renditionProperties;
+        this.encodingProperties = encodingProperties;
+        this.meterRegistry = meterRegistry;
+    }
 
     public record ProcessingResult(
             String mainUrl,
@@ -41,28 +82,35 @@ public class MediaProcessingService {
 
     /**
      * Procesa un archivo multimedia de forma síncrona: comprime y genera thumbnails
+     * con el perfil de codificación indicado (null = perfil por defecto).
+     *
+     * @throws IllegalArgumentException si el perfil no existe
      */
-    public ProcessedMedia processMedia(File sourceFile, String originalFilename,
+    public ProcessedMedia processMedia(File sourceFile, String originalFilename, String profileName,
             FirebaseStorageService firebaseService) throws IOException {
         long startTime = System.currentTimeMillis();
 
         String extension = getExtension(originalFilename).toLowerCase(Locale.ROOT);
         MediaType mediaType = detectMediaType(extension);
+        EncodingProfile profile = resolveProfile(profileName);
 
-        log.info("🎬 Iniciando procesamiento {} de archivo: {}", mediaType, originalFilename);
+        log.info("🎬 Iniciando procesamiento {} de archivo: {} (perfil {})", mediaType, originalFilename,
+                profile.name());
 
         ProcessedMedia result;
+        Timer.Sample total = Timer.start(meterRegistry);
 
         try {
             if (mediaType == MediaType.VIDEO) {
-                result = processVideo(sourceFile, originalFilename, firebaseService);
+                result = processVideo(sourceFile, originalFilename, profile, firebaseService);
             } else if (mediaType == MediaType.IMAGE) {
-                result = processImage(sourceFile, originalFilename, firebaseService);
+                result = processImage(sourceFile, originalFilename, profile, firebaseService);
             } else {
                 throw new UnsupportedOperationException("Tipo de archivo no soportado: " + extension);
             }
 
             long processingTime = System.currentTimeMillis() - startTime;
+            total.stop(stageTimer(mediaType, "total"));
             log.info("✅ Procesamiento completado en {}ms", processingTime);
 
             return result;
@@ -73,18 +121,51 @@ public class MediaProcessingService {
         }
     }
 
-    private ProcessedMedia processVideo(File sourceFile, String originalFilename,
+    /**
+     * Devuelve el perfil con ese nombre o el perfil por defecto si {@code name} es
+     * null/vacío.
+     *
+     * @throws IllegalArgumentException si el perfil no existe
+     */
+    public EncodingProfile resolveProfile(String name) {
+        String key = (name == null || name.isBlank()) ? encodingProperties.getDefaultProfile() : name.trim();
+        MediaEncodingProperties.Profile settings = Optional.ofNullable(encodingProperties.getProfiles())
+                .map(p -> p.get(key))
+                .orElseThrow(() -> new IllegalArgumentException("Perfil de codificación desconocido: " + key));
+        return new EncodingProfile(key, settings);
+    }
+
+    /**
+     * Latencia por etapa de la ingesta (compress, upload, probe, thumbnails,
+     * renditions, total). thumbnails/renditions incluyen sus subidas.
+     */
+    private Timer stageTimer(MediaType mediaType, String stage) {
+        return Timer.builder(STAGE_TIMER)
+                .tag("kind", mediaType.name().toLowerCase(Locale.ROOT))
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private ProcessedMedia processVideo(File sourceFile, String originalFilename, EncodingProfile profile,
             FirebaseStorageService firebaseService) throws IOException {
         String baseName = stripExtension(originalFilename);
         String destinationFolder = "media/videos";
 
         // 1. Comprimir video
-        File compressedVideo = compressVideo(sourceFile);
+        Timer.Sample stage = Timer.start(meterRegistry);
+        File compressedVideo = compressVideo(sourceFile, profile.settings());
+        stage.stop(stageTimer(MediaType.VIDEO, "compress"));
         String compressedPath = destinationFolder + "/compressed-" + baseName + ".mp4";
+        stage = Timer.start(meterRegistry);
         String mainUrl = firebaseService.upload(compressedVideo, compressedPath);
+        stage.stop(stageTimer(MediaType.VIDEO, "upload"));
         log.info("📤 Video comprimido subido: {}", compressedPath);
+        stage = Timer.start(meterRegistry);
+        MediaMetadata metadata = probeVideo(compressedVideo);
+        stage.stop(stageTimer(MediaType.VIDEO, "probe"));
 
         // 2. Generar thumbnails del video
+        stage = Timer.start(meterRegistry);
         List<String> thumbnailUrls = new ArrayList<>();
         for (int size : THUMBNAIL_SIZES) {
             try {
@@ -98,29 +179,45 @@ public class MediaProcessingService {
                 log.warn("⚠️ No se pudo generar thumbnail de {}px: {}", size, e.getMessage());
             }
         }
+        stage.stop(stageTimer(MediaType.VIDEO, "thumbnails"));
 
         Files.deleteIfExists(compressedVideo.toPath());
 
-        return new ProcessedMedia(mainUrl, thumbnailUrls, "video");
+        // 3. Renditions por resolución de pantalla
+        stage = Timer.start(meterRegistry);
+        List<Rendition> renditions = createVideoRenditions(sourceFile, baseName, destinationFolder,
+                profile.settings(), metadata, firebaseService);
+        stage.stop(stageTimer(MediaType.VIDEO, "renditions"));
+
+        return new ProcessedMedia(mainUrl, thumbnailUrls, "video", renditions, metadata, profile.name(),
+                sourceFile.length());
     }
 
-    private ProcessedMedia processImage(File sourceFile, String originalFilename,
+    private ProcessedMedia processImage(File sourceFile, String originalFilename, EncodingProfile profile,
             FirebaseStorageService firebaseService) throws IOException {
         String baseName = stripExtension(originalFilename);
         String extension = getExtension(originalFilename).toLowerCase(Locale.ROOT);
         String destinationFolder = "media/images";
 
         // 1. Comprimir/redimensionar imagen
-        File compressedImage = compressImage(sourceFile, extension);
+        Timer.Sample stage = Timer.start(meterRegistry);
+        File compressedImage = compressImage(sourceFile, extension, profile.settings());
+        stage.stop(stageTimer(MediaType.IMAGE, "compress"));
         String compressedPath = destinationFolder + "/compressed-" + baseName + "." + extension;
+        stage = Timer.start(meterRegistry);
         String mainUrl = firebaseService.upload(compressedImage, compressedPath);
+        stage.stop(stageTimer(MediaType.IMAGE, "upload"));
         log.info("📤 Imagen comprimida subida: {}", compressedPath);
+        stage = Timer.start(meterRegistry);
+        MediaMetadata metadata = probeImage(compressedImage);
+        stage.stop(stageTimer(MediaType.IMAGE, "probe"));
 
         // 2. Generar thumbnails
+        stage = Timer.start(meterRegistry);
         List<String> thumbnailUrls = new ArrayList<>();
         for (int size : THUMBNAIL_SIZES) {
             try {
-                File thumbnail = createImageThumbnail(sourceFile, size);
+                File thumbnail = createImageThumbnail(sourceFile, size, profile.settings());
                 String thumbPath = String.format("%s/thumbnails/%d/thumb-%d-%s.jpg",
                         destinationFolder, size, size, baseName);
                 String thumbUrl = firebaseService.upload(thumbnail, thumbPath);
@@ -130,13 +227,215 @@ public class MediaProcessingService {
                 log.warn("⚠️ No se pudo generar thumbnail de {}px: {}", size, e.getMessage());
             }
         }
+        stage.stop(stageTimer(MediaType.IMAGE, "thumbnails"));
 
         Files.deleteIfExists(compressedImage.toPath());
 
-        return new ProcessedMedia(mainUrl, thumbnailUrls, "image");
+        // 3. Renditions por resolución de pantalla
+        stage = Timer.start(meterRegistry);
+        List<Rendition> renditions = createImageRenditions(sourceFile, baseName, extension, destinationFolder,
+                profile.settings(), metadata, firebaseService);
+        stage.stop(stageTimer(MediaType.IMAGE, "renditions"));
+
+        return new ProcessedMedia(mainUrl, thumbnailUrls, "image", renditions, metadata, profile.name(),
+                sourceFile.length());
+    }
+
+    private List<Rendition> createVideoRenditions(File sourceFile, String baseName, String destinationFolder,
+            MediaEncodingProperties.Profile profile, MediaMetadata main, FirebaseStorageService firebaseService) {
+        List<Rendition> renditions = new ArrayList<>();
+        if (!renditionProperties.isEnabled())
+            return renditions;
+        try {
+            MultimediaObject multimediaObject = new MultimediaObject(sourceFile);
+            VideoInfo videoInfo = multimediaObject.getInfo().getVideo();
+            if (videoInfo == null || videoInfo.getSize() == null)
+                return renditions;
+
+            int width = videoInfo.getSize().getWidth();
+            int height = videoInfo.getSize().getHeight();
+            for (PlannedRendition planned : planRenditions(renditionProperties.getVideo(), width, height,
+                    orElse(main.width(), width), orElse(main.height(), height))) {
+                try {
+                    File target = Files.createTempFile("rendition_video_", ".mp4").toFile();
+                    encodeVideo(multimediaObject, target, new VideoSize(planned.width(), planned.height()),
+                            profile, planned.rung().getBitrate(), planned.aboveMain());
+                    String path = String.format("%s/renditions/%s/%s.mp4",
+                            destinationFolder, planned.rung().getName(), baseName);
+                    String url = firebaseService.upload(target, path);
+                    renditions.add(new Rendition(planned.rung().getName(), planned.width(), planned.height(), url,
+                            target.length(), sha256(target)));
+                    Files.deleteIfExists(target.toPath());
+                } catch (Exception e) {
+                    log.warn("⚠️ No se pudo generar rendition {}: {}", planned.rung().getName(), e.getMessage());
+                }
+            }
+        } catch (EncoderException e) {
+            log.warn("⚠️ No se pudo leer el video para renditions: {}", e.getMessage());
+        }
+        return renditions;
+    }
+
+    private List<Rendition> createImageRenditions(File sourceFile, String baseName, String extension,
+            String destinationFolder, MediaEncodingProperties.Profile profile, MediaMetadata main,
+            FirebaseStorageService firebaseService) throws IOException {
+        List<Rendition> renditions = new ArrayList<>();
+        if (!renditionProperties.isEnabled())
+            return renditions;
+        BufferedImage original = ImageIO.read(sourceFile);
+        if (original == null)
+            return renditions;
+
+        String format = extension.equals("png") ? "png" : "jpg";
+        for (PlannedRendition planned : planRenditions(renditionProperties.getImage(), original.getWidth(),
+                original.getHeight(), orElse(main.width(), original.getWidth()),
+                orElse(main.height(), original.getHeight()))) {
+            try {
+                BufferedImage scaled = (planned.width() == original.getWidth()
+                        && planned.height() == original.getHeight())
+                                ? original
+                                : Scalr.resize(original, profile.getScalingMethod(), Scalr.Mode.FIT_EXACT,
+                                        planned.width(), planned.height(), Scalr.OP_ANTIALIAS);
+                File target = Files.createTempFile("rendition_image_", "." + format).toFile();
+                writeImage(scaled, format, target, profile);
+                String path = String.format("%s/renditions/%s/%s.%s",
+                        destinationFolder, planned.rung().getName(), baseName, format);
+                String url = firebaseService.upload(target, path);
+                renditions.add(new Rendition(planned.rung().getName(), planned.width(), planned.height(), url,
+                        target.length(), sha256(target)));
+                Files.deleteIfExists(target.toPath());
+            } catch (Exception e) {
+                log.warn("⚠️ No se pudo generar rendition {}: {}", planned.rung().getName(), e.getMessage());
+            }
+        }
+        return renditions;
+    }
+
+    /** Metadatos técnicos del fichero ya comprimido (null en lo que no se pueda leer). */
+    private MediaMetadata probeVideo(File file) {
+        try {
+            MultimediaInfo info = new MultimediaObject(file).getInfo();
+            VideoInfo videoInfo = info.getVideo();
+            Integer width = (videoInfo != null && videoInfo.getSize() != null) ? videoInfo.getSize().getWidth() : null;
+            Integer height = (videoInfo != null && videoInfo.getSize() != null) ? videoInfo.getSize().getHeight()
+                    : null;
+            Long durationMs = info.getDuration() > 0 ? info.getDuration() : null;
+            Long bitrate = (durationMs != null) ? file.length() * 8_000L / durationMs : null;
+            return new MediaMetadata(width, height, durationMs, bitrate, file.length(), sha256(file));
+        } catch (EncoderException e) {
+            log.warn("⚠️ No se pudieron leer los metadatos del video: {}", e.getMessage());
+            return new MediaMetadata(null, null, null, null, file.length(), sha256(file));
+        }
+    }
+
+    private MediaMetadata probeImage(File file) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : Collections.emptyIterator();
+            if (readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(in);
+                    return new MediaMetadata(reader.getWidth(0), reader.getHeight(0), null, null, file.length(),
+                            sha256(file));
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudieron leer los metadatos de la imagen: {}", e.getMessage());
+        }
+        return new MediaMetadata(null, null, null, null, file.length(), sha256(file));
+    }
+
+    /**
+     * Calcula las renditions a generar para un original de {@code width}x{@code height}
+     * cuya salida principal (limitada a la caja del perfil) mide
+     * {@code mainWidth}x{@code mainHeight}: cada peldaño es el original encajado
+     * en su caja, con la orientación del original y sin ampliarlo nunca. Se
+     * descartan los que saldrían del tamaño de la principal (ya se sirve) y se
+     * para en el primero que llega al tamaño del original. Así un original 4K
+     * con la principal a 1080p tiene 720p y 2160p, pero no otro 1080p.
+     */
+    static List<PlannedRendition> planRenditions(List<MediaRenditionProperties.Rung> ladder, int width,
+            int height, int mainWidth, int mainHeight) {
+        List<PlannedRendition> planned = new ArrayList<>();
+        if (ladder == null || width <= 0 || height <= 0)
+            return planned;
+
+        boolean portrait = height > width;
+        List<MediaRenditionProperties.Rung> sorted = ladder.stream()
+                .sorted(Comparator.comparingLong(r -> (long) r.getWidth() * r.getHeight()))
+                .toList();
+        for (MediaRenditionProperties.Rung rung : sorted) {
+            int boxW = portrait ? rung.getHeight() : rung.getWidth();
+            int boxH = portrait ? rung.getWidth() : rung.getHeight();
+            double scale = Math.min(1.0, Math.min((double) boxW / width, (double) boxH / height));
+            int w = even((int) (width * scale));
+            int h = even((int) (height * scale));
+            // El redondeo a par puede separar un par de píxeles la principal de su peldaño
+            boolean sameAsMain = Math.abs(w - mainWidth) <= 2 && Math.abs(h - mainHeight) <= 2;
+            if (!sameAsMain)
+                planned.add(new PlannedRendition(rung, w, h, (long) w * h > (long) mainWidth * mainHeight));
+            if (scale >= 1.0)
+                break;
+        }
+        return planned;
+    }
+
+    private static int orElse(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+
+    /** H.264 con yuv420p exige dimensiones pares. */
+    private static int even(int value) {
+        return Math.max(2, value - (value % 2));
     }
 
-    private File compressVideo(File source) throws IOException {
+    /**
+     * H.264 en modo CRF (calidad constante) con tope de bitrate VBV: las escenas
+     * simples ocupan menos y las complejas no superan {@code maxBitrate}.
+     * {@code rungBitrate} (si > 0) rebaja el tope del perfil para una rendition;
+     * por encima de la salida principal ({@code aboveMain}) lo sustituye, porque
+     * el tope del perfil está pensado para su caja.
+     */
+    private void encodeVideo(MultimediaObject source, File target, VideoSize size,
+            MediaEncodingProperties.Profile profile, int rungBitrate, boolean aboveMain) throws EncoderException {
+        AudioAttributes audio = new AudioAttributes();
+        audio.setCodec("aac");
+        audio.setBitRate(AUDIO_BITRATE);
+        audio.setChannels(2);
+        audio.setSamplingRate(44100);
+
+        VideoAttributes video = new VideoAttributes();
+        video.setCodec("h264");
+        video.setCrf(profile.getVideoCrf());
+        video.setPreset(profile.getVideoPreset());
+        video.setPixelFormat("yuv420p");
+        video.setFaststart(true);
+        video.setFrameRate(30);
+        if (size != null)
+            video.setSize(size);
+
+        EncodingAttributes attrs = new EncodingAttributes();
+        attrs.setOutputFormat("mp4");
+        attrs.setAudioAttributes(audio);
+        attrs.setVideoAttributes(video);
+
+        int maxBitrate = rungBitrate <= 0 ? profile.getVideoMaxBitrate()
+                : aboveMain ? rungBitrate : Math.min(rungBitrate, profile.getVideoMaxBitrate());
+        new Encoder().encode(List.of(source), target, attrs, null, rateCapArguments(maxBitrate));
+    }
+
+    /** -maxrate/-bufsize para que el CRF respete un tope (buffer de 2 s). */
+    static List<EncodingArgument> rateCapArguments(int maxBitrate) {
+        if (maxBitrate <= 0)
+            return List.of();
+        return List.of(
+                new ValueArgument(ArgType.OUTFILE, "-maxrate", a -> Optional.of(String.valueOf(maxBitrate))),
+                new ValueArgument(ArgType.OUTFILE, "-bufsize", a -> Optional.of(String.valueOf(2L * maxBitrate))));
+    }
+
+    private File compressVideo(File source, MediaEncodingProperties.Profile profile) throws IOException {
         try {
             Path tempOutput = Files.createTempFile("compressed_video_", ".mp4");
             File target = tempOutput.toFile();
@@ -144,40 +443,21 @@ public class MediaProcessingService {
             MultimediaObject multimediaObject = new MultimediaObject(source);
             MultimediaInfo info = multimediaObject.getInfo();
 
-            // Configurar atributos de audio
-            AudioAttributes audio = new AudioAttributes();
-            audio.setCodec("aac");
-            audio.setBitRate(AUDIO_BITRATE);
-            audio.setChannels(2);
-            audio.setSamplingRate(44100);
-
-            // Configurar atributos de video
-            VideoAttributes video = new VideoAttributes();
-            video.setCodec("h264");
-            video.setBitRate(VIDEO_BITRATE);
-            video.setFrameRate(30);
-
-            // Mantener aspect ratio pero limitar resolución
+            // Mantener aspect ratio pero limitar resolución a la caja del perfil
+            VideoSize size = null;
             VideoInfo videoInfo = info.getVideo();
-            if (videoInfo != null) {
+            if (videoInfo != null && videoInfo.getSize() != null) {
                 int width = videoInfo.getSize().getWidth();
                 int height = videoInfo.getSize().getHeight();
 
-                if (width > 1920 || height > 1080) {
-                    double scale = Math.min(1920.0 / width, 1080.0 / height);
-                    video.setSize(new ws.schild.jave.info.VideoSize(
-                            (int) (width * scale),
-                            (int) (height * scale)));
+                if (width > profile.getMaxWidth() || height > profile.getMaxHeight()) {
+                    double scale = Math.min((double) profile.getMaxWidth() / width,
+                            (double) profile.getMaxHeight() / height);
+                    size = new VideoSize(even((int) (width * scale)), even((int) (height * scale)));
                 }
             }
 
-            EncodingAttributes attrs = new EncodingAttributes();
-            attrs.setOutputFormat("mp4");
-            attrs.setAudioAttributes(audio);
-            attrs.setVideoAttributes(video);
-
-            Encoder encoder = new Encoder();
-            encoder.encode(multimediaObject, target, attrs);
+            encodeVideo(multimediaObject, target, size, profile, 0, false);
 
             log.info("🎥 Video comprimido: {} → {} bytes",
                     source.length(), target.length());
@@ -217,7 +497,8 @@ public class MediaProcessingService {
         }
     }
 
-    private File compressImage(File source, String extension) throws IOException {
+    private File compressImage(File source, String extension, MediaEncodingProperties.Profile profile)
+            throws IOException {
         BufferedImage original = ImageIO.read(source);
         if (original == null) {
             throw new IOException("No se pudo leer la imagen");
@@ -226,19 +507,19 @@ public class MediaProcessingService {
         BufferedImage compressed = original;
 
         // Redimensionar si es muy grande
-        if (original.getWidth() > MAX_IMAGE_WIDTH || original.getHeight() > MAX_IMAGE_HEIGHT) {
+        if (original.getWidth() > profile.getMaxWidth() || original.getHeight() > profile.getMaxHeight()) {
             compressed = Scalr.resize(original,
-                    Scalr.Method.QUALITY,
+                    profile.getScalingMethod(),
                     Scalr.Mode.FIT_TO_WIDTH,
-                    MAX_IMAGE_WIDTH,
-                    MAX_IMAGE_HEIGHT,
+                    profile.getMaxWidth(),
+                    profile.getMaxHeight(),
                     Scalr.OP_ANTIALIAS);
         }
 
         Path tempOutput = Files.createTempFile("compressed_image_", "." + extension);
         File target = tempOutput.toFile();
 
-        ImageIO.write(compressed, extension.equals("png") ? "png" : "jpg", target);
+        writeImage(compressed, extension.equals("png") ? "png" : "jpg", target, profile);
 
         log.info("🖼️ Imagen comprimida: {} → {} bytes",
                 source.length(), target.length());
@@ -246,7 +527,8 @@ public class MediaProcessingService {
         return target;
     }
 
-    private File createImageThumbnail(File source, int size) throws IOException {
+    private File createImageThumbnail(File source, int size, MediaEncodingProperties.Profile profile)
+            throws IOException {
         BufferedImage original = ImageIO.read(source);
         if (original == null) {
             throw new IOException("No se pudo leer la imagen para thumbnail");
@@ -262,11 +544,91 @@ public class MediaProcessingService {
         Path tempOutput = Files.createTempFile("thumb_", ".jpg");
         File target = tempOutput.toFile();
 
-        ImageIO.write(thumbnail, "jpg", target);
+        writeImage(thumbnail, "jpg", target, profile);
 
         return target;
     }
 
+    /**
+     * Escribe la imagen; en JPEG aplica calidad, modo progresivo y submuestreo de
+     * croma del perfil (ImageIO por defecto usa 0.75, baseline y 4:2:0).
+     */
+    static void writeImage(BufferedImage image, String format, File target, MediaEncodingProperties.Profile profile)
+            throws IOException {
+        if (!"jpg".equals(format)) {
+            ImageIO.write(image, format, target);
+            return;
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext())
+            throw new IOException("No hay codificador JPEG disponible");
+        ImageWriter writer = writers.next();
+        BufferedImage rgb = toRgb(image);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(Math.max(0f, Math.min(1f, profile.getJpegQuality())));
+            if (profile.isProgressive())
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+            IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(rgb), param);
+            applyChromaSubsampling(metadata, profile.getChromaSubsampling());
+            writer.write(null, new IIOImage(rgb, null, metadata), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /** El muestreo de la luminancia (componente 1) define la proporción de croma. */
+    private static void applyChromaSubsampling(IIOMetadata metadata,
+            MediaEncodingProperties.ChromaSubsampling subsampling) throws IOException {
+        if (subsampling == null)
+            return;
+        int factor = subsampling == MediaEncodingProperties.ChromaSubsampling.YUV444 ? 1 : 2;
+        Element tree = (Element) metadata.getAsTree(JPEG_METADATA_FORMAT);
+        NodeList components = tree.getElementsByTagName("componentSpec");
+        for (int i = 0; i < components.getLength(); i++) {
+            Element component = (Element) components.item(i);
+            int sampling = "1".equals(component.getAttribute("componentId")) ? factor : 1;
+            component.setAttribute("HsamplingFactor", String.valueOf(sampling));
+            component.setAttribute("VsamplingFactor", String.valueOf(sampling));
+        }
+        metadata.setFromTree(JPEG_METADATA_FORMAT, tree);
+    }
+
+    /** SHA-256 en hex del contenido del fichero (el mismo que se sube al bucket). */
+    static String sha256(File file) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** JPEG no admite alfa: se compone sobre fondo blanco. */
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_3BYTE_BGR)
+            return image;
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(java.awt.Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
     private MediaType detectMediaType(String extension) {
         return switch (extension) {
             case "mp4", "mov", "avi", "mkv", "webm" -> MediaType.VIDEO;
@@ -285,7 +647,25 @@ public class MediaProcessingService {
         return lastDot > 0 ? filename.substring(0, lastDot) : filename;
     }
 
-    public record ProcessedMedia(String mainUrl, List<String> thumbnailUrls, String type) {
+    /** profile: perfil de codificación aplicado; originalSizeBytes: tamaño del fichero subido. */
+    public record ProcessedMedia(String mainUrl, List<String> thumbnailUrls, String type,
+            List<Rendition> renditions, MediaMetadata metadata, String profile, long originalSizeBytes) {
+    }
+
+    public record EncodingProfile(String name, MediaEncodingProperties.Profile settings) {
+    }
+
+    /** sha256: hex del fichero subido, para que los dispositivos verifiquen la descarga. */
+    public record Rendition(String name, int width, int height, String url, long sizeBytes, String sha256) {
+    }
+
+    /** bitrate en bps (medio, incluye audio); durationMs solo para video; sha256 del fichero servido. */
+    public record MediaMetadata(Integer width, Integer height, Long durationMs, Long bitrate, Long sizeBytes,
+            String sha256) {
+    }
+
+    /** aboveMain: mayor que la salida principal (de un original más grande que la caja del perfil). */
+    record PlannedRendition(MediaRenditionProperties.Rung rung, int width, int height, boolean aboveMain) {
     }
 
     private enum MediaType {
@@ -3,6 +3,7 @@ package com.screenleads.backend.app.application.service;
 import java.util.List;
 import java.util.Optional;
 
+import com.screenleads.backend.app.web.dto.MediaCompressionReportDTO;
 import com.screenleads.backend.app.web.dto.MediaDTO;
 
 public interface MediaService {
@@ -15,4 +16,10 @@ public interface MediaService {
     MediaDTO updateMedia(Long id, MediaDTO dto);
 
     void deleteMedia(Long id);
+
+    /** Registra (o actualiza por src) el media resultante de una ingesta y sus renditions. */
+    Optional<MediaDTO> registerProcessed(MediaProcessingService.ProcessedMedia processed);
+
+    /** Bytes ahorrados frente al original, por perfil (compañía del usuario; admin: todas). */
+    MediaCompressionReportDTO compressionReport();
 }
@@ -1,17 +1,28 @@
 package com.screenleads.backend.app.application.service;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.screenleads.backend.app.application.security.SecurityUtils;
 import com.screenleads.backend.app.domain.model.Media;
+import com.screenleads.backend.app.domain.model.MediaRendition;
+import com.screenleads.backend.app.domain.model.MediaType;
+import com.screenleads.backend.app.domain.repositories.CompanyRepository;
 import com.screenleads.backend.app.domain.repositories.MediaRepository;
 import com.screenleads.backend.app.domain.repositories.MediaTypeRepository;
+import com.screenleads.backend.app.web.dto.MediaCompressionReportDTO;
 import com.screenleads.backend.app.web.dto.MediaDTO;
+import com.screenleads.backend.app.web.dto.MediaRenditionDTO;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
 public class MediaServiceImpl implements MediaService {
 
@@ -21,10 +32,13 @@ public class MediaServiceImpl implements MediaService {
 
     private final MediaRepository mediaRepository;
     private final MediaTypeRepository mediaTypeRepository;
+    private final CompanyRepository companyRepository;
 
-    public MediaServiceImpl(MediaRepository mediaRepository, MediaTypeRepository mediaTypeRepository) {
+    public MediaServiceImpl(MediaRepository mediaRepository, MediaTypeRepository mediaTypeRepository,
+            CompanyRepository companyRepository) {
         this.mediaRepository = mediaRepository;
         this.mediaTypeRepository = mediaTypeRepository;
+        this.companyRepository = companyRepository;
     }
 
     @Override
@@ -62,15 +76,108 @@ public class MediaServiceImpl implements MediaService {
         mediaRepository.deleteById(id);
     }
 
+    @Override
+    @Transactional
+    public Optional<MediaDTO> registerProcessed(MediaProcessingService.ProcessedMedia processed) {
+        Long companyId = SecurityUtils.currentCompanyId().orElse(null);
+        MediaType type = mediaTypeRepository.findByExtensionIgnoreCase(extractExtension(processed.mainUrl()))
+                .orElse(null);
+        if (companyId == null || type == null) {
+            log.warn("Media {} no registrado (company={}, type={})", processed.mainUrl(), companyId, type);
+            return Optional.empty();
+        }
+
+        Media media = mediaRepository.findBySrc(processed.mainUrl()).orElseGet(() -> {
+            Media created = new Media();
+            created.setSrc(processed.mainUrl());
+            created.setType(type);
+            created.setCompany(companyRepository.getReferenceById(companyId));
+            return created;
+        });
+
+        MediaProcessingService.MediaMetadata metadata = processed.metadata();
+        if (metadata != null) {
+            media.setWidth(metadata.width());
+            media.setHeight(metadata.height());
+            media.setDurationMs(metadata.durationMs());
+            media.setBitrate(metadata.bitrate());
+            media.setSizeBytes(metadata.sizeBytes());
+            media.setContentSha256(metadata.sha256());
+        }
+        media.setProcessingProfile(processed.profile());
+        media.setOriginalSizeBytes(processed.originalSizeBytes() > 0 ? processed.originalSizeBytes() : null);
+        media.getThumbnailUrls().clear();
+        if (processed.thumbnailUrls() != null) {
+            media.getThumbnailUrls().addAll(processed.thumbnailUrls());
+        }
+
+        media.getRenditions().clear();
+        if (processed.renditions() != null) {
+            for (MediaProcessingService.Rendition r : processed.renditions()) {
+                media.getRenditions().add(MediaRendition.builder()
+                        .media(media)
+                        .name(r.name())
+                        .width(r.width())
+                        .height(r.height())
+                        .src(r.url())
+                        .sizeBytes(r.sizeBytes())
+                        .contentSha256(r.sha256())
+                        .build());
+            }
+        }
+        return Optional.of(convertToDTO(mediaRepository.save(media)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MediaCompressionReportDTO compressionReport() {
+        Long companyId = SecurityUtils.isAdmin() ? null : SecurityUtils.currentCompanyId().orElse(null);
+        if (!SecurityUtils.isAdmin() && companyId == null) {
+            return new MediaCompressionReportDTO(0, 0, 0, 0, 0d, List.of());
+        }
+
+        List<MediaCompressionReportDTO.ProfileSavings> byProfile = new ArrayList<>();
+        long medias = 0;
+        long original = 0;
+        long stored = 0;
+        for (MediaRepository.CompressionStats row : mediaRepository.compressionStatsByProfile(companyId)) {
+            long rowOriginal = row.getOriginalBytes() != null ? row.getOriginalBytes() : 0L;
+            long rowStored = row.getStoredBytes() != null ? row.getStoredBytes() : 0L;
+            byProfile.add(new MediaCompressionReportDTO.ProfileSavings(row.getProfile(), row.getMedias(),
+                    rowOriginal, rowStored, rowOriginal - rowStored, savedRatio(rowOriginal, rowStored)));
+            medias += row.getMedias();
+            original += rowOriginal;
+            stored += rowStored;
+        }
+        byProfile.sort(Comparator.comparing(MediaCompressionReportDTO.ProfileSavings::savedBytes).reversed());
+        return new MediaCompressionReportDTO(medias, original, stored, original - stored,
+                savedRatio(original, stored), byProfile);
+    }
+
+    private static double savedRatio(long original, long stored) {
+        return original > 0 ? (double) (original - stored) / original : 0d;
+    }
+
     // Convert Media Entity to MediaDTO
     private MediaDTO convertToDTO(Media media) {
-        return new MediaDTO(media.getId(), media.getSrc(), media.getType());
+        List<MediaRenditionDTO> renditions = media.getRenditions() == null ? List.of()
+                : media.getRenditions().stream()
+                        .map(r -> new MediaRenditionDTO(r.getName(), r.getWidth(), r.getHeight(), r.getSrc(),
+                                r.getSizeBytes()))
+                        .toList();
+        List<String> thumbnails = media.getThumbnailUrls() == null ? List.of() : List.copyOf(media.getThumbnailUrls());
+        return new MediaDTO(media.getId(), media.getSrc(), media.getType(),
+                media.getWidth(), media.getHeight(), media.getDurationMs(), media.getBitrate(), media.getSizeBytes(),
+                media.getProcessingProfile(), thumbnails, renditions);
     }
 
     // Convert MediaDTO to Media Entity
     private Media convertToEntity(MediaDTO mediaDTO) {
-        Media media = new Media();
-        media.setId(mediaDTO.id());
+        // Un upload ya registrado se reutiliza por src (uk_media_src)
+        Media media = (mediaDTO.id() == null && mediaDTO.src() != null)
+                ? mediaRepository.findBySrc(mediaDTO.src()).orElseGet(Media::new)
+                : new Media();
+        media.setId(mediaDTO.id() != null ? mediaDTO.id() : media.getId());
         media.setSrc(mediaDTO.src());
         if (mediaDTO.type() == null || mediaDTO.type().getId() == null) {
             throw new IllegalArgumentException(MEDIA_TYPE_REQUIRED);
@@ -80,4 +187,8 @@ public class MediaServiceImpl implements MediaService {
         return media;
     }
 
+    private String extractExtension(String src) {
+        int dotIdx = src.lastIndexOf('.');
+        return (dotIdx > 0 && dotIdx < src.length() - 1) ? src.substring(dotIdx + 1) : "";
+    }
 }
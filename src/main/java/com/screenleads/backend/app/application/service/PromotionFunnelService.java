@@ -0,0 +1,193 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.domain.model.PromotionFunnelDaily;
+import com.screenleads.backend.app.domain.model.PromotionLeadDaily;
+import com.screenleads.backend.app.domain.repositories.AdviceRepository;
+import com.screenleads.backend.app.domain.repositories.DeviceRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionFunnelDailyRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadCounterProperties;
+import com.screenleads.backend.app.web.dto.AdviceImpressionDTO;
+import com.screenleads.backend.app.web.dto.PromotionFunnelDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Embudo de conversión por promoción: impresiones de los advices enlazados
+ * ({@code Advice.promotion}) → visitas a la landing → leads → cupones
+ * emitidos → cupones canjeados.
+ * <p>
+ * Todo sale de contadores diarios mantenidos al registrar cada evento
+ * (promotion_funnel_daily para impresiones y visitas, promotion_lead_daily
+ * para leads y canjes): una consulta lee O(días × dispositivos) filas, nunca
+ * los eventos en bruto.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PromotionFunnelService {
+
+    /** Tope de impresiones por entrada de un informe (protege los contadores de valores absurdos). */
+    static final long MAX_IMPRESSIONS_PER_ENTRY = 100_000;
+
+    public enum Bucket {
+        DAY, WEEK, MONTH;
+
+        /** @throws IllegalArgumentException si el valor no existe */
+        public static Bucket parse(String value) {
+            if (value == null || value.isBlank())
+                return DAY;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Agrupación no soportada: " + value);
+            }
+        }
+
+        LocalDate start(LocalDate day) {
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+    }
+
+    private final PromotionFunnelDailyRepository funnelRepository;
+    private final AdviceRepository adviceRepository;
+    private final DeviceRepository deviceRepository;
+    private final PromotionRepository promotionRepository;
+    private final LeadCounterService leadCounters;
+    private final LeadCounterProperties counterProperties;
+
+    /**
+     * Suma las impresiones que informa una pantalla. Se agrupan por (promoción,
+     * día) antes de escribir: un upsert por grupo, no por entrada. Los advices
+     * sin promoción se ignoran.
+     *
+     * @return impresiones contadas
+     * @throws IllegalArgumentException si el dispositivo no existe o algún contador es inválido
+     */
+    @Transactional
+    public long recordImpressions(String deviceUuid, List<AdviceImpressionDTO> impressions) {
+        Long deviceId = deviceRepository.findIdByUuid(deviceUuid)
+                .orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceUuid));
+        if (impressions == null || impressions.isEmpty())
+            return 0;
+        for (AdviceImpressionDTO impression : impressions) {
+            if (impression.adviceId() == null || impression.count() < 0
+                    || impression.count() > MAX_IMPRESSIONS_PER_ENTRY)
+                throw new IllegalArgumentException("Impresión inválida: " + impression);
+        }
+
+        Map<Long, Long> promotionByAdvice = new HashMap<>();
+        adviceRepository.findPromotionIds(impressions.stream().map(AdviceImpressionDTO::adviceId).distinct().toList())
+                .forEach(ap -> promotionByAdvice.put(ap.getAdviceId(), ap.getPromotionId()));
+
+        Map<PromotionFunnelDaily.Key, Long> grouped = new HashMap<>();
+        for (AdviceImpressionDTO impression : impressions) {
+            Long promotionId = promotionByAdvice.get(impression.adviceId());
+            if (promotionId == null || impression.count() == 0)
+                continue;
+            grouped.merge(new PromotionFunnelDaily.Key(promotionId, leadCounters.dayOf(impression.at()), deviceId),
+                    impression.count(), Long::sum);
+        }
+        long counted = 0;
+        for (Map.Entry<PromotionFunnelDaily.Key, Long> entry : grouped.entrySet()) {
+            PromotionFunnelDaily.Key key = entry.getKey();
+            funnelRepository.increment(key.getPromotionId(), key.getDay(), key.getDeviceId(), entry.getValue(), 0);
+            counted += entry.getValue();
+        }
+        return counted;
+    }
+
+    /**
+     * Cuenta una visita a la landing; el dispositivo (p.ej. el del QR) es
+     * opcional y uno desconocido se cuenta sin dispositivo.
+     *
+     * @throws IllegalArgumentException si la promoción no existe
+     */
+    @Transactional
+    public void recordLandingView(Long promotionId, String deviceUuid) {
+        if (!promotionRepository.existsById(promotionId))
+            throw new IllegalArgumentException("Promotion not found: " + promotionId);
+        Long deviceId = deviceUuid != null && !deviceUuid.isBlank()
+                ? deviceRepository.findIdByUuid(deviceUuid).orElse(PromotionFunnelDaily.NO_DEVICE)
+                : PromotionFunnelDaily.NO_DEVICE;
+        funnelRepository.increment(promotionId, leadCounters.dayOf(null), deviceId, 0, 1);
+    }
+
+    /**
+     * Embudo de [from, to] (días en la zona de los contadores). Cada lead
+     * recibe su cupón al registrarse, así que cupones emitidos = leads.
+     */
+    @Transactional(readOnly = true)
+    public PromotionFunnelDTO funnel(Long promotionId, LocalDate from, LocalDate to, Bucket bucket, boolean byDevice) {
+        if (!promotionRepository.existsById(promotionId))
+            throw new IllegalArgumentException("Promotion not found: " + promotionId);
+        if (from.isAfter(to))
+            throw new IllegalArgumentException("Rango de fechas inválido: from > to");
+
+        Map<LocalDate, long[]> buckets = new TreeMap<>();
+        Map<Long, long[]> devices = new TreeMap<>();
+        long[] totals = new long[4];
+
+        for (PromotionFunnelDaily row : funnelRepository.findRange(promotionId, from, to)) {
+            long[] b = buckets.computeIfAbsent(bucket.start(row.getId().getDay()), d -> new long[4]);
+            b[0] += row.getImpressions();
+            b[1] += row.getLandingViews();
+            if (byDevice) {
+                long[] d = devices.computeIfAbsent(row.getId().getDeviceId(), id -> new long[2]);
+                d[0] += row.getImpressions();
+                d[1] += row.getLandingViews();
+            }
+        }
+        for (PromotionLeadDaily row : leadCounters.daily(promotionId, from, to)) {
+            long[] b = buckets.computeIfAbsent(bucket.start(row.getId().getDay()), d -> new long[4]);
+            b[2] += row.getLeads();
+            b[3] += row.getRedeemed();
+        }
+
+        List<PromotionFunnelDTO.Bucket> series = new ArrayList<>(buckets.size());
+        for (Map.Entry<LocalDate, long[]> entry : buckets.entrySet()) {
+            long[] b = entry.getValue();
+            for (int i = 0; i < totals.length; i++)
+                totals[i] += b[i];
+            series.add(new PromotionFunnelDTO.Bucket(entry.getKey(), stages(b)));
+        }
+        List<PromotionFunnelDTO.DeviceStages> perDevice = byDevice
+                ? devices.entrySet().stream()
+                        .map(e -> new PromotionFunnelDTO.DeviceStages(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                        .toList()
+                : null;
+
+        return new PromotionFunnelDTO(promotionId, from, to, bucket.name(), counterProperties.getZone().getId(),
+                stages(totals), rate(totals[2], totals[0]), rate(totals[3], totals[2]), series, perDevice);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteAll(Long promotionId) {
+        funnelRepository.deleteByPromotionId(promotionId);
+    }
+
+    private static PromotionFunnelDTO.Stages stages(long[] c) {
+        return new PromotionFunnelDTO.Stages(c[0], c[1], c[2], c[2], c[3]);
+    }
+
+    private static double rate(long part, long whole) {
+        return whole > 0 ? (double) part / whole : 0.0;
+    }
+}
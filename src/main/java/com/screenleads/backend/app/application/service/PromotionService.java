@@ -2,6 +2,12 @@ package com.screenleads.backend.app.application.service;
 
 import com.screenleads.backend.app.web.dto.*;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 
@@ -12,6 +18,15 @@ public interface PromotionService {
 
     PromotionDTO getPromotionById(Long id);
 
+    /** Listado ligero paginado: sin plantilla HTML, con el número de leads. */
+    Page<PromotionSummaryDTO> getPromotionSummaries(Pageable pageable);
+
+    /** ETag de la plantilla (cambia con cada modificación de la promoción). */
+    String getTemplateETag(Long id);
+
+    /** Plantilla HTML de la promoción ("" si no tiene). */
+    String getTemplateHtml(Long id);
+
     PromotionDTO savePromotion(PromotionDTO dto);
 
     PromotionDTO updatePromotion(Long id, PromotionDTO dto);
@@ -24,9 +39,11 @@ public interface PromotionService {
     List<PromotionLeadDTO> listLeads(Long promotionId);
 
     // Informes / export
-    String exportLeadsCsv(Long promotionId, ZonedDateTime from, ZonedDateTime to);
+    /** Escribe el CSV en {@code out} fila a fila (no cierra el stream). */
+    void exportLeadsCsv(Long promotionId, ZonedDateTime from, ZonedDateTime to, OutputStream out) throws IOException;
 
-    LeadSummaryDTO getLeadSummary(Long promotionId, ZonedDateTime from, ZonedDateTime to);
+    /** Totales, leads por día/hora en {@code zone} y conteo por estado de cupón. */
+    LeadSummaryDTO getLeadSummary(Long promotionId, ZonedDateTime from, ZonedDateTime to, ZoneId zone);
 
     // Lead de prueba
     PromotionLeadDTO createTestLead(Long promotionId, PromotionLeadDTO overrides);
@@ -1,6 +1,9 @@
 package com.screenleads.backend.app.application.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screenleads.backend.app.application.service.util.IdentifierNormalizer;
+import com.screenleads.backend.app.application.service.util.LeadExportFormat;
+import com.screenleads.backend.app.application.service.util.PartialUpdater;
+import com.screenleads.backend.app.domain.model.CouponStatus;
 import com.screenleads.backend.app.domain.model.LeadIdentifierType;
 import com.screenleads.backend.app.domain.model.Promotion;
 import com.screenleads.backend.app.domain.model.PromotionLead;
@@ -9,22 +12,36 @@ import com.screenleads.backend.app.domain.repositories.PromotionRepository;
 import com.screenleads.backend.app.web.dto.LeadSummaryDTO;
 import com.screenleads.backend.app.web.dto.PromotionDTO;
 import com.screenleads.backend.app.web.dto.PromotionLeadDTO;
+import com.screenleads.backend.app.web.dto.PromotionSummaryDTO;
+import com.screenleads.backend.app.web.mapper.PromotionLeadMapper;
+import com.screenleads.backend.app.web.mapper.PromotionMapper;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.beans.PropertyDescriptor;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -34,11 +51,24 @@ public class PromotionServiceImpl implements PromotionService {
 
     private static final String PROMOTION_NOT_FOUND = "Promotion not found: ";
     private static final String LEAD_ALREADY_EXISTS = "Lead already exists for identifier: ";
+    private static final int CSV_FLUSH_EVERY = 500;
+    // Los parches vienen de un DTO: nunca deben cambiar la identidad de la entidad
+    private static final PartialUpdater<Promotion, Promotion> PROMOTION_PATCH = PartialUpdater
+            .of(Promotion.class, Promotion.class).ignoring("id");
+    private static final PartialUpdater<PromotionLead, PromotionLead> LEAD_PATCH = PartialUpdater
+            .of(PromotionLead.class, PromotionLead.class).ignoring("id");
 
     private final PromotionRepository promotionRepository;
     private final PromotionLeadRepository promotionLeadRepository;
-    private final ObjectMapper objectMapper; // Autoconfigurado por Spring Boot
     private final StripeBillingService billingService;
+    private final LeadCounterService leadCounters;
+    private final LeadIdentifierFilter identifierFilter;
+    private final PromotionFunnelService funnelService;
+    private final CouponCodeAllocator couponCodes;
+    private final CouponValidationCache couponValidationCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     // =========================================
     // CRUD Promotion
@@ -49,7 +79,7 @@ public class PromotionServiceImpl implements PromotionService {
     public List<PromotionDTO> getAllPromotions() {
         return promotionRepository.findAll()
                 .stream()
-                .map(p -> map(p, PromotionDTO.class))
+                .map(PromotionMapper::toDTO)
                 .toList();
     }
 
@@ -58,15 +88,37 @@ public class PromotionServiceImpl implements PromotionService {
     public PromotionDTO getPromotionById(Long id) {
         Promotion p = promotionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(PROMOTION_NOT_FOUND + id));
-        return map(p, PromotionDTO.class);
+        return PromotionMapper.toDTO(p);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PromotionSummaryDTO> getPromotionSummaries(Pageable pageable) {
+        return promotionRepository.findSummaries(pageable).map(PromotionMapper::toSummaryDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTemplateETag(Long id) {
+        Instant version = promotionRepository.findVersionById(id)
+                .orElseThrow(() -> new IllegalArgumentException(PROMOTION_NOT_FOUND + id));
+        return "\"" + id + "-" + Long.toHexString(version.toEpochMilli()) + "\"";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTemplateHtml(Long id) {
+        if (!promotionRepository.existsById(id))
+            throw new IllegalArgumentException(PROMOTION_NOT_FOUND + id);
+        return promotionRepository.findTemplateHtmlById(id).orElse("");
     }
 
     @Override
     public PromotionDTO savePromotion(@Nullable PromotionDTO dto) {
-        // Mapear DTO -> Entity sin suponer getters concretos
-        Promotion toSave = map(dto, Promotion.class);
+        Promotion toSave = PromotionMapper.toEntity(dto);
         Promotion saved = promotionRepository.save(toSave);
-        return map(saved, PromotionDTO.class);
+        couponValidationCache.evictPromotion(saved.getId());
+        return PromotionMapper.toDTO(saved);
     }
 
     @Override
@@ -75,11 +127,12 @@ public class PromotionServiceImpl implements PromotionService {
                 .orElseThrow(() -> new IllegalArgumentException(PROMOTION_NOT_FOUND + id));
 
         // Creamos un "patch" a partir del DTO y fusionamos solo campos no nulos
-        Promotion patch = map(dto, Promotion.class);
-        mergeNonNull(patch, existing);
+        Promotion patch = PromotionMapper.toEntity(dto);
+        PROMOTION_PATCH.merge(patch, existing);
+        couponValidationCache.evictPromotion(id);
 
         // El entity está gestionado en la sesión; devolver mapeado a DTO
-        return map(existing, PromotionDTO.class);
+        return PromotionMapper.toDTO(existing);
     }
 
     @Override
@@ -87,32 +140,28 @@ public class PromotionServiceImpl implements PromotionService {
         if (!promotionRepository.existsById(id)) {
             throw new IllegalArgumentException(PROMOTION_NOT_FOUND + id);
         }
+        leadCounters.deleteAll(id);
+        funnelService.deleteAll(id);
         promotionRepository.deleteById(id);
+        identifierFilter.invalidate(id);
+        couponValidationCache.evictPromotion(id);
     }
 
     // =========================================
     // Leads
     // =========================================
 
+    /**
+     * El alta va en su propia transacción, repetida con otro código si choca
+     * con un cupón existente; el uso en Stripe se informa ya confirmada.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PromotionLeadDTO registerLead(Long promotionId, PromotionLeadDTO dto) {
-        Promotion promo = promotionRepository.findById(promotionId)
-                .orElseThrow(() -> new IllegalArgumentException(PROMOTION_NOT_FOUND + promotionId));
-
-        // Mapear DTO -> Entity temporalmente para leer campos como identifier sin usar
-        // getters del DTO
-        PromotionLead candidate = map(dto, PromotionLead.class);
-
-        // Si tienes unique (promotion_id + identifier), prevenimos duplicados
-        if (candidate.getIdentifier() != null &&
-                promotionLeadRepository.existsByPromotionIdAndIdentifier(promotionId, candidate.getIdentifier())) {
-            throw new IllegalArgumentException(LEAD_ALREADY_EXISTS + candidate.getIdentifier());
-        }
-
-        candidate.setPromotion(promo);
-        PromotionLead saved = promotionLeadRepository.save(candidate);
+        PromotionLead saved = couponCodes.insertWithRetry(() -> insertLead(promotionId, dto));
 
         // Reportar lead a Stripe si la promoción está asociada a una company con Stripe
+        Promotion promo = saved.getPromotion();
         if (promo.getCompany() != null) {
             try {
                 billingService.reportLeadUsage(promo.getCompany(), 1L, java.time.Instant.now().getEpochSecond());
@@ -122,14 +171,48 @@ public class PromotionServiceImpl implements PromotionService {
             }
         }
 
-        return map(saved, PromotionLeadDTO.class);
+        return PromotionLeadMapper.toDTO(saved);
+    }
+
+    private PromotionLead insertLead(Long promotionId, PromotionLeadDTO dto) {
+        Promotion promo = promotionRepository.findById(promotionId)
+                .orElseThrow(() -> new IllegalArgumentException(PROMOTION_NOT_FOUND + promotionId));
+
+        PromotionLead candidate = PromotionLeadMapper.toEntity(dto);
+        LeadIdentifierType identifierType = promo.getLeadIdentifierType() != null ? promo.getLeadIdentifierType()
+                : LeadIdentifierType.EMAIL;
+        candidate.setIdentifierType(identifierType);
+        candidate.setIdentifier(IdentifierNormalizer.forLead(identifierType, dto.email(), dto.phone()));
+        candidate.setCouponCode(couponCodes.next());
+        candidate.setExpiresAt(promo.getEndAt());
+
+        // Solo se consulta la BD si el filtro no descarta el identificador; la
+        // restricción única (promotion_id + identifier) decide al hacer flush
+        String identifier = candidate.getIdentifier();
+        if (identifier != null && identifierFilter.mightContain(promotionId, identifier)
+                && promotionLeadRepository.existsByPromotionIdAndIdentifier(promotionId, identifier)) {
+            throw new IllegalArgumentException(LEAD_ALREADY_EXISTS + identifier);
+        }
+
+        candidate.setPromotion(promo);
+        PromotionLead saved;
+        try {
+            saved = promotionLeadRepository.saveAndFlush(candidate);
+        } catch (DataIntegrityViolationException e) {
+            if (LeadIdentifierFilter.isIdentifierConflict(e))
+                throw new IllegalArgumentException(LEAD_ALREADY_EXISTS + identifier);
+            throw e;
+        }
+        identifierFilter.add(promotionId, identifier);
+        leadCounters.recordLead(promotionId, saved.getCreatedAt());
+        return saved;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PromotionLeadDTO> listLeads(Long promotionId) {
         return promotionLeadRepository.findByPromotionId(promotionId).stream()
-                .map(l -> map(l, PromotionLeadDTO.class))
+                .map(PromotionLeadMapper::toDTO)
                 .toList();
     }
 
@@ -139,34 +222,61 @@ public class PromotionServiceImpl implements PromotionService {
 
     @Override
     @Transactional(readOnly = true)
-    public String exportLeadsCsv(Long promotionId, ZonedDateTime from, ZonedDateTime to) {
-        List<PromotionLead> leads = filterLeadsByDateRange(promotionId, from, to).stream()
-                .sorted(Comparator.comparing(PromotionLead::getCreatedAt))
-                .toList();
+    public void exportLeadsCsv(Long promotionId, ZonedDateTime from, ZonedDateTime to, OutputStream out)
+            throws IOException {
+        Instant fromI = from != null ? from.toInstant() : Instant.EPOCH;
+        Instant toI = to != null ? to.toInstant() : Instant.now();
 
-        return buildCsvFromLeads(leads);
+        // Cursor ordenado en BD; cada lead se escribe y se suelta del contexto
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(LeadExportFormat.CSV.header());
+        StringBuilder row = new StringBuilder(256);
+        long rows = 0;
+        try (Stream<PromotionLead> leads = promotionLeadRepository.streamByPromotionIdAndCreatedAtBetween(
+                promotionId, fromI, toI)) {
+            for (PromotionLead lead : (Iterable<PromotionLead>) leads::iterator) {
+                row.setLength(0);
+                LeadExportFormat.CSV.append(row, lead);
+                writer.append(row);
+                entityManager.detach(lead);
+                if (++rows % CSV_FLUSH_EVERY == 0)
+                    writer.flush();
+            }
+        }
+        writer.flush();
+        log.info("📄 Export CSV promo {}: {} leads", promotionId, rows);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public LeadSummaryDTO getLeadSummary(Long promotionId, ZonedDateTime from, ZonedDateTime to) {
-        ZoneId zone = ZoneId.systemDefault();
-        List<PromotionLead> leads = filterLeadsByDateRange(promotionId, from, to);
-
-        long totalLeads = leads.size();
-        long uniqueIdentifiers = leads.stream()
-                .map(PromotionLead::getIdentifier)
-                .filter(Objects::nonNull)
-                .distinct()
-                .count();
-
-        Map<LocalDate, Long> leadsByDay = leads.stream().collect(
-                java.util.stream.Collectors.groupingBy(
-                        l -> l.getCreatedAt().atZone(zone).toLocalDate(),
-                        java.util.TreeMap::new,
-                        java.util.stream.Collectors.counting()));
-
-        return new LeadSummaryDTO(promotionId, totalLeads, uniqueIdentifiers, leadsByDay);
+    public LeadSummaryDTO getLeadSummary(Long promotionId, ZonedDateTime from, ZonedDateTime to, ZoneId zone) {
+        Instant fromI = from != null ? from.toInstant() : Instant.EPOCH;
+        Instant toI = to != null ? to.toInstant() : Instant.now();
+
+        // Todo se agrega en BD sobre (promotion_id, created_at); aquí solo se reordena
+        PromotionLeadRepository.LeadTotals totals = promotionLeadRepository.summarizeLeads(promotionId, fromI, toI);
+
+        Map<LocalDateTime, Long> leadsByHour = new TreeMap<>();
+        Map<LocalDate, Long> leadsByDay = new TreeMap<>();
+        for (PromotionLeadRepository.LeadBucket bucket : promotionLeadRepository.countLeadsByHour(promotionId, fromI,
+                toI, postgresZone(zone))) {
+            LocalDateTime hour = LocalDateTime.parse(bucket.getBucket());
+            leadsByHour.put(hour, bucket.getLeads());
+            leadsByDay.merge(hour.toLocalDate(), bucket.getLeads(), Long::sum);
+        }
+
+        Map<CouponStatus, Long> byStatus = new EnumMap<>(CouponStatus.class);
+        for (CouponStatus status : CouponStatus.values())
+            byStatus.put(status, 0L);
+        for (PromotionLeadRepository.StatusCount count : promotionLeadRepository.countLeadsByCouponStatus(promotionId,
+                fromI, toI)) {
+            byStatus.put(count.getStatus(), count.getLeads());
+        }
+
+        return new LeadSummaryDTO(promotionId,
+                totals != null ? totals.getLeads() : 0L,
+                totals != null ? totals.getUniqueIdentifiers() : 0L,
+                leadsByDay, leadsByHour, byStatus, zone.getId());
     }
 
     @Override
@@ -187,93 +297,29 @@ public class PromotionServiceImpl implements PromotionService {
                 .build();
 
         if (overrides != null) {
-            PromotionLead patch = map(overrides, PromotionLead.class);
-            mergeNonNull(patch, base);
+            PromotionLead patch = PromotionLeadMapper.toEntity(overrides);
+            LEAD_PATCH.merge(patch, base);
         }
 
         PromotionLead saved = promotionLeadRepository.save(base);
-        return map(saved, PromotionLeadDTO.class);
+        leadCounters.recordLead(promotionId, saved.getCreatedAt());
+        return PromotionLeadMapper.toDTO(saved);
     }
 
     // =========================================
     // Helpers
     // =========================================
 
-    private <T> T map(Object source, Class<T> targetType) {
-        if (source == null)
-            return null;
-        return objectMapper.convertValue(source, targetType);
-    }
-
-    private static void mergeNonNull(Object src, Object target) {
-        if (src == null || target == null)
-            return;
-        BeanUtils.copyProperties(src, target, getNullPropertyNames(src));
-    }
-
-    private static String[] getNullPropertyNames(Object source) {
-        final BeanWrapper src = new BeanWrapperImpl(source);
-        PropertyDescriptor[] pds = src.getPropertyDescriptors();
-
-        Set<String> emptyNames = new HashSet<>();
-        for (PropertyDescriptor pd : pds) {
-            String name = pd.getName();
-            // ignorar "class"
-            if ("class".equals(name))
-                continue;
-            Object value = src.getPropertyValue(name);
-            if (value == null) {
-                emptyNames.add(name);
-            }
-        }
-        return emptyNames.toArray(new String[0]);
-    }
-
-    private List<PromotionLead> filterLeadsByDateRange(Long promotionId, ZonedDateTime from, ZonedDateTime to) {
-        Instant fromI = from != null ? from.toInstant() : Instant.EPOCH;
-        Instant toI = to != null ? to.toInstant() : Instant.now();
-
-        return promotionLeadRepository.findByPromotionId(promotionId).stream()
-                .filter(l -> {
-                    Instant c = l.getCreatedAt();
-                    return (c.equals(fromI) || c.isAfter(fromI)) && (c.equals(toI) || c.isBefore(toI));
-                })
-                .toList();
-    }
-
-    private String buildCsvFromLeads(List<PromotionLead> leads) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(
-                "id,promotionId,identifierType,identifier,firstName,lastName,email,phone,birthDate,acceptedPrivacyAt,acceptedTermsAt,createdAt\n");
-        for (PromotionLead l : leads) {
-            appendLeadCsvRow(sb, l);
-        }
-        return sb.toString();
-    }
-
-    private void appendLeadCsvRow(StringBuilder sb, PromotionLead l) {
-        sb.append(Optional.ofNullable(l.getId()).orElse(0L)).append(',')
-                .append(l.getPromotion() != null ? l.getPromotion().getId() : null).append(',')
-                .append(Optional.ofNullable(l.getIdentifierType()).map(Enum::name).orElse("")).append(',')
-                .append(csv(l.getIdentifier())).append(',')
-                .append(csv(l.getFirstName())).append(',')
-                .append(csv(l.getLastName())).append(',')
-                .append(csv(l.getEmail())).append(',')
-                .append(csv(l.getPhone())).append(',')
-                .append(l.getBirthDate()).append(',')
-                .append(l.getAcceptedPrivacyAt()).append(',')
-                .append(l.getAcceptedTermsAt()).append(',')
-                .append(l.getCreatedAt())
-                .append('\n');
-    }
-
-    private static String csv(String s) {
-        if (s == null)
-            return "";
-        String escaped = s.replace("\"", "\"\"");
-        if (escaped.contains(",") || escaped.contains("\"") || escaped.contains("\n")) {
-            return "\"" + escaped + "\"";
+    /**
+     * Nombre de zona para {@code AT TIME ZONE}. Los offsets fijos van con el
+     * signo invertido: Postgres lee '+02:00' como POSIX (al oeste de UTC).
+     */
+    static String postgresZone(ZoneId zone) {
+        ZoneId normalized = zone.normalized();
+        if (normalized instanceof ZoneOffset offset) {
+            return offset.getTotalSeconds() == 0 ? "UTC"
+                    : ZoneOffset.ofTotalSeconds(-offset.getTotalSeconds()).getId();
         }
-        return escaped;
+        return normalized.getId();
     }
 }
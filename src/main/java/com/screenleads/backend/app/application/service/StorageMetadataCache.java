@@ -0,0 +1,137 @@
+package com.screenleads.backend.app.application.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria de existencia de objetos del bucket.
+ * - Las subidas propias se registran como existentes y el resto se rellena bajo
+ * demanda con listados remotos por prefijo. Todo caduca tras el TTL
+ * configurado, para ver lo que borren otros nodos o la limpieza del bucket.
+ * - Nunca pasa de {@code max-entries}: llena de entradas vigentes, descarta
+ * las que antes caducan (las más antiguas).
+ * - Un lote de rutas se resuelve con un listado por directorio (prefijo común),
+ * no con una llamada por ruta.
+ */
+@Slf4j
+@Component
+public class StorageMetadataCache {
+
+    private record Entry(boolean exists, long expiresAtNanos) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public StorageMetadataCache(
+            @Value("${storage.metadata-cache.ttl:PT60S}") Duration ttl,
+            @Value("${storage.metadata-cache.max-entries:20000}") int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    StorageMetadataCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    public void recordUpload(String path) {
+        put(path, new Entry(true, nanoClock.getAsLong() + ttlNanos));
+    }
+
+    public void recordDelete(String path) {
+        entries.remove(path);
+    }
+
+    /**
+     * Devuelve el subconjunto de {@code paths} que existe en el bucket.
+     *
+     * @param lister lista los nombres de objeto que empiezan por un prefijo
+     *               (una llamada remota)
+     */
+    public Set<String> existing(Collection<String> paths, Function<String, Collection<String>> lister) {
+        long now = nanoClock.getAsLong();
+        Set<String> result = new LinkedHashSet<>();
+        Map<String, List<String>> missesByDir = new LinkedHashMap<>();
+
+        for (String path : paths) {
+            Entry e = entries.get(path);
+            if (e != null && e.expiresAtNanos() - now > 0) {
+                if (e.exists())
+                    result.add(path);
+            } else {
+                missesByDir.computeIfAbsent(parentOf(path), k -> new ArrayList<>()).add(path);
+            }
+        }
+
+        for (List<String> group : missesByDir.values()) {
+            String prefix = commonPrefix(group);
+            Set<String> found = new HashSet<>(lister.apply(prefix));
+            long expiresAt = nanoClock.getAsLong() + ttlNanos;
+            for (String name : found) {
+                put(name, new Entry(true, expiresAt));
+            }
+            for (String path : group) {
+                boolean exists = found.contains(path);
+                if (!exists) {
+                    put(path, new Entry(false, expiresAt));
+                } else {
+                    result.add(path);
+                }
+            }
+            log.debug("Listado de storage '{}': {} objetos, {} rutas consultadas", prefix, found.size(),
+                    group.size());
+        }
+        return result;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void put(String path, Entry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(path)) {
+            long now = nanoClock.getAsLong();
+            entries.values().removeIf(e -> e.expiresAtNanos() - now <= 0);
+            if (entries.size() >= maxEntries) {
+                // Caché llena de entradas vigentes: fuera la décima parte que antes caduca
+                long cutoff = entries.values().stream()
+                        .mapToLong(e -> e.expiresAtNanos() - now)
+                        .sorted()
+                        .skip(Math.max(1, maxEntries / 10) - 1)
+                        .findFirst()
+                        .orElse(Long.MAX_VALUE);
+                entries.values().removeIf(e -> e.expiresAtNanos() - now <= cutoff);
+            }
+        }
+        entries.put(path, entry);
+    }
+
+    private static String parentOf(String path) {
+        int i = path.lastIndexOf('/');
+        return i >= 0 ? path.substring(0, i + 1) : "";
+    }
+
+    static String commonPrefix(List<String> paths) {
+        String prefix = paths.get(0);
+        for (String p : paths) {
+            int i = 0;
+            int max = Math.min(prefix.length(), p.length());
+            while (i < max && prefix.charAt(i) == p.charAt(i))
+                i++;
+            prefix = prefix.substring(0, i);
+        }
+        return prefix;
+    }
+}
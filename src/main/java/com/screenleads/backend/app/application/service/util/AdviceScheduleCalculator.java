@@ -0,0 +1,72 @@
+package com.screenleads.backend.app.application.service.util;
+
+import com.screenleads.backend.app.domain.model.Advice;
+import com.screenleads.backend.app.domain.model.AdviceSchedule;
+import com.screenleads.backend.app.domain.model.AdviceTimeWindow;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+/**
+ * Próximo instante en que un advice entra en pantalla según sus schedules,
+ * con la misma semántica que la visibilidad "ahora": rango de fechas inclusivo
+ * (null = sin límite) y ventanas [from,to) por día de la semana.
+ */
+public final class AdviceScheduleCalculator {
+
+    private AdviceScheduleCalculator() {
+    }
+
+    /**
+     * Primer instante en [{@code from}, {@code until}) en que el advice es
+     * visible: {@code from} si ya lo es, o el inicio de la siguiente ventana.
+     * Las fechas y horas se interpretan en la zona de {@code from}.
+     */
+    public static Optional<ZonedDateTime> firstVisibleAt(Advice advice, ZonedDateTime from, ZonedDateTime until) {
+        if (advice == null || advice.getSchedules() == null || !from.isBefore(until))
+            return Optional.empty();
+        LocalDateTime start = from.toLocalDateTime();
+        LocalDate lastDay = until.withZoneSameInstant(from.getZone()).toLocalDate();
+
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            LocalTime earliest = null;
+            for (AdviceSchedule s : advice.getSchedules()) {
+                if (!covers(s, day) || s.getWindows() == null)
+                    continue;
+                for (AdviceTimeWindow w : s.getWindows()) {
+                    LocalTime candidate = windowStart(w, day, start);
+                    if (candidate != null && (earliest == null || candidate.isBefore(earliest)))
+                        earliest = candidate;
+                }
+            }
+            if (earliest != null) {
+                ZonedDateTime at = day.atTime(earliest).atZone(from.getZone());
+                if (at.isBefore(from))
+                    at = from; // hueco de cambio de hora
+                return at.isBefore(until) ? Optional.of(at) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean covers(AdviceSchedule s, LocalDate day) {
+        return (s.getStartDate() == null || !day.isBefore(s.getStartDate()))
+                && (s.getEndDate() == null || !day.isAfter(s.getEndDate()));
+    }
+
+    /** Inicio de la ventana ese día a partir de {@code start}, o null si no aplica. */
+    private static LocalTime windowStart(AdviceTimeWindow w, LocalDate day, LocalDateTime start) {
+        if (w.getWeekday() != day.getDayOfWeek() || w.getFromTime() == null || w.getToTime() == null
+                || !w.getFromTime().isBefore(w.getToTime()))
+            return null;
+        if (day.isAfter(start.toLocalDate()))
+            return w.getFromTime();
+        LocalTime now = start.toLocalTime();
+        if (now.isBefore(w.getFromTime()))
+            return w.getFromTime();
+        return now.isBefore(w.getToTime()) ? now : null;
+    }
+}
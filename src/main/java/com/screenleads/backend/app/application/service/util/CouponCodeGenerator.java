@@ -15,4 +15,14 @@ public final class CouponCodeGenerator {
         }
         return sb.toString();
     }
+
+    /** Codifica los {@code length * 5} bits bajos de {@code value} (5 bits por carácter). */
+    public static String encode(long value, int length) {
+        char[] code = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        return new String(code);
+    }
 }
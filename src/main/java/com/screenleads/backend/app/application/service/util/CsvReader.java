@@ -0,0 +1,106 @@
+package com.screenleads.backend.app.application.service.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) registro a registro: comillas dobles, {@code ""}
+ * escapado y saltos de línea dentro de campos entrecomillados. No guarda más
+ * que el registro en curso.
+ */
+public final class CsvReader implements AutoCloseable {
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder(64);
+    private long line = 1;
+    private long recordLine = 1;
+    private int pushedBack = -2;
+    private boolean first = true;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** @return campos del siguiente registro o {@code null} al final */
+    public List<String> next() {
+        long start = line;
+        int c = read();
+        if (first && c == '\uFEFF')
+            c = read();
+        first = false;
+        if (c == -1)
+            return null;
+
+        recordLine = start;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1)
+                    throw new IllegalArgumentException("Comillas sin cerrar en la línea " + recordLine);
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n')
+                        pushedBack = n;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /** Línea física en la que empieza el último registro leído. */
+    public long line() {
+        return recordLine;
+    }
+
+    private int read() {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+        } else {
+            try {
+                c = in.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (c == '\n')
+            line++;
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -9,6 +9,19 @@ public final class IdentifierNormalizer {
     private IdentifierNormalizer() {
     }
 
+    /**
+     * Identificador de un lead según el tipo que exige la promoción: email,
+     * teléfono o, para el resto de tipos, el primero de los dos que venga.
+     */
+    public static String forLead(LeadIdentifierType type, String email, String phone) {
+        String raw = switch (type) {
+            case EMAIL -> email;
+            case PHONE -> phone;
+            default -> email != null ? email : phone;
+        };
+        return normalize(type, raw);
+    }
+
     public static String normalize(LeadIdentifierType type, String raw) {
         if (raw == null)
             return null;
@@ -0,0 +1,142 @@
+package com.screenleads.backend.app.application.service.util;
+
+import java.util.Locale;
+
+import com.screenleads.backend.app.domain.model.PromotionLead;
+
+/**
+ * Formatos de exportación de leads, fila a fila sobre un {@link StringBuilder}
+ * reutilizable. Ambos llevan los mismos campos, en el orden de la cabecera CSV
+ * (que es también la que acepta la importación).
+ */
+public enum LeadExportFormat {
+
+    CSV("csv", "text/csv") {
+        @Override
+        public String header() {
+            return "id,promotionId,identifierType,identifier,firstName,lastName,email,phone,birthDate,"
+                    + "acceptedPrivacyAt,acceptedTermsAt,createdAt\n";
+        }
+
+        @Override
+        public void append(StringBuilder sb, PromotionLead l) {
+            sb.append(l.getId() != null ? l.getId() : 0L).append(',')
+                    .append(l.getPromotion() != null ? l.getPromotion().getId() : null).append(',')
+                    .append(l.getIdentifierType() != null ? l.getIdentifierType().name() : "").append(',')
+                    .append(csv(l.getIdentifier())).append(',')
+                    .append(csv(l.getFirstName())).append(',')
+                    .append(csv(l.getLastName())).append(',')
+                    .append(csv(l.getEmail())).append(',')
+                    .append(csv(l.getPhone())).append(',')
+                    .append(l.getBirthDate()).append(',')
+                    .append(l.getAcceptedPrivacyAt()).append(',')
+                    .append(l.getAcceptedTermsAt()).append(',')
+                    .append(l.getCreatedAt())
+                    .append('\n');
+        }
+    },
+
+    /** Un objeto JSON por línea; las fechas van como texto ISO y los nulos como null. */
+    NDJSON("ndjson", "application/x-ndjson") {
+        @Override
+        public String header() {
+            return "";
+        }
+
+        @Override
+        public void append(StringBuilder sb, PromotionLead l) {
+            sb.append("{\"id\":").append(l.getId())
+                    .append(",\"promotionId\":").append(l.getPromotion() != null ? l.getPromotion().getId() : null)
+                    .append(",\"identifierType\":");
+            json(sb, l.getIdentifierType() != null ? l.getIdentifierType().name() : null);
+            sb.append(",\"identifier\":");
+            json(sb, l.getIdentifier());
+            sb.append(",\"firstName\":");
+            json(sb, l.getFirstName());
+            sb.append(",\"lastName\":");
+            json(sb, l.getLastName());
+            sb.append(",\"email\":");
+            json(sb, l.getEmail());
+            sb.append(",\"phone\":");
+            json(sb, l.getPhone());
+            sb.append(",\"birthDate\":");
+            json(sb, l.getBirthDate());
+            sb.append(",\"acceptedPrivacyAt\":");
+            json(sb, l.getAcceptedPrivacyAt());
+            sb.append(",\"acceptedTermsAt\":");
+            json(sb, l.getAcceptedTermsAt());
+            sb.append(",\"createdAt\":");
+            json(sb, l.getCreatedAt());
+            sb.append("}\n");
+        }
+    };
+
+    private final String extension;
+    private final String contentType;
+
+    LeadExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    /** Primera línea del fichero (vacía si el formato no tiene cabecera). */
+    public abstract String header();
+
+    /** Añade la fila del lead, con su salto de línea. */
+    public abstract void append(StringBuilder sb, PromotionLead lead);
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /** @throws IllegalArgumentException si el formato no existe */
+    public static LeadExportFormat parse(String value) {
+        if (value == null || value.isBlank())
+            return CSV;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + value);
+        }
+    }
+
+    private static String csv(String s) {
+        if (s == null)
+            return "";
+        String escaped = s.replace("\"", "\"\"");
+        if (escaped.contains(",") || escaped.contains("\"") || escaped.contains("\n")) {
+            return "\"" + escaped + "\"";
+        }
+        return escaped;
+    }
+
+    private static void json(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        String s = value.toString();
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20)
+                        sb.append(String.format("\\u%04x", (int) c));
+                    else
+                        sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
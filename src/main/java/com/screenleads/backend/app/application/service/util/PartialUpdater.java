@@ -0,0 +1,225 @@
+package com.screenleads.backend.app.application.service.util;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Fusión parcial "solo lo no nulo" de un objeto origen sobre un destino
+ * (PATCH), para entidades, beans y records.
+ * <p>
+ * La introspección se hace una vez por clase y se cachea: cada propiedad
+ * queda como un getter/setter generado con {@link LambdaMetafactory}, así que
+ * {@link #merge} no usa reflexión. Las instancias son inmutables y se guardan
+ * en campos {@code static final}:
+ *
+ * <pre>
+ * private static final PartialUpdater&lt;CompanyTokenDTO, CompanyToken&gt; TOKEN_PATCH =
+ *         PartialUpdater.of(CompanyTokenDTO.class, CompanyToken.class).ignoring("id", "createdAt");
+ * </pre>
+ *
+ * Se copian las propiedades con el mismo nombre y tipo compatible (con
+ * boxing) que sean legibles en el origen y escribibles en el destino.
+ */
+public final class PartialUpdater<S, T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<Map<String, Property>> PROPERTIES = new ClassValue<>() {
+        @Override
+        protected Map<String, Property> computeValue(Class<?> type) {
+            return introspect(type);
+        }
+    };
+
+    /** Propiedad de una clase con sus accesores compilados (null si no hay). */
+    record Property(String name, Class<?> type, Function<Object, Object> getter,
+            BiConsumer<Object, Object> setter) {
+    }
+
+    private record Copy(String name, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+    }
+
+    private final Class<S> sourceType;
+    private final Class<T> targetType;
+    private final Copy[] copies;
+
+    private PartialUpdater(Class<S> sourceType, Class<T> targetType, Copy[] copies) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.copies = copies;
+    }
+
+    /** Todas las propiedades comunes de {@code source} y {@code target}. */
+    public static <S, T> PartialUpdater<S, T> of(Class<S> sourceType, Class<T> targetType) {
+        Map<String, Property> source = properties(sourceType);
+        Map<String, Property> target = properties(targetType);
+        List<Copy> copies = new ArrayList<>();
+        for (Property from : source.values()) {
+            Property to = target.get(from.name());
+            if (from.getter() != null && to != null && to.setter() != null && compatible(from.type(), to.type()))
+                copies.add(new Copy(from.name(), from.getter(), to.setter()));
+        }
+        return new PartialUpdater<>(sourceType, targetType, copies.toArray(new Copy[0]));
+    }
+
+    /** Misma fusión sin las propiedades indicadas (id, auditoría...). */
+    public PartialUpdater<S, T> ignoring(String... names) {
+        Set<String> ignored = Set.of(names);
+        return new PartialUpdater<>(sourceType, targetType,
+                Arrays.stream(copies).filter(c -> !ignored.contains(c.name())).toArray(Copy[]::new));
+    }
+
+    /**
+     * Misma fusión limitada a las propiedades indicadas.
+     *
+     * @throws IllegalArgumentException si alguna no se puede copiar
+     */
+    public PartialUpdater<S, T> only(String... names) {
+        List<Copy> selected = new ArrayList<>(names.length);
+        for (String name : names) {
+            Copy copy = Arrays.stream(copies).filter(c -> c.name().equals(name)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Propiedad " + name + " no copiable de "
+                            + sourceType.getSimpleName() + " a " + targetType.getSimpleName()));
+            selected.add(copy);
+        }
+        return new PartialUpdater<>(sourceType, targetType, selected.toArray(new Copy[0]));
+    }
+
+    /**
+     * Copia en {@code target} cada propiedad no nula de {@code source}.
+     *
+     * @return propiedades copiadas
+     */
+    public int merge(S source, T target) {
+        if (source == null || target == null)
+            return 0;
+        int copied = 0;
+        for (Copy copy : copies) {
+            Object value = copy.getter().apply(source);
+            if (value != null) {
+                copy.setter().accept(target, value);
+                copied++;
+            }
+        }
+        return copied;
+    }
+
+    /** Nombres de las propiedades que copia, en orden. */
+    public List<String> propertyNames() {
+        return Arrays.stream(copies).map(Copy::name).toList();
+    }
+
+    /** Tabla de accesores de {@code type}; se construye una sola vez. */
+    static Map<String, Property> properties(Class<?> type) {
+        return PROPERTIES.get(type);
+    }
+
+    // ---------------- Introspección (una vez por clase) ----------------
+
+    private static Map<String, Property> introspect(Class<?> type) {
+        Map<String, Property> properties = new LinkedHashMap<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                properties.put(component.getName(), new Property(component.getName(), component.getType(),
+                        getter(component.getAccessor()), null));
+            }
+            return Collections.unmodifiableMap(properties);
+        }
+        try {
+            for (PropertyDescriptor pd : Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors()) {
+                Method read = pd.getReadMethod();
+                Method write = pd.getWriteMethod();
+                if (pd.getPropertyType() == null || (read == null && write == null))
+                    continue;
+                properties.put(pd.getName(), new Property(pd.getName(), pd.getPropertyType(),
+                        read != null ? getter(read) : null, write != null ? setter(write) : null));
+            }
+        } catch (IntrospectionException e) {
+            throw new IllegalStateException("No se pudo inspeccionar " + type.getName(), e);
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        MethodHandle handle = unreflect(method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle,
+                    MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            // Clase no enlazable desde aquí (p.ej. otro class loader): MethodHandle directo
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> {
+                try {
+                    return generic.invokeExact(bean);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        MethodHandle handle = unreflect(method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(),
+                            wrap(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try {
+                    generic.invokeExact(bean, value);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            };
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Accesor no accesible: " + method, e);
+        }
+    }
+
+    private static boolean compatible(Class<?> from, Class<?> to) {
+        return wrap(to).isAssignableFrom(wrap(from));
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException r)
+            return r;
+        if (t instanceof Error e)
+            throw e;
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,78 @@
+package com.screenleads.backend.app.application.service.util;
+
+import com.screenleads.backend.app.domain.model.Media;
+import com.screenleads.backend.app.domain.model.MediaRendition;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Elige el fichero más adecuado de un media para la resolución de un
+ * dispositivo: el más pequeño que, encajado en la pantalla (modo "contain",
+ * conservando su proporción), no haya que ampliar. Compiten las renditions y
+ * la salida principal (su width/height), porque de un original mayor que la
+ * caja del perfil hay renditions por encima de la principal (2160p de un 4K
+ * con la principal a 1080p). Si ninguno llega, el mayor; si no se conoce la
+ * resolución del dispositivo, la principal.
+ */
+public final class RenditionSelector {
+
+    private static final Comparator<MediaRendition> BY_AREA = Comparator
+            .comparingLong(r -> (long) r.getWidth() * r.getHeight());
+
+    private RenditionSelector() {
+    }
+
+    /** @return la rendition a servir, o null si corresponde la salida principal */
+    public static MediaRendition select(Media media, Integer deviceWidth, Integer deviceHeight) {
+        if (media == null)
+            return null;
+        List<MediaRendition> renditions = media.getRenditions();
+        if (renditions == null || renditions.isEmpty())
+            return null;
+        if (deviceWidth == null || deviceHeight == null || deviceWidth <= 0 || deviceHeight <= 0)
+            return null;
+
+        MediaRendition best = renditions.stream()
+                .filter(r -> covers(r.getWidth(), r.getHeight(), deviceWidth, deviceHeight))
+                .min(BY_AREA)
+                .orElse(null);
+        // Sin tamaño de la principal (medias antiguos) solo se sabe que no es menor que sus renditions
+        if (!hasSize(media))
+            return best;
+        long mainArea = (long) media.getWidth() * media.getHeight();
+        if (best != null)
+            return covers(media.getWidth(), media.getHeight(), deviceWidth, deviceHeight) && mainArea <= area(best)
+                    ? null
+                    : best;
+        MediaRendition largest = renditions.stream().max(BY_AREA).orElseThrow();
+        return area(largest) > mainArea ? largest : null;
+    }
+
+    /** src de la mejor opción, o el src principal si el media no tiene renditions. */
+    public static String bestSrc(Media media, Integer deviceWidth, Integer deviceHeight) {
+        if (media == null)
+            return null;
+        MediaRendition best = select(media, deviceWidth, deviceHeight);
+        return best != null ? best.getSrc() : media.getSrc();
+    }
+
+    private static boolean hasSize(Media media) {
+        return media.getWidth() != null && media.getHeight() != null && media.getWidth() > 0
+                && media.getHeight() > 0;
+    }
+
+    private static long area(MediaRendition r) {
+        return (long) r.getWidth() * r.getHeight();
+    }
+
+    /**
+     * ¿El fichero encajado en la pantalla del dispositivo se reduce o queda
+     * igual? Un vídeo horizontal en una pantalla vertical de 1080x1920 ocupa
+     * 1080x608, así que le basta una rendition de 1080 de ancho.
+     */
+    private static boolean covers(int width, int height, int deviceWidth, int deviceHeight) {
+        double scale = Math.min((double) deviceWidth / width, (double) deviceHeight / height);
+        return scale <= 1.0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.screenleads.backend.app.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Estado de un cupón tal como lo necesita la validación: su estado, su
+ * caducidad y la ventana de su promoción. Solo instantes, nunca un veredicto
+ * ya calculado; la validez se evalúa con {@link #notRedeemableReason(Instant)}.
+ */
+public record CouponState(String couponCode, CouponStatus status, Instant expiresAt, Instant redeemedAt,
+        Long promotionId, Instant startAt, Instant endAt) {
+
+    public static CouponState of(PromotionLead lead) {
+        Promotion p = lead.getPromotion();
+        return new CouponState(lead.getCouponCode(), lead.getCouponStatus(), lead.getExpiresAt(),
+                lead.getRedeemedAt(), p.getId(), p.getStartAt(), p.getEndAt());
+    }
+
+    /** @return por qué el cupón no es canjeable en {@code now}, o null si lo es */
+    public String notRedeemableReason(Instant now) {
+        if (status == CouponStatus.CANCELLED)
+            return "Coupon cancelled";
+        if (status == CouponStatus.REDEEMED)
+            return "Coupon already redeemed";
+        if (status == CouponStatus.EXPIRED)
+            return "Coupon expired";
+        if (expiresAt != null && now.isAfter(expiresAt))
+            return "Coupon expired";
+        if (startAt != null && now.isBefore(startAt))
+            return "Promotion not started yet";
+        if (endAt != null && now.isAfter(endAt))
+            return "Promotion already ended";
+        return null;
+    }
+
+    /** REDEEMED, EXPIRED y CANCELLED ya no cambian. */
+    public boolean isFinal() {
+        return status == CouponStatus.REDEEMED || status == CouponStatus.EXPIRED
+                || status == CouponStatus.CANCELLED;
+    }
+}
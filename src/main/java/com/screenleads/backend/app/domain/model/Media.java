@@ -1,5 +1,12 @@
 package com.screenleads.backend.app.domain.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.annotations.BatchSize;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -29,4 +36,45 @@ public class Media extends Auditable {
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "company_id", nullable = false, foreignKey = @ForeignKey(name = "fk_media_company"))
     private Company company;
+
+    // === Metadatos técnicos capturados en la ingesta (null si no se conocen) ===
+    private Integer width;
+
+    private Integer height;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    /** bps medios del fichero servido (incluye audio) */
+    private Long bitrate;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    /** SHA-256 (hex) del fichero servido; null en medias anteriores a capturarlo */
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    /** Tamaño del fichero tal y como se subió, antes de comprimir */
+    @Column(name = "original_size_bytes")
+    private Long originalSizeBytes;
+
+    /** Perfil de codificación con el que se procesó (media.encoding.profiles) */
+    @Column(name = "processing_profile", length = 64)
+    private String processingProfile;
+
+    @ElementCollection
+    @CollectionTable(name = "media_thumbnail", joinColumns = @JoinColumn(name = "media_id"), foreignKey = @ForeignKey(name = "fk_mediathumbnail_media"))
+    @OrderColumn(name = "position")
+    @Column(name = "url", length = 2048)
+    @BatchSize(size = 50)
+    @JsonIgnore
+    @Builder.Default
+    private List<String> thumbnailUrls = new ArrayList<>();
+
+    /** Versiones escaladas por resolución de pantalla (vacío si no se generaron). */
+    @OneToMany(mappedBy = "media", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
+    @Builder.Default
+    private List<MediaRendition> renditions = new ArrayList<>();
 }
\ No newline at end of file
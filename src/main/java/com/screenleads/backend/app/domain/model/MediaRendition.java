@@ -0,0 +1,48 @@
+package com.screenleads.backend.app.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Versión de un {@link Media} escalada a un peldaño de la escalera de
+ * resoluciones (p.ej. 720p, 1080p, 2160p), generada en la ingesta.
+ */
+@Entity
+@Table(name = "media_rendition", indexes = {
+        @Index(name = "ix_mediarendition_media", columnList = "media_id")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_mediarendition_media_name", columnNames = { "media_id", "name" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaRendition extends Auditable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "media_id", nullable = false, foreignKey = @ForeignKey(name = "fk_mediarendition_media"))
+    @JsonIgnore
+    private Media media;
+
+    @Column(nullable = false, length = 20)
+    private String name; // e.g., 720p, 1080p
+
+    @Column(nullable = false)
+    private Integer width;
+
+    @Column(nullable = false)
+    private Integer height;
+
+    @Column(nullable = false, length = 2048)
+    private String src;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+}
@@ -0,0 +1,52 @@
+package com.screenleads.backend.app.domain.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contadores de la parte alta del embudo por promoción, día (zona de
+ * leads.counters.zone) y dispositivo: impresiones de advices enlazados a la
+ * promoción y visitas a la landing. {@code deviceId = 0} agrupa lo que llega
+ * sin dispositivo. Leads y canjes salen de promotion_lead_daily.
+ */
+@Entity
+@Table(name = "promotion_funnel_daily")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromotionFunnelDaily {
+
+    /** Dispositivo de las visitas sin atribuir. */
+    public static final long NO_DEVICE = 0L;
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private long impressions;
+
+    @Column(name = "landing_views", nullable = false)
+    private long landingViews;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "promotion_id", nullable = false)
+        private Long promotionId;
+
+        @Column(name = "day", nullable = false)
+        private LocalDate day;
+
+        @Column(name = "device_id", nullable = false)
+        private Long deviceId;
+    }
+}
@@ -22,6 +22,7 @@ import lombok.*;
     indexes = {
         @Index(name = "ix_promotionlead_promotion", columnList = "promotion_id"),
         @Index(name = "ix_promotionlead_created_at", columnList = "created_at"),
+        @Index(name = "ix_promotionlead_promotion_created", columnList = "promotion_id,created_at"),
         @Index(name = "ix_promotionlead_coupon_status", columnList = "coupon_status")
     }
 )
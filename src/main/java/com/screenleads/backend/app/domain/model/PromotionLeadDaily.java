@@ -0,0 +1,51 @@
+package com.screenleads.backend.app.domain.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contadores de leads y cupones por promoción y día (en la zona de
+ * leads.counters.zone). Se incrementan en la misma transacción que el lead o
+ * el cambio de estado; los cambios de estado cuentan el día en que ocurren.
+ */
+@Entity
+@Table(name = "promotion_lead_daily")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromotionLeadDaily {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private long leads;
+
+    @Column(nullable = false)
+    private long redeemed;
+
+    @Column(nullable = false)
+    private long expired;
+
+    @Column(nullable = false)
+    private long cancelled;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "promotion_id", nullable = false)
+        private Long promotionId;
+
+        @Column(name = "day", nullable = false)
+        private LocalDate day;
+    }
+}
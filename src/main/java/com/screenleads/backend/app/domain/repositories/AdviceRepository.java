@@ -1,9 +1,12 @@
 package com.screenleads.backend.app.domain.repositories;
 
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.screenleads.backend.app.domain.model.Advice;
 import com.screenleads.backend.app.domain.model.Company;
 
@@ -13,4 +16,15 @@ public interface AdviceRepository extends JpaRepository<Advice, Long> {
 
 @EntityGraph(attributePaths = {"media", "promotion", "schedules", "schedules.windows"})
 List<Advice> findByCompany(Company company);
+
+/** Promoción enlazada de cada advice (los que no tienen promoción no aparecen). */
+@Query("select a.id as adviceId, a.promotion.id as promotionId from Advice a " +
+       "where a.id in :ids and a.promotion is not null")
+List<AdvicePromotion> findPromotionIds(@Param("ids") Collection<Long> ids);
+
+interface AdvicePromotion {
+    Long getAdviceId();
+
+    Long getPromotionId();
+}
 }
\ No newline at end of file
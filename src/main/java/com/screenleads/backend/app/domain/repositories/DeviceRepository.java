@@ -1,6 +1,8 @@
 package com.screenleads.backend.app.domain.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.screenleads.backend.app.domain.model.Device;
 
@@ -12,4 +14,7 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
     Device findByUuid(String uuid); // ya lo usabas
 
     Optional<Device> findOptionalByUuid(String uuid); // para 404 limpio
+
+    @Query("select d.id from Device d where d.uuid = :uuid")
+    Optional<Long> findIdByUuid(@Param("uuid") String uuid);
 }
\ No newline at end of file
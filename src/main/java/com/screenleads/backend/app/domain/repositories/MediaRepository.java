@@ -1,10 +1,60 @@
 package com.screenleads.backend.app.domain.repositories;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import com.screenleads.backend.app.domain.model.Media;
 
 public interface MediaRepository extends JpaRepository<Media, Long> {
     Optional<Media> findBySrc(String src); // útil si src es único
+
+    boolean existsBySrcStartingWith(String prefix);
+
+    /**
+     * Rutas de bucket referenciadas (src, thumbnails y renditions) bajo
+     * {@code urlPrefix}, sin el prefijo, sin duplicados y en orden binario
+     * (COLLATE "C", el mismo que el listado de GCS). Se consume con cursor:
+     * requiere transacción abierta y cerrar el stream.
+     */
+    @Query(value = "select path from (" +
+            "select substring(m.src, length(:urlPrefix) + 1) as path from media m " +
+            "where left(m.src, length(:urlPrefix)) = :urlPrefix " +
+            "union select substring(t.url, length(:urlPrefix) + 1) from media_thumbnail t " +
+            "where left(t.url, length(:urlPrefix)) = :urlPrefix " +
+            "union select substring(r.src, length(:urlPrefix) + 1) from media_rendition r " +
+            "where left(r.src, length(:urlPrefix)) = :urlPrefix" +
+            ") refs order by path collate \"C\"", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamReferencedPaths(@Param("urlPrefix") String urlPrefix);
+
+    @Override
+    @EntityGraph(attributePaths = { "renditions" })
+    List<Media> findAll();
+
+    /** Totales de tamaño original/servido por perfil; companyId null = todas. */
+    @Query("select m.processingProfile as profile, count(m) as medias, " +
+            "sum(m.originalSizeBytes) as originalBytes, sum(m.sizeBytes) as storedBytes " +
+            "from Media m " +
+            "where m.originalSizeBytes is not null and m.sizeBytes is not null " +
+            "and (:companyId is null or m.company.id = :companyId) " +
+            "group by m.processingProfile")
+    List<CompressionStats> compressionStatsByProfile(@Param("companyId") Long companyId);
+
+    interface CompressionStats {
+        String getProfile();
+
+        long getMedias();
+
+        Long getOriginalBytes();
+
+        Long getStoredBytes();
+    }
 }
\ No newline at end of file
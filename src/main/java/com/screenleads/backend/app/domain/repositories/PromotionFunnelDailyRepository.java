@@ -0,0 +1,38 @@
+package com.screenleads.backend.app.domain.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.screenleads.backend.app.domain.model.PromotionFunnelDaily;
+
+public interface PromotionFunnelDailyRepository extends JpaRepository<PromotionFunnelDaily, PromotionFunnelDaily.Key> {
+
+    @Query("select f from PromotionFunnelDaily f " +
+           "where f.id.promotionId = :promotionId and f.id.day between :from and :to " +
+           "order by f.id.day, f.id.deviceId")
+    List<PromotionFunnelDaily> findRange(@Param("promotionId") Long promotionId,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+
+    /** Suma atómica sobre la fila (promoción, día, dispositivo); la crea si no existe. */
+    @Modifying
+    @Query(value = "insert into promotion_funnel_daily (promotion_id, day, device_id, impressions, landing_views) " +
+                   "values (:promotionId, :day, :deviceId, :impressions, :landingViews) " +
+                   "on conflict (promotion_id, day, device_id) do update set " +
+                   "impressions = promotion_funnel_daily.impressions + excluded.impressions, " +
+                   "landing_views = promotion_funnel_daily.landing_views + excluded.landing_views", nativeQuery = true)
+    int increment(@Param("promotionId") Long promotionId,
+                  @Param("day") LocalDate day,
+                  @Param("deviceId") Long deviceId,
+                  @Param("impressions") long impressions,
+                  @Param("landingViews") long landingViews);
+
+    @Modifying
+    @Query("delete from PromotionFunnelDaily f where f.id.promotionId = :promotionId")
+    int deleteByPromotionId(@Param("promotionId") Long promotionId);
+}
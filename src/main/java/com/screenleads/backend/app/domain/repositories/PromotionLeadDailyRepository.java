@@ -0,0 +1,72 @@
+package com.screenleads.backend.app.domain.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.screenleads.backend.app.domain.model.PromotionLeadDaily;
+
+public interface PromotionLeadDailyRepository extends JpaRepository<PromotionLeadDaily, PromotionLeadDaily.Key> {
+
+    @Query("select d from PromotionLeadDaily d " +
+           "where d.id.promotionId = :promotionId and d.id.day between :from and :to " +
+           "order by d.id.day")
+    List<PromotionLeadDaily> findRange(@Param("promotionId") Long promotionId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    /** Suma atómica sobre la fila del día (la crea si no existe). */
+    @Modifying
+    @Query(value = "insert into promotion_lead_daily (promotion_id, day, leads, redeemed, expired, cancelled) " +
+                   "values (:promotionId, :day, :leads, :redeemed, :expired, :cancelled) " +
+                   "on conflict (promotion_id, day) do update set " +
+                   "leads = promotion_lead_daily.leads + excluded.leads, " +
+                   "redeemed = promotion_lead_daily.redeemed + excluded.redeemed, " +
+                   "expired = promotion_lead_daily.expired + excluded.expired, " +
+                   "cancelled = promotion_lead_daily.cancelled + excluded.cancelled", nativeQuery = true)
+    int increment(@Param("promotionId") Long promotionId,
+                  @Param("day") LocalDate day,
+                  @Param("leads") long leads,
+                  @Param("redeemed") long redeemed,
+                  @Param("expired") long expired,
+                  @Param("cancelled") long cancelled);
+
+    @Modifying
+    @Query(value = "delete from promotion_lead_daily " +
+                   "where promotion_id = :promotionId and day between :from and :to", nativeQuery = true)
+    int deleteRange(@Param("promotionId") Long promotionId,
+                    @Param("from") LocalDate from,
+                    @Param("to") LocalDate to);
+
+    /**
+     * Reconstruye [from, to] desde promotion_lead: leads por created_at,
+     * canjes por redeemed_at y caducados/cancelados por su estado actual, con
+     * updated_at como día del cambio.
+     */
+    @Modifying
+    @Query(value = "insert into promotion_lead_daily (promotion_id, day, leads, redeemed, expired, cancelled) " +
+                   "select :promotionId, e.day, sum(e.leads), sum(e.redeemed), sum(e.expired), sum(e.cancelled) from (" +
+                   "select cast(pl.created_at at time zone :zone as date) as day, 1 as leads, 0 as redeemed, 0 as expired, 0 as cancelled " +
+                   "from promotion_lead pl where pl.promotion_id = :promotionId " +
+                   "union all select cast(pl.redeemed_at at time zone :zone as date), 0, 1, 0, 0 " +
+                   "from promotion_lead pl where pl.promotion_id = :promotionId " +
+                   "and pl.coupon_status = 'REDEEMED' and pl.redeemed_at is not null " +
+                   "union all select cast(coalesce(pl.updated_at, pl.created_at) at time zone :zone as date), 0, 0, 1, 0 " +
+                   "from promotion_lead pl where pl.promotion_id = :promotionId and pl.coupon_status = 'EXPIRED' " +
+                   "union all select cast(coalesce(pl.updated_at, pl.created_at) at time zone :zone as date), 0, 0, 0, 1 " +
+                   "from promotion_lead pl where pl.promotion_id = :promotionId and pl.coupon_status = 'CANCELLED' " +
+                   ") e where e.day between :from and :to " +
+                   "group by e.day", nativeQuery = true)
+    int rebuildRange(@Param("promotionId") Long promotionId,
+                     @Param("from") LocalDate from,
+                     @Param("to") LocalDate to,
+                     @Param("zone") String zone);
+
+    @Modifying
+    @Query("delete from PromotionLeadDaily d where d.id.promotionId = :promotionId")
+    int deleteByPromotionId(@Param("promotionId") Long promotionId);
+}
@@ -3,14 +3,19 @@ package com.screenleads.backend.app.domain.repositories;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.screenleads.backend.app.domain.model.CouponStatus;
 import com.screenleads.backend.app.domain.model.PromotionLead;
 
+import jakarta.persistence.QueryHint;
+
 public interface PromotionLeadRepository extends JpaRepository<PromotionLead, Long> {
 
     // ---- Búsquedas básicas ----
@@ -56,4 +61,142 @@ public interface PromotionLeadRepository extends JpaRepository<PromotionLead, Lo
     long countByPromotionAndCustomerSince(@Param("promotionId") Long promotionId,
                                           @Param("customerId") Long customerId,
                                           @Param("since") Instant since);
+
+    /**
+     * Leads de la promo en [from, to] ordenados por createdAt, con cursor de
+     * servidor (fetch size) y sin snapshot de dirty-checking: para exportar sin
+     * cargar la promo entera. Requiere transacción abierta y cerrar el stream.
+     */
+    @Query("select pl from PromotionLead pl " +
+           "where pl.promotion.id = :promotionId " +
+           "and pl.createdAt >= :from and pl.createdAt <= :to " +
+           "order by pl.createdAt, pl.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PromotionLead> streamByPromotionIdAndCreatedAtBetween(@Param("promotionId") Long promotionId,
+                                                                 @Param("from") Instant from,
+                                                                 @Param("to") Instant to);
+
+    long countByPromotionId(Long promotionId);
+
+    /** Lo necesario para validar un cupón, con las fechas de su promoción en la misma consulta. */
+    @Query("select pl.couponCode as couponCode, pl.couponStatus as status, pl.expiresAt as expiresAt, " +
+           "pl.redeemedAt as redeemedAt, p.id as promotionId, p.startAt as startAt, p.endAt as endAt " +
+           "from PromotionLead pl join pl.promotion p where pl.couponCode = :code")
+    Optional<CouponValidity> findValidityByCouponCode(@Param("code") String couponCode);
+
+    /**
+     * Canje atómico: marca REDEEMED solo si el cupón sigue canjeable (NEW o
+     * VALID, sin caducar y dentro de la ventana de la promoción). Es una sola
+     * sentencia, así que de dos canjes simultáneos solo uno encuentra la fila.
+     * <p>
+     * Sin {@code @Modifying} a propósito: con RETURNING la sentencia devuelve
+     * filas y se ejecuta como una consulta, y {@code @Modifying} obligaría a
+     * devolver int/void (el recuento) y perderíamos la fila. Por eso tampoco
+     * abre transacción de escritura propia: hay que llamarlo dentro de una.
+     *
+     * @return la fila ya canjeada, o vacío si no se pudo canjear
+     */
+    @Query(value = "update promotion_lead pl " +
+                   "set coupon_status = 'REDEEMED', redeemed_at = :now, updated_at = :now " +
+                   "from promotion p " +
+                   "where p.id = pl.promotion_id and pl.coupon_code = :code " +
+                   "and pl.coupon_status in ('NEW', 'VALID') " +
+                   "and (pl.expires_at is null or pl.expires_at >= :now) " +
+                   "and (p.start_at is null or p.start_at <= :now) " +
+                   "and (p.end_at is null or p.end_at >= :now) " +
+                   "returning pl.*", nativeQuery = true)
+    Optional<PromotionLead> redeemIfRedeemable(@Param("code") String couponCode, @Param("now") Instant now);
+
+    /**
+     * Caduca hasta {@code limit} cupones NEW/VALID vencidos (por expires_at o
+     * por el fin de su promoción). Con SKIP LOCKED cada lote bloquea solo sus
+     * filas y varios nodos pueden barrer a la vez sin esperarse ni repetirse.
+     * Sin {@code @Modifying} por lo mismo que {@link #redeemIfRedeemable}.
+     */
+    @Query(value = "update promotion_lead pl set coupon_status = 'EXPIRED', updated_at = :now " +
+                   "where pl.id in (" +
+                   "select l.id from promotion_lead l join promotion p on p.id = l.promotion_id " +
+                   "where l.coupon_status in ('NEW', 'VALID') " +
+                   "and (l.expires_at < :now or p.end_at < :now) " +
+                   "limit :limit for update of l skip locked) " +
+                   "returning pl.promotion_id as promotionId, pl.coupon_code as couponCode", nativeQuery = true)
+    List<ExpiredCoupon> expireDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /** Identificadores de la promo con cursor de servidor, para precargar el filtro de duplicados. */
+    @Query("select pl.identifier from PromotionLead pl where pl.promotion.id = :promotionId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    Stream<String> streamIdentifiersByPromotionId(@Param("promotionId") Long promotionId);
+
+    // ---- Resumen agregado en BD (rango [from, to]) ----
+    @Query("select count(pl) as leads, count(distinct pl.identifier) as uniqueIdentifiers " +
+           "from PromotionLead pl " +
+           "where pl.promotion.id = :promotionId and pl.createdAt >= :from and pl.createdAt <= :to")
+    LeadTotals summarizeLeads(@Param("promotionId") Long promotionId,
+                              @Param("from") Instant from,
+                              @Param("to") Instant to);
+
+    @Query("select pl.couponStatus as status, count(pl) as leads " +
+           "from PromotionLead pl " +
+           "where pl.promotion.id = :promotionId and pl.createdAt >= :from and pl.createdAt <= :to " +
+           "group by pl.couponStatus")
+    List<StatusCount> countLeadsByCouponStatus(@Param("promotionId") Long promotionId,
+                                               @Param("from") Instant from,
+                                               @Param("to") Instant to);
+
+    /**
+     * Leads por hora local ('YYYY-MM-DDTHH:00') en {@code zone}, un nombre de
+     * zona que entienda Postgres (ver PromotionServiceImpl#postgresZone).
+     */
+    @Query(value = "select to_char(date_trunc('hour', pl.created_at at time zone :zone), " +
+                   "'YYYY-MM-DD\"T\"HH24:MI') as bucket, count(*) as leads " +
+                   "from promotion_lead pl " +
+                   "where pl.promotion_id = :promotionId and pl.created_at >= :from and pl.created_at <= :to " +
+                   "group by 1 order by 1", nativeQuery = true)
+    List<LeadBucket> countLeadsByHour(@Param("promotionId") Long promotionId,
+                                      @Param("from") Instant from,
+                                      @Param("to") Instant to,
+                                      @Param("zone") String zone);
+
+    interface LeadTotals {
+        long getLeads();
+
+        long getUniqueIdentifiers();
+    }
+
+    interface StatusCount {
+        CouponStatus getStatus();
+
+        long getLeads();
+    }
+
+    interface ExpiredCoupon {
+        Long getPromotionId();
+
+        String getCouponCode();
+    }
+
+    interface CouponValidity {
+        String getCouponCode();
+
+        CouponStatus getStatus();
+
+        Instant getExpiresAt();
+
+        Instant getRedeemedAt();
+
+        Long getPromotionId();
+
+        Instant getStartAt();
+
+        Instant getEndAt();
+    }
+
+    interface LeadBucket {
+        String getBucket();
+
+        long getLeads();
+    }
 }
@@ -1,8 +1,58 @@
 package com.screenleads.backend.app.domain.repositories;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.LeadLimitType;
 import com.screenleads.backend.app.domain.model.Promotion;
 
 public interface PromotionRepository extends JpaRepository<Promotion, Long> {
-}
\ No newline at end of file
+
+    @Query("select p.id from Promotion p order by p.id")
+    List<Long> findAllIds();
+
+    /**
+     * Listado paginado sin la plantilla (LOB) ni la colección de leads; el
+     * número de leads se cuenta en BD con el índice (promotion_id, identifier).
+     */
+    @Query(value = "select p.id as id, p.name as name, p.description as description, " +
+                   "p.startAt as startAt, p.endAt as endAt, " +
+                   "p.leadLimitType as leadLimitType, p.leadIdentifierType as leadIdentifierType, " +
+                   "(select count(pl) from PromotionLead pl where pl.promotion.id = p.id) as leadCount " +
+                   "from Promotion p",
+           countQuery = "select count(p) from Promotion p")
+    Page<PromotionSummary> findSummaries(Pageable pageable);
+
+    /** Versión de la plantilla para el ETag, sin leer el LOB. */
+    @Query("select coalesce(p.updatedAt, p.createdAt) from Promotion p where p.id = :id")
+    Optional<Instant> findVersionById(@Param("id") Long id);
+
+    @Query("select p.templateHtml from Promotion p where p.id = :id")
+    Optional<String> findTemplateHtmlById(@Param("id") Long id);
+
+    interface PromotionSummary {
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+
+        Instant getStartAt();
+
+        Instant getEndAt();
+
+        LeadLimitType getLeadLimitType();
+
+        LeadIdentifierType getLeadIdentifierType();
+
+        Long getLeadCount();
+    }
+}
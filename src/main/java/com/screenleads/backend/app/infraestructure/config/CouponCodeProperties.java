@@ -0,0 +1,20 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Asignación de códigos de cupón: permutación con clave de una secuencia
+ * reservada por bloques.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "coupons.codes")
+public class CouponCodeProperties {
+
+    /**
+     * Clave de la permutación, la misma en todos los nodos; sin ella no se puede deducir el siguiente código. Obligatoria salvo en los perfiles dev/test (vacía: clave aleatoria por arranque)
+     */
+    private String secret = "";
+}
@@ -0,0 +1,36 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Barrido periódico que marca EXPIRED los cupones vencidos.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "coupons.expiry")
+public class CouponExpiryProperties {
+
+    /**
+     * Enable/Disable el barrido
+     */
+    private boolean enabled = true;
+
+    /**
+     * Pausa entre barridos
+     */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * Cupones por lote; cada lote es una transacción corta que solo bloquea sus filas
+     */
+    private int batchSize = 500;
+
+    /**
+     * Lotes máximos por barrido; lo que quede se caduca en el siguiente
+     */
+    private int maxBatchesPerRun = 100;
+}
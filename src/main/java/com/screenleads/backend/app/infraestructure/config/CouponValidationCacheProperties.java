@@ -0,0 +1,31 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caché en memoria del estado de validación de cupones (GET /coupons/{code}).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "coupons.validation-cache")
+public class CouponValidationCacheProperties {
+
+    /**
+     * Enable/Disable la caché (desactivada: cada validación consulta la BD)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Cupones en memoria; al superarlo se descartan los menos consultados (LRU)
+     */
+    private int maxEntries = 50_000;
+
+    /**
+     * Vida de un estado aún canjeable (NEW/VALID); acota lo que tarda en verse un canje hecho en otro nodo
+     */
+    private Duration validTtl = Duration.ofSeconds(5);
+}
@@ -0,0 +1,22 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.time.ZoneId;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Contadores diarios de leads por promoción (promotion_lead_daily).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "leads.counters")
+public class LeadCounterProperties {
+
+    /**
+     * Zona en la que se corta el día de los contadores. Cambiarla exige
+     * recalcular (POST /promotions/leads/daily/recompute)
+     */
+    private ZoneId zone = ZoneId.of("Europe/Madrid");
+}
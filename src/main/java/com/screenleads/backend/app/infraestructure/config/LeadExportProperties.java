@@ -0,0 +1,47 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exportaciones de leads en segundo plano (POST /promotions/{id}/leads/exports).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "leads.export")
+public class LeadExportProperties {
+
+    /**
+     * Exportaciones que se ejecutan a la vez
+     */
+    private int threads = 2;
+
+    /**
+     * Exportaciones en espera; con la cola llena se responde 429
+     */
+    private int queueCapacity = 16;
+
+    /**
+     * Vida del fichero exportado y de su URL firmada; las URLs V4 admiten 7 días como máximo,
+     * así que por encima la URL (y la caducidad que se informa) se quedan en 7 días
+     */
+    private Duration ttl = Duration.ofDays(1);
+
+    /**
+     * Prefijo del bucket donde se dejan los ficheros
+     */
+    private String prefix = "exports/leads/";
+
+    /**
+     * Borra del bucket los ficheros caducados (requiere Firebase); contienen datos personales
+     */
+    private boolean bucketCleanup = true;
+
+    /**
+     * Filas entre actualizaciones del progreso (el writer no se vacía: gzip comprime mejor sin flush)
+     */
+    private int progressEvery = 1_000;
+}
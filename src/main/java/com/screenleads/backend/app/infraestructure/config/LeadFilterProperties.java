@@ -0,0 +1,42 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Filtro Bloom de identificadores por promoción (pre-chequeo de duplicados
+ * en el alta de leads y la emisión de cupones).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "leads.filter")
+public class LeadFilterProperties {
+
+    /**
+     * Enable/Disable el filtro (desactivado: siempre se consulta la BD)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Probabilidad de falso positivo objetivo; un positivo solo cuesta la consulta de siempre
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Capacidad mínima de cada filtro, aunque la promoción tenga menos leads
+     */
+    private int minExpectedLeads = 1_024;
+
+    /**
+     * Margen de crecimiento sobre los leads existentes al dimensionar; al superarlo se reconstruye
+     */
+    private double growthFactor = 2.0;
+
+    /**
+     * Memoria total de los filtros; al superarla se descartan las promociones menos usadas (LRU).
+     * Una promoción cuyo filtro no cabe solo se queda sin filtro y siempre consulta la BD
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+}
@@ -0,0 +1,62 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registro de leads con escritura diferida (POST /promotions/{id}/leads/async).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "leads.ingest")
+public class LeadIngestProperties {
+
+    /**
+     * Enable/Disable la cola de escritura diferida (si no, el endpoint responde 503)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Leads aceptados pendientes de escribir; con la cola llena se responde 429
+     */
+    private int queueCapacity = 20_000;
+
+    /**
+     * Filas por INSERT multi-fila
+     */
+    private int batchSize = 500;
+
+    /**
+     * Espera máxima del escritor para completar un lote antes de escribirlo
+     */
+    private Duration maxBatchDelay = Duration.ofMillis(100);
+
+    /**
+     * Primera espera antes de reintentar un lote que no se pudo escribir (BD caída, pool agotado); se dobla en
+     * cada intento
+     */
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    /**
+     * Espera máxima entre reintentos de un lote
+     */
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Cuánto recuerda la caché de duplicados un identificador ya aceptado
+     */
+    private Duration dedupeTtl = Duration.ofMinutes(10);
+
+    /**
+     * Entradas máximas de la caché de duplicados (LRU)
+     */
+    private int dedupeMaxEntries = 200_000;
+
+    /**
+     * Vigencia de los datos de la promoción cacheados para validar sin ir a BD
+     */
+    private Duration promotionCacheTtl = Duration.ofSeconds(30);
+}
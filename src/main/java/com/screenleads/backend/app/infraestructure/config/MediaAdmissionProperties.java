@@ -0,0 +1,53 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Límites de admisión para el procesamiento de medias (ffmpeg / ImageIO).
+ * Cada tipo tiene sus propias plazas de ejecución y su cola de espera acotada.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.admission")
+public class MediaAdmissionProperties {
+
+    /**
+     * Límites para video
+     */
+    private Lane video = new Lane(1, 4);
+
+    /**
+     * Límites para imagen
+     */
+    private Lane image = new Lane(4, 16);
+
+    /**
+     * Tiempo máximo esperando plaza antes de rechazar la subida
+     */
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    /**
+     * Valor de Retry-After devuelto al rechazar
+     */
+    private Duration retryAfter = Duration.ofSeconds(30);
+
+    @Data
+    public static class Lane {
+        /** Procesamientos simultáneos */
+        private int concurrency;
+        /** Subidas esperando plaza como máximo */
+        private int queueCapacity;
+
+        public Lane() {
+        }
+
+        public Lane(int concurrency, int queueCapacity) {
+            this.concurrency = concurrency;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.imgscalr.Scalr;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Perfiles de codificación con nombre aplicados en la ingesta de medias.
+ * El perfil usado queda registrado en cada {@code Media}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.encoding")
+public class MediaEncodingProperties {
+
+    /**
+     * Perfil aplicado cuando la subida no indica ninguno
+     */
+    private String defaultProfile = "signage-hq";
+
+    /**
+     * Perfiles disponibles por nombre
+     */
+    private Map<String, Profile> profiles = new LinkedHashMap<>(Map.of(
+            "signage-hq", new Profile(0.85f, true, ChromaSubsampling.YUV444, 1920, 1080,
+                    Scalr.Method.QUALITY, 23, 4_000_000, "medium"),
+            "mobile-lite", new Profile(0.72f, true, ChromaSubsampling.YUV420, 1280, 720,
+                    Scalr.Method.QUALITY, 28, 1_200_000, "medium")));
+
+    public enum ChromaSubsampling {
+        /** Crominancia a resolución completa: texto y bordes nítidos */
+        YUV444,
+        /** Crominancia a mitad de resolución en ambos ejes: menor tamaño */
+        YUV420
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Profile {
+        /** Calidad JPEG entre 0.0 y 1.0 */
+        private float jpegQuality = 0.85f;
+        /** JPEG progresivo (se pinta antes en conexiones lentas) */
+        private boolean progressive = true;
+        /** Submuestreo de croma del JPEG */
+        private ChromaSubsampling chromaSubsampling = ChromaSubsampling.YUV420;
+        /** Caja máxima del fichero principal */
+        private int maxWidth = 1920;
+        private int maxHeight = 1080;
+        /** Algoritmo de escalado del fichero principal y renditions (thumbnails: SPEED) */
+        private Scalr.Method scalingMethod = Scalr.Method.QUALITY;
+        /** CRF de x264 (menor = más calidad) */
+        private int videoCrf = 23;
+        /** Tope de bitrate de vídeo en bps (-maxrate) */
+        private int videoMaxBitrate = 4_000_000;
+        /** Preset de x264 */
+        private String videoPreset = "medium";
+    }
+}
@@ -0,0 +1,54 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Recolector de objetos huérfanos del bucket y de temporales de la ingesta.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.gc")
+public class MediaGcProperties {
+
+    /**
+     * Enable/Disable la reconciliación del bucket (requiere Firebase)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Solo informa de los huérfanos, no borra
+     */
+    private boolean dryRun = false;
+
+    /**
+     * Antigüedad mínima de un objeto no referenciado antes de borrarlo
+     * (cubre subidas en curso cuyo Media aún no se ha registrado)
+     */
+    private Duration gracePeriod = Duration.ofDays(2);
+
+    /**
+     * Prefijos del bucket que gestiona la ingesta; fuera de ellos no se borra nada
+     */
+    private List<String> prefixes = new ArrayList<>(List.of("media/"));
+
+    /**
+     * Tamaño de página del listado del bucket y del lote de borrado
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Tope de borrados por ejecución
+     */
+    private int maxDeletesPerRun = 5000;
+
+    /**
+     * Antigüedad a partir de la cual un temporal de la ingesta se considera perdido
+     */
+    private Duration tempMaxAge = Duration.ofHours(6);
+}
@@ -0,0 +1,54 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Escalera de resoluciones generada en la ingesta de medias.
+ * Cada peldaño es una caja máxima (ancho x alto); nunca se escala por encima
+ * del original, pero sí puede quedar por encima de la salida principal cuando
+ * el original es mayor que la caja del perfil.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.renditions")
+public class MediaRenditionProperties {
+
+    /**
+     * Enable/Disable rendition generation at ingest
+     */
+    private boolean enabled = true;
+
+    /**
+     * Peldaños para vídeo
+     */
+    private List<Rung> video = new ArrayList<>(List.of(
+            new Rung("720p", 1280, 720, 1_500_000),
+            new Rung("1080p", 1920, 1080, 3_000_000),
+            new Rung("2160p", 3840, 2160, 8_000_000)));
+
+    /**
+     * Peldaños para imagen (el bitrate se ignora)
+     */
+    private List<Rung> image = new ArrayList<>(List.of(
+            new Rung("720p", 1280, 720, 0),
+            new Rung("1080p", 1920, 1080, 0),
+            new Rung("2160p", 3840, 2160, 0)));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rung {
+        private String name;
+        private int width;
+        private int height;
+        /** Bitrate de vídeo en bps */
+        private int bitrate;
+    }
+}
@@ -0,0 +1,37 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsConfigurationSource;
+
+import com.screenleads.backend.app.application.security.RateLimitFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra {@link RateLimitFilter} como filtro de servlet por delante de la
+ * cadena de Spring Security, para que las peticiones rechazadas no lleguen a
+ * autenticarse contra la BD. Por eso recibe la configuración CORS: sus 429
+ * no pasan por el CorsFilter de la cadena.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    // CORS por nombre: HandlerMappingIntrospector también es un CorsConfigurationSource
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry,
+            @Qualifier("corsConfigurationSource") CorsConfigurationSource corsConfigurationSource) {
+        return new RateLimitFilter(properties, meterRegistry, System::nanoTime, corsConfigurationSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
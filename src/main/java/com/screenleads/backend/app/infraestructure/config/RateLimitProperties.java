@@ -0,0 +1,115 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limitador token-bucket de los endpoints públicos (altas de leads, cupones,
+ * impresiones). Se evalúa antes de la cadena de seguridad y de cualquier
+ * acceso a BD.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    /** Partes de la clave de un bucket. */
+    public enum KeyPart {
+        /** Cabecera X-API-KEY (se guarda su hash, no la clave) */
+        API_KEY,
+        /** Variable {uuid} de la ruta o parámetro device */
+        DEVICE,
+        /** IP del cliente */
+        IP,
+        /** Variable {id} de /promotions/{id} o parámetro promotionId */
+        PROMOTION
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+        /**
+         * Nombre de la política (sale en RateLimit-Policy y en las métricas)
+         */
+        private String name;
+
+        /**
+         * Método HTTP (vacío = cualquiera)
+         */
+        private String method;
+
+        /**
+         * Patrón de ruta (sintaxis PathPattern de Spring MVC)
+         */
+        private String path;
+
+        /**
+         * Partes que forman la clave del bucket
+         */
+        private List<KeyPart> keys = new ArrayList<>();
+
+        /**
+         * Peticiones de ráfaga; el bucket se rellena entero en {@code period}
+         */
+        private long capacity;
+
+        /**
+         * Ventana en la que se reponen {@code capacity} peticiones
+         */
+        private Duration period;
+    }
+
+    /**
+     * Enable/Disable el limitador
+     */
+    private boolean enabled = true;
+
+    /**
+     * Usa la última IP de X-Forwarded-For (la que añade el router de Heroku) en lugar de la del socket.
+     * Obligatorio detrás de un proxy: sin él todas las peticiones llegan con la IP del proxy y los
+     * visitantes comparten bucket. Solo con un proxy delante que añada la cabecera, o se podría falsear.
+     */
+    private boolean trustForwardedFor = false;
+
+    /**
+     * Particiones con su propio lock; más reduce la contención entre claves
+     */
+    private int stripes = 64;
+
+    /**
+     * Buckets máximos por partición (se descarta el menos usado; un bucket descartado vuelve lleno)
+     */
+    private int maxBucketsPerStripe = 4_096;
+
+    /**
+     * Cada cuánto se quitan los buckets ya llenos
+     */
+    private Duration cleanupInterval = Duration.ofMinutes(1);
+
+    /**
+     * Primera política que encaja con la petición
+     */
+    private List<Policy> policies = new ArrayList<>(List.of(
+            new Policy("lead-register", "POST", "/promotions/{id}/leads", List.of(KeyPart.IP, KeyPart.PROMOTION),
+                    30, Duration.ofMinutes(1)),
+            new Policy("lead-register-async", "POST", "/promotions/{id}/leads/async",
+                    List.of(KeyPart.IP, KeyPart.PROMOTION), 30, Duration.ofMinutes(1)),
+            new Policy("landing-view", "POST", "/promotions/{id}/funnel/landing-views",
+                    List.of(KeyPart.IP, KeyPart.PROMOTION), 60, Duration.ofMinutes(1)),
+            new Policy("coupon-issue", "POST", "/coupons/issue", List.of(KeyPart.API_KEY, KeyPart.IP), 30,
+                    Duration.ofMinutes(1)),
+            new Policy("coupon-validate", "GET", "/coupons/{code}", List.of(KeyPart.API_KEY, KeyPart.IP), 120,
+                    Duration.ofMinutes(1)),
+            new Policy("coupon-redeem", "POST", "/coupons/{code}/redeem", List.of(KeyPart.API_KEY, KeyPart.IP),
+                    60, Duration.ofMinutes(1)),
+            new Policy("device-impressions", "POST", "/devices/uuid/{uuid}/impressions", List.of(KeyPart.DEVICE),
+                    10, Duration.ofMinutes(1))));
+}
@@ -0,0 +1,12 @@
+package com.screenleads.backend.app.infraestructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita los trabajos {@code @Scheduled} (mantenimiento de medias, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
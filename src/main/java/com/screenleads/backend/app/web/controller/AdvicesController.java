@@ -2,7 +2,6 @@
 package com.screenleads.backend.app.web.controller;
 
 import java.time.ZoneId;
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,11 +47,12 @@ public class AdvicesController {
     @Operation(summary = "Advices visibles ahora", description = "Filtra por la zona horaria indicada por cabeceras X-Timezone o X-Timezone-Offset")
     public ResponseEntity<List<AdviceDTO>> getVisibleAdvicesNow(
             @RequestHeader(value = "X-Timezone", required = false) @Parameter(description = "Zona horaria IANA, p.ej. Europe/Madrid") String tz,
-            @RequestHeader(value = "X-Timezone-Offset", required = false) @Parameter(description = "Minutos al ESTE de UTC, p.ej. 120") String offsetMinutesStr) {
+            @RequestHeader(value = "X-Timezone-Offset", required = false) @Parameter(description = "Minutos al ESTE de UTC, p.ej. 120") String offsetMinutesStr,
+            @RequestParam(value = "deviceUuid", required = false) @Parameter(description = "UUID del dispositivo para elegir la rendition según su resolución") String deviceUuid) {
 
-        ZoneId zone = resolveZoneId(tz, offsetMinutesStr);
+        ZoneId zone = ClientZone.resolve(tz, offsetMinutesStr, ZoneId.systemDefault());
         log.debug("Resolviendo visibles con zona: {}", zone);
-        return ResponseEntity.ok(adviceService.getVisibleAdvicesNow(zone));
+        return ResponseEntity.ok(adviceService.getVisibleAdvicesNow(zone, deviceUuid));
     }
 
     @PreAuthorize("@perm.can('advice', 'read')")
@@ -86,24 +86,4 @@ public class AdvicesController {
         adviceService.deleteAdvice(id);
         return ResponseEntity.noContent().build();
     }
-
-    // ----------------- helpers -----------------
-    private ZoneId resolveZoneId(String tz, String offsetMinutesStr) {
-        if (tz != null && !tz.isBlank()) {
-            try {
-                return ZoneId.of(tz.trim());
-            } catch (Exception e) {
-                log.warn("X-Timezone inválida '{}': {}", tz, e.getMessage());
-            }
-        }
-        if (offsetMinutesStr != null && !offsetMinutesStr.isBlank()) {
-            try {
-                int minutes = Integer.parseInt(offsetMinutesStr.trim());
-                return ZoneOffset.ofTotalSeconds(minutes * 60);
-            } catch (Exception e) {
-                log.warn("X-Timezone-Offset inválido '{}': {}", offsetMinutesStr, e.getMessage());
-            }
-        }
-        return ZoneId.systemDefault();
-    }
 }
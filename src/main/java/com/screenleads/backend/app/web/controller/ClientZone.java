@@ -0,0 +1,41 @@
+package com.screenleads.backend.app.web.controller;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Zona horaria del cliente a partir de las cabeceras:
+ * - X-Timezone: IANA TZ (p.ej. "Europe/Madrid")
+ * - X-Timezone-Offset: minutos al ESTE de UTC (p.ej. "120")
+ *
+ * Sin cabeceras válidas cada endpoint decide su zona por defecto: los
+ * visibles y el manifiesto, la del servidor (como siempre); el resumen de
+ * leads, la de los contadores diarios ({@code leads.counters.zone}).
+ */
+@Slf4j
+final class ClientZone {
+
+    private ClientZone() {
+    }
+
+    static ZoneId resolve(String tz, String offsetMinutesStr, ZoneId fallback) {
+        if (tz != null && !tz.isBlank()) {
+            try {
+                return ZoneId.of(tz.trim());
+            } catch (Exception e) {
+                log.warn("X-Timezone inválida '{}': {}", tz, e.getMessage());
+            }
+        }
+        if (offsetMinutesStr != null && !offsetMinutesStr.isBlank()) {
+            try {
+                int minutes = Integer.parseInt(offsetMinutesStr.trim());
+                return ZoneOffset.ofTotalSeconds(minutes * 60);
+            } catch (Exception e) {
+                log.warn("X-Timezone-Offset inválido '{}': {}", offsetMinutesStr, e.getMessage());
+            }
+        }
+        return fallback;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.screenleads.backend.app.application.service.CouponService;
+import com.screenleads.backend.app.domain.model.CouponState;
 import com.screenleads.backend.app.domain.model.CouponStatus;
 import com.screenleads.backend.app.domain.model.PromotionLead;
 
@@ -32,8 +33,9 @@ public class CouponController {
     @Operation(summary = "Validar cupón por código", description = "Devuelve el estado y si es válido en este momento")
     public ResponseEntity<CouponValidationResponse> validate(@PathVariable String code) {
         try {
-            PromotionLead lead = couponService.validate(code);
-            return ResponseEntity.ok(CouponValidationResponse.from(lead, true, null));
+            CouponState state = couponService.validate(code);
+            return ResponseEntity.ok(new CouponValidationResponse(state.couponCode(), true, state.status(),
+                    state.redeemedAt(), state.expiresAt(), null));
         } catch (Exception ex) {
             log.warn("Error validando cupón {}: {}", code, ex.getMessage());
             return ResponseEntity.badRequest()
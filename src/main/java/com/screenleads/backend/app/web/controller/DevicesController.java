@@ -1,7 +1,9 @@
 // src/main/java/com/screenleads/backend/app/web/controller/DevicesController.java
 package com.screenleads.backend.app.web.controller;
 
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
@@ -10,8 +12,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.screenleads.backend.app.application.service.DeviceService;
+import com.screenleads.backend.app.application.service.PromotionFunnelService;
+import com.screenleads.backend.app.web.dto.AdviceImpressionDTO;
 import com.screenleads.backend.app.web.dto.AdviceDTO;
 import com.screenleads.backend.app.web.dto.DeviceDTO;
+import com.screenleads.backend.app.web.dto.DeviceManifestDTO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,9 +28,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class DevicesController {
 
     private final DeviceService deviceService;
+    private final PromotionFunnelService funnelService;
 
-    public DevicesController(DeviceService deviceService) {
+    public DevicesController(DeviceService deviceService, PromotionFunnelService funnelService) {
         this.deviceService = deviceService;
+        this.funnelService = funnelService;
     }
 
     // -------------------------------------------------------------------------
@@ -92,6 +99,27 @@ public class DevicesController {
                 : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
 
+    @PreAuthorize("@perm.can('device', 'read')")
+    @GetMapping("/uuid/{uuid}/manifest")
+    @Operation(summary = "Manifiesto de predescarga", description = "Medias que el dispositivo necesitará en los próximos días (URL, tamaño, hash y primer uso)")
+    public ResponseEntity<DeviceManifestDTO> getManifest(
+            @PathVariable String uuid,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestHeader(value = "X-Timezone", required = false) String tz,
+            @RequestHeader(value = "X-Timezone-Offset", required = false) String offsetMinutesStr) {
+        ZoneId zone = ClientZone.resolve(tz, offsetMinutesStr, ZoneId.systemDefault());
+        return ResponseEntity.ok(deviceService.getManifest(uuid, days, zone));
+    }
+
+    @PreAuthorize("@perm.can('device', 'update')")
+    @PostMapping("/uuid/{uuid}/impressions")
+    @Operation(summary = "Informar impresiones", description = "Pases de advices agregados por la pantalla; los enlazados a una promoción alimentan su embudo")
+    public ResponseEntity<Map<String, Long>> reportImpressions(
+            @PathVariable String uuid,
+            @RequestBody List<AdviceImpressionDTO> impressions) {
+        return ResponseEntity.ok(Map.of("counted", funnelService.recordImpressions(uuid, impressions)));
+    }
+
     // -------------------------------------------------------------------------
     // Gestión de advices por dispositivo
     // -------------------------------------------------------------------------
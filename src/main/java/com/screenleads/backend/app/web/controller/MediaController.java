@@ -1,22 +1,35 @@
 package com.screenleads.backend.app.web.controller;
 
 import com.screenleads.backend.app.application.service.FirebaseStorageService;
+import com.screenleads.backend.app.application.service.MediaAdmissionController;
+import com.screenleads.backend.app.application.service.MediaAdmissionRejectedException;
 import com.screenleads.backend.app.application.service.MediaProcessingService;
 import com.screenleads.backend.app.application.service.MediaService;
+import com.screenleads.backend.app.web.dto.MediaCompressionReportDTO;
 import com.screenleads.backend.app.web.dto.MediaDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.*;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 @RestController // <-- antes era @Controller
@@ -28,16 +41,30 @@ public class MediaController {
     private static final String COMPRESSED_PREFIX = "/compressed-";
     private static final String THUMB_PREFIX = "/thumb-";
     private static final String THUMBNAILS_PATH = "/thumbnails/";
+    private static final Path RENDER_ROOT = Paths.get("src/main/resources/static/medias/").toAbsolutePath().normalize();
+    // Los ficheros renderizados llevan UUID en el nombre: su contenido no cambia
+    private static final Duration RENDER_MAX_AGE = Duration.ofDays(365);
 
     private final FirebaseStorageService firebaseService;
     private final MediaService mediaService;
     private final MediaProcessingService processingService;
+    private final MediaAdmissionController admissionController;
+    private final Path renderRoot;
 
+    @Autowired
     public MediaController(FirebaseStorageService firebaseService, MediaService mediaService,
-            MediaProcessingService processingService) {
+            MediaProcessingService processingService, MediaAdmissionController admissionController) {
+        this(firebaseService, mediaService, processingService, admissionController, RENDER_ROOT);
+    }
+
+    MediaController(FirebaseStorageService firebaseService, MediaService mediaService,
+            MediaProcessingService processingService, MediaAdmissionController admissionController,
+            Path renderRoot) {
         this.firebaseService = firebaseService;
         this.mediaService = mediaService;
         this.processingService = processingService;
+        this.admissionController = admissionController;
+        this.renderRoot = renderRoot.toAbsolutePath().normalize();
     }
 
     // ---------------- LIST/CRUD ----------------
@@ -54,7 +81,8 @@ public class MediaController {
     @PreAuthorize("@perm.can('media', 'create')")
     @CrossOrigin
     @PostMapping(value = "/medias/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Object>> upload(@RequestPart("file") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> upload(@RequestPart("file") MultipartFile file,
+            @RequestParam(value = "profile", required = false) String profile) {
         long startTime = System.currentTimeMillis();
 
         try {
@@ -65,15 +93,44 @@ public class MediaController {
             final String original = Optional.ofNullable(file.getOriginalFilename()).orElse("upload.bin");
             final String safeName = original.replaceAll("[^A-Za-z0-9._-]", "_");
             final String fileName = UUID.randomUUID() + "-" + safeName;
+            final String profileName = processingService.resolveProfile(profile).name();
+
+            // Admisión: plaza de procesamiento o 429 antes de tocar disco/CPU
+            MediaAdmissionController.Kind lane = detectKind(safeName) == MediaKind.VIDEO
+                    ? MediaAdmissionController.Kind.VIDEO
+                    : MediaAdmissionController.Kind.IMAGE;
+            try (MediaAdmissionController.Permit permit = admissionController.acquire(lane)) {
+                return processUpload(file, safeName, fileName, profileName, startTime);
+            }
+
+        } catch (MediaAdmissionRejectedException busy) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfter().toSeconds()))
+                    .body(Map.of(ERROR_KEY, busy.getMessage()));
+        } catch (IllegalArgumentException badProfile) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, badProfile.getMessage()));
+        } catch (MaxUploadSizeExceededException tooBig) {
+            return ResponseEntity.status(413).body(Map.of(ERROR_KEY, "Archivo demasiado grande"));
+        } catch (Exception ex) {
+            log.error("❌ Error procesando archivo", ex);
+            return ResponseEntity.status(500).body(Map.of(
+                    ERROR_KEY, "Fallo procesando archivo",
+                    "detail", ex.getMessage()));
+        }
+    }
 
-            // Crear archivo temporal
-            Path tmpDir = Paths.get(Optional.ofNullable(System.getProperty("java.io.tmpdir")).orElse("/tmp"));
-            Files.createDirectories(tmpDir);
-            Path tmp = Files.createTempFile(tmpDir, "upload_", "_" + safeName);
+    private ResponseEntity<Map<String, Object>> processUpload(MultipartFile file, String safeName, String fileName,
+            String profileName, long startTime) throws IOException {
+        // Crear archivo temporal
+        Path tmpDir = Paths.get(Optional.ofNullable(System.getProperty("java.io.tmpdir")).orElse("/tmp"));
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "upload_", "_" + safeName);
 
-            log.info("📥 Recibido multipart: name={}, size={} bytes, contentType={}",
-                    safeName, file.getSize(), file.getContentType());
+        log.info("📥 Recibido multipart: name={}, size={} bytes, contentType={}",
+                safeName, file.getSize(), file.getContentType());
 
+        MediaProcessingService.ProcessedMedia result;
+        try {
             // Copiar a temporal
             try (InputStream in = file.getInputStream()) {
                 Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
@@ -81,31 +138,41 @@ public class MediaController {
 
             // Procesar de forma síncrona (comprimir + thumbnails + subir)
             log.info("🔄 Iniciando procesamiento síncrono...");
-            MediaProcessingService.ProcessedMedia result = processingService.processMedia(tmp.toFile(), fileName,
-                    firebaseService);
-
-            // Limpiar temporal
+            result = processingService.processMedia(tmp.toFile(), fileName, profileName, firebaseService);
+        } finally {
+            // Limpiar temporal también si el procesamiento falla
             deleteTempFile(tmp);
+        }
 
-            long totalTime = System.currentTimeMillis() - startTime;
-            log.info("✅ Proceso completo en {}ms", totalTime);
+        // Registrar media + renditions para servir a cada pantalla su resolución
+        Optional<MediaDTO> registered = mediaService.registerProcessed(result);
+
+        long totalTime = System.currentTimeMillis() - startTime;
+        log.info("✅ Proceso completo en {}ms", totalTime);
+
+        // Retornar resultado inmediato (sin polling)
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put(STATUS_KEY, "ready");
+        body.put("type", result.type());
+        body.put("url", result.mainUrl());
+        body.put("thumbnails", result.thumbnailUrls());
+        body.put("renditions", result.renditions());
+        body.put("profile", result.profile());
+        body.put("originalSizeBytes", result.originalSizeBytes());
+        if (result.metadata() != null)
+            body.put("sizeBytes", result.metadata().sizeBytes());
+        registered.ifPresent(m -> body.put("mediaId", m.id()));
+        body.put("processingTimeMs", totalTime);
+        return ResponseEntity.ok(body);
+    }
 
-            // Retornar resultado inmediato (sin polling)
-            return ResponseEntity.ok(Map.of(
-                    STATUS_KEY, "ready",
-                    "type", result.type(),
-                    "url", result.mainUrl(),
-                    "thumbnails", result.thumbnailUrls(),
-                    "processingTimeMs", totalTime));
+    // ---------------- INFORME DE COMPRESIÓN ----------------
 
-        } catch (MaxUploadSizeExceededException tooBig) {
-            return ResponseEntity.status(413).body(Map.of(ERROR_KEY, "Archivo demasiado grande"));
-        } catch (Exception ex) {
-            log.error("❌ Error procesando archivo", ex);
-            return ResponseEntity.status(500).body(Map.of(
-                    ERROR_KEY, "Fallo procesando archivo",
-                    "detail", ex.getMessage()));
-        }
+    @PreAuthorize("@perm.can('media', 'read')")
+    @CrossOrigin
+    @GetMapping(value = "/medias/compression-report", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MediaCompressionReportDTO> compressionReport() {
+        return ResponseEntity.ok(mediaService.compressionReport());
     }
 
     // ---------------- STATUS CHECK (LEGACY - ya no necesario con upload síncrono)
@@ -120,35 +187,35 @@ public class MediaController {
         String base = stripExtension(filename);
         MediaKind kind = detectKind(filename);
 
+        // Todas las rutas candidatas se resuelven en un único lote contra la caché
+        // de metadatos del storage (un listado por directorio, solo si no está en caché)
+        String legacyPath = "media" + COMPRESSED_PREFIX + filename;
+        CandidatePaths paths = buildCandidatePaths(base, kind);
+        List<String> all = new ArrayList<>();
+        all.add(legacyPath);
+        all.addAll(paths.mainCandidates);
+        all.addAll(paths.thumbCandidates);
+        Set<String> existing = firebaseService.existing(all);
+
         // 1) compatibilidad legacy
-        ResponseEntity<Map<String, Object>> legacyResponse = checkLegacyPath(filename);
-        if (legacyResponse != null) {
-            return legacyResponse;
+        if (existing.contains(legacyPath)) {
+            return ResponseEntity.ok(Map.of(
+                    STATUS_KEY, "ready",
+                    "type", "legacy",
+                    "url", firebaseService.getPublicUrl(legacyPath),
+                    "thumbnails", List.of()));
         }
 
         // 2) rutas nuevas
-        CandidatePaths paths = buildCandidatePaths(base, kind);
-        String foundMain = findFirstExisting(paths.mainCandidates);
+        String foundMain = paths.mainCandidates.stream().filter(existing::contains).findFirst().orElse(null);
 
         if (foundMain != null) {
-            return buildSuccessResponse(foundMain, paths.thumbCandidates);
+            return buildSuccessResponse(foundMain, paths.thumbCandidates, existing);
         }
 
         return ResponseEntity.status(202).body(Map.of(STATUS_KEY, "processing"));
     }
 
-    private ResponseEntity<Map<String, Object>> checkLegacyPath(String filename) {
-        String legacyPath = "media" + COMPRESSED_PREFIX + filename;
-        if (firebaseService.exists(legacyPath)) {
-            return ResponseEntity.ok(Map.of(
-                    STATUS_KEY, "ready",
-                    "type", "legacy",
-                    "url", firebaseService.getPublicUrl(legacyPath),
-                    "thumbnails", List.of()));
-        }
-        return null;
-    }
-
     private CandidatePaths buildCandidatePaths(String base, MediaKind kind) {
         final String IMG_DEST = "media/images";
         final String VID_DEST = "media/videos";
@@ -184,18 +251,10 @@ public class MediaController {
         return new CandidatePaths(mainCandidates, thumbCandidates);
     }
 
-    private String findFirstExisting(List<String> candidates) {
-        for (String cand : candidates) {
-            if (firebaseService.exists(cand)) {
-                return cand;
-            }
-        }
-        return null;
-    }
-
-    private ResponseEntity<Map<String, Object>> buildSuccessResponse(String foundMain, List<String> thumbCandidates) {
+    private ResponseEntity<Map<String, Object>> buildSuccessResponse(String foundMain, List<String> thumbCandidates,
+            Set<String> existing) {
         List<String> thumbs = thumbCandidates.stream()
-                .filter(firebaseService::exists)
+                .filter(existing::contains)
                 .map(firebaseService::getPublicUrl)
                 .toList();
 
@@ -269,25 +328,72 @@ public class MediaController {
 
     @CrossOrigin
     @GetMapping("/medias/render/{id}")
-    public ResponseEntity<Resource> getImage(@PathVariable Long id) throws MediaException {
+    public ResponseEntity<Resource> getImage(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) throws MediaException {
         try {
             Optional<MediaDTO> mediaaux = mediaService.getMediaById(id);
             if (!mediaaux.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
-            Path filePath = Paths.get("src/main/resources/static/medias/").resolve(mediaaux.get().src()).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (!resource.exists())
+            Path filePath = renderRoot.resolve(mediaaux.get().src()).normalize();
+            if (!filePath.startsWith(renderRoot) || !Files.isRegularFile(filePath)) {
                 return ResponseEntity.notFound().build();
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType("application/octet-stream"))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
+            }
+            Resource resource = new FileSystemResource(filePath);
+            long length = resource.contentLength();
+            long lastModified = resource.lastModified();
+            String etag = "\"" + id + "-" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+            // Range/206, If-None-Match/If-Modified-Since (304) los resuelve Spring MVC
+            // a partir de estas cabeceras; el fichero se sirve en streaming.
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .contentType(resolveContentType(mediaaux.get(), resource))
+                    .contentLength(length)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(CacheControl.maxAge(RENDER_MAX_AGE).cachePublic().immutable())
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"");
+
+            // If-Range obsoleto: se ignora el Range y se devuelve el fichero completo.
+            // Spring MVC no evalúa If-Range y aplica el Range a cualquier Resource salvo
+            // InputStreamResource; este abre el fichero solo si llega a escribirse (no en un 304).
+            if (ifRange != null && !ifRangeMatches(ifRange, etag, lastModified)) {
+                return builder.body(new InputStreamResource(resource));
+            }
+            return builder.body(resource);
         } catch (Exception e) {
             throw new MediaException("Failed to render media", e);
         }
     }
 
+    /**
+     * If-Range vigente: el ETag fuerte actual o una fecha igual a Last-Modified
+     * (con precisión de segundos, la de las fechas HTTP).
+     */
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+            return ifRange.equals(etag);
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return date == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private MediaType resolveContentType(MediaDTO media, Resource resource) {
+        Optional<MediaType> byName = MediaTypeFactory.getMediaType(resource);
+        if (byName.isPresent()) {
+            return byName.get();
+        }
+        if (media.type() != null && media.type().getExtension() != null) {
+            return MediaTypeFactory.getMediaType("file." + media.type().getExtension())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
     private void deleteTempFile(Path tmp) {
         try {
             Files.deleteIfExists(tmp);
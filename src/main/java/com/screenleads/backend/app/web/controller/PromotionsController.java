@@ -1,25 +1,53 @@
 package com.screenleads.backend.app.web.controller;
 
+import com.screenleads.backend.app.application.security.SecurityUtils;
+import com.screenleads.backend.app.application.service.LeadCounterService;
+import com.screenleads.backend.app.application.service.LeadExportService;
+import com.screenleads.backend.app.application.service.LeadImportService;
+import com.screenleads.backend.app.application.service.LeadWriteBehindService;
+import com.screenleads.backend.app.application.service.PromotionFunnelService;
 import com.screenleads.backend.app.application.service.PromotionService;
+import com.screenleads.backend.app.application.service.util.LeadExportFormat;
+import com.screenleads.backend.app.infraestructure.config.LeadCounterProperties;
 import com.screenleads.backend.app.web.dto.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.time.*;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/promotions")
 @RequiredArgsConstructor
 public class PromotionsController {
     private static final String EUROPE_MADRID = "Europe/Madrid";
+    private static final String STATUS = "status";
+    private static final long LEAD_WAIT_SECONDS = 5;
 
     private final PromotionService promotionService;
+    private final LeadCounterService leadCounterService;
+    private final LeadWriteBehindService leadWriteBehindService;
+    private final LeadImportService leadImportService;
+    private final LeadExportService leadExportService;
+    private final PromotionFunnelService funnelService;
+    private final LeadCounterProperties leadCounterProperties;
 
     // ===== CRUD =====
     @PreAuthorize("@perm.can('promotion', 'read')")
@@ -28,6 +56,28 @@ public class PromotionsController {
         return promotionService.getAllPromotions();
     }
 
+    // Listado para tablas y pantallas: sin plantilla HTML, paginado (?page=0&size=50&sort=name,asc)
+    @PreAuthorize("@perm.can('promotion', 'read')")
+    @GetMapping("/summaries")
+    public PagedModel<PromotionSummaryDTO> getPromotionSummaries(
+            @PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        return new PagedModel<>(promotionService.getPromotionSummaries(pageable));
+    }
+
+    // Plantilla HTML aparte: If-None-Match se resuelve sin leer el LOB (304)
+    @PreAuthorize("@perm.can('promotion', 'read')")
+    @GetMapping(value = "/{id}/template", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> getPromotionTemplate(@PathVariable Long id, WebRequest request) {
+        String etag = promotionService.getTemplateETag(id);
+        if (request.checkNotModified(etag))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.parseMediaType("text/html; charset=UTF-8"))
+                .body(promotionService.getTemplateHtml(id));
+    }
+
     @PreAuthorize("@perm.can('promotion', 'read')")
     @GetMapping("/{id}")
     public PromotionDTO getPromotionById(@PathVariable Long id) {
@@ -59,6 +109,41 @@ public class PromotionsController {
         return promotionService.registerLead(id, leadDTO);
     }
 
+    // Alta diferida para picos: 202 al encolar; con wait=true espera a la escritura del lote
+    @PreAuthorize("@perm.can('lead', 'create')")
+    @PostMapping("/{id}/leads/async")
+    public ResponseEntity<Map<String, String>> registerLeadAsync(
+            @PathVariable Long id,
+            @RequestBody PromotionLeadDTO leadDTO,
+            @RequestParam(defaultValue = "false") boolean wait) {
+        LeadWriteBehindService.Submission submission = leadWriteBehindService.submit(id, leadDTO);
+        return switch (submission.admission()) {
+            case ACCEPTED -> wait ? awaitLead(submission)
+                    : ResponseEntity.accepted().body(Map.of(STATUS, "ACCEPTED"));
+            case DUPLICATE -> ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(STATUS, "DUPLICATE"));
+            case QUEUE_FULL -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of(STATUS, "QUEUE_FULL"));
+            case DISABLED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(STATUS, "DISABLED"));
+        };
+    }
+
+    private ResponseEntity<Map<String, String>> awaitLead(LeadWriteBehindService.Submission submission) {
+        try {
+            LeadWriteBehindService.Outcome outcome = submission.result().get(LEAD_WAIT_SECONDS, TimeUnit.SECONDS);
+            return outcome == LeadWriteBehindService.Outcome.INSERTED
+                    ? ResponseEntity.status(HttpStatus.CREATED).body(Map.of(STATUS, outcome.name()))
+                    : ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(STATUS, outcome.name()));
+        } catch (TimeoutException e) {
+            return ResponseEntity.accepted().body(Map.of(STATUS, "ACCEPTED"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.accepted().body(Map.of(STATUS, "ACCEPTED"));
+        } catch (ExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Lead no registrado", e.getCause());
+        }
+    }
+
     @PreAuthorize("@perm.can('lead', 'read')")
     @GetMapping("/{id}/leads")
     public List<PromotionLeadDTO> listLeads(@PathVariable Long id) {
@@ -84,11 +169,8 @@ public class PromotionsController {
         ZonedDateTime toZdt = parseZdtOrDefault(to, ZonedDateTime.now(ZoneId.of(EUROPE_MADRID)));
         ZonedDateTime fromZdt = parseZdtOrDefault(from, toZdt.minusDays(30));
 
-        StreamingResponseBody body = outputStream -> {
-            String csv = promotionService.exportLeadsCsv(id, fromZdt, toZdt);
-            outputStream.write(csv.getBytes(StandardCharsets.UTF_8));
-            outputStream.flush();
-        };
+        StreamingResponseBody body = outputStream -> promotionService.exportLeadsCsv(id, fromZdt, toZdt,
+                outputStream);
 
         String filename = "promotion-" + id + "-leads.csv";
         return ResponseEntity.ok()
@@ -97,24 +179,128 @@ public class PromotionsController {
                 .body(body);
     }
 
-    // ===== Resumen JSON =====
-    @GetMapping("/{id}/leads/summary")
-    public LeadSummaryDTO getLeadSummary(
+    // ===== Export en segundo plano (gzip al bucket) =====
+    // 202 con el trabajo; el progreso y la URL de descarga se consultan en Location
+    @PreAuthorize("@perm.can('lead', 'read')")
+    @PostMapping("/{id}/leads/exports")
+    public ResponseEntity<LeadExportJobDTO> startLeadExport(
             @PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format,
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to) {
         ZonedDateTime toZdt = parseZdtOrDefault(to, ZonedDateTime.now(ZoneId.of(EUROPE_MADRID)));
         ZonedDateTime fromZdt = parseZdtOrDefault(from, toZdt.minusDays(30));
-        return promotionService.getLeadSummary(id, fromZdt, toZdt);
+        LeadExportJobDTO job = leadExportService.start(id, LeadExportFormat.parse(format), fromZdt.toInstant(),
+                toZdt.toInstant());
+        return ResponseEntity.accepted()
+                .location(URI.create("/promotions/" + id + "/leads/exports/" + job.id()))
+                .body(job);
+    }
+
+    @PreAuthorize("@perm.can('lead', 'read')")
+    @GetMapping("/{id}/leads/exports/{jobId}")
+    public LeadExportJobDTO getLeadExport(@PathVariable Long id, @PathVariable String jobId) {
+        return leadExportService.status(id, jobId);
+    }
+
+    // ===== Import CSV (mismo formato que el export) =====
+    @PreAuthorize("@perm.can('lead', 'create')")
+    @PostMapping(value = "/{id}/leads/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public LeadImportReportDTO importLeadsCsv(@PathVariable Long id, @RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return leadImportService.importCsv(id, in);
+        }
+    }
+
+    @PreAuthorize("@perm.can('lead', 'create')")
+    @PostMapping(value = "/{id}/leads/import", consumes = "text/csv")
+    public LeadImportReportDTO importLeadsCsvBody(@PathVariable Long id, InputStream body) {
+        return leadImportService.importCsv(id, body);
+    }
+
+    // ===== Resumen JSON =====
+    // Días y horas se agrupan en la zona del cliente (X-Timezone / X-Timezone-Offset)
+    @GetMapping("/{id}/leads/summary")
+    public LeadSummaryDTO getLeadSummary(
+            @PathVariable Long id,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestHeader(value = "X-Timezone", required = false) String tz,
+            @RequestHeader(value = "X-Timezone-Offset", required = false) String offsetMinutesStr) {
+        ZoneId zone = ClientZone.resolve(tz, offsetMinutesStr, leadCounterProperties.getZone());
+        ZonedDateTime toZdt = parseZdtOrDefault(to, ZonedDateTime.now(zone), zone);
+        ZonedDateTime fromZdt = parseZdtOrDefault(from, toZdt.minusDays(30), zone);
+        return promotionService.getLeadSummary(id, fromZdt, toZdt, zone);
+    }
+
+    // ===== Contadores diarios (promotion_lead_daily) =====
+    @PreAuthorize("@perm.can('lead', 'read')")
+    @GetMapping("/{id}/leads/daily")
+    public List<LeadDailyCountDTO> getDailyCounters(
+            @PathVariable Long id,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to) {
+        LocalDate toDay = to != null ? to : LocalDate.now(ZoneId.of(EUROPE_MADRID));
+        LocalDate fromDay = from != null ? from : toDay.minusDays(30);
+        return leadCounterService.daily(id, fromDay, toDay).stream()
+                .map(d -> new LeadDailyCountDTO(d.getId().getDay(), d.getLeads(), d.getRedeemed(), d.getExpired(),
+                        d.getCancelled()))
+                .toList();
+    }
+
+    // ===== Embudo de conversión (contadores diarios) =====
+    @PreAuthorize("@perm.can('lead', 'read')")
+    @GetMapping("/{id}/funnel")
+    public PromotionFunnelDTO getFunnel(
+            @PathVariable Long id,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(defaultValue = "false") boolean byDevice) {
+        LocalDate toDay = to != null ? to : LocalDate.now(ZoneId.of(EUROPE_MADRID));
+        LocalDate fromDay = from != null ? from : toDay.minusDays(30);
+        return funnelService.funnel(id, fromDay, toDay, PromotionFunnelService.Bucket.parse(bucket), byDevice);
+    }
+
+    // La landing la cuenta al cargarse; device = pantalla de origen (QR), opcional
+    @PreAuthorize("@perm.can('lead', 'create')")
+    @PostMapping("/{id}/funnel/landing-views")
+    public ResponseEntity<Void> recordLandingView(@PathVariable Long id,
+            @RequestParam(required = false) String device) {
+        funnelService.recordLandingView(id, device);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Reconstrucción desde promotion_lead tras una incidencia (sin fechas = toda la historia)
+    @PreAuthorize("@perm.can('promotion', 'update')")
+    @PostMapping("/{id}/leads/daily/recompute")
+    public Map<String, Integer> recomputeDailyCounters(
+            @PathVariable Long id,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to) {
+        return Map.of("days", leadCounterService.recompute(id, from, to));
+    }
+
+    @PreAuthorize("@perm.can('promotion', 'update')")
+    @PostMapping("/leads/daily/recompute")
+    public Map<String, Integer> recomputeAllDailyCounters() {
+        if (!SecurityUtils.isAdmin())
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo administradores");
+        return Map.of("promotions", leadCounterService.recomputeAll());
     }
 
     private ZonedDateTime parseZdtOrDefault(String s, ZonedDateTime defaultValue) {
+        return parseZdtOrDefault(s, defaultValue, ZoneId.of(EUROPE_MADRID));
+    }
+
+    private ZonedDateTime parseZdtOrDefault(String s, ZonedDateTime defaultValue, ZoneId zone) {
         if (s == null || s.isBlank())
             return defaultValue;
         try {
             if (s.length() == 10) {
                 LocalDate d = LocalDate.parse(s);
-                return d.atStartOfDay(ZoneId.of(EUROPE_MADRID));
+                return d.atStartOfDay(zone);
             }
             return ZonedDateTime.parse(s);
         } catch (DateTimeParseException e) {
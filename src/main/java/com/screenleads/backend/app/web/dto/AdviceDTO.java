@@ -2,6 +2,8 @@ package com.screenleads.backend.app.web.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import lombok.*;
 
 @Getter @Setter
@@ -13,6 +15,12 @@ public class AdviceDTO {
     private Boolean customInterval;
     /** Segundos (null si no aplica). */
     private Number interval;
+    /**
+     * Segundos que dura de verdad en pantalla: {@code interval} o, sin intervalo
+     * personalizado, la duración del video. Solo lectura: no se guarda.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Number effectiveInterval;
 
     private MediaUpsertDTO media;       // record(Long id, String src)
     private PromotionRefDTO promotion;  // record(Long id)
@@ -0,0 +1,10 @@
+package com.screenleads.backend.app.web.dto;
+
+import java.time.Instant;
+
+/** Impresiones de un advice agregadas por la pantalla ({@code at} = momento del último pase). */
+public record AdviceImpressionDTO(
+        Long adviceId,
+        long count,
+        Instant at) {
+}
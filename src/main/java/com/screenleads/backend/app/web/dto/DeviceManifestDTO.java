@@ -0,0 +1,27 @@
+package com.screenleads.backend.app.web.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Ficheros que un dispositivo necesitará en el horizonte pedido, para
+ * predescargarlos: uno por URL (la rendition adecuada a su pantalla), ordenados
+ * por el primer momento en que alguno de sus advices entra en pantalla.
+ */
+public record DeviceManifestDTO(
+        String deviceUuid,
+        Instant generatedAt,
+        Instant horizonEnd,
+        String zone,
+        long totalBytes, // suma de los sizeBytes conocidos
+        List<Asset> assets) {
+
+    public record Asset(
+            Long mediaId,
+            String url,
+            Long sizeBytes, // null si no se capturó en la ingesta
+            String sha256, // hex; null en medias anteriores a capturarlo
+            Instant firstNeededAt,
+            List<Long> adviceIds) {
+    }
+}
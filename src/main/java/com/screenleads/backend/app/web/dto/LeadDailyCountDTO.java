@@ -0,0 +1,12 @@
+package com.screenleads.backend.app.web.dto;
+
+import java.time.LocalDate;
+
+/** Fila de promotion_lead_daily: eventos del día en la zona de los contadores. */
+public record LeadDailyCountDTO(
+        LocalDate day,
+        long leads,
+        long redeemed,
+        long expired,
+        long cancelled) {
+}
@@ -0,0 +1,19 @@
+package com.screenleads.backend.app.web.dto;
+
+import java.time.Instant;
+
+public record LeadExportJobDTO(
+        String id,
+        Long promotionId,
+        String format,
+        String status,
+        long rows,
+        long totalRows,
+        int progressPercent,
+        long sizeBytes,
+        String url,
+        Instant expiresAt,
+        String error,
+        Instant createdAt,
+        Instant finishedAt) {
+}
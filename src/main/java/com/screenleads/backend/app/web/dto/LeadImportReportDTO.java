@@ -0,0 +1,17 @@
+package com.screenleads.backend.app.web.dto;
+
+import java.util.List;
+
+public record LeadImportReportDTO(
+        Long promotionId,
+        long rows,
+        long inserted,
+        long duplicatesInFile,
+        long duplicatesExisting,
+        long rejected,
+        List<RowError> errors,
+        boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -1,12 +1,18 @@
 package com.screenleads.backend.app.web.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Map;
 
+import com.screenleads.backend.app.domain.model.CouponStatus;
+
 public record LeadSummaryDTO(
         Long promotionId,
         long totalLeads,
         long uniqueIdentifiers, // únicos según identifier (email/phone normalizado)
-        Map<LocalDate, Long> leadsByDay // YYYY-MM-DD -> conteo
+        Map<LocalDate, Long> leadsByDay, // YYYY-MM-DD -> conteo
+        Map<LocalDateTime, Long> leadsByHour, // hora local de inicio -> conteo (solo horas con leads)
+        Map<CouponStatus, Long> couponStatus, // todos los estados, 0 si no hay
+        String zone // zona en la que se agrupan días y horas
 ) {
 }
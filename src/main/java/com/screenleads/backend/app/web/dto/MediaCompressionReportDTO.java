@@ -0,0 +1,26 @@
+package com.screenleads.backend.app.web.dto;
+
+import java.util.List;
+
+/**
+ * Bytes ahorrados por la ingesta: tamaño subido frente al fichero principal
+ * servido (no incluye thumbnails ni renditions). Solo cuenta medias con ambos
+ * tamaños conocidos.
+ */
+public record MediaCompressionReportDTO(
+        long medias,
+        long originalBytes,
+        long storedBytes,
+        long savedBytes,
+        double savedRatio, // 0..1 sobre originalBytes
+        List<ProfileSavings> byProfile) {
+
+    public record ProfileSavings(
+            String profile, // null = medias anteriores a los perfiles
+            long medias,
+            long originalBytes,
+            long storedBytes,
+            long savedBytes,
+            double savedRatio) {
+    }
+}
@@ -1,6 +1,19 @@
 package com.screenleads.backend.app.web.dto;
 
+import java.util.List;
+
 import com.screenleads.backend.app.domain.model.MediaType;
 
-public record MediaDTO(Long id, String src, MediaType type) {
+/**
+ * width/height/durationMs/bitrate/sizeBytes describen el fichero servido en
+ * {@code src} y se capturan en la ingesta (null si no se conocen).
+ * profile es el perfil de codificación aplicado en la ingesta.
+ */
+public record MediaDTO(Long id, String src, MediaType type,
+        Integer width, Integer height, Long durationMs, Long bitrate, Long sizeBytes,
+        String profile, List<String> thumbnails, List<MediaRenditionDTO> renditions) {
+
+    public MediaDTO(Long id, String src, MediaType type) {
+        this(id, src, type, null, null, null, null, null, null, List.of(), List.of());
+    }
 }
@@ -0,0 +1,4 @@
+package com.screenleads.backend.app.web.dto;
+
+public record MediaRenditionDTO(String name, Integer width, Integer height, String src, Long sizeBytes) {
+}
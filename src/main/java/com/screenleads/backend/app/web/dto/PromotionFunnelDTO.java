@@ -0,0 +1,28 @@
+package com.screenleads.backend.app.web.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record PromotionFunnelDTO(
+        Long promotionId,
+        LocalDate from,
+        LocalDate to,
+        String bucket,
+        String zone,
+        Stages totals,
+        double impressionToLeadRate,
+        double leadToRedemptionRate,
+        List<Bucket> buckets,
+        List<DeviceStages> devices) {
+
+    public record Stages(long impressions, long landingViews, long leads, long couponsIssued,
+            long couponsRedeemed) {
+    }
+
+    public record Bucket(LocalDate start, Stages stages) {
+    }
+
+    /** Solo las etapas atribuibles a una pantalla; {@code deviceId = 0} es "sin dispositivo". */
+    public record DeviceStages(Long deviceId, long impressions, long landingViews) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.screenleads.backend.app.web.dto;
+
+import java.time.Instant;
+
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.LeadLimitType;
+
+public record PromotionSummaryDTO(
+        Long id,
+        String name,
+        String description,
+        Instant startAt,
+        Instant endAt,
+        LeadLimitType leadLimitType,
+        LeadIdentifierType leadIdentifierType,
+        long leadCount) {
+}
@@ -26,6 +26,7 @@ import java.util.List;
 /**
  * Mapper para Advice con el nuevo esquema:
  * - Advice.interval (Duration) <-> AdviceDTO.interval (Number: segundos)
+ * - AdviceDTO.effectiveInterval: derivado de la duración del media, solo salida
  * - Advice.schedules[] (rango de fechas)
  * - AdviceTimeWindow[] (weekday + rangos horarios)
  *
@@ -50,7 +51,7 @@ public final class AdviceMapper {
         if (a == null)
             return null;
 
-        Number intervalSecs = (a.getInterval() == null) ? null : a.getInterval().getSeconds();
+        Number intervalSecs = (a.getInterval() != null) ? a.getInterval().getSeconds() : null;
 
         MediaUpsertDTO mediaDto = buildMediaRef(a.getMedia());
         PromotionRefDTO promoDto = buildPromotionRef(a.getPromotion());
@@ -62,6 +63,7 @@ public final class AdviceMapper {
                 .description(a.getDescription())
                 .customInterval(Boolean.TRUE.equals(a.getCustomInterval()))
                 .interval(intervalSecs)
+                .effectiveInterval(effectiveIntervalSeconds(a))
                 .media(mediaDto)
                 .promotion(promoDto)
                 .company(companyDto)
@@ -69,6 +71,21 @@ public final class AdviceMapper {
                 .build();
     }
 
+    /**
+     * Intervalo de reproducción en segundos: el configurado o, si el advice no usa
+     * intervalo personalizado, la duración del video (redondeada hacia arriba).
+     */
+    public static Long effectiveIntervalSeconds(Advice a) {
+        if (a.getInterval() != null)
+            return a.getInterval().getSeconds();
+        Media media = a.getMedia();
+        if (!Boolean.TRUE.equals(a.getCustomInterval()) && media != null && media.getDurationMs() != null
+                && media.getDurationMs() > 0) {
+            return (media.getDurationMs() + 999) / 1000;
+        }
+        return null;
+    }
+
     private static MediaUpsertDTO buildMediaRef(Media media) {
         return (media != null) ? new MediaUpsertDTO(media.getId(), media.getSrc()) : null;
     }
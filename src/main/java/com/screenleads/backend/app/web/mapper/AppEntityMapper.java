@@ -3,6 +3,7 @@ package com.screenleads.backend.app.web.mapper;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screenleads.backend.app.application.service.util.PartialUpdater;
 import com.screenleads.backend.app.domain.model.AppEntity;
 import com.screenleads.backend.app.domain.model.AppEntityAttribute;
 import com.screenleads.backend.app.web.dto.AppEntityDTO;
@@ -14,6 +15,8 @@ import java.util.List;
 
 public final class AppEntityMapper {
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final PartialUpdater<EntityAttributeDTO, AppEntityAttribute> ATTRIBUTE_PATCH = PartialUpdater
+            .of(EntityAttributeDTO.class, AppEntityAttribute.class).ignoring("id");
 
     private AppEntityMapper() {
     }
@@ -101,23 +104,9 @@ public final class AppEntityMapper {
         if (d == null)
             return;
 
-        applyBasicFields(a, d);
+        // Mismo nombre en DTO y entidad; enumValuesJson se parsea aparte
+        ATTRIBUTE_PATCH.merge(d, a);
         applyEnumValues(a, d);
-        applyListFields(a, d);
-        applyFormFields(a, d);
-        applyValidationFields(a, d);
-        applyOptionsFields(a, d);
-    }
-
-    private static void applyBasicFields(AppEntityAttribute a, EntityAttributeDTO d) {
-        if (d.name() != null)
-            a.setName(d.name());
-        if (d.attrType() != null)
-            a.setAttrType(d.attrType());
-        if (d.dataType() != null)
-            a.setDataType(d.dataType());
-        if (d.relationTarget() != null)
-            a.setRelationTarget(d.relationTarget());
     }
 
     private static void applyEnumValues(AppEntityAttribute a, EntityAttributeDTO d) {
@@ -131,60 +120,4 @@ public final class AppEntityMapper {
             }
         }
     }
-
-    private static void applyListFields(AppEntityAttribute a, EntityAttributeDTO d) {
-        if (d.listVisible() != null)
-            a.setListVisible(d.listVisible());
-        if (d.listOrder() != null)
-            a.setListOrder(d.listOrder());
-        if (d.listLabel() != null)
-            a.setListLabel(d.listLabel());
-        if (d.listWidthPx() != null)
-            a.setListWidthPx(d.listWidthPx());
-        if (d.listAlign() != null)
-            a.setListAlign(d.listAlign());
-        if (d.listSearchable() != null)
-            a.setListSearchable(d.listSearchable());
-        if (d.listSortable() != null)
-            a.setListSortable(d.listSortable());
-    }
-
-    private static void applyFormFields(AppEntityAttribute a, EntityAttributeDTO d) {
-        if (d.formVisible() != null)
-            a.setFormVisible(d.formVisible());
-        if (d.formOrder() != null)
-            a.setFormOrder(d.formOrder());
-        if (d.formLabel() != null)
-            a.setFormLabel(d.formLabel());
-        if (d.controlType() != null)
-            a.setControlType(d.controlType());
-        if (d.placeholder() != null)
-            a.setPlaceholder(d.placeholder());
-        if (d.helpText() != null)
-            a.setHelpText(d.helpText());
-        if (d.required() != null)
-            a.setRequired(d.required());
-        if (d.readOnly() != null)
-            a.setReadOnly(d.readOnly());
-    }
-
-    private static void applyValidationFields(AppEntityAttribute a, EntityAttributeDTO d) {
-        if (d.minNum() != null)
-            a.setMinNum(d.minNum());
-        if (d.maxNum() != null)
-            a.setMaxNum(d.maxNum());
-        if (d.minLen() != null)
-            a.setMinLen(d.minLen());
-        if (d.maxLen() != null)
-            a.setMaxLen(d.maxLen());
-        if (d.pattern() != null)
-            a.setPattern(d.pattern());
-    }
-
-    private static void applyOptionsFields(AppEntityAttribute a, EntityAttributeDTO d) {
-        if (d.defaultValue() != null)
-            a.setDefaultValue(d.defaultValue());
-        if (d.optionsEndpoint() != null)
-            a.setOptionsEndpoint(d.optionsEndpoint());
-    }
 }
@@ -0,0 +1,55 @@
+package com.screenleads.backend.app.web.mapper;
+
+import com.screenleads.backend.app.domain.model.PromotionLead;
+import com.screenleads.backend.app.web.dto.PromotionLeadDTO;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Conversión directa PromotionLead ↔ PromotionLeadDTO. De la promoción solo se
+ * lee el id, que un proxy de Hibernate resuelve sin inicializarse.
+ */
+public class PromotionLeadMapper {
+
+    private PromotionLeadMapper() {
+    }
+
+    public static PromotionLeadDTO toDTO(PromotionLead lead) {
+        if (lead == null)
+            return null;
+        return new PromotionLeadDTO(
+                lead.getId(),
+                lead.getPromotion() != null ? lead.getPromotion().getId() : null,
+                lead.getFirstName(),
+                lead.getLastName(),
+                lead.getEmail(),
+                lead.getPhone(),
+                lead.getBirthDate(),
+                utc(lead.getAcceptedPrivacyAt()),
+                utc(lead.getAcceptedTermsAt()),
+                utc(lead.getCreatedAt()));
+    }
+
+    /** Datos personales y consentimientos; promoción, identificador y cupón los pone el servicio. */
+    public static PromotionLead toEntity(PromotionLeadDTO dto) {
+        if (dto == null)
+            return null;
+        PromotionLead lead = new PromotionLead();
+        lead.setId(dto.id());
+        lead.setFirstName(dto.firstName());
+        lead.setLastName(dto.lastName());
+        lead.setEmail(dto.email());
+        lead.setPhone(dto.phone());
+        lead.setBirthDate(dto.birthDate());
+        lead.setAcceptedPrivacyAt(dto.acceptedPrivacyAt() != null ? dto.acceptedPrivacyAt().toInstant() : null);
+        lead.setAcceptedTermsAt(dto.acceptedTermsAt() != null ? dto.acceptedTermsAt().toInstant() : null);
+        lead.setCreatedAt(dto.createdAt() != null ? dto.createdAt().toInstant() : null);
+        return lead;
+    }
+
+    private static ZonedDateTime utc(Instant instant) {
+        return instant != null ? instant.atZone(ZoneOffset.UTC) : null;
+    }
+}
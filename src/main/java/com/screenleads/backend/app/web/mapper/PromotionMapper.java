@@ -0,0 +1,61 @@
+package com.screenleads.backend.app.web.mapper;
+
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.web.dto.PromotionDTO;
+import com.screenleads.backend.app.web.dto.PromotionSummaryDTO;
+
+/**
+ * Conversión directa Promotion ↔ PromotionDTO. Solo lee columnas propias de la
+ * promoción: {@code company} y {@code leads} (perezosas) no se tocan.
+ */
+public class PromotionMapper {
+
+    private PromotionMapper() {
+    }
+
+    public static PromotionDTO toDTO(Promotion promotion) {
+        if (promotion == null)
+            return null;
+        return new PromotionDTO(
+                promotion.getId(),
+                promotion.getLegalUrl(),
+                promotion.getUrl(),
+                promotion.getDescription(),
+                promotion.getTemplateHtml(),
+                promotion.getLeadLimitType(),
+                promotion.getLeadIdentifierType());
+    }
+
+    public static PromotionSummaryDTO toSummaryDTO(PromotionRepository.PromotionSummary summary) {
+        if (summary == null)
+            return null;
+        return new PromotionSummaryDTO(
+                summary.getId(),
+                summary.getName(),
+                summary.getDescription(),
+                summary.getStartAt(),
+                summary.getEndAt(),
+                summary.getLeadLimitType(),
+                summary.getLeadIdentifierType(),
+                summary.getLeadCount() != null ? summary.getLeadCount() : 0L);
+    }
+
+    /**
+     * Entidad con los campos del DTO tal cual, nulos incluidos: sirve de
+     * parche para fusionar solo lo informado.
+     */
+    public static Promotion toEntity(PromotionDTO dto) {
+        if (dto == null)
+            return null;
+        Promotion promotion = new Promotion();
+        promotion.setId(dto.id());
+        promotion.setLegalUrl(dto.legal_url());
+        promotion.setUrl(dto.url());
+        promotion.setDescription(dto.description());
+        promotion.setTemplateHtml(dto.templateHtml());
+        promotion.setLeadLimitType(dto.leadLimitType());
+        promotion.setLeadIdentifierType(dto.leadIdentifierType());
+        return promotion;
+    }
+}
@@ -0,0 +1,7 @@
+-- Objetos que ddl-auto no crea (no los usa ningún @Id). Se aplica al arrancar
+-- en los perfiles con ddl-auto=update (spring.sql.init.mode=always).
+-- En pro (ddl-auto=validate) NO se aplica y el proyecto no tiene herramienta de
+-- migraciones: hay que ejecutar este script a mano en la BD antes de desplegar.
+
+-- Bloques de CouponCodeAllocator (BLOCK_SIZE valores por nextval)
+create sequence if not exists coupon_code_block_seq;
@@ -0,0 +1,184 @@
+package com.screenleads.backend.app.application.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+
+import com.screenleads.backend.app.infraestructure.config.RateLimitProperties;
+import com.screenleads.backend.app.infraestructure.config.RateLimitProperties.KeyPart;
+import com.screenleads.backend.app.infraestructure.config.RateLimitProperties.Policy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("RateLimitFilter Unit Tests")
+class RateLimitFilterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setPolicies(List.of(
+                new Policy("lead-register", "POST", "/promotions/{id}/leads", List.of(KeyPart.IP, KeyPart.PROMOTION),
+                        3, Duration.ofSeconds(30)),
+                new Policy("coupon-redeem", "POST", "/coupons/{code}/redeem", List.of(KeyPart.API_KEY), 2,
+                        Duration.ofMinutes(1))));
+        meterRegistry = new SimpleMeterRegistry();
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.setAllowedOrigins(List.of("https://dashboard.example.com"));
+        cors.setAllowedMethods(List.of("GET", "POST"));
+        cors.setExposedHeaders(List.of("RateLimit-Remaining", "Retry-After"));
+        cors.setAllowCredentials(true);
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/**", cors);
+        filter = new RateLimitFilter(properties, meterRegistry, clock::get, corsSource);
+    }
+
+    private MockHttpServletResponse call(String method, String uri, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    @DisplayName("should allow the burst, reject with 429 and Retry-After, then refill over time")
+    void whenBurstExceeded_thenTooManyRequestsUntilRefill() throws Exception {
+        for (int i = 2; i >= 0; i--) {
+            MockHttpServletResponse ok = call("POST", "/promotions/1/leads", "10.0.0.1");
+            assertThat(ok.getStatus()).isEqualTo(200);
+            assertThat(ok.getHeader("RateLimit-Remaining")).isEqualTo(Integer.toString(i));
+            assertThat(ok.getHeader("RateLimit-Policy")).isEqualTo("3;w=30");
+        }
+
+        MockHttpServletResponse limited = call("POST", "/promotions/1/leads", "10.0.0.1");
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("10");
+        assertThat(limited.getHeader("RateLimit-Reset")).isEqualTo("30");
+        assertThat(limited.getContentAsString()).contains("\"error\":\"Too Many Requests\"");
+
+        // Otra promoción u otra IP tienen su propio bucket
+        assertThat(call("POST", "/promotions/2/leads", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(call("POST", "/promotions/1/leads", "10.0.0.2").getStatus()).isEqualTo(200);
+
+        clock.addAndGet(10 * SECOND);
+        MockHttpServletResponse refilled = call("POST", "/promotions/1/leads", "10.0.0.1");
+        assertThat(refilled.getStatus()).isEqualTo(200);
+        assertThat(refilled.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(meterRegistry.counter("ratelimit.requests", "policy", "lead-register", "result", "limited")
+                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("429 should carry CORS headers for an allowed origin so browsers can read it")
+    void whenLimitedCrossOrigin_thenCorsHeadersOnRejection() throws Exception {
+        for (int i = 0; i < 3; i++)
+            call("POST", "/promotions/1/leads", "10.0.0.1");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/promotions/1/leads");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader(HttpHeaders.ORIGIN, "https://dashboard.example.com");
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilter(request, limited, new MockFilterChain());
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo("https://dashboard.example.com");
+        assertThat(limited.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS)).isEqualTo("true");
+        assertThat(limited.getHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS)).contains("Retry-After");
+
+        MockHttpServletRequest foreign = new MockHttpServletRequest("POST", "/promotions/1/leads");
+        foreign.setRemoteAddr("10.0.0.1");
+        foreign.addHeader(HttpHeaders.ORIGIN, "https://evil.example.com");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(foreign, rejected, new MockFilterChain());
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isNull();
+    }
+
+    @Test
+    @DisplayName("should leave unmatched requests, preflights and disabled limiter untouched")
+    void whenNoPolicyMatches_thenPassesThrough() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(call("GET", "/promotions/1/leads", "10.0.0.1").getHeader("RateLimit-Limit")).isNull();
+            assertThat(call("OPTIONS", "/promotions/1/leads", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        properties.setEnabled(false);
+        for (int i = 0; i < 5; i++)
+            assertThat(call("POST", "/promotions/1/leads", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("behind a trusted proxy, clients sharing the proxy IP should get separate buckets")
+    void whenBehindProxy_thenEachForwardedClientHasItsOwnBucket() throws Exception {
+        properties.setTrustForwardedFor(true);
+        for (int i = 0; i < 3; i++)
+            assertThat(callViaProxy("1.1.1.1").getStatus()).isEqualTo(200);
+
+        assertThat(callViaProxy("1.1.1.1").getStatus()).isEqualTo(429);
+        MockHttpServletResponse other = callViaProxy("2.2.2.2");
+        assertThat(other.getStatus()).isEqualTo(200);
+        assertThat(other.getHeader("RateLimit-Remaining")).isEqualTo("2");
+    }
+
+    /** Alta que llega por el router: socket del proxy y la IP del cliente al final de X-Forwarded-For. */
+    private MockHttpServletResponse callViaProxy(String clientIp) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/promotions/1/leads");
+        request.setRemoteAddr("10.1.2.3");
+        request.addHeader("X-Forwarded-For", "9.9.9.9, " + clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    @DisplayName("should key by hashed API key and use the last X-Forwarded-For hop only when trusted")
+    void whenBuildingKeys_thenUsesConfiguredParts() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/promotions/7/leads");
+        request.setRemoteAddr("10.0.0.9");
+        request.addHeader("X-Forwarded-For", "1.1.1.1, 2.2.2.2");
+        request.addHeader("X-API-KEY", "secret-key");
+        Policy leads = properties.getPolicies().get(0);
+        Policy redeem = properties.getPolicies().get(1);
+
+        assertThat(filter.key(leads, request, Map.of("id", "7"))).isEqualTo("lead-register|10.0.0.9|7");
+        properties.setTrustForwardedFor(true);
+        assertThat(filter.key(leads, request, Map.of("id", "7"))).isEqualTo("lead-register|2.2.2.2|7");
+        assertThat(filter.key(redeem, request, Map.of()))
+                .startsWith("coupon-redeem|").doesNotContain("secret-key").hasSize("coupon-redeem|".length() + 24);
+    }
+
+    @Test
+    @DisplayName("limiter should drop full buckets on cleanup and cap buckets per stripe")
+    void whenEvictingIdle_thenOnlyFullBucketsAreRemoved() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, clock::get);
+        limiter.tryAcquire("a", 2, 10 * SECOND);
+        limiter.tryAcquire("b", 2, 10 * SECOND);
+        limiter.tryAcquire("c", 2, 10 * SECOND);
+        assertThat(limiter.size()).isEqualTo(2);
+
+        clock.addAndGet(5 * SECOND);
+        limiter.tryAcquire("c", 2, 10 * SECOND);
+        assertThat(limiter.evictIdle()).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+}
@@ -3,6 +3,7 @@ package com.screenleads.backend.app.application.service;
 import com.screenleads.backend.app.domain.model.*;
 import com.screenleads.backend.app.domain.repositories.AdviceRepository;
 import com.screenleads.backend.app.domain.repositories.CompanyRepository;
+import com.screenleads.backend.app.domain.repositories.DeviceRepository;
 import com.screenleads.backend.app.domain.repositories.MediaRepository;
 import com.screenleads.backend.app.domain.repositories.MediaTypeRepository;
 import com.screenleads.backend.app.domain.repositories.UserRepository;
@@ -47,6 +48,9 @@ class AdviceServiceImplTest {
         @Mock
         private CompanyRepository companyRepository;
 
+        @Mock
+        private DeviceRepository deviceRepository;
+
         @Mock
         private EntityManager entityManager;
 
@@ -0,0 +1,130 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.screenleads.backend.app.infraestructure.config.CouponCodeProperties;
+
+@DisplayName("CouponCodeAllocator Unit Tests")
+class CouponCodeAllocatorTest {
+
+    private static final String CODE_CONFLICT = "duplicate key value violates unique constraint "
+            + "\"uk_promotionlead_coupon_code\"";
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private CouponCodeProperties properties;
+    private CouponCodeAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        properties = new CouponCodeProperties();
+        properties.setSecret("test-secret");
+        transactionManager = mock(PlatformTransactionManager.class);
+        allocator = new CouponCodeAllocator(jdbcTemplate, transactionManager, properties,
+                new MockEnvironment());
+    }
+
+    @Test
+    @DisplayName("next should hand out distinct 12-char codes and reserve one block per BLOCK_SIZE codes")
+    void whenAllocatingAcrossBlocks_thenCodesAreUnique() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L, 2L);
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < CouponCodeAllocator.BLOCK_SIZE + 1; i++)
+            codes.add(allocator.next());
+
+        assertThat(codes).hasSize((int) CouponCodeAllocator.BLOCK_SIZE + 1)
+                .allMatch(code -> code.matches("[ABCDEFGHJKLMNPQRSTUVWXYZ23456789]{12}"));
+        verify(jdbcTemplate, times(2)).queryForObject("select nextval('coupon_code_block_seq')", Long.class);
+        verify(jdbcTemplate, never()).execute(anyString());
+        // El bloque se pide en la conexión del llamante, sin abrir otra transacción
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("permute should be a keyed bijection that does not expose the sequence order")
+    void whenPermuting_thenInjectiveAndKeyDependent() {
+        Set<Long> images = new HashSet<>();
+        for (long v = 0; v < 10_000; v++)
+            images.add(allocator.permute(v));
+        assertThat(images).hasSize(10_000).allMatch(image -> image >= 0 && image < (1L << 60));
+        assertThat(allocator.permute(2) - allocator.permute(1)).isNotEqualTo(1);
+
+        CouponCodeProperties other = new CouponCodeProperties();
+        other.setSecret("another-secret");
+        CouponCodeAllocator rotated = new CouponCodeAllocator(jdbcTemplate, mock(PlatformTransactionManager.class),
+                other, new MockEnvironment());
+        assertThat(rotated.permute(1)).isNotEqualTo(allocator.permute(1));
+        assertThat(new CouponCodeAllocator(jdbcTemplate, mock(PlatformTransactionManager.class), properties,
+                new MockEnvironment())
+                .permute(1)).isEqualTo(allocator.permute(1));
+    }
+
+    @Test
+    @DisplayName("insertWithRetry should retry coupon code conflicts only, up to MAX_ATTEMPTS")
+    void whenInsertConflicts_thenRetriesOnlyCouponCodeViolations() {
+        AtomicInteger calls = new AtomicInteger();
+        String result = allocator.insertWithRetry(() -> {
+            if (calls.incrementAndGet() == 1)
+                throw new DataIntegrityViolationException(CODE_CONFLICT);
+            return "ok";
+        });
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(2);
+
+        AtomicInteger always = new AtomicInteger();
+        assertThatThrownBy(() -> allocator.insertWithRetry(() -> {
+            always.incrementAndGet();
+            throw new DataIntegrityViolationException(CODE_CONFLICT);
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(always).hasValue(CouponCodeAllocator.MAX_ATTEMPTS);
+
+        AtomicInteger other = new AtomicInteger();
+        assertThatThrownBy(() -> allocator.insertWithRetry(() -> {
+            other.incrementAndGet();
+            throw new DataIntegrityViolationException("uk_promotionlead_promotion_identifier");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(other).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("constructor should require a secret outside the dev/test profiles")
+    void whenSecretMissing_thenFailsFastOutsideDevAndTest() {
+        CouponCodeProperties blank = new CouponCodeProperties();
+
+        assertThatThrownBy(() -> new CouponCodeAllocator(jdbcTemplate, mock(PlatformTransactionManager.class), blank,
+                new MockEnvironment())).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("coupons.codes.secret");
+        MockEnvironment pro = new MockEnvironment();
+        pro.setActiveProfiles("pro");
+        assertThatThrownBy(() -> new CouponCodeAllocator(jdbcTemplate, mock(PlatformTransactionManager.class), blank,
+                pro)).isInstanceOf(IllegalStateException.class);
+
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+        assertThat(new CouponCodeAllocator(jdbcTemplate, mock(PlatformTransactionManager.class), blank, dev)
+                .permute(1)).isBetween(0L, (1L << 60) - 1);
+    }
+}
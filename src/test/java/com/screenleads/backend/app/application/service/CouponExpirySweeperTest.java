@@ -0,0 +1,108 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository.ExpiredCoupon;
+import com.screenleads.backend.app.infraestructure.config.CouponExpiryProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("CouponExpirySweeper Unit Tests")
+class CouponExpirySweeperTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T10:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    private PromotionLeadRepository promotionLeadRepository;
+    private LeadCounterService leadCounters;
+    private CouponValidationCache validationCache;
+    private CouponExpiryProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private CouponExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        promotionLeadRepository = mock(PromotionLeadRepository.class);
+        leadCounters = mock(LeadCounterService.class);
+        validationCache = mock(CouponValidationCache.class);
+        properties = new CouponExpiryProperties();
+        properties.setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        when(leadCounters.dayOf(NOW)).thenReturn(TODAY);
+        sweeper = new CouponExpirySweeper(promotionLeadRepository, leadCounters, validationCache, properties,
+                mock(PlatformTransactionManager.class), meterRegistry);
+    }
+
+    private static ExpiredCoupon expired(Long promotionId, String code) {
+        ExpiredCoupon coupon = mock(ExpiredCoupon.class);
+        when(coupon.getPromotionId()).thenReturn(promotionId);
+        when(coupon.getCouponCode()).thenReturn(code);
+        return coupon;
+    }
+
+    @Test
+    @DisplayName("sweep should expire batch after batch until one comes back short")
+    void whenBatchesAreFull_thenKeepsSweepingUntilShortBatch() {
+        List<ExpiredCoupon> first = List.of(expired(1L, "A1"), expired(1L, "A2"));
+        List<ExpiredCoupon> second = List.of(expired(2L, "B1"));
+        when(promotionLeadRepository.expireDue(NOW, 2)).thenReturn(first).thenReturn(second);
+
+        assertThat(sweeper.sweep(NOW)).isEqualTo(3);
+
+        verify(promotionLeadRepository, times(2)).expireDue(NOW, 2);
+        verify(leadCounters).recordExpired(1L, TODAY, 2L);
+        verify(leadCounters).recordExpired(2L, TODAY, 1L);
+        verify(validationCache).evict("A1");
+        verify(validationCache).evict("A2");
+        verify(validationCache).evict("B1");
+        assertThat(meterRegistry.summary("coupons.expiry.expired").totalAmount()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("sweep should stop at maxBatchesPerRun and leave the rest for the next run")
+    void whenBacklogExceedsRun_thenStopsAtMaxBatches() {
+        properties.setMaxBatchesPerRun(3);
+        List<ExpiredCoupon> full = new ArrayList<>(List.of(expired(1L, "X"), expired(1L, "Y")));
+        when(promotionLeadRepository.expireDue(any(), anyInt())).thenReturn(full);
+
+        assertThat(sweeper.sweep(NOW)).isEqualTo(6);
+
+        verify(promotionLeadRepository, times(3)).expireDue(NOW, 2);
+        verify(leadCounters, times(3)).recordExpired(1L, TODAY, 2L);
+    }
+
+    @Test
+    @DisplayName("sweep with nothing due should not touch counters or cache, and disabled should not sweep")
+    void whenNothingDue_thenNoSideEffects() {
+        when(promotionLeadRepository.expireDue(NOW, 2)).thenReturn(List.of());
+
+        assertThat(sweeper.sweep(NOW)).isZero();
+        verify(leadCounters, never()).recordExpired(any(), any(), anyLong());
+        verify(validationCache, never()).evict(any());
+        assertThat(meterRegistry.summary("coupons.expiry.expired").count()).isEqualTo(1);
+
+        properties.setEnabled(false);
+        sweeper.scheduledSweep();
+        verify(promotionLeadRepository, times(1)).expireDue(any(), eq(2));
+    }
+}
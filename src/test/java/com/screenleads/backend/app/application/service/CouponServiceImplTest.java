@@ -4,6 +4,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,6 +15,7 @@ import static org.mockito.Mockito.when;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -38,6 +43,18 @@ class CouponServiceImplTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private LeadCounterService leadCounters;
+
+    @Mock
+    private LeadIdentifierFilter identifierFilter;
+
+    @Mock
+    private CouponCodeAllocator couponCodes;
+
+    @Mock
+    private CouponValidationCache validationCache;
+
     @InjectMocks
     private CouponServiceImpl couponService;
 
@@ -47,6 +64,8 @@ class CouponServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(couponCodes.insertWithRetry(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+
         testPromotion = Promotion.builder()
                 .id(1L)
                 .name("Test Promotion")
@@ -78,8 +97,8 @@ class CouponServiceImplTest {
         // Arrange
         when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(promotionLeadRepository.findByCouponCode(anyString())).thenReturn(Optional.empty());
-        when(promotionLeadRepository.save(any(PromotionLead.class))).thenReturn(testCoupon);
+        when(couponCodes.next()).thenReturn("ABCDEFGHJKLM");
+        when(promotionLeadRepository.saveAndFlush(any(PromotionLead.class))).thenReturn(testCoupon);
 
         // Act
         PromotionLead result = couponService.issueCoupon(1L, 1L);
@@ -87,7 +106,25 @@ class CouponServiceImplTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getCouponStatus()).isEqualTo(CouponStatus.VALID);
-        verify(promotionLeadRepository, times(1)).save(any(PromotionLead.class));
+        verify(promotionLeadRepository, times(1))
+                .saveAndFlush(argThat(lead -> "ABCDEFGHJKLM".equals(lead.getCouponCode())));
+        verify(promotionLeadRepository, never()).findByCouponCode(anyString());
+        verify(identifierFilter).add(1L, "test@example.com");
+    }
+
+    @Test
+    @DisplayName("issueCoupon should reject a customer that already has a lead in the promotion")
+    void whenIssueCouponForExistingLead_thenThrowsException() {
+        // Arrange
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(identifierFilter.mightContain(1L, "test@example.com")).thenReturn(true);
+        when(promotionLeadRepository.existsByPromotionIdAndIdentifier(1L, "test@example.com")).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> couponService.issueCoupon(1L, 1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already exists");
     }
 
     @Test
@@ -162,14 +199,15 @@ class CouponServiceImplTest {
     @DisplayName("validate should return valid coupon")
     void whenValidateValidCoupon_thenReturnsLead() {
         // Arrange
-        when(promotionLeadRepository.findByCouponCode("TEST123")).thenReturn(Optional.of(testCoupon));
+        when(validationCache.get("TEST123")).thenReturn(Optional.of(CouponState.of(testCoupon)));
 
         // Act
-        PromotionLead result = couponService.validate("TEST123");
+        CouponState result = couponService.validate("TEST123");
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.getCouponCode()).isEqualTo("TEST123");
+        assertThat(result.couponCode()).isEqualTo("TEST123");
+        verify(promotionLeadRepository, never()).findByCouponCode(anyString());
     }
 
     @Test
@@ -177,7 +215,7 @@ class CouponServiceImplTest {
     void whenValidateCancelledCoupon_thenThrowsException() {
         // Arrange
         testCoupon.setCouponStatus(CouponStatus.CANCELLED);
-        when(promotionLeadRepository.findByCouponCode("TEST123")).thenReturn(Optional.of(testCoupon));
+        when(validationCache.get("TEST123")).thenReturn(Optional.of(CouponState.of(testCoupon)));
 
         // Act & Assert
         assertThatThrownBy(() -> couponService.validate("TEST123"))
@@ -190,7 +228,7 @@ class CouponServiceImplTest {
     void whenValidateRedeemedCoupon_thenThrowsException() {
         // Arrange
         testCoupon.setCouponStatus(CouponStatus.REDEEMED);
-        when(promotionLeadRepository.findByCouponCode("TEST123")).thenReturn(Optional.of(testCoupon));
+        when(validationCache.get("TEST123")).thenReturn(Optional.of(CouponState.of(testCoupon)));
 
         // Act & Assert
         assertThatThrownBy(() -> couponService.validate("TEST123"))
@@ -199,11 +237,15 @@ class CouponServiceImplTest {
     }
 
     @Test
-    @DisplayName("redeem should mark coupon as redeemed")
+    @DisplayName("redeem should redeem with a single conditional update")
     void whenRedeemValidCoupon_thenMarksAsRedeemed() {
         // Arrange
-        when(promotionLeadRepository.findByCouponCode("TEST123")).thenReturn(Optional.of(testCoupon));
-        when(promotionLeadRepository.save(any(PromotionLead.class))).thenReturn(testCoupon);
+        PromotionLead redeemed = testCoupon.toBuilder()
+                .couponStatus(CouponStatus.REDEEMED)
+                .redeemedAt(Instant.now())
+                .build();
+        when(promotionLeadRepository.redeemIfRedeemable(eq("TEST123"), any(Instant.class)))
+                .thenReturn(Optional.of(redeemed));
 
         // Act
         PromotionLead result = couponService.redeem("TEST123");
@@ -211,20 +253,38 @@ class CouponServiceImplTest {
         // Assert
         assertThat(result.getCouponStatus()).isEqualTo(CouponStatus.REDEEMED);
         assertThat(result.getRedeemedAt()).isNotNull();
-        verify(promotionLeadRepository, times(1)).save(testCoupon);
+        verify(promotionLeadRepository, never()).findByCouponCode(anyString());
+        verify(promotionLeadRepository, never()).save(any(PromotionLead.class));
+        verify(validationCache).evict("TEST123");
+        verify(leadCounters).recordStatusChange(eq(1L), eq(CouponStatus.VALID), eq(CouponStatus.REDEEMED),
+                any(Instant.class));
     }
 
     @Test
-    @DisplayName("redeem should throw exception for already redeemed coupon")
+    @DisplayName("redeem should explain the rejection when the update matches no row")
     void whenRedeemAlreadyRedeemed_thenThrowsException() {
-        // Arrange
+        // Arrange: el otro terminal ganó la carrera
         testCoupon.setCouponStatus(CouponStatus.REDEEMED);
+        when(promotionLeadRepository.redeemIfRedeemable(eq("TEST123"), any(Instant.class)))
+                .thenReturn(Optional.empty());
         when(promotionLeadRepository.findByCouponCode("TEST123")).thenReturn(Optional.of(testCoupon));
 
         // Act & Assert
         assertThatThrownBy(() -> couponService.redeem("TEST123"))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("already redeemed");
+        verify(leadCounters, never()).recordStatusChange(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("redeem should report unknown codes as not found")
+    void whenRedeemUnknownCode_thenThrowsNotFound() {
+        when(promotionLeadRepository.redeemIfRedeemable(eq("NOPE"), any(Instant.class))).thenReturn(Optional.empty());
+        when(promotionLeadRepository.findByCouponCode("NOPE")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> couponService.redeem("NOPE"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Coupon not found");
     }
 
     @Test
@@ -240,6 +300,8 @@ class CouponServiceImplTest {
         // Assert
         assertThat(result.getCouponStatus()).isEqualTo(CouponStatus.EXPIRED);
         verify(promotionLeadRepository, times(1)).save(testCoupon);
+        verify(leadCounters).recordStatusChange(eq(1L), eq(CouponStatus.VALID), eq(CouponStatus.EXPIRED),
+                any(Instant.class));
     }
 
     @Test
@@ -0,0 +1,125 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.screenleads.backend.app.domain.model.CouponState;
+import com.screenleads.backend.app.domain.model.CouponStatus;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
+import com.screenleads.backend.app.infraestructure.config.CouponValidationCacheProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("CouponValidationCache Unit Tests")
+class CouponValidationCacheTest {
+
+    private PromotionLeadRepository promotionLeadRepository;
+    private CouponValidationCacheProperties properties;
+    private CouponValidationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        promotionLeadRepository = mock(PromotionLeadRepository.class);
+        properties = new CouponValidationCacheProperties();
+        properties.setValidTtl(Duration.ofMinutes(1));
+        cache = new CouponValidationCache(promotionLeadRepository, properties, new SimpleMeterRegistry());
+    }
+
+    private void stub(String code, CouponStatus status, Long promotionId) {
+        PromotionLeadRepository.CouponValidity v = validity(code, status, null, promotionId);
+        when(promotionLeadRepository.findValidityByCouponCode(code)).thenReturn(Optional.of(v));
+    }
+
+    private static PromotionLeadRepository.CouponValidity validity(String code, CouponStatus status,
+            Instant expiresAt, Long promotionId) {
+        PromotionLeadRepository.CouponValidity v = mock(PromotionLeadRepository.CouponValidity.class);
+        when(v.getCouponCode()).thenReturn(code);
+        when(v.getStatus()).thenReturn(status);
+        when(v.getExpiresAt()).thenReturn(expiresAt);
+        when(v.getPromotionId()).thenReturn(promotionId);
+        return v;
+    }
+
+    @Test
+    @DisplayName("get should read through once and judge time-based validity on every call")
+    void whenCached_thenServedFromMemoryButInstantsStillApply() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        PromotionLeadRepository.CouponValidity v = validity("ABC", CouponStatus.VALID, expiresAt, 1L);
+        when(promotionLeadRepository.findValidityByCouponCode("ABC")).thenReturn(Optional.of(v));
+
+        CouponState first = cache.get("ABC").orElseThrow();
+        CouponState second = cache.get("ABC").orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        verify(promotionLeadRepository, times(1)).findValidityByCouponCode("ABC");
+        assertThat(second.notRedeemableReason(Instant.now())).isNull();
+        assertThat(second.notRedeemableReason(expiresAt.plusSeconds(1))).isEqualTo("Coupon expired");
+        assertThat(cache.get("missing")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("evict and evictPromotion should drop exactly the affected entries")
+    void whenEvicting_thenOnlyMatchingEntriesReload() {
+        stub("A1", CouponStatus.VALID, 1L);
+        stub("A2", CouponStatus.VALID, 1L);
+        stub("B1", CouponStatus.VALID, 2L);
+        cache.get("A1");
+        cache.get("A2");
+        cache.get("B1");
+
+        cache.evict("A1");
+        cache.get("A1");
+        cache.get("A2");
+        verify(promotionLeadRepository, times(2)).findValidityByCouponCode("A1");
+        verify(promotionLeadRepository, times(1)).findValidityByCouponCode("A2");
+
+        cache.evictPromotion(1L);
+        cache.get("A2");
+        cache.get("B1");
+        verify(promotionLeadRepository, times(2)).findValidityByCouponCode("A2");
+        verify(promotionLeadRepository, times(1)).findValidityByCouponCode("B1");
+    }
+
+    @Test
+    @DisplayName("redeemable states should expire after validTtl while final states stay cached")
+    void whenTtlElapsed_thenOnlyRedeemableStatesReload() {
+        properties.setValidTtl(Duration.ZERO);
+        stub("VALID", CouponStatus.VALID, 1L);
+        stub("DONE", CouponStatus.REDEEMED, 1L);
+
+        for (int i = 0; i < 3; i++) {
+            cache.get("VALID");
+            cache.get("DONE");
+        }
+
+        verify(promotionLeadRepository, times(3)).findValidityByCouponCode("VALID");
+        verify(promotionLeadRepository, times(1)).findValidityByCouponCode("DONE");
+    }
+
+    @Test
+    @DisplayName("a load racing with an eviction should not be cached")
+    void whenEvictedDuringLoad_thenResultIsNotCached() {
+        PromotionLeadRepository.CouponValidity v = validity("RACE", CouponStatus.VALID, null, 1L);
+        when(promotionLeadRepository.findValidityByCouponCode("RACE")).thenAnswer(inv -> {
+            cache.evict("RACE"); // un canje confirma mientras se leía
+            return Optional.of(v);
+        }).thenReturn(Optional.of(v));
+
+        cache.get("RACE");
+        cache.get("RACE");
+        cache.get("RACE");
+
+        verify(promotionLeadRepository, times(2)).findValidityByCouponCode("RACE");
+    }
+}
@@ -9,6 +9,10 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -26,9 +30,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.screenleads.backend.app.domain.model.Advice;
+import com.screenleads.backend.app.domain.model.AdviceSchedule;
+import com.screenleads.backend.app.domain.model.AdviceTimeWindow;
 import com.screenleads.backend.app.domain.model.Company;
 import com.screenleads.backend.app.domain.model.Device;
 import com.screenleads.backend.app.domain.model.DeviceType;
+import com.screenleads.backend.app.domain.model.Media;
+import com.screenleads.backend.app.domain.model.MediaRendition;
 import com.screenleads.backend.app.domain.repositories.AdviceRepository;
 import com.screenleads.backend.app.domain.repositories.CompanyRepository;
 import com.screenleads.backend.app.domain.repositories.DeviceRepository;
@@ -36,6 +44,7 @@ import com.screenleads.backend.app.domain.repositories.DeviceTypeRepository;
 import com.screenleads.backend.app.web.dto.AdviceDTO;
 import com.screenleads.backend.app.web.dto.CompanyRefDTO;
 import com.screenleads.backend.app.web.dto.DeviceDTO;
+import com.screenleads.backend.app.web.dto.DeviceManifestDTO;
 import com.screenleads.backend.app.web.dto.DeviceTypeDTO;
 
 @ExtendWith(MockitoExtension.class)
@@ -557,4 +566,95 @@ class DeviceServiceImplTest {
             verify(deviceRepository, never()).save(any(Device.class));
         }
     }
+
+    @Nested
+    @DisplayName("Manifest")
+    class Manifest {
+
+        private final ZoneId madrid = ZoneId.of("Europe/Madrid");
+        // Lunes 10:00 en Madrid
+        private final ZonedDateTime now = ZonedDateTime.of(2024, 6, 3, 10, 0, 0, 0, madrid);
+
+        private Media media(long id) {
+            Media media = new Media();
+            media.setId(id);
+            media.setSrc("https://cdn/media/images/compressed-" + id + ".jpg");
+            media.setSizeBytes(5_000L);
+            media.setContentSha256("original-" + id);
+            media.getRenditions().add(MediaRendition.builder().media(media).name("1080p").width(1920).height(1080)
+                    .src("https://cdn/media/images/renditions/1080p/" + id + ".jpg").sizeBytes(1_000L)
+                    .contentSha256("r1080-" + id).build());
+            media.getRenditions().add(MediaRendition.builder().media(media).name("2160p").width(3840).height(2160)
+                    .src("https://cdn/media/images/renditions/2160p/" + id + ".jpg").sizeBytes(3_000L)
+                    .contentSha256("r2160-" + id).build());
+            return media;
+        }
+
+        private Advice advice(long id, Media media, DayOfWeek weekday, int fromHour, int toHour) {
+            AdviceTimeWindow window = AdviceTimeWindow.builder().weekday(weekday)
+                    .fromTime(LocalTime.of(fromHour, 0)).toTime(LocalTime.of(toHour, 0)).build();
+            AdviceSchedule schedule = AdviceSchedule.builder().windows(List.of(window)).build();
+            Advice advice = new Advice();
+            advice.setId(id);
+            advice.setMedia(media);
+            advice.setSchedules(List.of(schedule));
+            return advice;
+        }
+
+        @Test
+        @DisplayName("getManifest should list one asset per url with the earliest first-needed time")
+        void whenAdvicesShareMedia_thenMergesAndUsesDeviceRendition() {
+            Media shared = media(7L);
+            testDevice.getAdvices().add(advice(20L, shared, DayOfWeek.TUESDAY, 9, 12));
+            testDevice.getAdvices().add(advice(10L, shared, DayOfWeek.MONDAY, 9, 12)); // visible ahora
+            testDevice.getAdvices().add(advice(30L, media(8L), DayOfWeek.MONDAY, 18, 20));
+            when(deviceRepository.findOptionalByUuid("device-uuid-123")).thenReturn(Optional.of(testDevice));
+
+            DeviceManifestDTO manifest = deviceService.getManifest("device-uuid-123", 7, now);
+
+            assertThat(manifest.assets()).hasSize(2);
+            DeviceManifestDTO.Asset first = manifest.assets().get(0);
+            assertThat(first.mediaId()).isEqualTo(7L);
+            assertThat(first.url()).isEqualTo("https://cdn/media/images/renditions/1080p/7.jpg");
+            assertThat(first.sizeBytes()).isEqualTo(1_000L);
+            assertThat(first.sha256()).isEqualTo("r1080-7");
+            assertThat(first.firstNeededAt()).isEqualTo(now.toInstant());
+            assertThat(first.adviceIds()).containsExactly(10L, 20L);
+            assertThat(manifest.assets().get(1).firstNeededAt())
+                    .isEqualTo(now.withHour(18).toInstant());
+            assertThat(manifest.totalBytes()).isEqualTo(2_000L);
+            assertThat(manifest.zone()).isEqualTo("Europe/Madrid");
+        }
+
+        @Test
+        @DisplayName("getManifest should skip advices not visible within the horizon")
+        void whenAdviceOutsideHorizon_thenExcluded() {
+            Advice later = advice(40L, media(9L), DayOfWeek.MONDAY, 8, 9); // ya pasó hoy: próximo lunes
+            Advice noSchedule = advice(50L, media(10L), DayOfWeek.MONDAY, 9, 12);
+            noSchedule.setSchedules(List.of());
+            testDevice.getAdvices().add(later);
+            testDevice.getAdvices().add(noSchedule);
+            when(deviceRepository.findOptionalByUuid("device-uuid-123")).thenReturn(Optional.of(testDevice));
+
+            assertThat(deviceService.getManifest("device-uuid-123", 3, now).assets()).isEmpty();
+            assertThat(deviceService.getManifest("device-uuid-123", 8, now).assets())
+                    .singleElement()
+                    .satisfies(a -> assertThat(a.firstNeededAt())
+                            .isEqualTo(now.plusWeeks(1).withHour(8).toInstant()));
+        }
+
+        @Test
+        @DisplayName("getManifest should reject out-of-range horizons and unknown devices")
+        void whenInvalidRequest_thenThrows() {
+            assertThatThrownBy(() -> deviceService.getManifest("device-uuid-123", 0, now))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+
+            when(deviceRepository.findOptionalByUuid("missing")).thenReturn(Optional.empty());
+            assertThatThrownBy(() -> deviceService.getManifest("missing", 7, now))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("Device not found");
+        }
+    }
 }
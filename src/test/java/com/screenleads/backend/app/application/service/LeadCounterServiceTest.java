@@ -0,0 +1,103 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.screenleads.backend.app.domain.model.CouponStatus;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadDailyRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadCounterProperties;
+
+@DisplayName("LeadCounterService Unit Tests")
+class LeadCounterServiceTest {
+
+    private PromotionLeadDailyRepository dailyRepository;
+    private PromotionRepository promotionRepository;
+    private LeadCounterService service;
+
+    @BeforeEach
+    void setUp() {
+        dailyRepository = mock(PromotionLeadDailyRepository.class);
+        promotionRepository = mock(PromotionRepository.class);
+        LeadCounterProperties properties = new LeadCounterProperties();
+        properties.setZone(ZoneId.of("Europe/Madrid"));
+        service = new LeadCounterService(dailyRepository, promotionRepository, properties,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @DisplayName("recordLead should increment the lead counter of the local day")
+    void whenRecordLead_thenIncrementsLocalDay() {
+        // 23:30 UTC del 1 de junio ya es 2 de junio en Madrid
+        service.recordLead(7L, Instant.parse("2024-06-01T23:30:00Z"));
+
+        verify(dailyRepository).increment(7L, LocalDate.of(2024, 6, 2), 1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("recordStatusChange should count transitions into terminal statuses only")
+    void whenRecordStatusChange_thenCountsTransitions() {
+        Instant at = Instant.parse("2024-06-01T10:00:00Z");
+
+        service.recordStatusChange(7L, CouponStatus.VALID, CouponStatus.REDEEMED, at);
+        service.recordStatusChange(7L, CouponStatus.VALID, CouponStatus.CANCELLED, at);
+        service.recordStatusChange(7L, CouponStatus.EXPIRED, CouponStatus.EXPIRED, at);
+        service.recordStatusChange(7L, CouponStatus.NEW, CouponStatus.VALID, at);
+
+        verify(dailyRepository).increment(7L, LocalDate.of(2024, 6, 1), 0, 1, 0, 0);
+        verify(dailyRepository).increment(7L, LocalDate.of(2024, 6, 1), 0, 0, 0, 1);
+        verifyNoMoreInteractions(dailyRepository);
+    }
+
+    @Test
+    @DisplayName("recompute should clear and rebuild the requested range")
+    void whenRecompute_thenDeletesThenRebuilds() {
+        LocalDate from = LocalDate.of(2024, 6, 1);
+        LocalDate to = LocalDate.of(2024, 6, 30);
+        when(dailyRepository.rebuildRange(7L, from, to, "Europe/Madrid")).thenReturn(12);
+
+        assertThat(service.recompute(7L, from, to)).isEqualTo(12);
+
+        InOrder order = inOrder(dailyRepository);
+        order.verify(dailyRepository).deleteRange(7L, from, to);
+        order.verify(dailyRepository).rebuildRange(7L, from, to, "Europe/Madrid");
+    }
+
+    @Test
+    @DisplayName("recompute without dates should rebuild the whole history")
+    void whenRecomputeWithoutRange_thenUsesFullRange() {
+        service.recompute(7L, null, null);
+
+        verify(dailyRepository).deleteRange(7L, LeadCounterService.MIN_DAY, LeadCounterService.MAX_DAY);
+        verify(dailyRepository).rebuildRange(7L, LeadCounterService.MIN_DAY, LeadCounterService.MAX_DAY,
+                "Europe/Madrid");
+    }
+
+    @Test
+    @DisplayName("recomputeAll should rebuild every promotion")
+    void whenRecomputeAll_thenRebuildsEachPromotion() {
+        when(promotionRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+
+        assertThat(service.recomputeAll()).isEqualTo(2);
+
+        verify(dailyRepository).rebuildRange(1L, LeadCounterService.MIN_DAY, LeadCounterService.MAX_DAY,
+                "Europe/Madrid");
+        verify(dailyRepository).rebuildRange(2L, LeadCounterService.MIN_DAY, LeadCounterService.MAX_DAY,
+                "Europe/Madrid");
+    }
+}
@@ -0,0 +1,182 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.screenleads.backend.app.application.service.util.LeadExportFormat;
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.model.PromotionLead;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadExportProperties;
+import com.screenleads.backend.app.web.dto.LeadExportJobDTO;
+
+import jakarta.persistence.EntityManager;
+
+@DisplayName("LeadExportService Unit Tests")
+class LeadExportServiceTest {
+
+    private static final Instant FROM = Instant.parse("2024-06-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-06-30T00:00:00Z");
+
+    private PromotionRepository promotionRepository;
+    private PromotionLeadRepository promotionLeadRepository;
+    private FirebaseStorageService storage;
+    private LeadExportProperties properties;
+    private LeadExportService service;
+    private final AtomicReference<String> uploaded = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        promotionRepository = mock(PromotionRepository.class);
+        promotionLeadRepository = mock(PromotionLeadRepository.class);
+        storage = mock(FirebaseStorageService.class);
+        properties = new LeadExportProperties();
+        service = new LeadExportService(promotionRepository, promotionLeadRepository, storage, properties,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "entityManager", mock(EntityManager.class));
+
+        when(promotionRepository.existsById(1L)).thenReturn(true);
+        PromotionLeadRepository.LeadTotals totals = mock(PromotionLeadRepository.LeadTotals.class);
+        when(totals.getLeads()).thenReturn(2L);
+        when(promotionLeadRepository.summarizeLeads(1L, FROM, TO)).thenReturn(totals);
+        when(promotionLeadRepository.streamByPromotionIdAndCreatedAtBetween(1L, FROM, TO))
+                .thenAnswer(inv -> Stream.of(lead(10L, "ana@example.com", "Ana"), lead(11L, "luis@example.com",
+                        "Luis \"el \\ rápido\"")));
+        // El temporal se borra tras subirlo: se descomprime al vuelo
+        when(storage.upload(any(File.class), anyString(), eq("application/gzip"))).thenAnswer(inv -> {
+            try (InputStream in = new GZIPInputStream(new FileInputStream((File) inv.getArgument(0)))) {
+                uploaded.set(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            return "https://storage.googleapis.com/bucket/" + inv.getArgument(1);
+        });
+        when(storage.signedUrl(anyString(), any())).thenAnswer(inv -> "https://signed/" + inv.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    private static PromotionLead lead(Long id, String email, String firstName) {
+        return PromotionLead.builder()
+                .id(id)
+                .promotion(Promotion.builder().id(1L).build())
+                .identifierType(LeadIdentifierType.EMAIL)
+                .identifier(email)
+                .email(email)
+                .firstName(firstName)
+                .build();
+    }
+
+    private LeadExportJobDTO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        LeadExportJobDTO job = service.status(1L, jobId);
+        while (("QUEUED".equals(job.status()) || "RUNNING".equals(job.status()))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = service.status(1L, jobId);
+        }
+        return job;
+    }
+
+    @Test
+    @DisplayName("start should write a gzip CSV in the background and expose a signed URL")
+    void whenExportCsv_thenUploadsGzipAndSigns() throws Exception {
+        LeadExportJobDTO queued = service.start(1L, LeadExportFormat.CSV, FROM, TO);
+        LeadExportJobDTO done = awaitFinished(queued.id());
+
+        assertThat(done.status()).isEqualTo("DONE");
+        assertThat(done.rows()).isEqualTo(2);
+        assertThat(done.progressPercent()).isEqualTo(100);
+        assertThat(done.url()).isEqualTo("https://signed/exports/leads/1/" + queued.id() + ".csv.gz");
+        assertThat(done.expiresAt()).isNotNull();
+        assertThat(uploaded.get()).startsWith(LeadExportFormat.CSV.header())
+                .contains("10,1,EMAIL,ana@example.com,Ana,")
+                .contains("\"Luis \"\"el \\ rápido\"\"\"");
+    }
+
+    @Test
+    @DisplayName("a ttl over 7 days should cap both the signed URL and the reported expiry")
+    void whenTtlOverSevenDays_thenExpiryIsCapped() throws Exception {
+        properties.setTtl(Duration.ofDays(30));
+        Instant before = Instant.now();
+
+        LeadExportJobDTO done = awaitFinished(service.start(1L, LeadExportFormat.CSV, FROM, TO).id());
+
+        assertThat(done.status()).isEqualTo("DONE");
+        verify(storage).signedUrl(anyString(), eq(Duration.ofDays(7)));
+        assertThat(done.expiresAt())
+                .isBetween(before.plus(Duration.ofDays(7)), Instant.now().plus(Duration.ofDays(7)));
+    }
+
+    @Test
+    @DisplayName("start should write escaped NDJSON")
+    void whenExportNdjson_thenOneJsonObjectPerLine() throws Exception {
+        LeadExportJobDTO done = awaitFinished(service.start(1L, LeadExportFormat.NDJSON, FROM, TO).id());
+
+        assertThat(done.status()).isEqualTo("DONE");
+        assertThat(done.url()).startsWith("https://signed/exports/leads/1/").endsWith(".ndjson.gz");
+        String[] lines = uploaded.get().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":10,\"promotionId\":1,\"identifierType\":\"EMAIL\"")
+                .contains("\"birthDate\":null");
+        assertThat(lines[1]).contains("\"firstName\":\"Luis \\\"el \\\\ rápido\\\"\"");
+    }
+
+    @Test
+    @DisplayName("start should fail the job and delete the uploaded file when the URL cannot be signed")
+    void whenSigningFails_thenFailedAndDeleted() throws Exception {
+        when(storage.signedUrl(anyString(), any())).thenThrow(new IllegalStateException("no signer"));
+
+        LeadExportJobDTO failed = awaitFinished(service.start(1L, LeadExportFormat.CSV, FROM, TO).id());
+
+        assertThat(failed.status()).isEqualTo("FAILED");
+        assertThat(failed.url()).isNull();
+        verify(storage).delete(List.of("exports/leads/1/" + failed.id() + ".csv.gz"));
+        verify(storage, never()).getPublicUrl(anyString());
+    }
+
+    @Test
+    @DisplayName("jobs should be scoped to their promotion and forgotten once expired")
+    void whenUnknownOrExpired_thenNotFound() throws Exception {
+        when(promotionRepository.existsById(2L)).thenReturn(false);
+        assertThatThrownBy(() -> service.start(2L, LeadExportFormat.CSV, FROM, TO))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        String id = awaitFinished(service.start(1L, LeadExportFormat.CSV, FROM, TO).id()).id();
+        assertThatThrownBy(() -> service.status(2L, id)).isInstanceOf(ResponseStatusException.class);
+
+        assertThat(service.forgetExpired(Instant.now())).isZero();
+        assertThat(service.forgetExpired(Instant.now().plus(properties.getTtl()).plusSeconds(1))).isEqualTo(1);
+        assertThatThrownBy(() -> service.status(1L, id)).isInstanceOf(ResponseStatusException.class);
+        verify(storage).upload(any(File.class), anyString(), eq("application/gzip"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadFilterProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("LeadIdentifierFilter Unit Tests")
+class LeadIdentifierFilterTest {
+
+    private PromotionLeadRepository promotionLeadRepository;
+    private LeadFilterProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private LeadIdentifierFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        promotionLeadRepository = mock(PromotionLeadRepository.class);
+        properties = new LeadFilterProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new LeadIdentifierFilter(promotionLeadRepository, mock(PlatformTransactionManager.class),
+                properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("BloomFilter should never give false negatives and keep the false positive rate near target")
+    void whenBloomFilterFilled_thenNoFalseNegatives() {
+        LeadIdentifierFilter.BloomFilter bloom = LeadIdentifierFilter.BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloom.put("user" + i + "@example.com"));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> bloom.mightContain("user" + i + "@example.com")))
+                .isTrue();
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> bloom.mightContain("other" + i + "@example.com")).count();
+        assertThat(falsePositives).isLessThan(300);
+        assertThat(bloom.isSaturated()).isFalse();
+        bloom.put("one-more@example.com");
+        assertThat(bloom.isSaturated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("mightContain should load the promotion once and learn inserted identifiers")
+    void whenMightContain_thenLoadsOnceAndLearns() {
+        when(promotionLeadRepository.countByPromotionId(1L)).thenReturn(2L);
+        when(promotionLeadRepository.streamIdentifiersByPromotionId(1L))
+                .thenReturn(Stream.of("a@example.com", "b@example.com"));
+
+        assertThat(filter.mightContain(1L, "a@example.com")).isTrue();
+        assertThat(filter.mightContain(1L, "new@example.com")).isFalse();
+        filter.add(1L, "new@example.com");
+        assertThat(filter.mightContain(1L, "new@example.com")).isTrue();
+
+        verify(promotionLeadRepository, times(1)).streamIdentifiersByPromotionId(1L);
+        assertThat(meterRegistry.counter("leads.filter.checks", "result", "absent").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("leads.filter.checks", "result", "maybe").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("mightContain should answer true without loading when disabled or on load errors")
+    void whenDisabledOrFailing_thenMaybe() {
+        when(promotionLeadRepository.countByPromotionId(2L)).thenThrow(new IllegalStateException("db down"));
+        assertThat(filter.mightContain(2L, "x@example.com")).isTrue();
+
+        properties.setEnabled(false);
+        assertThat(filter.mightContain(1L, "x@example.com")).isTrue();
+        verify(promotionLeadRepository, never()).countByPromotionId(1L);
+    }
+
+    @Test
+    @DisplayName("filters should be evicted least recently used first and reloaded after invalidate")
+    void whenOverMemoryOrInvalidated_thenReloads() {
+        // 1024 identificadores al 1 % ≈ 1.2 KB por filtro: caben dos
+        properties.setMaxMemory(DataSize.ofBytes(2_600));
+        for (long id = 1; id <= 3; id++) {
+            when(promotionLeadRepository.countByPromotionId(id)).thenReturn(0L);
+            when(promotionLeadRepository.streamIdentifiersByPromotionId(id)).thenAnswer(inv -> Stream.empty());
+        }
+
+        filter.mightContain(1L, "x");
+        filter.mightContain(2L, "x");
+        filter.mightContain(1L, "x");
+        filter.mightContain(3L, "x"); // desaloja la 2
+        filter.mightContain(1L, "x");
+        filter.mightContain(2L, "x");
+        verify(promotionLeadRepository, times(1)).streamIdentifiersByPromotionId(1L);
+        verify(promotionLeadRepository, times(2)).streamIdentifiersByPromotionId(2L);
+
+        filter.invalidate(2L);
+        filter.mightContain(2L, "x");
+        verify(promotionLeadRepository, times(3)).streamIdentifiersByPromotionId(2L);
+    }
+
+    @Test
+    @DisplayName("a promotion whose filter exceeds max-memory should skip the filter without re-reading it")
+    void whenFilterLargerThanMaxMemory_thenMaybeWithoutReloading() {
+        properties.setMaxMemory(DataSize.ofBytes(512));
+        when(promotionLeadRepository.countByPromotionId(1L)).thenReturn(10_000L);
+
+        assertThat(filter.mightContain(1L, "a@example.com")).isTrue();
+        assertThat(filter.mightContain(1L, "b@example.com")).isTrue();
+        filter.add(1L, "c@example.com");
+
+        verify(promotionLeadRepository, times(1)).countByPromotionId(1L);
+        verify(promotionLeadRepository, never()).streamIdentifiersByPromotionId(1L);
+        assertThat(LeadIdentifierFilter.BloomFilter.sizeBytes(20_000, 0.01))
+                .isEqualTo(LeadIdentifierFilter.BloomFilter.create(20_000, 0.01).sizeBytes());
+
+        // Tras invalidar se vuelve a medir (p.ej. con otra configuración)
+        filter.invalidate(1L);
+        filter.mightContain(1L, "a@example.com");
+        verify(promotionLeadRepository, times(2)).countByPromotionId(1L);
+    }
+
+    @Test
+    @DisplayName("isIdentifierConflict should only match the promotion/identifier unique key")
+    void whenConstraintViolation_thenDetectsIdentifierConflict() {
+        DataIntegrityViolationException identifier = new DataIntegrityViolationException("insert failed",
+                new ConstraintViolationException("duplicate", null, "uk_promotionlead_promotion_identifier"));
+        DataIntegrityViolationException coupon = new DataIntegrityViolationException("insert failed",
+                new ConstraintViolationException("duplicate", null, "uk_promotionlead_coupon_code"));
+
+        assertThat(LeadIdentifierFilter.isIdentifierConflict(identifier)).isTrue();
+        assertThat(LeadIdentifierFilter.isIdentifierConflict(coupon)).isFalse();
+    }
+}
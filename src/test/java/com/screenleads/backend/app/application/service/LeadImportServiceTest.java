@@ -0,0 +1,126 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.web.dto.LeadImportReportDTO;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LeadImportService Unit Tests")
+class LeadImportServiceTest {
+
+    private static final String HEADER = "id,promotionId,identifierType,identifier,firstName,lastName,email,phone,"
+            + "birthDate,acceptedPrivacyAt,acceptedTermsAt,createdAt\n";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private PromotionRepository promotionRepository;
+    @Mock
+    private LeadCounterService leadCounters;
+    @Mock
+    private CouponCodeAllocator couponCodes;
+
+    private LeadImportService service;
+    private final List<Object[]> insertedArgs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new LeadImportService(jdbcTemplate, transactionManager, promotionRepository, leadCounters,
+                couponCodes);
+        Promotion promotion = Promotion.builder().id(1L).leadIdentifierType(LeadIdentifierType.EMAIL).build();
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(promotion));
+    }
+
+    private static InputStream csv(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Simula ON CONFLICT DO NOTHING: devuelve las filas cuyo identificador no está en {@code existing}. */
+    @SuppressWarnings("unchecked")
+    private void stubInsert(Set<String> existing) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(inv -> {
+            Object[] args = (Object[]) inv.getRawArguments()[2];
+            insertedArgs.add(args);
+            List<String> written = new ArrayList<>();
+            for (int i = 0; i < args.length; i += 15) {
+                if (!existing.contains((String) args[i + 2]))
+                    written.add((String) args[i + 2]);
+            }
+            return written;
+        });
+    }
+
+    @Test
+    @DisplayName("importCsv should normalize, dedupe and report row errors")
+    void whenImportCsv_thenReportsCounts() {
+        stubInsert(Set.of("old@example.com"));
+        when(leadCounters.dayOf(any())).thenAnswer(inv -> LocalDate.ofInstant(inv.getArgument(0), ZoneId.of("UTC")));
+
+        LeadImportReportDTO report = service.importCsv(1L, csv(HEADER
+                + "7,9,EMAIL,,Ana,\"López, García\",Ana@Example.com,,1990-02-03,,,2024-05-01T10:00:00Z\n"
+                + "8,9,EMAIL,ana@example.com,Ana,López,,,,,,2024-05-02T10:00:00Z\n"
+                + "9,9,EMAIL,old@example.com,,,,,,,,2024-05-01T11:00:00Z\n"
+                + "10,9,EMAIL,,Sin,Email,,600000000,,,,\n"
+                + "11,9,EMAIL,mal@example.com,,,,,no-es-fecha,,,\n"
+                + "\n"
+                + "12,9,EMAIL,corto@example.com\n"));
+
+        assertThat(report.rows()).isEqualTo(6);
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.duplicatesInFile()).isEqualTo(1);
+        assertThat(report.duplicatesExisting()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(3);
+        assertThat(report.errors()).extracting(LeadImportReportDTO.RowError::line).containsExactly(5L, 6L, 8L);
+        assertThat(report.errorsTruncated()).isFalse();
+
+        Object[] args = insertedArgs.get(0);
+        assertThat(args).hasSize(30);
+        assertThat(args[2]).isEqualTo("ana@example.com");
+        assertThat(args[4]).isEqualTo("López, García");
+        assertThat(args[7]).isEqualTo(LocalDate.of(1990, 2, 3));
+        assertThat(args[13]).isEqualTo(Instant.parse("2024-05-01T10:00:00Z").atOffset(java.time.ZoneOffset.UTC));
+        verify(leadCounters).recordLeads(1L, LocalDate.of(2024, 5, 1), 1L);
+    }
+
+    @Test
+    @DisplayName("importCsv should reject a header without identifier columns")
+    void whenHeaderHasNoIdentifier_thenThrows() {
+        assertThatThrownBy(() -> service.importCsv(1L, csv("firstName,lastName\nAna,López\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("identifier");
+        verify(leadCounters, never()).recordLeads(eq(1L), any(), any(Long.class));
+    }
+}
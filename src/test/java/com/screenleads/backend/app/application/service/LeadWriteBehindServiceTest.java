@@ -0,0 +1,287 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import com.screenleads.backend.app.domain.model.Company;
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.repositories.CompanyRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadIngestProperties;
+import com.screenleads.backend.app.web.dto.PromotionLeadDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("LeadWriteBehindService Unit Tests")
+class LeadWriteBehindServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PromotionRepository promotionRepository;
+    private CompanyRepository companyRepository;
+    private LeadCounterService leadCounters;
+    private CouponCodeAllocator couponCodes;
+    private StripeBillingService billingService;
+    private LeadIngestProperties properties;
+    private LeadWriteBehindService service;
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        promotionRepository = mock(PromotionRepository.class);
+        companyRepository = mock(CompanyRepository.class);
+        leadCounters = mock(LeadCounterService.class);
+        couponCodes = mock(CouponCodeAllocator.class);
+        billingService = mock(StripeBillingService.class);
+        properties = new LeadIngestProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchDelay(Duration.ofMillis(20));
+
+        company = new Company();
+        company.setId(5L);
+        Promotion promotion = Promotion.builder()
+                .id(1L)
+                .company(company)
+                .leadIdentifierType(LeadIdentifierType.EMAIL)
+                .endAt(Instant.now().plus(1, ChronoUnit.DAYS))
+                .build();
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(promotion));
+        when(companyRepository.findById(5L)).thenReturn(Optional.of(company));
+        when(leadCounters.dayOf(any())).thenReturn(LocalDate.of(2024, 6, 1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null)
+            service.stop();
+    }
+
+    private LeadWriteBehindService newService() {
+        service = new LeadWriteBehindService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                promotionRepository, companyRepository, leadCounters, couponCodes, billingService, properties,
+                new SimpleMeterRegistry());
+        service.start();
+        return service;
+    }
+
+    private static PromotionLeadDTO lead(String email) {
+        return new PromotionLeadDTO(null, 1L, "Ana", "López", email, null, null, null, null, null);
+    }
+
+    /** Simula ON CONFLICT DO NOTHING: devuelve las filas cuyo identificador no está en {@code existing}. */
+    @SuppressWarnings("unchecked")
+    private void stubInsert(Set<String> existing) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(inv -> {
+            Object[] args = (Object[]) inv.getRawArguments()[2];
+            List<String> written = new ArrayList<>();
+            for (int i = 0; i < args.length; i += 15) {
+                if (!existing.contains((String) args[i + 2]))
+                    written.add(args[i] + ":" + args[i + 2]);
+            }
+            return written;
+        });
+    }
+
+    @Test
+    @DisplayName("insertSql should build one multi-row statement with ON CONFLICT DO NOTHING")
+    void whenInsertSql_thenMultiRowUpsert() {
+        String sql = LeadWriteBehindService.insertSql(3);
+
+        assertThat(sql).startsWith("insert into promotion_lead (" + LeadWriteBehindService.COLUMNS + ") values (")
+                .endsWith(" on conflict (promotion_id, identifier) do nothing returning promotion_id, identifier");
+        assertThat(sql.chars().filter(c -> c == '?').count()).isEqualTo(45);
+    }
+
+    @Test
+    @DisplayName("submit should resolve inserted, database duplicates and cached duplicates")
+    void whenSubmit_thenReportsOutcomes() throws Exception {
+        stubInsert(Set.of("old@example.com"));
+        newService();
+
+        LeadWriteBehindService.Submission first = service.submit(1L, lead(" Ana@Example.com "));
+        LeadWriteBehindService.Submission old = service.submit(1L, lead("old@example.com"));
+        LeadWriteBehindService.Submission again = service.submit(1L, lead("ana@example.com"));
+
+        assertThat(first.admission()).isEqualTo(LeadWriteBehindService.Admission.ACCEPTED);
+        assertThat(again.admission()).isEqualTo(LeadWriteBehindService.Admission.DUPLICATE);
+        assertThat(first.result().get(5, TimeUnit.SECONDS)).isEqualTo(LeadWriteBehindService.Outcome.INSERTED);
+        assertThat(old.result().get(5, TimeUnit.SECONDS)).isEqualTo(LeadWriteBehindService.Outcome.DUPLICATE);
+        verify(leadCounters).recordLeads(1L, LocalDate.of(2024, 6, 1), 1L);
+        // El uso se reporta tras completar los futures, fuera de la transacción
+        verify(billingService, timeout(5_000)).reportLeadUsage(eq(company), eq(1L), anyLong());
+    }
+
+    @Test
+    @DisplayName("submit should reject with QUEUE_FULL when the writer cannot keep up")
+    @SuppressWarnings("unchecked")
+    void whenQueueFull_thenRejects() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setBatchSize(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(inv -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        newService();
+
+        assertThat(service.submit(1L, lead("a@example.com")).admission())
+                .isEqualTo(LeadWriteBehindService.Admission.ACCEPTED);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.submit(1L, lead("b@example.com")).admission())
+                .isEqualTo(LeadWriteBehindService.Admission.ACCEPTED);
+        assertThat(service.submit(1L, lead("c@example.com")).admission())
+                .isEqualTo(LeadWriteBehindService.Admission.QUEUE_FULL);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("submit should validate identifier and report DISABLED when off")
+    void whenInvalidOrDisabled_thenRejects() {
+        newService();
+        assertThatThrownBy(() -> service.submit(1L, lead(null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("EMAIL");
+
+        properties.setEnabled(false);
+        LeadWriteBehindService disabled = new LeadWriteBehindService(jdbcTemplate,
+                mock(PlatformTransactionManager.class), promotionRepository, companyRepository, leadCounters,
+                couponCodes, billingService, properties, new SimpleMeterRegistry());
+        disabled.start();
+        assertThat(disabled.submit(1L, lead("a@example.com")).admission())
+                .isEqualTo(LeadWriteBehindService.Admission.DISABLED);
+    }
+
+    @Test
+    @DisplayName("flush should retry a row's coupon code conflict with a new code and fail other errors")
+    @SuppressWarnings("unchecked")
+    void whenRowHitsCouponConflict_thenRetriesWithNewCode() {
+        DataIntegrityViolationException codeConflict = new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"uk_promotionlead_coupon_code\"");
+        List<String> codesTried = new ArrayList<>();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(inv -> {
+            Object[] args = (Object[]) inv.getRawArguments()[2];
+            if (args.length > 15)
+                throw codeConflict; // el lote entero cae y se aísla fila a fila
+            String identifier = (String) args[2];
+            if (identifier.equals("bad@example.com"))
+                throw new DataIntegrityViolationException("value too long for type character varying(255)");
+            codesTried.add((String) args[10]);
+            if (args[10].equals("TAKEN"))
+                throw codeConflict;
+            return List.of(args[0] + ":" + identifier);
+        });
+        when(couponCodes.next()).thenReturn("FRESH");
+        properties.setEnabled(false);
+        service = new LeadWriteBehindService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                promotionRepository, companyRepository, leadCounters, couponCodes, billingService, properties,
+                new SimpleMeterRegistry());
+
+        LeadWriteBehindService.PendingLead taken = pending("ana@example.com", "TAKEN");
+        LeadWriteBehindService.PendingLead bad = pending("bad@example.com", "OTHER");
+        service.flush(new ArrayList<>(List.of(taken, bad)));
+
+        assertThat(taken.result()).isCompletedWithValue(LeadWriteBehindService.Outcome.INSERTED);
+        assertThat(codesTried).containsExactly("TAKEN", "FRESH");
+        assertThat(bad.result()).isCompletedExceptionally();
+        verify(couponCodes, times(1)).next();
+    }
+
+    @Test
+    @DisplayName("flush should retry the batch with backoff while the transaction manager cannot open transactions")
+    void whenTransactionManagerFails_thenRetriesUntilWritten() throws Exception {
+        stubInsert(Set.of());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out"))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out"))
+                .thenReturn(status);
+        properties.setRetryBackoff(Duration.ofMillis(5));
+        service = new LeadWriteBehindService(jdbcTemplate, transactionManager, promotionRepository,
+                companyRepository, leadCounters, couponCodes, billingService, properties, new SimpleMeterRegistry());
+        service.start();
+
+        LeadWriteBehindService.Submission submission = service.submit(1L, lead("ana@example.com"));
+
+        assertThat(submission.result().get(5, TimeUnit.SECONDS)).isEqualTo(LeadWriteBehindService.Outcome.INSERTED);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(leadCounters).recordLeads(1L, LocalDate.of(2024, 6, 1), 1L);
+    }
+
+    @Test
+    @DisplayName("flush should keep rows written one by one and retry the rest after a transient error")
+    @SuppressWarnings("unchecked")
+    void whenTransientErrorDuringRowFallback_thenNothingIsDropped() {
+        AtomicInteger timeouts = new AtomicInteger();
+        List<String> rowsWritten = new ArrayList<>();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(inv -> {
+            Object[] args = (Object[]) inv.getRawArguments()[2];
+            if (args.length > 15 && timeouts.get() == 0)
+                throw new DataIntegrityViolationException(
+                        "duplicate key value violates unique constraint \"uk_promotionlead_coupon_code\"");
+            if (args.length == 15 && args[2].equals("bea@example.com") && timeouts.getAndIncrement() == 0)
+                throw new QueryTimeoutException("canceling statement due to statement timeout");
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < args.length; i += 15) {
+                rowsWritten.add((String) args[i + 2]);
+                keys.add(args[i] + ":" + args[i + 2]);
+            }
+            return keys;
+        });
+        properties.setRetryBackoff(Duration.ofMillis(1));
+        service = new LeadWriteBehindService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                promotionRepository, companyRepository, leadCounters, couponCodes, billingService, properties,
+                new SimpleMeterRegistry());
+
+        LeadWriteBehindService.PendingLead ana = pending("ana@example.com", "A1");
+        LeadWriteBehindService.PendingLead bea = pending("bea@example.com", "B1");
+        service.flush(new ArrayList<>(List.of(ana, bea)));
+
+        assertThat(ana.result()).isCompletedWithValue(LeadWriteBehindService.Outcome.INSERTED);
+        assertThat(bea.result()).isCompletedWithValue(LeadWriteBehindService.Outcome.INSERTED);
+        // ana ya escrita fila a fila no se repite; bea se reintenta sola tras el timeout
+        assertThat(rowsWritten).containsExactly("ana@example.com", "bea@example.com");
+    }
+
+    private static LeadWriteBehindService.PendingLead pending(String email, String couponCode) {
+        return new LeadWriteBehindService.PendingLead(1L, 5L, LeadIdentifierType.EMAIL, email, "Ana", "López",
+                email, null, null, null, null, couponCode, null, Instant.now(), new CompletableFuture<>());
+    }
+}
@@ -0,0 +1,90 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.infraestructure.config.MediaAdmissionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MediaAdmissionController Unit Tests")
+class MediaAdmissionControllerTest {
+
+    private MeterRegistry registry;
+    private MediaAdmissionController admission;
+
+    @BeforeEach
+    void setUp() {
+        MediaAdmissionProperties props = new MediaAdmissionProperties();
+        props.setVideo(new MediaAdmissionProperties.Lane(1, 1));
+        props.setImage(new MediaAdmissionProperties.Lane(2, 0));
+        props.setMaxWait(Duration.ofMillis(200));
+        props.setRetryAfter(Duration.ofSeconds(15));
+        registry = new SimpleMeterRegistry();
+        admission = new MediaAdmissionController(props, registry);
+    }
+
+    @Test
+    @DisplayName("acquire should reject immediately when slots and queue are full")
+    void whenSlotsAndQueueFull_thenRejects() {
+        MediaAdmissionController.Permit first = admission.acquire(MediaAdmissionController.Kind.IMAGE);
+        MediaAdmissionController.Permit second = admission.acquire(MediaAdmissionController.Kind.IMAGE);
+
+        assertThatThrownBy(() -> admission.acquire(MediaAdmissionController.Kind.IMAGE))
+                .isInstanceOf(MediaAdmissionRejectedException.class)
+                .extracting(e -> ((MediaAdmissionRejectedException) e).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(15));
+        assertThat(registry.get("media.admission.active").tag("kind", "image").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("media.admission.rejected").tag("kind", "image").counter().count()).isEqualTo(1.0);
+
+        first.close();
+        second.close();
+        admission.acquire(MediaAdmissionController.Kind.IMAGE).close();
+    }
+
+    @Test
+    @DisplayName("acquire should queue until a slot is released")
+    void whenSlotReleased_thenQueuedRequestIsAdmitted() throws Exception {
+        MediaAdmissionController.Permit running = admission.acquire(MediaAdmissionController.Kind.VIDEO);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Boolean> queued = executor.submit(() -> {
+                started.countDown();
+                try (MediaAdmissionController.Permit p = admission.acquire(MediaAdmissionController.Kind.VIDEO)) {
+                    return true;
+                }
+            });
+            started.await();
+            Thread.sleep(50);
+            running.close();
+            assertThat(queued.get(1, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(registry.get("media.admission.queue.depth").tag("kind", "video").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("acquire should reject after waiting the maximum time")
+    void whenWaitExpires_thenRejects() {
+        MediaAdmissionController.Permit running = admission.acquire(MediaAdmissionController.Kind.VIDEO);
+
+        assertThatThrownBy(() -> admission.acquire(MediaAdmissionController.Kind.VIDEO))
+                .isInstanceOf(MediaAdmissionRejectedException.class);
+
+        running.close();
+        running.close(); // idempotente
+        admission.acquire(MediaAdmissionController.Kind.VIDEO).close();
+    }
+}
@@ -0,0 +1,147 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.screenleads.backend.app.application.service.FirebaseStorageService.StoredObject;
+import com.screenleads.backend.app.domain.repositories.MediaRepository;
+import com.screenleads.backend.app.infraestructure.config.MediaGcProperties;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MediaGarbageCollector Unit Tests")
+class MediaGarbageCollectorTest {
+
+    private static final String URL_PREFIX = "https://storage.googleapis.com/bucket/";
+    private static final Instant NOW = Instant.parse("2025-01-10T12:00:00Z");
+    private static final Instant OLD = NOW.minus(Duration.ofDays(30));
+
+    @Mock
+    private FirebaseStorageService storage;
+
+    @Mock
+    private MediaRepository mediaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MediaGcProperties properties;
+    private MediaGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MediaGcProperties();
+        collector = new MediaGarbageCollector(storage, mediaRepository, properties, transactionManager);
+    }
+
+    @Test
+    @DisplayName("mergeJoin should report stored objects without a reference")
+    void whenMergeJoin_thenUnreferencedAreOrphans() {
+        List<String> orphans = new ArrayList<>();
+        long scanned = MediaGarbageCollector.mergeJoin(
+                stored("media/a.jpg", "media/b.jpg", "media/c.jpg", "media/d.jpg").iterator(),
+                List.of("media/0.jpg", "media/b.jpg", "media/d.jpg", "media/z.jpg").iterator(),
+                o -> orphans.add(o.path()));
+
+        assertThat(scanned).isEqualTo(4);
+        assertThat(orphans).containsExactly("media/a.jpg", "media/c.jpg");
+    }
+
+    @Test
+    @DisplayName("mergeJoin should abort when the references are not sorted")
+    void whenReferencesUnsorted_thenAbort() {
+        assertThatThrownBy(() -> MediaGarbageCollector.mergeJoin(
+                stored("media/x.jpg").iterator(),
+                List.of("media/b.jpg", "media/a.jpg").iterator(),
+                o -> {
+                }))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("reconcile should delete old orphans and keep recent and legacy thumbnails")
+    void whenReconcile_thenDeletesOnlyEligibleOrphans() {
+        when(storage.publicUrlPrefix()).thenReturn(URL_PREFIX);
+        List<StoredObject> objects = List.of(
+                new StoredObject("media/images/compressed-live.jpg", 10, OLD),
+                new StoredObject("media/images/compressed-new.jpg", 20, NOW.minusSeconds(60)),
+                new StoredObject("media/images/compressed-old.jpg", 30, OLD),
+                new StoredObject("media/images/thumbnails/320/thumb-320-live.jpg", 5, OLD));
+        when(storage.listObjects("media/", properties.getPageSize())).thenReturn(objects.iterator());
+        when(mediaRepository.streamReferencedPaths(URL_PREFIX))
+                .thenReturn(Stream.of("media/images/compressed-live.jpg"));
+        when(mediaRepository.existsBySrcStartingWith(URL_PREFIX + "media/images/compressed-live.")).thenReturn(true);
+
+        List<MediaGarbageCollector.Report> reports = collector.reconcile(NOW);
+
+        verify(storage).delete(List.of("media/images/compressed-old.jpg"));
+        assertThat(reports).singleElement().satisfies(r -> {
+            assertThat(r.scanned()).isEqualTo(4);
+            assertThat(r.orphans()).isEqualTo(1);
+            assertThat(r.deleted()).isEqualTo(1);
+            assertThat(r.reclaimedBytes()).isEqualTo(30);
+            assertThat(r.withinGrace()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("reconcile should not delete anything in dry-run or without references")
+    void whenDryRunOrNoReferences_thenNothingDeleted() {
+        when(storage.publicUrlPrefix()).thenReturn(URL_PREFIX);
+        when(storage.listObjects(anyString(), anyInt()))
+                .thenReturn(stored("media/a.jpg").iterator(), stored("media/a.jpg").iterator());
+        when(mediaRepository.streamReferencedPaths(URL_PREFIX))
+                .thenReturn(Stream.empty(), Stream.of("media/b.jpg"));
+
+        assertThat(collector.reconcile(NOW)).isEmpty();
+
+        properties.setDryRun(true);
+        assertThat(collector.reconcile(NOW)).singleElement()
+                .satisfies(r -> assertThat(r.deleted()).isEqualTo(1));
+        verify(storage, never()).delete(anyCollection());
+    }
+
+    @Test
+    @DisplayName("sweepTempFiles should remove only stale ingest temp files")
+    void whenSweepingTemp_thenOnlyStaleIngestFilesRemoved(@TempDir Path dir) throws IOException {
+        Path stale = Files.createFile(dir.resolve("upload_123_video.mp4"));
+        Path fresh = Files.createFile(dir.resolve("compressed_image_456.jpg"));
+        Path foreign = Files.createFile(dir.resolve("other.tmp"));
+        Files.setLastModifiedTime(stale, FileTime.from(NOW.minus(Duration.ofHours(7))));
+        Files.setLastModifiedTime(fresh, FileTime.from(NOW.minus(Duration.ofMinutes(5))));
+        Files.setLastModifiedTime(foreign, FileTime.from(NOW.minus(Duration.ofDays(7))));
+
+        assertThat(collector.sweepTempFiles(dir, NOW)).isEqualTo(1);
+        assertThat(stale).doesNotExist();
+        assertThat(fresh).exists();
+        assertThat(foreign).exists();
+    }
+
+    private static List<StoredObject> stored(String... paths) {
+        return Stream.of(paths).map(p -> new StoredObject(p, 1, OLD)).toList();
+    }
+}
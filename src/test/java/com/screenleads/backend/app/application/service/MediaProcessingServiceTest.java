@@ -0,0 +1,164 @@
+package com.screenleads.backend.app.application.service;
+
+import com.screenleads.backend.app.infraestructure.config.MediaEncodingProperties;
+import com.screenleads.backend.app.infraestructure.config.MediaRenditionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Element;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MediaProcessingService Unit Tests")
+class MediaProcessingServiceTest {
+
+    @TempDir
+    Path tmp;
+
+    private MediaEncodingProperties encoding;
+    private MediaProcessingService service;
+
+    @BeforeEach
+    void setUp() {
+        encoding = new MediaEncodingProperties();
+        service = new MediaProcessingService(new MediaRenditionProperties(), encoding, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("resolveProfile should fall back to the default profile and reject unknown names")
+    void whenResolvingProfile_thenDefaultOrError() {
+        assertThat(service.resolveProfile(null).name()).isEqualTo("signage-hq");
+        assertThat(service.resolveProfile(" mobile-lite ").name()).isEqualTo("mobile-lite");
+        assertThatThrownBy(() -> service.resolveProfile("nope"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("planRenditions should only plan rungs below the source, in its orientation")
+    void whenPlanningRenditions_thenSkipsRungsAtOrAboveSource() {
+        List<MediaRenditionProperties.Rung> ladder = new MediaRenditionProperties().getVideo();
+
+        assertThat(MediaProcessingService.planRenditions(ladder, 1920, 1080, 1920, 1080))
+                .extracting(p -> p.rung().getName() + "=" + p.width() + "x" + p.height())
+                .containsExactly("720p=1280x720");
+        assertThat(MediaProcessingService.planRenditions(ladder, 1080, 1920, 1080, 1920))
+                .extracting(p -> p.width() + "x" + p.height())
+                .containsExactly("720x1280");
+        assertThat(MediaProcessingService.planRenditions(ladder, 3000, 1000, 3000, 1000))
+                .extracting(p -> p.rung().getName() + "=" + p.width() + "x" + p.height())
+                .containsExactly("720p=1280x426", "1080p=1920x640");
+        assertThat(MediaProcessingService.planRenditions(ladder, 640, 360, 640, 360)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("planRenditions should plan a 4K source against the capped main output, without duplicating it")
+    void whenSourceExceedsProfileBox_thenPlansAboveMainAndSkipsItsDuplicate() {
+        List<MediaRenditionProperties.Rung> ladder = new MediaRenditionProperties().getVideo();
+
+        // signage-hq deja la principal en 1920x1080: el 1080p la repetiría y el 2160p sale del original
+        assertThat(MediaProcessingService.planRenditions(ladder, 3840, 2160, 1920, 1080))
+                .extracting(p -> p.rung().getName() + "=" + p.width() + "x" + p.height() + (p.aboveMain() ? "+" : ""))
+                .containsExactly("720p=1280x720", "2160p=3840x2160+");
+        // Un 1440p llega al 2160p con su propio tamaño, sin ampliarse
+        assertThat(MediaProcessingService.planRenditions(ladder, 2560, 1440, 1920, 1080))
+                .extracting(p -> p.rung().getName() + "=" + p.width() + "x" + p.height())
+                .containsExactly("720p=1280x720", "2160p=2560x1440");
+    }
+
+    @Test
+    @DisplayName("writeImage should honour progressive mode and chroma subsampling")
+    void whenWritingJpeg_thenProfileIsApplied() throws IOException {
+        BufferedImage image = noise(BufferedImage.TYPE_INT_RGB);
+
+        File hq = tmp.resolve("hq.jpg").toFile();
+        MediaProcessingService.writeImage(image, "jpg", hq, encoding.getProfiles().get("signage-hq"));
+        Element hqTree = jpegTree(hq);
+        assertThat(attr(hqTree, "sof", "process")).isEqualTo("2");
+        assertThat(attr(hqTree, "componentSpec", "HsamplingFactor")).isEqualTo("1");
+
+        MediaEncodingProperties.Profile baseline = new MediaEncodingProperties.Profile();
+        baseline.setProgressive(false);
+        baseline.setChromaSubsampling(MediaEncodingProperties.ChromaSubsampling.YUV420);
+        File lite = tmp.resolve("lite.jpg").toFile();
+        MediaProcessingService.writeImage(image, "jpg", lite, baseline);
+        Element liteTree = jpegTree(lite);
+        assertThat(attr(liteTree, "sof", "process")).isEqualTo("0");
+        assertThat(attr(liteTree, "componentSpec", "HsamplingFactor")).isEqualTo("2");
+    }
+
+    @Test
+    @DisplayName("writeImage should produce smaller files at lower quality")
+    void whenLowerQuality_thenSmallerFile() throws IOException {
+        BufferedImage image = noise(BufferedImage.TYPE_INT_RGB);
+        MediaEncodingProperties.Profile high = new MediaEncodingProperties.Profile();
+        high.setJpegQuality(0.95f);
+        MediaEncodingProperties.Profile low = new MediaEncodingProperties.Profile();
+        low.setJpegQuality(0.5f);
+
+        File highFile = tmp.resolve("high.jpg").toFile();
+        File lowFile = tmp.resolve("low.jpg").toFile();
+        MediaProcessingService.writeImage(image, "jpg", highFile, high);
+        MediaProcessingService.writeImage(image, "jpg", lowFile, low);
+
+        assertThat(lowFile.length()).isLessThan(highFile.length());
+    }
+
+    @Test
+    @DisplayName("writeImage should flatten alpha images to RGB for JPEG")
+    void whenAlphaImage_thenJpegIsWritten() throws IOException {
+        File target = tmp.resolve("alpha.jpg").toFile();
+        MediaProcessingService.writeImage(noise(BufferedImage.TYPE_INT_ARGB), "jpg", target,
+                new MediaEncodingProperties.Profile());
+
+        BufferedImage read = ImageIO.read(target);
+        assertThat(read).isNotNull();
+        assertThat(read.getWidth()).isEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("rateCapArguments should emit maxrate and a two second buffer")
+    void whenRateCap_thenMaxrateAndBufsize() {
+        assertThat(MediaProcessingService.rateCapArguments(0)).isEmpty();
+        assertThat(MediaProcessingService.rateCapArguments(1_000_000).stream()
+                .flatMap(a -> a.getArguments(null)).toList())
+                .containsExactly("-maxrate", "1000000", "-bufsize", "2000000");
+    }
+
+    private static BufferedImage noise(int type) {
+        BufferedImage image = new BufferedImage(64, 48, type);
+        Random random = new Random(42);
+        for (int y = 0; y < image.getHeight(); y++)
+            for (int x = 0; x < image.getWidth(); x++)
+                image.setRGB(x, y, 0xFF000000 | random.nextInt(0xFFFFFF));
+        return image;
+    }
+
+    private static Element jpegTree(File file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            ImageReader reader = ImageIO.getImageReaders(in).next();
+            try {
+                reader.setInput(in);
+                return (Element) reader.getImageMetadata(0).getAsTree("javax_imageio_jpeg_image_1.0");
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static String attr(Element tree, String tag, String attribute) {
+        return ((Element) tree.getElementsByTagName(tag).item(0)).getAttribute(attribute);
+    }
+}
@@ -24,6 +24,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.screenleads.backend.app.domain.model.Media;
 import com.screenleads.backend.app.domain.model.MediaType;
+import com.screenleads.backend.app.domain.repositories.CompanyRepository;
 import com.screenleads.backend.app.domain.repositories.MediaRepository;
 import com.screenleads.backend.app.domain.repositories.MediaTypeRepository;
 import com.screenleads.backend.app.web.dto.MediaDTO;
@@ -38,6 +39,9 @@ class MediaServiceImplTest {
     @Mock
     private MediaTypeRepository mediaTypeRepository;
 
+    @Mock
+    private CompanyRepository companyRepository;
+
     @InjectMocks
     private MediaServiceImpl mediaService;
 
@@ -0,0 +1,147 @@
+package com.screenleads.backend.app.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.screenleads.backend.app.domain.model.PromotionFunnelDaily;
+import com.screenleads.backend.app.domain.model.PromotionLeadDaily;
+import com.screenleads.backend.app.domain.repositories.AdviceRepository;
+import com.screenleads.backend.app.domain.repositories.DeviceRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionFunnelDailyRepository;
+import com.screenleads.backend.app.domain.repositories.PromotionRepository;
+import com.screenleads.backend.app.infraestructure.config.LeadCounterProperties;
+import com.screenleads.backend.app.web.dto.AdviceImpressionDTO;
+import com.screenleads.backend.app.web.dto.PromotionFunnelDTO;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PromotionFunnelService Unit Tests")
+class PromotionFunnelServiceTest {
+
+    private static final LocalDate JUNE_3 = LocalDate.of(2024, 6, 3); // lunes
+
+    @Mock
+    private PromotionFunnelDailyRepository funnelRepository;
+
+    @Mock
+    private AdviceRepository adviceRepository;
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private PromotionRepository promotionRepository;
+
+    @Mock
+    private LeadCounterService leadCounters;
+
+    @Spy
+    private LeadCounterProperties counterProperties = new LeadCounterProperties();
+
+    @InjectMocks
+    private PromotionFunnelService funnelService;
+
+    private static AdviceRepository.AdvicePromotion link(Long adviceId, Long promotionId) {
+        return new AdviceRepository.AdvicePromotion() {
+            @Override
+            public Long getAdviceId() {
+                return adviceId;
+            }
+
+            @Override
+            public Long getPromotionId() {
+                return promotionId;
+            }
+        };
+    }
+
+    private static PromotionFunnelDaily funnelRow(LocalDate day, long deviceId, long impressions, long views) {
+        return new PromotionFunnelDaily(new PromotionFunnelDaily.Key(1L, day, deviceId), impressions, views);
+    }
+
+    private static PromotionLeadDaily leadRow(LocalDate day, long leads, long redeemed) {
+        return new PromotionLeadDaily(new PromotionLeadDaily.Key(1L, day), leads, redeemed, 0, 0);
+    }
+
+    @Test
+    @DisplayName("recordImpressions should group by promotion and day and skip advices without promotion")
+    void whenRecordImpressions_thenOneUpsertPerGroup() {
+        // Arrange
+        Instant at = Instant.parse("2024-06-03T10:00:00Z");
+        when(deviceRepository.findIdByUuid("screen-1")).thenReturn(Optional.of(7L));
+        when(adviceRepository.findPromotionIds(anyCollection())).thenReturn(List.of(link(10L, 1L), link(11L, 1L)));
+        when(leadCounters.dayOf(any())).thenReturn(JUNE_3);
+
+        // Act
+        long counted = funnelService.recordImpressions("screen-1", List.of(
+                new AdviceImpressionDTO(10L, 5, at),
+                new AdviceImpressionDTO(11L, 3, at),
+                new AdviceImpressionDTO(99L, 4, at)));
+
+        // Assert
+        assertThat(counted).isEqualTo(8);
+        verify(funnelRepository).increment(1L, JUNE_3, 7L, 8, 0);
+    }
+
+    @Test
+    @DisplayName("recordImpressions should reject unknown devices and invalid counts")
+    void whenRecordInvalidImpressions_thenThrows() {
+        when(deviceRepository.findIdByUuid("ghost")).thenReturn(Optional.empty());
+        when(deviceRepository.findIdByUuid("screen-1")).thenReturn(Optional.of(7L));
+
+        assertThatThrownBy(() -> funnelService.recordImpressions("ghost", List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> funnelService.recordImpressions("screen-1",
+                List.of(new AdviceImpressionDTO(10L, -1, null))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(funnelRepository, never()).increment(any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("funnel should merge both counter tables into weekly buckets and per-device totals")
+    void whenFunnelByWeek_thenMergesCounters() {
+        // Arrange
+        LocalDate from = JUNE_3;
+        LocalDate to = JUNE_3.plusDays(13);
+        when(promotionRepository.existsById(1L)).thenReturn(true);
+        when(funnelRepository.findRange(1L, from, to)).thenReturn(List.of(
+                funnelRow(JUNE_3, 7L, 100, 10),
+                funnelRow(JUNE_3.plusDays(2), 8L, 100, 10),
+                funnelRow(JUNE_3.plusDays(8), 7L, 200, 20)));
+        when(leadCounters.daily(1L, from, to)).thenReturn(List.of(
+                leadRow(JUNE_3.plusDays(1), 8, 2),
+                leadRow(JUNE_3.plusDays(9), 12, 3)));
+
+        // Act
+        PromotionFunnelDTO funnel = funnelService.funnel(1L, from, to, PromotionFunnelService.Bucket.WEEK, true);
+
+        // Assert
+        assertThat(funnel.totals()).isEqualTo(new PromotionFunnelDTO.Stages(400, 40, 20, 20, 5));
+        assertThat(funnel.buckets()).extracting(PromotionFunnelDTO.Bucket::start)
+                .containsExactly(JUNE_3, JUNE_3.plusDays(7));
+        assertThat(funnel.buckets().get(0).stages()).isEqualTo(new PromotionFunnelDTO.Stages(200, 20, 8, 8, 2));
+        assertThat(funnel.devices()).containsExactly(
+                new PromotionFunnelDTO.DeviceStages(7L, 300, 30),
+                new PromotionFunnelDTO.DeviceStages(8L, 100, 10));
+        assertThat(funnel.impressionToLeadRate()).isEqualTo(0.05);
+        assertThat(funnel.leadToRedemptionRate()).isEqualTo(0.25);
+    }
+}
@@ -2,33 +2,52 @@ package com.screenleads.backend.app.application.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.screenleads.backend.app.web.dto.PromotionDTO;
 import com.screenleads.backend.app.web.dto.PromotionLeadDTO;
+import com.screenleads.backend.app.web.dto.PromotionSummaryDTO;
 import com.screenleads.backend.app.domain.model.*;
 import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository;
 import com.screenleads.backend.app.domain.repositories.PromotionRepository;
 
+import jakarta.persistence.EntityManager;
+
 @ExtendWith(MockitoExtension.class)
 @DisplayName("PromotionServiceImpl Unit Tests")
 class PromotionServiceImplTest {
@@ -43,7 +62,22 @@ class PromotionServiceImplTest {
     private StripeBillingService billingService;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private EntityManager entityManager;
+
+    @Mock
+    private LeadCounterService leadCounters;
+
+    @Mock
+    private LeadIdentifierFilter identifierFilter;
+
+    @Mock
+    private PromotionFunnelService funnelService;
+
+    @Mock
+    private CouponCodeAllocator couponCodes;
+
+    @Mock
+    private CouponValidationCache couponValidationCache;
 
     @InjectMocks
     private PromotionServiceImpl promotionService;
@@ -54,6 +88,8 @@ class PromotionServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(couponCodes.insertWithRetry(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+
         testPromotion = Promotion.builder()
                 .id(1L)
                 .name("Test Promotion")
@@ -74,6 +110,7 @@ class PromotionServiceImplTest {
                 .identifier("test@example.com")
                 .firstName("John")
                 .lastName("Doe")
+                .email("test@example.com")
                 .build();
     }
 
@@ -82,7 +119,6 @@ class PromotionServiceImplTest {
     void whenGetAllPromotions_thenReturnsAllPromotions() {
         // Arrange
         when(promotionRepository.findAll()).thenReturn(List.of(testPromotion));
-        when(objectMapper.convertValue(any(Promotion.class), eq(PromotionDTO.class))).thenReturn(testPromotionDTO);
 
         // Act
         List<PromotionDTO> result = promotionService.getAllPromotions();
@@ -93,12 +129,48 @@ class PromotionServiceImplTest {
         verify(promotionRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("getPromotionSummaries should map the slim projection page")
+    void whenGetPromotionSummaries_thenMapsProjection() {
+        // Arrange
+        PromotionRepository.PromotionSummary summary = org.mockito.Mockito.mock(
+                PromotionRepository.PromotionSummary.class);
+        when(summary.getId()).thenReturn(1L);
+        when(summary.getName()).thenReturn("Test Promotion");
+        when(summary.getLeadLimitType()).thenReturn(LeadLimitType.NO_LIMIT);
+        when(summary.getLeadCount()).thenReturn(42L);
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(promotionRepository.findSummaries(pageable)).thenReturn(new PageImpl<>(List.of(summary), pageable, 1));
+
+        // Act
+        Page<PromotionSummaryDTO> result = promotionService.getPromotionSummaries(pageable);
+
+        // Assert
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0).name()).isEqualTo("Test Promotion");
+        assertThat(result.getContent().get(0).leadCount()).isEqualTo(42L);
+        verify(promotionRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("getTemplateETag should derive from the version without loading the template")
+    void whenGetTemplateETag_thenUsesVersion() {
+        // Arrange
+        when(promotionRepository.findVersionById(1L)).thenReturn(Optional.of(Instant.ofEpochMilli(0xABCL)));
+        when(promotionRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThat(promotionService.getTemplateETag(1L)).isEqualTo("\"1-abc\"");
+        assertThatThrownBy(() -> promotionService.getTemplateETag(999L))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(promotionRepository, never()).findTemplateHtmlById(anyLong());
+    }
+
     @Test
     @DisplayName("getPromotionById should return promotion when found")
     void whenGetPromotionByIdExists_thenReturnsPromotion() {
         // Arrange
         when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
-        when(objectMapper.convertValue(any(Promotion.class), eq(PromotionDTO.class))).thenReturn(testPromotionDTO);
 
         // Act
         PromotionDTO result = promotionService.getPromotionById(1L);
@@ -123,9 +195,7 @@ class PromotionServiceImplTest {
     @DisplayName("savePromotion should create and return new promotion")
     void whenSavePromotion_thenCreatesAndReturns() {
         // Arrange
-        when(objectMapper.convertValue(any(PromotionDTO.class), eq(Promotion.class))).thenReturn(testPromotion);
         when(promotionRepository.save(any(Promotion.class))).thenReturn(testPromotion);
-        when(objectMapper.convertValue(any(Promotion.class), eq(PromotionDTO.class))).thenReturn(testPromotionDTO);
 
         // Act
         PromotionDTO result = promotionService.savePromotion(testPromotionDTO);
@@ -140,8 +210,6 @@ class PromotionServiceImplTest {
     void whenUpdatePromotion_thenMergesAndSaves() {
         // Arrange
         when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
-        when(objectMapper.convertValue(any(PromotionDTO.class), eq(Promotion.class))).thenReturn(testPromotion);
-        when(objectMapper.convertValue(any(Promotion.class), eq(PromotionDTO.class))).thenReturn(testPromotionDTO);
 
         // Act
         PromotionDTO result = promotionService.updatePromotion(1L, testPromotionDTO);
@@ -149,6 +217,7 @@ class PromotionServiceImplTest {
         // Assert
         assertThat(result).isNotNull();
         verify(promotionRepository, times(1)).findById(1L);
+        verify(couponValidationCache).evictPromotion(1L);
     }
 
     @Test
@@ -162,6 +231,9 @@ class PromotionServiceImplTest {
 
         // Assert
         verify(promotionRepository, times(1)).deleteById(1L);
+        verify(identifierFilter).invalidate(1L);
+        verify(funnelService).deleteAll(1L);
+        verify(couponValidationCache).evictPromotion(1L);
     }
 
     @Test
@@ -173,17 +245,25 @@ class PromotionServiceImplTest {
                 null, null, null, null);
         
         when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
-        when(objectMapper.convertValue(any(PromotionLeadDTO.class), eq(PromotionLead.class))).thenReturn(testLead);
-        when(promotionLeadRepository.existsByPromotionIdAndIdentifier(anyLong(), anyString())).thenReturn(false);
-        when(promotionLeadRepository.save(any(PromotionLead.class))).thenReturn(testLead);
-        when(objectMapper.convertValue(any(PromotionLead.class), eq(PromotionLeadDTO.class))).thenReturn(leadDTO);
+        when(identifierFilter.mightContain(1L, "new@example.com")).thenReturn(false);
+        when(couponCodes.next()).thenReturn("ABCDEFGHJKLM");
+        when(promotionLeadRepository.saveAndFlush(any(PromotionLead.class))).thenReturn(testLead);
 
         // Act
         PromotionLeadDTO result = promotionService.registerLead(1L, leadDTO);
 
         // Assert
         assertThat(result).isNotNull();
-        verify(promotionLeadRepository, times(1)).save(any(PromotionLead.class));
+        assertThat(result.promotionId()).isEqualTo(1L);
+        // El filtro descarta el identificador: no hace falta consultar la BD
+        verify(promotionLeadRepository, never()).existsByPromotionIdAndIdentifier(anyLong(), anyString());
+        verify(identifierFilter).add(1L, "new@example.com");
+        ArgumentCaptor<PromotionLead> saved = ArgumentCaptor.forClass(PromotionLead.class);
+        verify(promotionLeadRepository, times(1)).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getIdentifierType()).isEqualTo(LeadIdentifierType.EMAIL);
+        assertThat(saved.getValue().getIdentifier()).isEqualTo("new@example.com");
+        assertThat(saved.getValue().getPhone()).isEqualTo("1234567890");
+        assertThat(saved.getValue().getCouponCode()).isEqualTo("ABCDEFGHJKLM");
     }
 
     @Test
@@ -195,7 +275,7 @@ class PromotionServiceImplTest {
                 null, null, null, null);
         
         when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
-        when(objectMapper.convertValue(any(PromotionLeadDTO.class), eq(PromotionLead.class))).thenReturn(testLead);
+        when(identifierFilter.mightContain(1L, "test@example.com")).thenReturn(true);
         when(promotionLeadRepository.existsByPromotionIdAndIdentifier(1L, "test@example.com")).thenReturn(true);
 
         // Act & Assert
@@ -204,6 +284,73 @@ class PromotionServiceImplTest {
                 .hasMessageContaining("already exists");
     }
 
+    @Test
+    @DisplayName("registerLead should map a unique identifier violation to a duplicate error")
+    void whenRegisterLeadRacesOnIdentifier_thenThrowsException() {
+        // Arrange
+        PromotionLeadDTO leadDTO = new PromotionLeadDTO(
+                null, 1L, "Jane", "Doe", "race@example.com", null,
+                null, null, null, null);
+
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
+        when(promotionLeadRepository.saveAndFlush(any(PromotionLead.class))).thenThrow(
+                new DataIntegrityViolationException("duplicate key value violates unique constraint "
+                        + "\"uk_promotionlead_promotion_identifier\""));
+
+        // Act & Assert
+        assertThatThrownBy(() -> promotionService.registerLead(1L, leadDTO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exists");
+        verify(leadCounters, never()).recordLead(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("registerLead should reject a duplicate written with different case and spacing")
+    void whenRegisterLeadWithUnnormalizedDuplicate_thenThrowsException() {
+        // Arrange
+        PromotionLeadDTO leadDTO = new PromotionLeadDTO(
+                null, 1L, "Jane", "Doe", "  Test@Example.COM ", null,
+                null, null, null, null);
+
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
+        when(identifierFilter.mightContain(1L, "test@example.com")).thenReturn(true);
+        when(promotionLeadRepository.existsByPromotionIdAndIdentifier(1L, "test@example.com")).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> promotionService.registerLead(1L, leadDTO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exists");
+        verify(promotionLeadRepository, never()).saveAndFlush(any(PromotionLead.class));
+    }
+
+    @Test
+    @DisplayName("registerLead should take the identifier type and the coupon expiry from the promotion")
+    void whenRegisterLeadForPhonePromotion_thenUsesPhoneAndPromotionEnd() {
+        // Arrange
+        Instant endAt = Instant.parse("2030-01-31T23:00:00Z");
+        testPromotion.setLeadIdentifierType(LeadIdentifierType.PHONE);
+        testPromotion.setEndAt(endAt);
+        PromotionLeadDTO leadDTO = new PromotionLeadDTO(
+                null, 1L, "Jane", "Doe", "jane@example.com", "0034 612-345-678",
+                null, null, null, null);
+
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(testPromotion));
+        when(couponCodes.next()).thenReturn("PHONE0000001");
+        when(promotionLeadRepository.saveAndFlush(any(PromotionLead.class))).thenReturn(testLead);
+
+        // Act
+        promotionService.registerLead(1L, leadDTO);
+
+        // Assert
+        ArgumentCaptor<PromotionLead> saved = ArgumentCaptor.forClass(PromotionLead.class);
+        verify(promotionLeadRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getIdentifierType()).isEqualTo(LeadIdentifierType.PHONE);
+        assertThat(saved.getValue().getIdentifier()).isEqualTo("+34612345678");
+        assertThat(saved.getValue().getCouponCode()).isEqualTo("PHONE0000001");
+        assertThat(saved.getValue().getExpiresAt()).isEqualTo(endAt);
+        verify(identifierFilter).add(1L, "+34612345678");
+    }
+
     @Test
     @DisplayName("listLeads should return all leads for promotion")
     void whenListLeads_thenReturnsAllLeads() {
@@ -213,7 +360,6 @@ class PromotionServiceImplTest {
                 null, null, null, null);
         
         when(promotionLeadRepository.findByPromotionId(1L)).thenReturn(List.of(testLead));
-        when(objectMapper.convertValue(any(PromotionLead.class), eq(PromotionLeadDTO.class))).thenReturn(leadDTO);
 
         // Act
         List<PromotionLeadDTO> result = promotionService.listLeads(1L);
@@ -233,7 +379,6 @@ class PromotionServiceImplTest {
         PromotionLeadDTO testDTO = new PromotionLeadDTO(
                 1L, 1L, "Test", "Lead", "test@example.test", null,
                 null, null, null, null);
-        when(objectMapper.convertValue(any(PromotionLead.class), eq(PromotionLeadDTO.class))).thenReturn(testDTO);
 
         // Act
         PromotionLeadDTO result = promotionService.createTestLead(1L, null);
@@ -242,4 +387,106 @@ class PromotionServiceImplTest {
         assertThat(result).isNotNull();
         verify(promotionLeadRepository, times(1)).save(any(PromotionLead.class));
     }
+
+    @Test
+    @DisplayName("exportLeadsCsv should stream rows from the database cursor and detach each lead")
+    void whenExportLeadsCsv_thenStreamsRowsAndDetaches() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(promotionService, "entityManager", entityManager);
+        Instant created = Instant.parse("2024-06-01T10:00:00Z");
+        testLead.setCreatedAt(created);
+        PromotionLead second = testLead.toBuilder().id(2L).identifier("a,b@example.com").build();
+        second.setCreatedAt(created.plusSeconds(60));
+        ZonedDateTime from = created.atZone(ZoneOffset.UTC).minusDays(1);
+        ZonedDateTime to = created.atZone(ZoneOffset.UTC).plusDays(1);
+        when(promotionLeadRepository.streamByPromotionIdAndCreatedAtBetween(1L, from.toInstant(), to.toInstant()))
+                .thenReturn(Stream.of(testLead, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        promotionService.exportLeadsCsv(1L, from, to, out);
+
+        // Assert
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).startsWith("id,promotionId,identifierType,identifier");
+        assertThat(lines.get(1)).startsWith("1,1,EMAIL,test@example.com,John,Doe,")
+                .endsWith(created.toString());
+        assertThat(lines.get(2)).startsWith("2,1,EMAIL,\"a,b@example.com\",");
+        verify(entityManager).detach(testLead);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @DisplayName("getLeadSummary should assemble database aggregates in the caller's zone")
+    void whenGetLeadSummary_thenUsesAggregates() {
+        // Arrange
+        ZoneId zone = ZoneId.of("America/Mexico_City");
+        ZonedDateTime to = ZonedDateTime.of(2024, 6, 2, 23, 59, 0, 0, zone);
+        ZonedDateTime from = to.minusDays(2);
+        Instant fromI = from.toInstant();
+        Instant toI = to.toInstant();
+        when(promotionLeadRepository.summarizeLeads(1L, fromI, toI)).thenReturn(new PromotionLeadRepository.LeadTotals() {
+            public long getLeads() {
+                return 5;
+            }
+
+            public long getUniqueIdentifiers() {
+                return 4;
+            }
+        });
+        when(promotionLeadRepository.countLeadsByHour(1L, fromI, toI, "America/Mexico_City"))
+                .thenReturn(List.of(bucket("2024-06-01T09:00", 2), bucket("2024-06-01T17:00", 1),
+                        bucket("2024-06-02T08:00", 2)));
+        when(promotionLeadRepository.countLeadsByCouponStatus(1L, fromI, toI))
+                .thenReturn(List.of(status(CouponStatus.VALID, 3), status(CouponStatus.REDEEMED, 2)));
+
+        // Act
+        var summary = promotionService.getLeadSummary(1L, from, to, zone);
+
+        // Assert
+        assertThat(summary.totalLeads()).isEqualTo(5);
+        assertThat(summary.uniqueIdentifiers()).isEqualTo(4);
+        assertThat(summary.leadsByDay()).containsExactly(
+                entry(LocalDate.of(2024, 6, 1), 3L),
+                entry(LocalDate.of(2024, 6, 2), 2L));
+        assertThat(summary.leadsByHour()).containsEntry(LocalDateTime.of(2024, 6, 1, 17, 0), 1L).hasSize(3);
+        assertThat(summary.couponStatus()).containsEntry(CouponStatus.VALID, 3L)
+                .containsEntry(CouponStatus.REDEEMED, 2L)
+                .containsEntry(CouponStatus.EXPIRED, 0L);
+        assertThat(summary.zone()).isEqualTo("America/Mexico_City");
+    }
+
+    @Test
+    @DisplayName("postgresZone should invert fixed offsets for POSIX parsing")
+    void whenPostgresZone_thenInvertsFixedOffsets() {
+        assertThat(PromotionServiceImpl.postgresZone(ZoneId.of("Europe/Madrid"))).isEqualTo("Europe/Madrid");
+        assertThat(PromotionServiceImpl.postgresZone(ZoneOffset.ofHours(2))).isEqualTo("-02:00");
+        assertThat(PromotionServiceImpl.postgresZone(ZoneOffset.ofHoursMinutes(-5, -30))).isEqualTo("+05:30");
+        assertThat(PromotionServiceImpl.postgresZone(ZoneOffset.UTC)).isEqualTo("UTC");
+    }
+
+    private static PromotionLeadRepository.LeadBucket bucket(String hour, long leads) {
+        return new PromotionLeadRepository.LeadBucket() {
+            public String getBucket() {
+                return hour;
+            }
+
+            public long getLeads() {
+                return leads;
+            }
+        };
+    }
+
+    private static PromotionLeadRepository.StatusCount status(CouponStatus status, long leads) {
+        return new PromotionLeadRepository.StatusCount() {
+            public CouponStatus getStatus() {
+                return status;
+            }
+
+            public long getLeads() {
+                return leads;
+            }
+        };
+    }
 }
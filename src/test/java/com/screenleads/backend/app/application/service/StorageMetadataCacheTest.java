@@ -0,0 +1,116 @@
+package com.screenleads.backend.app.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StorageMetadataCache Unit Tests")
+class StorageMetadataCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> listedPrefixes = new ArrayList<>();
+    private Set<String> bucket;
+    private StorageMetadataCache cache;
+
+    private final Function<String, Collection<String>> lister = prefix -> {
+        listedPrefixes.add(prefix);
+        return bucket.stream().filter(n -> n.startsWith(prefix)).toList();
+    };
+
+    @BeforeEach
+    void setUp() {
+        bucket = Set.of(
+                "media/images/compressed-abc.jpg",
+                "media/images/thumbnails/320/thumb-320-abc.jpg");
+        cache = new StorageMetadataCache(Duration.ofSeconds(60), 100, clock::get);
+    }
+
+    @Test
+    @DisplayName("existing should resolve a batch with one listing per directory")
+    void whenBatchLookup_thenOneListingPerDirectory() {
+        Set<String> result = cache.existing(List.of(
+                "media/images/compressed-abc.jpg",
+                "media/images/compressed-abc.png",
+                "media/images/thumbnails/320/thumb-320-abc.jpg",
+                "media/images/thumbnails/320/thumb-320-abc.png"), lister);
+
+        assertThat(result).containsExactly(
+                "media/images/compressed-abc.jpg",
+                "media/images/thumbnails/320/thumb-320-abc.jpg");
+        assertThat(listedPrefixes).containsExactly(
+                "media/images/compressed-abc.",
+                "media/images/thumbnails/320/thumb-320-abc.");
+    }
+
+    @Test
+    @DisplayName("existing should answer from memory until the TTL expires")
+    void whenCached_thenNoRemoteListingUntilTtl() {
+        List<String> paths = List.of("media/images/compressed-abc.jpg", "media/images/compressed-abc.png");
+        cache.existing(paths, lister);
+        cache.existing(paths, lister);
+        assertThat(listedPrefixes).hasSize(1);
+
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        cache.existing(paths, lister);
+        assertThat(listedPrefixes).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("recordUpload should make a path known without listing")
+    void whenUploaded_thenKnownWithoutListing() {
+        cache.recordUpload("media/videos/compressed-new.mp4");
+
+        assertThat(cache.existing(List.of("media/videos/compressed-new.mp4"), lister))
+                .containsExactly("media/videos/compressed-new.mp4");
+        assertThat(listedPrefixes).isEmpty();
+
+        cache.recordDelete("media/videos/compressed-new.mp4");
+        assertThat(cache.existing(List.of("media/videos/compressed-new.mp4"), lister)).isEmpty();
+        assertThat(listedPrefixes).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("recordUpload entries should expire with the TTL so deletions elsewhere are seen")
+    void whenUploadEntryExpires_thenListedAgain() {
+        cache.recordUpload("media/videos/compressed-new.mp4");
+
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        // Otro nodo (o la limpieza) lo borró: el listado ya no lo trae
+        assertThat(cache.existing(List.of("media/videos/compressed-new.mp4"), lister)).isEmpty();
+        assertThat(listedPrefixes).containsExactly("media/videos/compressed-new.mp4");
+    }
+
+    @Test
+    @DisplayName("cache should stay bounded even with only uploads, evicting the oldest first")
+    void whenFullOfUploads_thenEvictsOldest() {
+        StorageMetadataCache small = new StorageMetadataCache(Duration.ofSeconds(60), 3, clock::get);
+        for (int i = 0; i < 10; i++) {
+            small.recordUpload("up/" + i);
+            clock.incrementAndGet();
+        }
+
+        assertThat(small.size()).isLessThanOrEqualTo(3);
+        assertThat(small.existing(List.of("up/9"), lister)).containsExactly("up/9");
+        assertThat(listedPrefixes).isEmpty();
+    }
+
+    @Test
+    @DisplayName("cache should stay bounded")
+    void whenFull_thenEvicts() {
+        StorageMetadataCache small = new StorageMetadataCache(Duration.ofSeconds(60), 3, clock::get);
+        for (int i = 0; i < 10; i++) {
+            small.existing(List.of("dir" + i + "/file"), lister);
+        }
+        assertThat(small.size()).isLessThanOrEqualTo(3);
+    }
+}
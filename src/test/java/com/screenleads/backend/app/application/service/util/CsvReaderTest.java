@@ -0,0 +1,47 @@
+package com.screenleads.backend.app.application.service.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    @DisplayName("Debería leer campos entrecomillados con comas, comillas y saltos de línea")
+    void next_QuotedFields_ShouldUnescape() {
+        // Arrange
+        CsvReader reader = new CsvReader(new StringReader(
+                "a,b,c\r\n\"López, Ana\",\"dice \"\"hola\"\"\",\"dos\nlíneas\"\r\nx,,z"));
+
+        // Act & Assert
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(List.of("López, Ana", "dice \"hola\"", "dos\nlíneas"), reader.next());
+        assertEquals(2, reader.line());
+        assertEquals(List.of("x", "", "z"), reader.next());
+        assertEquals(4, reader.line());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Debería ignorar el BOM inicial")
+    void next_Bom_ShouldBeSkipped() {
+        CsvReader reader = new CsvReader(new StringReader("\uFEFFid,email\n"));
+
+        assertEquals(List.of("id", "email"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Debería fallar con comillas sin cerrar")
+    void next_UnclosedQuote_ShouldThrow() {
+        CsvReader reader = new CsvReader(new StringReader("a\n\"sin cerrar,b\n"));
+        reader.next();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(e.getMessage().contains("línea 2"));
+    }
+}
@@ -136,4 +136,24 @@ class IdentifierNormalizerTest {
         // Assert
         assertEquals("612345678", result);
     }
+
+    @Test
+    @DisplayName("Debería tomar el email o el teléfono según el tipo de la promoción")
+    void forLead_ShouldPickFieldByIdentifierType() {
+        // Act & Assert
+        assertEquals("jane@example.com",
+                IdentifierNormalizer.forLead(LeadIdentifierType.EMAIL, " Jane@Example.com ", "612 345 678"));
+        assertEquals("+34612345678",
+                IdentifierNormalizer.forLead(LeadIdentifierType.PHONE, "jane@example.com", "0034 612 345 678"));
+        assertNull(IdentifierNormalizer.forLead(LeadIdentifierType.PHONE, "jane@example.com", null));
+    }
+
+    @Test
+    @DisplayName("Debería usar el primero que venga para el resto de tipos")
+    void forLead_OtherType_ShouldFallBackToEmailThenPhone() {
+        // Act & Assert
+        assertEquals("jane@example.com",
+                IdentifierNormalizer.forLead(LeadIdentifierType.OTHER, "jane@example.com", "612345678"));
+        assertEquals("612345678", IdentifierNormalizer.forLead(LeadIdentifierType.OTHER, null, "612345678"));
+    }
 }
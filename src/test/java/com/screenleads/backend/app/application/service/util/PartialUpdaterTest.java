@@ -0,0 +1,102 @@
+package com.screenleads.backend.app.application.service.util;
+
+import com.screenleads.backend.app.domain.model.AppEntityAttribute;
+import com.screenleads.backend.app.domain.model.CompanyToken;
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.web.dto.CompanyTokenDTO;
+import com.screenleads.backend.app.web.dto.EntityAttributeDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartialUpdaterTest {
+
+    @Test
+    @DisplayName("Debería copiar solo las propiedades no nulas, incluidas las heredadas")
+    void merge_SameClass_ShouldSkipNulls() {
+        // Arrange
+        Promotion target = Promotion.builder().id(1L).name("Original").description("Vieja").url("https://a").build();
+        Promotion patch = new Promotion();
+        patch.setId(99L);
+        patch.setDescription("Nueva");
+        patch.setLeadIdentifierType(LeadIdentifierType.PHONE);
+        patch.setLeadLimitType(null);
+        patch.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+
+        // Act
+        int copied = PartialUpdater.of(Promotion.class, Promotion.class).ignoring("id").merge(patch, target);
+
+        // Assert
+        assertEquals(3, copied);
+        assertEquals(1L, target.getId());
+        assertEquals("Original", target.getName());
+        assertEquals("Nueva", target.getDescription());
+        assertEquals("https://a", target.getUrl());
+        assertEquals(LeadIdentifierType.PHONE, target.getLeadIdentifierType());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), target.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Debería fusionar un record sobre una entidad por nombre de componente")
+    void merge_RecordToEntity_ShouldMatchByName() {
+        // Arrange
+        AppEntityAttribute target = new AppEntityAttribute();
+        target.setName("color");
+        target.setListOrder(3);
+        EntityAttributeDTO dto = EntityAttributeDTO.builder()
+                .id(7L)
+                .listOrder(5)
+                .required(true)
+                .minNum(BigDecimal.ONE)
+                .enumValuesJson("[\"A\"]")
+                .build();
+
+        // Act
+        PartialUpdater<EntityAttributeDTO, AppEntityAttribute> updater = PartialUpdater
+                .of(EntityAttributeDTO.class, AppEntityAttribute.class).ignoring("id");
+        updater.merge(dto, target);
+
+        // Assert
+        assertNull(target.getId());
+        assertEquals("color", target.getName());
+        assertEquals(5, target.getListOrder());
+        assertTrue(target.getRequired());
+        assertEquals(BigDecimal.ONE, target.getMinNum());
+        assertFalse(updater.propertyNames().contains("enumValuesJson"));
+    }
+
+    @Test
+    @DisplayName("Debería limitarse a las propiedades de only() y rechazar las que no existen")
+    void only_ShouldRestrictAndValidate() {
+        // Arrange
+        CompanyToken token = new CompanyToken();
+        token.setRole("viewer");
+        CompanyTokenDTO dto = CompanyTokenDTO.builder()
+                .role("admin")
+                .descripcion("Nueva")
+                .expiresAt(LocalDateTime.of(2030, 1, 1, 0, 0))
+                .build();
+
+        // Act
+        PartialUpdater.of(CompanyTokenDTO.class, CompanyToken.class).only("role").merge(dto, token);
+
+        // Assert
+        assertEquals("admin", token.getRole());
+        assertNull(token.getDescripcion());
+        assertThrows(IllegalArgumentException.class,
+                () -> PartialUpdater.of(CompanyTokenDTO.class, CompanyToken.class).only("inexistente"));
+    }
+
+    @Test
+    @DisplayName("Debería construir la tabla de accesores una sola vez por clase")
+    void properties_ShouldBeCached() {
+        assertSame(PartialUpdater.properties(Promotion.class), PartialUpdater.properties(Promotion.class));
+        assertEquals(0, PartialUpdater.of(Promotion.class, Promotion.class).merge(null, new Promotion()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.screenleads.backend.app.application.service.util;
+
+import com.screenleads.backend.app.domain.model.Media;
+import com.screenleads.backend.app.domain.model.MediaRendition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenditionSelectorTest {
+
+    private static MediaRendition rendition(String name, int width, int height) {
+        return MediaRendition.builder().name(name).width(width).height(height).src(name + ".mp4").build();
+    }
+
+    /** Media sin tamaño de la principal (como los anteriores a guardar sus metadatos). */
+    private static Media media(MediaRendition... renditions) {
+        Media media = new Media();
+        media.setSrc("original.mp4");
+        media.setRenditions(new ArrayList<>(List.of(renditions)));
+        return media;
+    }
+
+    private final Media ladder = media(
+            rendition("2160p", 3840, 2160),
+            rendition("720p", 1280, 720),
+            rendition("1080p", 1920, 1080));
+
+    @Test
+    @DisplayName("Debería elegir la rendition más pequeña que cubre la pantalla")
+    void select_ShouldReturnSmallestCoveringRendition() {
+        assertEquals("720p", RenditionSelector.select(ladder, 1280, 720).getName());
+        assertEquals("1080p", RenditionSelector.select(ladder, 1366, 768).getName());
+        assertEquals("2160p", RenditionSelector.select(ladder, 3840, 2160).getName());
+    }
+
+    @Test
+    @DisplayName("Debería encajar la rendition en la pantalla respetando la orientación")
+    void select_ShouldFitRenditionIntoDeviceBox() {
+        // Vídeo horizontal en pantalla vertical: se ve a 1080x608, basta 720p
+        assertEquals("720p", RenditionSelector.select(ladder, 1080, 1920).getName());
+        assertEquals("720p", RenditionSelector.select(ladder, 600, 1024).getName());
+
+        // Vídeo vertical en pantalla vertical: hace falta el lado largo completo
+        Media portrait = media(
+                rendition("720p", 720, 1280),
+                rendition("1080p", 1080, 1920));
+        assertEquals("1080p", RenditionSelector.select(portrait, 1080, 1920).getName());
+        assertEquals("720p", RenditionSelector.select(portrait, 1920, 1080).getName());
+    }
+
+    @Test
+    @DisplayName("Debería servir el original si ninguna cubre la pantalla o no hay resolución")
+    void select_ShouldFallBackToOriginal() {
+        assertNull(RenditionSelector.select(ladder, 7680, 4320));
+        assertNull(RenditionSelector.select(ladder, null, null));
+    }
+
+    @Test
+    @DisplayName("Debería competir con la principal: 4K con la principal a 1080p y renditions 720p y 2160p")
+    void select_ShouldWeighMainOutputAgainstRenditionsAboveIt() {
+        Media uhd = media(rendition("720p", 1280, 720), rendition("2160p", 3840, 2160));
+        uhd.setWidth(1920);
+        uhd.setHeight(1080);
+
+        assertEquals("720p", RenditionSelector.select(uhd, 1280, 720).getName());
+        assertNull(RenditionSelector.select(uhd, 1366, 768));
+        assertNull(RenditionSelector.select(uhd, 1920, 1080));
+        assertEquals("2160p", RenditionSelector.select(uhd, 3840, 2160).getName());
+        assertEquals("2160p.mp4", RenditionSelector.bestSrc(uhd, 2560, 1440));
+        // Nada cubre 8K: la mayor, que es la rendition y no la principal
+        assertEquals("2160p", RenditionSelector.select(uhd, 7680, 4320).getName());
+        assertNull(RenditionSelector.select(uhd, null, null));
+    }
+
+    @Test
+    @DisplayName("Debería usar el src original si el media no tiene renditions")
+    void bestSrc_ShouldFallBackToOriginal() {
+        Media media = media();
+
+        assertEquals("original.mp4", RenditionSelector.bestSrc(media, 1920, 1080));
+        assertNull(RenditionSelector.select(null, 1920, 1080));
+
+        media.getRenditions().addAll(ladder.getRenditions());
+        assertEquals("1080p.mp4", RenditionSelector.bestSrc(media, 1920, 1080));
+        assertEquals("original.mp4", RenditionSelector.bestSrc(media, 7680, 4320));
+    }
+}
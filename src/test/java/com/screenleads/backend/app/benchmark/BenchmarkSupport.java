@@ -0,0 +1,42 @@
+package com.screenleads.backend.app.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.screenleads.backend.app.application.service.MediaProcessingService;
+import com.screenleads.backend.app.infraestructure.config.MediaEncodingProperties;
+import com.screenleads.backend.app.infraestructure.config.MediaRenditionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.imgscalr.Scalr;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+/** Piezas comunes de los benchmarks (fuera de Spring). */
+final class BenchmarkSupport {
+
+    static final Path OUTPUT_DIR = Path.of(System.getProperty("benchmark.out", "target/benchmarks"));
+    static final Path FIXTURES_DIR = Path.of(System.getProperty("benchmark.corpus",
+            OUTPUT_DIR.resolve("fixtures").toString()));
+
+    private BenchmarkSupport() {
+    }
+
+    /** El pipeline loguea cada fichero en INFO: se silencia para no medir la consola. */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    /**
+     * Servicio con la configuración por defecto; {@code scalingMethod} (si no es
+     * null) sustituye el algoritmo de escalado en todos los perfiles.
+     */
+    static MediaProcessingService processingService(MeterRegistry registry, Scalr.Method scalingMethod,
+            boolean renditions) {
+        MediaEncodingProperties encoding = new MediaEncodingProperties();
+        if (scalingMethod != null)
+            encoding.getProfiles().values().forEach(p -> p.setScalingMethod(scalingMethod));
+        MediaRenditionProperties ladder = new MediaRenditionProperties();
+        ladder.setEnabled(renditions);
+        return new MediaProcessingService(ladder, encoding, registry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.screenleads.backend.app.benchmark;
+
+import com.screenleads.backend.app.application.service.MediaProcessingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.imgscalr.Scalr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingesta completa de una imagen (compresión, thumbnails, renditions y subida
+ * al almacenamiento local) por algoritmo de escalado y perfil.
+ *
+ * <pre>
+ * mvn -Pbenchmark clean test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main \
+ *     -Dbenchmark.args="ImageEncodingBenchmark -rf json -rff target/jmh-result.json"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class ImageEncodingBenchmark {
+
+    @Param({ MediaFixtures.PHOTO, MediaFixtures.POSTER })
+    public String fixture;
+
+    @Param({ "SPEED", "BALANCED", "QUALITY" })
+    public String scalingMethod;
+
+    @Param({ "signage-hq", "mobile-lite" })
+    public String profile;
+
+    @Param({ "true" })
+    public boolean renditions;
+
+    private MediaProcessingService service;
+    private LocalStorageStandIn storage;
+    private MediaFixtures.Fixture source;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        source = MediaFixtures.get(BenchmarkSupport.FIXTURES_DIR, fixture);
+        service = BenchmarkSupport.processingService(new SimpleMeterRegistry(), Scalr.Method.valueOf(scalingMethod),
+                renditions);
+        Path bucket = Files.createTempDirectory(Files.createDirectories(BenchmarkSupport.OUTPUT_DIR), "bucket_");
+        storage = new LocalStorageStandIn(bucket, Duration.ZERO);
+    }
+
+    @Benchmark
+    public MediaProcessingService.ProcessedMedia ingest() throws IOException {
+        return service.processMedia(source.file().toFile(), source.name(), profile, storage);
+    }
+}
@@ -0,0 +1,51 @@
+package com.screenleads.backend.app.benchmark;
+
+import com.screenleads.backend.app.application.service.FirebaseStorageService;
+import com.screenleads.backend.app.application.service.StorageMetadataCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sustituto local del bucket: copia cada subida bajo {@code root} y cuenta
+ * bytes/objetos. {@code uploadLatency} simula la red hasta el bucket.
+ */
+class LocalStorageStandIn extends FirebaseStorageService {
+
+    private final Path root;
+    private final Duration uploadLatency;
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicLong uploadedObjects = new AtomicLong();
+
+    LocalStorageStandIn(Path root, Duration uploadLatency) {
+        super(new StorageMetadataCache(Duration.ofMinutes(1), 10_000));
+        this.root = root;
+        this.uploadLatency = uploadLatency;
+    }
+
+    @Override
+    public String upload(File file, String destination) throws IOException {
+        Path target = root.resolve(destination).normalize();
+        Files.createDirectories(target.getParent());
+        Files.copy(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+        if (!uploadLatency.isZero())
+            LockSupport.parkNanos(uploadLatency.toNanos());
+        uploadedBytes.addAndGet(file.length());
+        uploadedObjects.incrementAndGet();
+        return target.toUri().toString();
+    }
+
+    long uploadedBytes() {
+        return uploadedBytes.get();
+    }
+
+    long uploadedObjects() {
+        return uploadedObjects.get();
+    }
+}
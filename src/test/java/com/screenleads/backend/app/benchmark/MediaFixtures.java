@@ -0,0 +1,190 @@
+package com.screenleads.backend.app.benchmark;
+
+import ws.schild.jave.Encoder;
+import ws.schild.jave.MultimediaObject;
+import ws.schild.jave.encode.EncodingAttributes;
+import ws.schild.jave.encode.VideoAttributes;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Corpus fijo para los benchmarks. Si {@code dir} ya contiene jpg/jpeg/png/mp4
+ * se usan tal cual (corpus real); si no, se genera uno sintético determinista
+ * (semilla fija): foto 4000x3000, póster PNG con alfa, banner vertical y un
+ * clip de 4 s (solo si ffmpeg está disponible).
+ */
+final class MediaFixtures {
+
+    static final String PHOTO = "photo-4000x3000.jpg";
+    static final String POSTER = "poster-1920x1080.png";
+    static final String BANNER = "banner-1080x1920.jpg";
+    static final String CLIP = "clip-1280x720.mp4";
+
+    private static final long SEED = 20_240_601L;
+
+    record Fixture(String name, Path file, String kind) {
+        long sizeBytes() {
+            return file.toFile().length();
+        }
+    }
+
+    private MediaFixtures() {
+    }
+
+    static List<Fixture> load(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        if (listMedia(dir).isEmpty())
+            generate(dir);
+        return listMedia(dir);
+    }
+
+    static Fixture get(Path dir, String name) throws IOException {
+        return load(dir).stream()
+                .filter(f -> f.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Fixture no encontrado: " + name));
+    }
+
+    private static List<Fixture> listMedia(Path dir) throws IOException {
+        List<Fixture> fixtures = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(Files::isRegularFile).sorted().forEach(p -> {
+                String name = p.getFileName().toString();
+                String ext = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+                switch (ext) {
+                    case "jpg", "jpeg", "png" -> fixtures.add(new Fixture(name, p, "image"));
+                    case "mp4", "mov", "webm" -> fixtures.add(new Fixture(name, p, "video"));
+                    default -> {
+                        // ignorado
+                    }
+                }
+            });
+        }
+        return fixtures;
+    }
+
+    private static void generate(Path dir) throws IOException {
+        Random random = new Random(SEED);
+        ImageIO.write(photo(4000, 3000, random), "jpg", dir.resolve(PHOTO).toFile());
+        ImageIO.write(poster(1920, 1080, random), "png", dir.resolve(POSTER).toFile());
+        ImageIO.write(photo(1080, 1920, random), "jpg", dir.resolve(BANNER).toFile());
+        try {
+            clip(dir.resolve(CLIP), random);
+        } catch (Exception | LinkageError e) {
+            Files.deleteIfExists(dir.resolve(CLIP));
+            System.err.println("⚠️ Sin ffmpeg: el corpus no incluye vídeo (" + e.getMessage() + ")");
+        }
+    }
+
+    /** Degradados suaves + grano: se comprime como una foto, no como un gráfico plano. */
+    private static BufferedImage photo(int width, int height, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setPaint(new GradientPaint(0, 0, new Color(random.nextInt()), width, height, new Color(random.nextInt())));
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            for (int i = 0; i < 40; i++) {
+                g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 90));
+                int r = width / 20 + random.nextInt(width / 6);
+                g.fillOval(random.nextInt(width) - r / 2, random.nextInt(height) - r / 2, r, r);
+            }
+        } finally {
+            g.dispose();
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = image.getRGB(x, y);
+                int n = random.nextInt(17) - 8;
+                image.setRGB(x, y, (clamp(((rgb >> 16) & 0xFF) + n) << 16)
+                        | (clamp(((rgb >> 8) & 0xFF) + n) << 8)
+                        | clamp((rgb & 0xFF) + n));
+            }
+        }
+        return image;
+    }
+
+    /** Colores planos, texto y transparencia: el caso típico de cartelería. */
+    private static BufferedImage poster(int width, int height, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(new Color(20, 40, 90, 230));
+            g.fillRoundRect(40, 40, width - 80, height - 80, 80, 80);
+            g.setStroke(new BasicStroke(12f));
+            for (int i = 0; i < 12; i++) {
+                g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+                g.drawLine(random.nextInt(width), random.nextInt(height), random.nextInt(width), random.nextInt(height));
+            }
+            g.setColor(Color.WHITE);
+            g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, height / 8));
+            g.drawString("-30% HOY", width / 10, height / 2);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, height / 24));
+            g.drawString("Escanea el QR y consigue tu cupón", width / 10, height / 2 + height / 8);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /** 4 s a 25 fps con un bloque en movimiento sobre fondo con grano. */
+    private static void clip(Path target, Random random) throws Exception {
+        Path frames = Files.createDirectories(target.resolveSibling("frames"));
+        try {
+            BufferedImage background = photo(1280, 720, random);
+            for (int i = 0; i < 100; i++) {
+                BufferedImage frame = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = frame.createGraphics();
+                try {
+                    g.drawImage(background, 0, 0, null);
+                    g.setColor(Color.ORANGE);
+                    g.fillRect(i * 11, 200 + (int) (120 * Math.sin(i / 8.0)), 200, 200);
+                } finally {
+                    g.dispose();
+                }
+                ImageIO.write(frame, "png", frames.resolve(String.format("frame_%03d.png", i)).toFile());
+            }
+
+            VideoAttributes video = new VideoAttributes();
+            video.setCodec("h264");
+            video.setPixelFormat("yuv420p");
+            video.setBitRate(6_000_000);
+
+            EncodingAttributes attrs = new EncodingAttributes();
+            attrs.setInputFormat("image2");
+            attrs.setOutputFormat("mp4");
+            attrs.setVideoAttributes(video);
+
+            new Encoder().encode(new MultimediaObject(new File(frames.toFile(), "frame_%03d.png")),
+                    target.toFile(), attrs);
+        } finally {
+            try (Stream<Path> files = Files.list(frames)) {
+                for (Path p : files.toList())
+                    Files.deleteIfExists(p);
+            }
+            Files.deleteIfExists(frames);
+        }
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
@@ -0,0 +1,320 @@
+package com.screenleads.backend.app.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.screenleads.backend.app.application.service.MediaProcessingService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.imgscalr.Scalr;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Carga end-to-end del pipeline de medias: N subidas concurrentes (1/2/4/8 por
+ * defecto) sobre el corpus fijo, como hace el controlador (temporal
+ * {@code upload_*} + processMedia + borrado). Por nivel mide throughput,
+ * latencias p50/p95/p99, latencia por etapa ({@code media.processing.stage}),
+ * pico de RSS (JVM más los ffmpeg hijos) y pico de disco temporal. Escribe un
+ * JSON en target/benchmarks.
+ *
+ * <pre>
+ * mvn -Pbenchmark clean test-compile exec:exec \
+ *     -Dbenchmark.args="--concurrency=1,2,4,8 --uploads=24 --scaling=QUALITY --upload-latency-ms=50"
+ * </pre>
+ */
+public final class MediaPipelineLoadBenchmark {
+
+    private static final long SAMPLE_INTERVAL_MS = 25;
+
+    private MediaPipelineLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int[] levels = Arrays.stream(options.getOrDefault("concurrency", "1,2,4,8").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int uploads = Integer.parseInt(options.getOrDefault("uploads", "16"));
+        String profile = options.get("profile");
+        Scalr.Method scaling = options.containsKey("scaling") ? Scalr.Method.valueOf(options.get("scaling")) : null;
+        boolean renditions = Boolean.parseBoolean(options.getOrDefault("renditions", "true"));
+        Duration uploadLatency = Duration.ofMillis(Long.parseLong(options.getOrDefault("upload-latency-ms", "0")));
+
+        BenchmarkSupport.quietLogging();
+        Path tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+        List<MediaFixtures.Fixture> corpus = MediaFixtures.load(BenchmarkSupport.FIXTURES_DIR);
+        if (corpus.isEmpty())
+            throw new IllegalStateException("Corpus vacío en " + BenchmarkSupport.FIXTURES_DIR);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("environment", environment(tmpDir));
+        report.put("config", Map.of(
+                "uploadsPerLevel", uploads,
+                "profile", profile != null ? profile : "(default)",
+                "scalingMethod", scaling != null ? scaling.name() : "(profile)",
+                "renditions", renditions,
+                "uploadLatencyMs", uploadLatency.toMillis()));
+        report.put("corpus", corpus.stream()
+                .map(f -> Map.of("name", f.name(), "kind", f.kind(), "bytes", f.sizeBytes()))
+                .toList());
+
+        // Calentamiento: JIT + carga de codecs ImageIO/ffmpeg antes de medir
+        runLevel(corpus, corpus.size(), 1, profile, scaling, renditions, uploadLatency, tmpDir);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int concurrency : levels) {
+            Map<String, Object> level = runLevel(corpus, uploads, concurrency, profile, scaling, renditions,
+                    uploadLatency, tmpDir);
+            results.add(level);
+            System.out.printf(
+                    "concurrency=%d  %.2f uploads/s  p50=%dms  p95=%dms  peakRss=%dMB (jvm %dMB)  peakTmp=%dMB  errors=%d%n",
+                    concurrency, level.get("uploadsPerSecond"), level.get("p50Ms"), level.get("p95Ms"),
+                    (Long) level.get("peakRssBytes") / (1024 * 1024), (Long) level.get("peakJvmRssBytes") / (1024 * 1024),
+                    (Long) level.get("peakTempBytes") / (1024 * 1024), level.get("errors"));
+        }
+        report.put("levels", results);
+
+        Files.createDirectories(BenchmarkSupport.OUTPUT_DIR);
+        Path out = BenchmarkSupport.OUTPUT_DIR.resolve("media-pipeline-" + System.currentTimeMillis() + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+        System.out.println("Informe: " + out.toAbsolutePath());
+    }
+
+    private static Map<String, Object> runLevel(List<MediaFixtures.Fixture> corpus, int uploads, int concurrency,
+            String profile, Scalr.Method scaling, boolean renditions, Duration uploadLatency, Path tmpDir)
+            throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MediaProcessingService service = BenchmarkSupport.processingService(registry, scaling, renditions);
+        Path bucket = Files.createTempDirectory(Files.createDirectories(BenchmarkSupport.OUTPUT_DIR), "bucket_");
+        LocalStorageStandIn storage = new LocalStorageStandIn(bucket, uploadLatency);
+
+        long[] latencies = new long[uploads];
+        AtomicLong errors = new AtomicLong();
+        AtomicLong inputBytes = new AtomicLong();
+        ResourceSampler sampler = new ResourceSampler(tmpDir);
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        sampler.start();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < uploads; i++) {
+                int index = i;
+                MediaFixtures.Fixture fixture = corpus.get(i % corpus.size());
+                futures.add(pool.submit(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        Path tmp = Files.createTempFile(tmpDir, "upload_", "_" + fixture.name());
+                        try {
+                            Files.copy(fixture.file(), tmp, StandardCopyOption.REPLACE_EXISTING);
+                            service.processMedia(tmp.toFile(), index + "-" + fixture.name(), profile, storage);
+                            inputBytes.addAndGet(fixture.sizeBytes());
+                        } finally {
+                            Files.deleteIfExists(tmp);
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[index] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures)
+                f.get();
+        } finally {
+            pool.shutdown();
+            sampler.stop();
+        }
+        long wallNanos = System.nanoTime() - start;
+        deleteRecursively(bucket);
+
+        Arrays.sort(latencies);
+        double seconds = wallNanos / 1e9;
+        Map<String, Object> level = new LinkedHashMap<>();
+        level.put("concurrency", concurrency);
+        level.put("uploads", uploads);
+        level.put("errors", errors.get());
+        level.put("wallMs", TimeUnit.NANOSECONDS.toMillis(wallNanos));
+        level.put("uploadsPerSecond", uploads / seconds);
+        level.put("inputMegabytesPerSecond", inputBytes.get() / seconds / (1024 * 1024));
+        level.put("p50Ms", percentile(latencies, 0.50));
+        level.put("p95Ms", percentile(latencies, 0.95));
+        level.put("p99Ms", percentile(latencies, 0.99));
+        level.put("maxMs", latencies[latencies.length - 1]);
+        level.put("storedBytes", storage.uploadedBytes());
+        level.put("storedObjects", storage.uploadedObjects());
+        level.put("peakRssBytes", sampler.peakRss());
+        level.put("peakJvmRssBytes", sampler.peakJvmRss());
+        level.put("peakHeapBytes", sampler.peakHeap());
+        level.put("peakTempBytes", sampler.peakTemp());
+        level.put("stages", stages(registry));
+        return level;
+    }
+
+    /** kind.stage -> count/mean/max en ms. */
+    private static Map<String, Object> stages(SimpleMeterRegistry registry) {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        registry.find("media.processing.stage").timers().stream()
+                .sorted((a, b) -> key(a).compareTo(key(b)))
+                .forEach(t -> stages.put(key(t), Map.of(
+                        "count", t.count(),
+                        "meanMs", t.mean(TimeUnit.MILLISECONDS),
+                        "maxMs", t.max(TimeUnit.MILLISECONDS))));
+        return stages;
+    }
+
+    private static String key(Timer timer) {
+        return timer.getId().getTag("kind") + "." + timer.getId().getTag("stage");
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0)
+            return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static Map<String, Object> environment(Path tmpDir) {
+        Map<String, Object> env = new LinkedHashMap<>();
+        env.put("javaVersion", System.getProperty("java.version"));
+        env.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        env.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        env.put("jvmArgs", ManagementFactory.getRuntimeMXBean().getInputArguments());
+        env.put("tmpDir", tmpDir.toAbsolutePath().toString());
+        return env;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Argumento no válido (se espera --clave=valor): " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path p : paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList())
+                Files.deleteIfExists(p);
+        }
+    }
+
+    /**
+     * Muestrea RSS y los bytes que el pipeline añade al directorio temporal
+     * (sobre lo que ya había al empezar) mientras dura el nivel. El RSS total
+     * suma al de la JVM (/proc/self/status; heap usado si no existe) el de sus
+     * procesos descendientes, los ffmpeg, que en vídeo se llevan la mayor parte.
+     */
+    private static final class ResourceSampler {
+        private final Path tmpDir;
+        private final long baseline;
+        private final AtomicLong peakRss = new AtomicLong();
+        private final AtomicLong peakJvmRss = new AtomicLong();
+        private final AtomicLong peakHeap = new AtomicLong();
+        private final AtomicLong peakTemp = new AtomicLong();
+        private volatile boolean running;
+        private Thread thread;
+
+        ResourceSampler(Path tmpDir) {
+            this.tmpDir = tmpDir;
+            this.baseline = tempBytes();
+        }
+
+        void start() {
+            running = true;
+            thread = new Thread(() -> {
+                while (running) {
+                    sample();
+                    try {
+                        Thread.sleep(SAMPLE_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, "bench-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+            sample();
+        }
+
+        long peakRss() {
+            return peakRss.get();
+        }
+
+        long peakJvmRss() {
+            return peakJvmRss.get();
+        }
+
+        long peakHeap() {
+            return peakHeap.get();
+        }
+
+        long peakTemp() {
+            return peakTemp.get();
+        }
+
+        private void sample() {
+            Runtime rt = Runtime.getRuntime();
+            long heap = rt.totalMemory() - rt.freeMemory();
+            peakHeap.accumulateAndGet(heap, Math::max);
+            long jvmRss = readRss("self", heap);
+            long childrenRss = ProcessHandle.current().descendants()
+                    .mapToLong(child -> readRss(Long.toString(child.pid()), 0))
+                    .sum();
+            peakJvmRss.accumulateAndGet(jvmRss, Math::max);
+            peakRss.accumulateAndGet(jvmRss + childrenRss, Math::max);
+            peakTemp.accumulateAndGet(Math.max(0, tempBytes() - baseline), Math::max);
+        }
+
+        /** VmRSS de /proc/{pid}/status; {@code fallback} si no existe o el proceso ya terminó. */
+        private long readRss(String pid, long fallback) {
+            Path status = Path.of("/proc", pid, "status");
+            if (!Files.isReadable(status))
+                return fallback;
+            try (Stream<String> lines = Files.lines(status)) {
+                return lines.filter(l -> l.startsWith("VmRSS:"))
+                        .map(l -> Long.parseLong(l.replaceAll("\\D", "")) * 1024)
+                        .findFirst()
+                        .orElse(fallback);
+            } catch (IOException | RuntimeException e) {
+                return fallback;
+            }
+        }
+
+        /** Files.createTempFile deja los temporales en la raíz de java.io.tmpdir. */
+        private long tempBytes() {
+            try (Stream<Path> files = Files.list(tmpDir)) {
+                return files.filter(Files::isRegularFile)
+                        .mapToLong(p -> p.toFile().length())
+                        .sum();
+            } catch (IOException | RuntimeException e) {
+                // ficheros que desaparecen durante el recorrido
+                return 0;
+            }
+        }
+    }
+}
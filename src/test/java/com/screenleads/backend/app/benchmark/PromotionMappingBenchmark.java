@@ -0,0 +1,122 @@
+package com.screenleads.backend.app.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.model.PromotionLead;
+import com.screenleads.backend.app.web.dto.PromotionDTO;
+import com.screenleads.backend.app.web.dto.PromotionLeadDTO;
+import com.screenleads.backend.app.web.mapper.PromotionLeadMapper;
+import com.screenleads.backend.app.web.mapper.PromotionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo entidad → DTO de listLeads/getAllPromotions: {@code convertValue} de
+ * Jackson (como el ObjectMapper de Spring Boot) frente a los mappers directos.
+ * Con {@code -prof gc} se ve además la asignación por operación.
+ * <p>
+ * Las entidades van sin company ni leads: con asociaciones reales Jackson
+ * recorrería la relación lead → promoción → leads.
+ *
+ * <pre>
+ * mvn -Pbenchmark clean test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main \
+ *     -Dbenchmark.args="PromotionMappingBenchmark -prof gc -rf json -rff target/jmh-mapping.json"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class PromotionMappingBenchmark {
+
+    @Param({ "1", "500" })
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<PromotionLead> leads;
+    private List<Promotion> promotions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        leads = new ArrayList<>(rows);
+        promotions = new ArrayList<>(rows);
+        Instant now = Instant.parse("2024-06-01T10:00:00Z");
+        for (int i = 0; i < rows; i++) {
+            PromotionLead lead = PromotionLead.builder()
+                    .id((long) i)
+                    .identifierType(LeadIdentifierType.EMAIL)
+                    .identifier("lead" + i + "@example.com")
+                    .firstName("Nombre" + i)
+                    .lastName("Apellido" + i)
+                    .email("lead" + i + "@example.com")
+                    .phone("+3460000" + i)
+                    .birthDate(LocalDate.of(1990, 1, 1).plusDays(i))
+                    .acceptedPrivacyAt(now)
+                    .acceptedTermsAt(now)
+                    .couponCode("CODE" + i)
+                    .build();
+            lead.setCreatedAt(now.plusSeconds(i));
+            leads.add(lead);
+
+            Promotion promotion = Promotion.builder()
+                    .id((long) i)
+                    .name("Promo " + i)
+                    .description("Descripción " + i)
+                    .legalUrl("https://example.com/legal/" + i)
+                    .url("https://example.com/p/" + i)
+                    .templateHtml("<div><h1>Promo " + i + "</h1><p>Escanea el QR</p></div>")
+                    .startAt(now)
+                    .endAt(now.plusSeconds(86_400))
+                    .build();
+            promotion.setCreatedAt(now);
+            promotions.add(promotion);
+        }
+    }
+
+    @Benchmark
+    public List<PromotionLeadDTO> leadsConvertValue() {
+        return leads.stream().map(l -> objectMapper.convertValue(l, PromotionLeadDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<PromotionLeadDTO> leadsMapper() {
+        return leads.stream().map(PromotionLeadMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public List<PromotionDTO> promotionsConvertValue() {
+        return promotions.stream().map(p -> objectMapper.convertValue(p, PromotionDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<PromotionDTO> promotionsMapper() {
+        return promotions.stream().map(PromotionMapper::toDTO).toList();
+    }
+}
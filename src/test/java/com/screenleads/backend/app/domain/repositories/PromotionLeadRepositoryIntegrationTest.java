@@ -0,0 +1,265 @@
+package com.screenleads.backend.app.domain.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.screenleads.backend.app.domain.model.Company;
+import com.screenleads.backend.app.domain.model.CouponStatus;
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.model.PromotionLead;
+import com.screenleads.backend.app.domain.repositories.PromotionLeadRepository.ExpiredCoupon;
+
+/**
+ * Consultas nativas de PromotionLeadRepository contra un Postgres real
+ * (UPDATE ... FROM ... RETURNING no existe en H2). Necesita Docker; sin él
+ * los tests se saltan. Cada operación va en su propia transacción para que
+ * las concurrentes compitan por las filas de verdad.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("PromotionLeadRepository Integration Tests (Postgres)")
+class PromotionLeadRepositoryIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Autowired
+    private PromotionLeadRepository promotionLeadRepository;
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Company company;
+    private Promotion promotion;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        company = companyRepository.save(Company.builder().name("ACME").build());
+        promotion = promotionRepository.save(Promotion.builder()
+                .name("Promo")
+                .company(company)
+                .startAt(NOW.minus(1, ChronoUnit.DAYS))
+                .endAt(NOW.plus(1, ChronoUnit.DAYS))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        promotionLeadRepository.deleteAllInBatch();
+        promotionRepository.deleteAllInBatch();
+        companyRepository.deleteAllInBatch();
+    }
+
+    private PromotionLead lead(String code, CouponStatus status, Instant expiresAt) {
+        return lead(promotion, code, status, expiresAt);
+    }
+
+    private PromotionLead lead(Promotion promotion, String code, CouponStatus status, Instant expiresAt) {
+        return promotionLeadRepository.save(PromotionLead.builder()
+                .promotion(promotion)
+                .identifierType(LeadIdentifierType.EMAIL)
+                .identifier(code.toLowerCase() + "@example.com")
+                .couponCode(code)
+                .couponStatus(status)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    /** Lanza todas las tareas a la vez (tras un mismo pistoletazo) y espera sus resultados. */
+    private static <T> List<T> concurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks)
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures)
+                results.add(future.get());
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("redeemIfRedeemable should let only one of two concurrent redeems win")
+    void whenRedeemedConcurrently_thenExactlyOneSucceeds() throws Exception {
+        lead("RACE1", CouponStatus.VALID, NOW.plus(1, ChronoUnit.HOURS));
+        Callable<Boolean> redeem = () -> tx.execute(
+                status -> promotionLeadRepository.redeemIfRedeemable("RACE1", NOW).isPresent());
+
+        List<Boolean> results = concurrently(List.of(redeem, redeem));
+
+        assertThat(results).containsExactlyInAnyOrder(true, false);
+        PromotionLead stored = promotionLeadRepository.findByCouponCode("RACE1").orElseThrow();
+        assertThat(stored.getCouponStatus()).isEqualTo(CouponStatus.REDEEMED);
+        assertThat(stored.getRedeemedAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("redeemIfRedeemable should return the redeemed row")
+    void whenRedeemable_thenReturnsRedeemedRow() {
+        lead("OK1", CouponStatus.NEW, null);
+
+        PromotionLead redeemed = tx.execute(
+                status -> promotionLeadRepository.redeemIfRedeemable("OK1", NOW).orElseThrow());
+
+        assertThat(redeemed.getCouponCode()).isEqualTo("OK1");
+        assertThat(redeemed.getCouponStatus()).isEqualTo(CouponStatus.REDEEMED);
+        assertThat(redeemed.getRedeemedAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("redeemIfRedeemable should not redeem an expired coupon")
+    void whenCouponExpired_thenNothingRedeemed() {
+        lead("OLD1", CouponStatus.VALID, NOW.minus(1, ChronoUnit.MINUTES));
+
+        Optional<PromotionLead> redeemed = tx.execute(
+                status -> promotionLeadRepository.redeemIfRedeemable("OLD1", NOW));
+
+        assertThat(redeemed).isEmpty();
+
+        PromotionLead stored = promotionLeadRepository.findByCouponCode("OLD1").orElseThrow();
+        assertThat(stored.getCouponStatus()).isEqualTo(CouponStatus.VALID);
+        assertThat(stored.getRedeemedAt()).isNull();
+    }
+
+    /** Cupones vencidos: dos por expires_at, uno por el fin de su promoción; y dos que no se tocan. */
+    private Promotion dueLeads() {
+        Promotion ended = promotionRepository.save(Promotion.builder()
+                .name("Ended")
+                .company(company)
+                .startAt(NOW.minus(10, ChronoUnit.DAYS))
+                .endAt(NOW.minus(1, ChronoUnit.DAYS))
+                .build());
+        lead("DUE1", CouponStatus.VALID, NOW.minus(2, ChronoUnit.HOURS));
+        lead("DUE2", CouponStatus.NEW, NOW.minus(1, ChronoUnit.HOURS));
+        lead(ended, "DUE3", CouponStatus.VALID, null);
+        lead("LIVE1", CouponStatus.VALID, NOW.plus(1, ChronoUnit.HOURS));
+        lead("GONE1", CouponStatus.REDEEMED, NOW.minus(1, ChronoUnit.HOURS));
+        return ended;
+    }
+
+    private List<ExpiredCoupon> expireDue(int limit) {
+        return tx.execute(status -> promotionLeadRepository.expireDue(NOW, limit));
+    }
+
+    private static List<String> codes(List<ExpiredCoupon> expired) {
+        return expired.stream().map(ExpiredCoupon::getCouponCode).toList();
+    }
+
+    @Test
+    @DisplayName("expireDue should expire at most limit rows per call and return what it expired")
+    void whenExpiringDue_thenRespectsLimitAndReturnsExpiredRows() {
+        Promotion ended = dueLeads();
+
+        List<ExpiredCoupon> first = expireDue(2);
+        List<ExpiredCoupon> second = expireDue(2);
+
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(1);
+        assertThat(expireDue(2)).isEmpty();
+        List<ExpiredCoupon> all = new ArrayList<>(first);
+        all.addAll(second);
+        assertThat(codes(all)).containsExactlyInAnyOrder("DUE1", "DUE2", "DUE3");
+        assertThat(all).filteredOn(c -> c.getCouponCode().equals("DUE3"))
+                .extracting(ExpiredCoupon::getPromotionId).containsExactly(ended.getId());
+        assertThat(all).filteredOn(c -> c.getCouponCode().equals("DUE1"))
+                .extracting(ExpiredCoupon::getPromotionId).containsExactly(promotion.getId());
+        for (String code : List.of("DUE1", "DUE2", "DUE3"))
+            assertThat(promotionLeadRepository.findByCouponCode(code).orElseThrow().getCouponStatus())
+                    .isEqualTo(CouponStatus.EXPIRED);
+        assertThat(promotionLeadRepository.findByCouponCode("LIVE1").orElseThrow().getCouponStatus())
+                .isEqualTo(CouponStatus.VALID);
+        assertThat(promotionLeadRepository.findByCouponCode("GONE1").orElseThrow().getCouponStatus())
+                .isEqualTo(CouponStatus.REDEEMED);
+    }
+
+    @Test
+    @DisplayName("expireDue should skip rows locked by a concurrent sweep instead of waiting for them")
+    void whenAnotherSweepHoldsRows_thenSkipsThemWithoutBlocking() throws Exception {
+        dueLeads();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // El primer barrido se queda con su lote bloqueado hasta que lo soltemos
+            Future<List<String>> holder = pool.submit(() -> tx.execute(status -> {
+                List<String> held = codes(promotionLeadRepository.expireDue(NOW, 2));
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return held;
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Sin SKIP LOCKED este segundo barrido esperaría al primero
+            Future<List<String>> other = pool.submit(() -> codes(expireDue(10)));
+            List<String> skipped = other.get(10, TimeUnit.SECONDS);
+            release.countDown();
+            List<String> held = holder.get(10, TimeUnit.SECONDS);
+
+            assertThat(held).hasSize(2);
+            assertThat(skipped).hasSize(1).doesNotContainAnyElementsOf(held);
+            List<String> all = new ArrayList<>(held);
+            all.addAll(skipped);
+            assertThat(all).containsExactlyInAnyOrder("DUE1", "DUE2", "DUE3");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.screenleads.backend.app.web.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.screenleads.backend.app.application.service.FirebaseStorageService;
+import com.screenleads.backend.app.application.service.MediaAdmissionController;
+import com.screenleads.backend.app.application.service.MediaProcessingService;
+import com.screenleads.backend.app.application.service.MediaService;
+import com.screenleads.backend.app.domain.model.MediaType;
+import com.screenleads.backend.app.web.dto.MediaDTO;
+
+@DisplayName("MediaController /medias/render Tests")
+class MediaControllerRenderTest {
+
+    private static final String BODY = "0123456789abcdefghij";
+
+    @TempDir
+    Path renderRoot;
+
+    private MockMvc mockMvc;
+    private String etag;
+    private String lastModified;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(renderRoot.resolve("clip.mp4"), BODY, StandardCharsets.US_ASCII);
+        MediaService mediaService = mock(MediaService.class);
+        when(mediaService.getMediaById(1L)).thenReturn(Optional.of(new MediaDTO(1L, "clip.mp4", new MediaType())));
+        MediaController controller = new MediaController(mock(FirebaseStorageService.class), mediaService,
+                mock(MediaProcessingService.class), mock(MediaAdmissionController.class), renderRoot);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        MockHttpServletResponse response = mockMvc.perform(get("/medias/render/1")).andReturn().getResponse();
+        etag = response.getHeader(HttpHeaders.ETAG);
+        lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+    }
+
+    @Test
+    @DisplayName("GET sin cabeceras condicionales devuelve el fichero completo con validadores")
+    void whenPlainGet_thenFullBodyWithValidators() throws Exception {
+        mockMvc.perform(get("/medias/render/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    @DisplayName("Range satisfacible devuelve 206 con el fragmento pedido")
+    void whenRangeSatisfiable_thenPartialContent() throws Exception {
+        mockMvc.perform(get("/medias/render/1").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("2345"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/20"));
+    }
+
+    @Test
+    @DisplayName("If-Range con el ETag vigente respeta el Range")
+    void whenIfRangeMatches_thenPartialContent() throws Exception {
+        mockMvc.perform(get("/medias/render/1").header(HttpHeaders.RANGE, "bytes=10-")
+                .header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("abcdefghij"));
+    }
+
+    @Test
+    @DisplayName("If-Range obsoleto ignora el Range y devuelve 200 con el fichero completo")
+    void whenIfRangeStale_thenFullBody() throws Exception {
+        mockMvc.perform(get("/medias/render/1").header(HttpHeaders.RANGE, "bytes=10-")
+                .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    @DisplayName("If-Range con la fecha de Last-Modified respeta el Range")
+    void whenIfRangeDateMatchesLastModified_thenPartialContent() throws Exception {
+        mockMvc.perform(get("/medias/render/1").header(HttpHeaders.RANGE, "bytes=10-")
+                .header(HttpHeaders.IF_RANGE, lastModified))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("abcdefghij"));
+    }
+
+    @Test
+    @DisplayName("If-Range con otra fecha ignora el Range y devuelve 200 con el fichero completo")
+    void whenIfRangeDateDiffers_thenFullBody() throws Exception {
+        mockMvc.perform(get("/medias/render/1").header(HttpHeaders.RANGE, "bytes=10-")
+                .header(HttpHeaders.IF_RANGE, "Mon, 01 Jan 2001 00:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    @DisplayName("If-Range obsoleto no impide el 304 de If-None-Match")
+    void whenIfRangeStaleAndIfNoneMatchMatches_thenNotModified() throws Exception {
+        mockMvc.perform(get("/medias/render/1").header(HttpHeaders.RANGE, "bytes=10-")
+                .header(HttpHeaders.IF_RANGE, "\"stale\"")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("If-None-Match con el ETag vigente devuelve 304 sin cuerpo")
+    void whenIfNoneMatchMatches_thenNotModified() throws Exception {
+        mockMvc.perform(get("/medias/render/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+}
@@ -17,6 +17,33 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DisplayName("AdviceMapper Unit Tests")
 class AdviceMapperTest {
 
+    @Test
+    @DisplayName("toDto should derive effectiveInterval from video duration and leave interval untouched")
+    void whenToDtoWithoutInterval_thenUsesMediaDuration() {
+        // Arrange
+        Media media = new Media();
+        media.setId(10L);
+        media.setSrc("video.mp4");
+        media.setDurationMs(14_200L);
+
+        Advice advice = new Advice();
+        advice.setId(1L);
+        advice.setCustomInterval(false);
+        advice.setMedia(media);
+
+        // Act
+        AdviceDTO result = AdviceMapper.toDto(advice);
+
+        // Assert
+        assertThat(result.getEffectiveInterval()).isEqualTo(15L);
+        assertThat(result.getInterval()).isNull();
+        // Un GET seguido de PUT del mismo DTO no fija el intervalo derivado
+        assertThat(AdviceMapper.toEntity(result).getInterval()).isNull();
+
+        advice.setCustomInterval(true);
+        assertThat(AdviceMapper.toDto(advice).getEffectiveInterval()).isNull();
+    }
+
     @Test
     @DisplayName("toDto should convert Advice entity to AdviceDTO with all fields")
     void whenToDto_thenConvertAllFields() {
@@ -0,0 +1,124 @@
+package com.screenleads.backend.app.web.mapper;
+
+import com.screenleads.backend.app.domain.model.Company;
+import com.screenleads.backend.app.domain.model.LeadIdentifierType;
+import com.screenleads.backend.app.domain.model.LeadLimitType;
+import com.screenleads.backend.app.domain.model.Promotion;
+import com.screenleads.backend.app.domain.model.PromotionLead;
+import com.screenleads.backend.app.web.dto.PromotionDTO;
+import com.screenleads.backend.app.web.dto.PromotionLeadDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PromotionMapper / PromotionLeadMapper Unit Tests")
+class PromotionMapperTest {
+
+    @Test
+    @DisplayName("toDTO should copy promotion columns without touching company or leads")
+    @SuppressWarnings("unchecked")
+    void whenPromotionToDTO_thenCopiesOwnColumnsOnly() {
+        // Arrange
+        Company company = mock(Company.class);
+        Set<PromotionLead> leads = mock(Set.class);
+        Promotion promotion = Promotion.builder()
+                .id(3L)
+                .name("Verano")
+                .legalUrl("https://example.com/legal")
+                .url("https://example.com")
+                .description("2x1")
+                .templateHtml("<h1>2x1</h1>")
+                .leadLimitType(LeadLimitType.ONE_PER_PERSON)
+                .leadIdentifierType(LeadIdentifierType.PHONE)
+                .company(company)
+                .leads(leads)
+                .build();
+
+        // Act
+        PromotionDTO dto = PromotionMapper.toDTO(promotion);
+
+        // Assert
+        assertThat(dto).isEqualTo(new PromotionDTO(3L, "https://example.com/legal", "https://example.com", "2x1",
+                "<h1>2x1</h1>", LeadLimitType.ONE_PER_PERSON, LeadIdentifierType.PHONE));
+        verifyNoInteractions(company, leads);
+    }
+
+    @Test
+    @DisplayName("toEntity should keep nulls so the result works as a patch")
+    void whenPromotionToEntity_thenKeepsNulls() {
+        // Act
+        Promotion promotion = PromotionMapper.toEntity(
+                new PromotionDTO(null, "https://example.com/legal", null, "Nueva", null, null, null));
+
+        // Assert
+        assertThat(promotion.getLegalUrl()).isEqualTo("https://example.com/legal");
+        assertThat(promotion.getDescription()).isEqualTo("Nueva");
+        assertThat(promotion.getLeadIdentifierType()).isNull();
+        assertThat(promotion.getLeadLimitType()).isNull();
+        assertThat(PromotionMapper.toDTO(null)).isNull();
+        assertThat(PromotionMapper.toEntity(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("lead toDTO should read only the promotion id")
+    void whenLeadToDTO_thenReadsPromotionIdOnly() {
+        // Arrange
+        Promotion promotion = mock(Promotion.class);
+        when(promotion.getId()).thenReturn(7L);
+        PromotionLead lead = PromotionLead.builder()
+                .id(11L)
+                .promotion(promotion)
+                .firstName("Ana")
+                .lastName("López")
+                .email("ana@example.com")
+                .phone("+34600000000")
+                .birthDate(LocalDate.of(1990, 2, 3))
+                .acceptedPrivacyAt(Instant.parse("2024-05-01T10:00:00Z"))
+                .build();
+        lead.setCreatedAt(Instant.parse("2024-05-01T10:00:05Z"));
+
+        // Act
+        PromotionLeadDTO dto = PromotionLeadMapper.toDTO(lead);
+
+        // Assert
+        assertThat(dto.id()).isEqualTo(11L);
+        assertThat(dto.promotionId()).isEqualTo(7L);
+        assertThat(dto.email()).isEqualTo("ana@example.com");
+        assertThat(dto.birthDate()).isEqualTo(LocalDate.of(1990, 2, 3));
+        assertThat(dto.acceptedPrivacyAt().toInstant()).isEqualTo(Instant.parse("2024-05-01T10:00:00Z"));
+        assertThat(dto.acceptedTermsAt()).isNull();
+        assertThat(dto.createdAt().toInstant()).isEqualTo(Instant.parse("2024-05-01T10:00:05Z"));
+        verify(promotion).getId();
+        verifyNoMoreInteractions(promotion);
+    }
+
+    @Test
+    @DisplayName("lead toEntity should convert zoned timestamps to instants")
+    void whenLeadToEntity_thenConvertsTimestamps() {
+        // Arrange
+        ZonedDateTime accepted = ZonedDateTime.of(2024, 5, 1, 12, 0, 0, 0, ZoneId.of("Europe/Madrid"));
+
+        // Act
+        PromotionLead lead = PromotionLeadMapper.toEntity(new PromotionLeadDTO(null, 7L, "Ana", null,
+                "ana@example.com", null, null, accepted, accepted, null));
+
+        // Assert
+        assertThat(lead.getFirstName()).isEqualTo("Ana");
+        assertThat(lead.getAcceptedPrivacyAt()).isEqualTo(Instant.parse("2024-05-01T10:00:00Z"));
+        assertThat(lead.getAcceptedTermsAt()).isEqualTo(Instant.parse("2024-05-01T10:00:00Z"));
+        assertThat(lead.getPromotion()).isNull();
+        assertThat(lead.getIdentifier()).isNull();
+    }
+}